@@ -0,0 +1,26 @@
+package com.mendeley.api;
+
+import android.test.AndroidTestCase;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Base of the tests running work in parallel, which provides an executor shut down after each test.
+ */
+public abstract class BaseExecutorTest extends AndroidTestCase {
+
+    protected ExecutorService executor;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.shutdownNow();
+        super.tearDown();
+    }
+}
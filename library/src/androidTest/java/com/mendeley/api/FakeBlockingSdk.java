@@ -0,0 +1,17 @@
+package com.mendeley.api;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+/**
+ * Base of the fakes of {@link BlockingSdk} used by the tests: each call made to the instance
+ * returned by {@link #asSdk()} goes to {@link #invoke}. Checked exceptions declared by the
+ * called method can be thrown directly.
+ */
+public abstract class FakeBlockingSdk implements InvocationHandler {
+
+    public BlockingSdk asSdk() {
+        return (BlockingSdk) Proxy.newProxyInstance(BlockingSdk.class.getClassLoader(),
+                new Class<?>[] { BlockingSdk.class }, this);
+    }
+}
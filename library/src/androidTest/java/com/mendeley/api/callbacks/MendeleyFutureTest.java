@@ -0,0 +1,165 @@
+package com.mendeley.api.callbacks;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.BaseExecutorTest;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.exceptions.UserCancelledException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class MendeleyFutureTest extends BaseExecutorTest {
+
+    @SmallTest
+    public void test_then_chainsResults() throws MendeleyException {
+        final MendeleyFuture<Integer> length = MendeleyFuture.submit(value("mendeley"), executor)
+                .then(new MendeleyFuture.Function<String, Integer>() {
+                    @Override
+                    public Integer apply(String value) {
+                        return value.length();
+                    }
+                });
+
+        assertEquals("chained result", Integer.valueOf(8), length.getResult());
+    }
+
+    @SmallTest
+    public void test_then_wrapsRuntimeException() {
+        final MendeleyFuture<Integer> failing = MendeleyFuture.submit(value("mendeley"), executor)
+                .then(new MendeleyFuture.Function<String, Integer>() {
+                    @Override
+                    public Integer apply(String value) {
+                        throw new IllegalStateException("broken function");
+                    }
+                });
+
+        try {
+            failing.getResult();
+            fail("function error not reported");
+        } catch (MendeleyException e) {
+            assertTrue("original cause", e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @SmallTest
+    public void test_set_notifiesListenersAfterFailingOne() {
+        final MendeleyFuture<String> future = new MendeleyFuture<String>();
+        final String[] notified = new String[1];
+        future.addListener(new MendeleyFuture.Listener<String>() {
+            @Override
+            public void onSuccess(String result) {
+                throw new IllegalStateException("broken listener");
+            }
+
+            @Override
+            public void onFailure(MendeleyException e) {
+            }
+        });
+        future.addListener(new MendeleyFuture.Listener<String>() {
+            @Override
+            public void onSuccess(String result) {
+                notified[0] = result;
+            }
+
+            @Override
+            public void onFailure(MendeleyException e) {
+            }
+        });
+
+        final Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler(null);
+        try {
+            future.set("done");
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(previous);
+        }
+
+        assertEquals("second listener notified", "done", notified[0]);
+    }
+
+    @SmallTest
+    public void test_thenCompose_propagatesFailure() {
+        final MendeleyFuture<String> composed = MendeleyFuture.<String>failed(new MendeleyException("first call failed"))
+                .thenCompose(new MendeleyFuture.AsyncFunction<String, String>() {
+                    @Override
+                    public MendeleyFuture<String> apply(String value) {
+                        fail("dependent call made after a failure");
+                        return null;
+                    }
+                });
+
+        try {
+            composed.getResult();
+            fail("failure not propagated");
+        } catch (MendeleyException e) {
+            assertTrue("original error", e.getMessage().startsWith("first call failed"));
+        }
+    }
+
+    @SmallTest
+    public void test_allOf_joinsInOrder() throws MendeleyException {
+        final MendeleyFuture<List<String>> all = MendeleyFuture.allOf(Arrays.asList(
+                MendeleyFuture.submit(value("a"), executor),
+                MendeleyFuture.submit(value("b"), executor),
+                MendeleyFuture.submit(value("c"), executor)));
+
+        assertEquals("results in order", Arrays.asList("a", "b", "c"), all.getResult());
+    }
+
+    @SmallTest
+    public void test_withTimeout_failsAndInterruptsCall() throws InterruptedException {
+        final MendeleyFuture<String> slow = MendeleyFuture.submit(new MendeleyFuture.Call<String>() {
+            @Override
+            public String call() throws MendeleyException {
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException e) {
+                    throw new MendeleyException("interrupted", e);
+                }
+                return "too late";
+            }
+        }, executor).withTimeout(50, TimeUnit.MILLISECONDS);
+
+        try {
+            slow.getResult();
+            fail("timeout not reported");
+        } catch (MendeleyException e) {
+            assertTrue("timeout cause", e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @SmallTest
+    public void test_cancel_throughRequestHandle() {
+        final MendeleyFuture<String> source = new MendeleyFuture<String>();
+        final MendeleyFuture<Integer> chained = source.then(new MendeleyFuture.Function<String, Integer>() {
+            @Override
+            public Integer apply(String value) {
+                return value.length();
+            }
+        });
+
+        final RequestHandle handle = chained;
+        handle.cancel();
+
+        assertTrue("chained future cancelled", chained.isCancelled());
+        assertTrue("source future cancelled", source.isCancelled());
+        try {
+            chained.getResult();
+            fail("cancellation not reported");
+        } catch (MendeleyException e) {
+            assertTrue("cancelled error", e instanceof UserCancelledException);
+        }
+    }
+
+    private static MendeleyFuture.Call<String> value(final String value) {
+        return new MendeleyFuture.Call<String>() {
+            @Override
+            public String call() {
+                return value;
+            }
+        };
+    }
+}
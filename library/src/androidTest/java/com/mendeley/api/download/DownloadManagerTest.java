@@ -0,0 +1,165 @@
+package com.mendeley.api.download;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.callbacks.file.GetFileCallback;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.exceptions.UserCancelledException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DownloadManagerTest extends AndroidTestCase {
+
+    private static final String FOLDER = System.getProperty("java.io.tmpdir");
+
+    /**
+     * Records the started downloads, which end when the test calls their callback.
+     */
+    private static class FakeDownloader implements FileDownloader {
+        final Map<String, GetFileCallback> running = new LinkedHashMap<String, GetFileCallback>();
+        final List<String> started = new ArrayList<String>();
+        final List<String> cancelled = new ArrayList<String>();
+
+        @Override
+        public void download(DownloadRequest request, GetFileCallback callback) {
+            started.add(request.fileId);
+            running.put(request.fileId, callback);
+        }
+
+        @Override
+        public void cancel(String fileId) {
+            cancelled.add(fileId);
+        }
+
+        void complete(String fileId) {
+            running.remove(fileId).onFileReceived(fileId, fileId + ".pdf");
+        }
+
+        void fail(String fileId, MendeleyException e) {
+            running.remove(fileId).onFileNotReceived(fileId, e);
+        }
+    }
+
+    private static class RecordingCallback implements GetFileCallback {
+        final List<String> received = new ArrayList<String>();
+        final List<String> notReceived = new ArrayList<String>();
+
+        @Override
+        public void onFileDownloadProgress(String fileId, int progress) {
+        }
+
+        @Override
+        public void onFileReceived(String fileId, String fileName) {
+            received.add(fileId);
+        }
+
+        @Override
+        public void onFileNotReceived(String fileId, MendeleyException mendeleyException) {
+            notReceived.add(fileId);
+        }
+    }
+
+    private FakeDownloader downloader;
+    private InMemoryDownloadQueueStore store;
+    private RecordingCallback callback;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        downloader = new FakeDownloader();
+        store = new InMemoryDownloadQueueStore();
+        callback = new RecordingCallback();
+    }
+
+    private DownloadManager createManager(int maxActive, int maxActivePerHost) {
+        final DownloadManager manager = new DownloadManager(downloader, store, maxActive, maxActivePerHost);
+        manager.setCallback(callback);
+        return manager;
+    }
+
+    @SmallTest
+    public void test_start_respectsLimitsAndPriorities() {
+        final DownloadManager manager = createManager(3, 2);
+        manager.enqueue(new DownloadRequest("a1", FOLDER, null, "a.com", 0));
+        manager.enqueue(new DownloadRequest("a2", FOLDER, null, "a.com", 0));
+        manager.enqueue(new DownloadRequest("a3", FOLDER, null, "a.com", 5));
+        manager.enqueue(new DownloadRequest("b1", FOLDER, null, "b.com", 0));
+        manager.enqueue(new DownloadRequest("b2", FOLDER, null, "b.com", 0));
+
+        assertTrue("nothing started before start()", downloader.started.isEmpty());
+        manager.start();
+
+        assertEquals("started by priority, then order, within the host limit",
+                Arrays.asList("a3", "a1", "b1"), downloader.started);
+        assertEquals("active downloads", 3, manager.getActiveCount());
+
+        downloader.complete("a1");
+
+        assertEquals("next download started in the free slot",
+                Arrays.asList("a3", "a1", "b1", "a2"), downloader.started);
+        assertEquals("completion reported", Arrays.asList("a1"), callback.received);
+        assertNull("completed download removed", manager.getState("a1"));
+    }
+
+    @SmallTest
+    public void test_enqueue_deduplicatesAndRaisesPriority() {
+        final DownloadManager manager = createManager(1, 1);
+        manager.start();
+        manager.enqueue(new DownloadRequest("running", FOLDER));
+        manager.enqueue(new DownloadRequest("first", FOLDER));
+        manager.enqueue(new DownloadRequest("second", FOLDER));
+
+        assertFalse("same file not queued twice", manager.enqueue(new DownloadRequest("second", FOLDER, null, 10)));
+        assertFalse("running file not queued twice", manager.enqueue(new DownloadRequest("running", FOLDER)));
+
+        downloader.complete("running");
+
+        assertEquals("raised priority started first", Arrays.asList("running", "second"), downloader.started);
+        assertEquals("queue size", 2, manager.getRequests().size());
+    }
+
+    @SmallTest
+    public void test_pause_keepsDownloadQueuedUntilResumed() {
+        final DownloadManager manager = createManager(1, 1);
+        manager.start();
+        manager.enqueue(new DownloadRequest("paused", FOLDER));
+        manager.enqueue(new DownloadRequest("other", FOLDER));
+
+        manager.pause("paused");
+        assertEquals("running download cancelled", Arrays.asList("paused"), downloader.cancelled);
+        downloader.fail("paused", new UserCancelledException());
+
+        assertTrue("cancellation of a pause not reported", callback.notReceived.isEmpty());
+        assertEquals("state", DownloadManager.State.PAUSED, manager.getState("paused"));
+        assertEquals("next download started", Arrays.asList("paused", "other"), downloader.started);
+
+        manager.resume("paused");
+        downloader.complete("other");
+
+        assertEquals("resumed download started again", Arrays.asList("paused", "other", "paused"), downloader.started);
+    }
+
+    @SmallTest
+    public void test_constructor_restoresPersistedQueue() {
+        final DownloadManager first = createManager(1, 1);
+        first.enqueue(new DownloadRequest("one", FOLDER));
+        first.enqueue(new DownloadRequest("two", FOLDER));
+        first.enqueue(new DownloadRequest("three", FOLDER));
+        first.pause("three");
+
+        // As if the process had been killed
+        final DownloadManager restored = createManager(2, 2);
+        restored.start();
+
+        assertEquals("queued downloads started in order", Arrays.asList("one", "two"), downloader.started);
+        assertEquals("paused download kept paused", DownloadManager.State.PAUSED, restored.getState("three"));
+
+        downloader.complete("one");
+        assertEquals("completed download removed from the store", 2, store.load().size());
+    }
+}
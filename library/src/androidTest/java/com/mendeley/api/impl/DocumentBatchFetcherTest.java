@@ -0,0 +1,89 @@
+package com.mendeley.api.impl;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.BaseExecutorTest;
+import com.mendeley.api.FakeBlockingSdk;
+import com.mendeley.api.callbacks.document.DocumentBatch;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.model.Document;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DocumentBatchFetcherTest extends BaseExecutorTest {
+
+    /**
+     * Returns a document for every id except "missing", recording the highest number of
+     * concurrent requests.
+     */
+    private static class FakeSdk extends FakeBlockingSdk {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().equals("getDocument")) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            final int now = running.incrementAndGet();
+            synchronized (maxRunning) {
+                maxRunning.set(Math.max(maxRunning.get(), now));
+            }
+            try {
+                Thread.sleep(20);
+                final String id = (String) args[0];
+                if (id.equals("missing")) {
+                    throw new MendeleyException("Not found: " + id);
+                }
+                return new Document.Builder().setId(id).build();
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+
+    @SmallTest
+    public void test_fetch_preservesOrderAndReportsFailures() throws Exception {
+        final FakeSdk sdk = new FakeSdk();
+        final DocumentBatchFetcher fetcher = new DocumentBatchFetcher(sdk.asSdk(), executor, 3);
+
+        final DocumentBatch batch = fetcher.fetch(Arrays.asList("a", "missing", "c", "d", "e"), null);
+
+        assertEquals(Arrays.asList("a", "missing", "c", "d", "e"), batch.ids);
+        assertEquals("a", batch.documents.get(0).id);
+        assertNull(batch.documents.get(1));
+        assertEquals("e", batch.documents.get(4).id);
+        assertTrue(batch.hasFailures());
+        assertTrue(batch.failures.containsKey("missing"));
+        assertEquals(4, batch.getRetrievedDocuments().size());
+    }
+
+    @SmallTest
+    public void test_fetch_boundsConcurrency() throws Exception {
+        final FakeSdk sdk = new FakeSdk();
+        final DocumentBatchFetcher fetcher = new DocumentBatchFetcher(sdk.asSdk(), executor, 3);
+
+        fetcher.fetch(Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8", "9", "10"), null);
+
+        assertTrue(sdk.maxRunning.get() <= 3);
+        assertTrue(sdk.maxRunning.get() > 1);
+    }
+
+    @SmallTest
+    public void test_fetch_completesWhenExecutorNeverRunsHelpers() throws Exception {
+        final FakeSdk sdk = new FakeSdk();
+        final DocumentBatchFetcher fetcher = new DocumentBatchFetcher(sdk.asSdk(), new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                // Busy executor
+            }
+        }, 4);
+
+        final DocumentBatch batch = fetcher.fetch(Arrays.asList("a", "b", "c"), null);
+
+        assertEquals(3, batch.getRetrievedDocuments().size());
+    }
+}
@@ -0,0 +1,96 @@
+package com.mendeley.api.impl;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.BaseExecutorTest;
+import com.mendeley.api.FakeBlockingSdk;
+import com.mendeley.api.callbacks.document.DocumentIdList;
+import com.mendeley.api.callbacks.folder.FolderDocumentsBatch;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.model.DocumentId;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class FolderDocumentsBatcherTest extends BaseExecutorTest {
+
+    /**
+     * Holds the content of a single folder, and fails for the document "broken".
+     */
+    private static class FakeSdk extends FakeBlockingSdk {
+        final Set<String> members = Collections.synchronizedSet(new HashSet<String>());
+        final List<String> requested = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("getFolderDocumentIds")) {
+                final List<DocumentId> ids = new ArrayList<DocumentId>();
+                synchronized (members) {
+                    for (String id : members) {
+                        ids.add(new DocumentId.Builder().setDocumentId(id).build());
+                    }
+                }
+                return new DocumentIdList(ids, null, null);
+            }
+            if (method.getName().equals("postDocumentToFolder") || method.getName().equals("deleteDocumentFromFolder")) {
+                final String id = (String) args[1];
+                requested.add(id);
+                if (id.equals("broken")) {
+                    throw new MendeleyException("Failed: " + id);
+                }
+                if (method.getName().equals("postDocumentToFolder")) {
+                    members.add(id);
+                } else {
+                    members.remove(id);
+                }
+                return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    @SmallTest
+    public void test_add_skipsMembersAndDuplicates() throws Exception {
+        final FakeSdk fake = new FakeSdk();
+        fake.members.add("a");
+        final FolderDocumentsBatcher batcher = new FolderDocumentsBatcher(fake.asSdk(), executor, 3);
+
+        final FolderDocumentsBatch batch = batcher.add("folder", Arrays.asList("a", "b", "c", "b", "d"));
+
+        assertEquals(Arrays.asList("b", "c", "d"), batch.changedIds);
+        assertEquals(Arrays.asList("a"), batch.skippedIds);
+        assertFalse(batch.hasFailures());
+        assertEquals(3, fake.requested.size());
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b", "c", "d")), fake.members);
+    }
+
+    @SmallTest
+    public void test_remove_skipsNonMembers() throws Exception {
+        final FakeSdk fake = new FakeSdk();
+        fake.members.addAll(Arrays.asList("a", "b"));
+        final FolderDocumentsBatcher batcher = new FolderDocumentsBatcher(fake.asSdk(), executor, 3);
+
+        final FolderDocumentsBatch batch = batcher.remove("folder", Arrays.asList("a", "x"));
+
+        assertEquals(Arrays.asList("a"), batch.changedIds);
+        assertEquals(Arrays.asList("x"), batch.skippedIds);
+        assertEquals(Collections.singleton("b"), fake.members);
+    }
+
+    @SmallTest
+    public void test_add_reportsFailuresWithoutFailingOthers() throws Exception {
+        final FakeSdk fake = new FakeSdk();
+        final FolderDocumentsBatcher batcher = new FolderDocumentsBatcher(fake.asSdk(), executor, 2);
+
+        final FolderDocumentsBatch batch = batcher.add("folder", Arrays.asList("a", "broken", "c"));
+
+        assertEquals(Arrays.asList("a", "c"), batch.changedIds);
+        assertEquals(Collections.singleton("broken"), batch.failures.keySet());
+        assertTrue(batch.failures.get("broken").getMessage().startsWith("Failed: broken"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.mendeley.api.impl;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.BaseExecutorTest;
+import com.mendeley.api.FakeBlockingSdk;
+import com.mendeley.api.callbacks.group.GroupMemberProfiles;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.model.Photo;
+import com.mendeley.api.model.Profile;
+import com.mendeley.api.model.UserRole;
+import com.mendeley.api.network.ProfileCache;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ProfileHydratorTest extends BaseExecutorTest {
+
+    /**
+     * Returns a profile with a photo for every id except "missing", recording the requests.
+     */
+    private static class FakeSdk extends FakeBlockingSdk {
+        final List<String> profileRequests = Collections.synchronizedList(new ArrayList<String>());
+        final List<String> imageRequests = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("getProfile")) {
+                final String id = (String) args[0];
+                profileRequests.add(id);
+                if (id.equals("missing")) {
+                    throw new MendeleyException("Not found: " + id);
+                }
+                return profile(id);
+            }
+            if (method.getName().equals("getImage")) {
+                imageRequests.add((String) args[0]);
+                return new byte[0];
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private static Profile profile(String id) {
+        return new Profile.Builder().setId(id).setPhoto(new Photo(null, null, "square/" + id)).build();
+    }
+
+    private static List<UserRole> members(String... profileIds) {
+        final List<UserRole> members = new ArrayList<UserRole>();
+        for (String id : profileIds) {
+            members.add(new UserRole.Builder().setProfileId(id).build());
+        }
+        return members;
+    }
+
+    @SmallTest
+    public void test_hydrate_deduplicatesAndUsesCache() throws Exception {
+        final FakeSdk fake = new FakeSdk();
+        final ProfileCache cache = new ProfileCache();
+        cache.put(profile("cached"));
+        final ProfileHydrator hydrator = new ProfileHydrator(fake.asSdk(), cache, executor, 3);
+
+        final GroupMemberProfiles result = hydrator.hydrate(members("a", "cached", "b", "a"), false);
+
+        assertEquals(2, fake.profileRequests.size());
+        assertEquals(Arrays.asList("a", "cached", "b", "a"), Arrays.asList(result.profiles.get(0).id,
+                result.profiles.get(1).id, result.profiles.get(2).id, result.profiles.get(3).id));
+        assertNotNull(cache.get("b"));
+        assertTrue(fake.imageRequests.isEmpty());
+    }
+
+    @SmallTest
+    public void test_hydrate_reportsFailuresAndPrefetchesPhotos() throws Exception {
+        final FakeSdk fake = new FakeSdk();
+        final ProfileCache cache = new ProfileCache();
+        cache.put(profile("cached"));
+        final ProfileHydrator hydrator = new ProfileHydrator(fake.asSdk(), cache, executor, 2);
+
+        final GroupMemberProfiles result = hydrator.hydrate(members("a", "missing", "cached"), true);
+
+        assertNull(result.profiles.get(1));
+        assertEquals(Collections.singleton("missing"), result.failures.keySet());
+        assertEquals(2, fake.imageRequests.size());
+        assertTrue(fake.imageRequests.contains("square/cached"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class DecodingInputStreamTest extends AndroidTestCase {
+
+    private static final String BODY = "{\"title\":\"A title\",\"abstract\":\"An abstract, an abstract, an abstract, an abstract\"}";
+
+    @SmallTest
+    public void test_read_gzip() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final GZIPOutputStream gzip = new GZIPOutputStream(compressed);
+        gzip.write(BODY.getBytes("UTF-8"));
+        gzip.close();
+
+        final DecodingInputStream is = new DecodingInputStream("url", "gzip", new ByteArrayInputStream(compressed.toByteArray()));
+
+        assertEquals("decoded body", BODY, readFully(is));
+        assertEquals("compressed bytes", compressed.size(), is.getCompressedBytes());
+        assertEquals("uncompressed bytes", BODY.getBytes("UTF-8").length, is.getUncompressedBytes());
+        assertTrue("stream at end", is.isAtEnd());
+    }
+
+    @SmallTest
+    public void test_read_zlibDeflate() throws IOException {
+        assertEquals("decoded body", BODY, readFully(new DecodingInputStream("url", "deflate", deflate(false))));
+    }
+
+    @SmallTest
+    public void test_read_rawDeflate() throws IOException {
+        assertEquals("decoded body", BODY, readFully(new DecodingInputStream("url", "deflate", deflate(true))));
+    }
+
+    @SmallTest
+    public void test_read_identity() throws IOException {
+        final DecodingInputStream is = new DecodingInputStream("url", null, new ByteArrayInputStream(BODY.getBytes("UTF-8")));
+
+        assertEquals("body", BODY, readFully(is));
+        assertEquals("same byte counts", is.getCompressedBytes(), is.getUncompressedBytes());
+    }
+
+    @SmallTest
+    public void test_close_notifiesListener() throws IOException {
+        final long[] reported = new long[2];
+        NetworkUtils.setTransferListener(new TransferListener() {
+            @Override
+            public void onResponseRead(String url, String contentEncoding, long compressedBytes, long uncompressedBytes) {
+                reported[0] = compressedBytes;
+                reported[1] = uncompressedBytes;
+            }
+        });
+        try {
+            final DecodingInputStream is = new DecodingInputStream("url", null, new ByteArrayInputStream(BODY.getBytes("UTF-8")));
+            readFully(is);
+            is.close();
+
+            assertEquals("reported compressed bytes", is.getCompressedBytes(), reported[0]);
+            assertEquals("reported uncompressed bytes", is.getUncompressedBytes(), reported[1]);
+        } finally {
+            NetworkUtils.setTransferListener(null);
+        }
+    }
+
+    private static InputStream deflate(boolean raw) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final DeflaterOutputStream deflater = new DeflaterOutputStream(compressed, new Deflater(Deflater.DEFAULT_COMPRESSION, raw));
+        deflater.write(BODY.getBytes("UTF-8"));
+        deflater.close();
+        return new ByteArrayInputStream(compressed.toByteArray());
+    }
+
+    private static String readFully(InputStream is) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[16];
+        int count;
+        while ((count = is.read(buffer)) != -1) {
+            os.write(buffer, 0, count);
+        }
+        return new String(os.toByteArray(), "UTF-8");
+    }
+}
@@ -0,0 +1,80 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+public class DownloadEngineTest extends AndroidTestCase {
+
+    private File file;
+    private RandomAccessFile randomAccessFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = new File(System.getProperty("java.io.tmpdir"), "download-engine-test-" + System.nanoTime());
+        randomAccessFile = new RandomAccessFile(file, "rw");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        randomAccessFile.close();
+        file.delete();
+        super.tearDown();
+    }
+
+    private static class CountingListener implements DownloadEngine.Listener {
+        long written;
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void onBytesWritten(int count) {
+            written += count;
+        }
+    }
+
+    private byte[] content(int length) {
+        final byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (i * 7);
+        }
+        return content;
+    }
+
+    @SmallTest
+    public void test_copy_writesBodyAtPosition() throws Exception {
+        final byte[] content = content(3 * DownloadEngine.BUFFER_SIZE + 10);
+        final FileChannel channel = randomAccessFile.getChannel();
+        final CountingListener listener = new CountingListener();
+
+        final long copied = DownloadEngine.copy(new ByteArrayInputStream(content), channel, 100, -1, listener);
+
+        assertEquals("bytes copied", content.length, copied);
+        assertEquals("bytes reported", content.length, listener.written);
+        assertEquals("file length", 100 + content.length, channel.size());
+        final ByteBuffer written = ByteBuffer.allocate(content.length);
+        channel.read(written, 100);
+        assertTrue("file content", Arrays.equals(content, written.array()));
+    }
+
+    @SmallTest
+    public void test_copy_stopsAtMaxBytes() throws Exception {
+        final byte[] content = content(1000);
+        final FileChannel channel = randomAccessFile.getChannel();
+
+        final long copied = DownloadEngine.copy(new ByteArrayInputStream(content), channel, 0, 600, new CountingListener());
+
+        assertEquals("bytes copied", 600, copied);
+        assertEquals("file length", 600, channel.size());
+    }
+}
@@ -0,0 +1,103 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.util.Utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+
+public class FileContentStoreTest extends AndroidTestCase {
+
+    private File directory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = new File(System.getProperty("java.io.tmpdir"), "file-content-store-test-" + System.nanoTime());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        super.tearDown();
+    }
+
+    private static byte[] content(int length, int seed) {
+        final byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (i * seed);
+        }
+        return content;
+    }
+
+    private static String sha1(byte[] content) {
+        return Utils.toHex(FileContentStore.newDigest().digest(content));
+    }
+
+    @SmallTest
+    public void test_put_storesVerifiedContentOnce() throws Exception {
+        final FileContentStore store = new FileContentStore(directory, 10000);
+        final byte[] content = content(1000, 3);
+        final String hash = sha1(content);
+
+        assertFalse("not stored yet", store.contains(hash));
+        final File stored = store.put(hash, new ByteArrayInputStream(content));
+
+        assertTrue("stored", store.contains(hash));
+        assertEquals("opened file", stored, store.open(hash));
+        assertEquals("content length", 1000, stored.length());
+
+        store.put(hash.toUpperCase(), new ByteArrayInputStream(content));
+        assertEquals("same content stored once", 1000, store.getSize());
+    }
+
+    @SmallTest
+    public void test_put_rejectsContentNotMatchingHash() throws Exception {
+        final FileContentStore store = new FileContentStore(directory, 10000);
+        final String hash = sha1(content(1000, 3));
+
+        try {
+            store.put(hash, new ByteArrayInputStream(content(1000, 5)));
+            fail("corrupted content stored");
+        } catch (IOException e) {
+            // expected
+        }
+
+        assertFalse("nothing stored", store.contains(hash));
+        assertEquals("temporary file deleted", 0, directory.listFiles().length);
+    }
+
+    @SmallTest
+    public void test_put_evictsLeastRecentlyOpened() throws Exception {
+        final FileContentStore store = new FileContentStore(directory, 2500);
+        final byte[] first = content(1000, 3);
+        final byte[] second = content(1000, 5);
+        final byte[] third = content(1000, 7);
+
+        store.put(sha1(first), new ByteArrayInputStream(first)).setLastModified(1000000);
+        store.put(sha1(second), new ByteArrayInputStream(second)).setLastModified(2000000);
+        // Opening the first content makes the second the least recently opened
+        store.open(sha1(first));
+        store.put(sha1(third), new ByteArrayInputStream(third));
+
+        assertTrue("recently opened content kept", store.contains(sha1(first)));
+        assertFalse("least recently opened content evicted", store.contains(sha1(second)));
+        assertTrue("new content kept", store.contains(sha1(third)));
+    }
+
+    @SmallTest
+    public void test_isValidHash_rejectsPaths() {
+        assertTrue("sha-1", FileContentStore.isValidHash("da39a3ee5e6b4b0d3255bfef95601890afd80709"));
+        assertFalse("null", FileContentStore.isValidHash(null));
+        assertFalse("path", FileContentStore.isValidHash("../../../../../../../../../../../etc/pass"));
+    }
+}
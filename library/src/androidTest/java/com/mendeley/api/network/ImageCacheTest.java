@@ -0,0 +1,120 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.exceptions.MendeleyException;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ImageCacheTest extends AndroidTestCase {
+
+    private File directory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = new File(System.getProperty("java.io.tmpdir"), "image-cache-test-" + System.nanoTime());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        super.tearDown();
+    }
+
+    @SmallTest
+    public void test_get_coalescesConcurrentDownloads() throws Exception {
+        final ImageCache cache = new ImageCache(ImageCache.DEFAULT_MEMORY_SIZE);
+        final CountDownLatch downloading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger downloads = new AtomicInteger();
+        final ImageCache.Downloader downloader = new ImageCache.Downloader() {
+            @Override
+            public byte[] download(String url) throws MendeleyException {
+                downloads.incrementAndGet();
+                downloading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new MendeleyException("interrupted", e);
+                }
+                return new byte[] { 1, 2, 3 };
+            }
+        };
+
+        final byte[][] results = new byte[2][];
+        final Thread first = fetch(cache, downloader, results, 0);
+        assertTrue("download started", downloading.await(5, TimeUnit.SECONDS));
+        final Thread second = fetch(cache, downloader, results, 1);
+        while (second.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        first.join();
+        second.join();
+
+        assertEquals("single download", 1, downloads.get());
+        assertEquals("one request coalesced", 1, cache.getCoalescedCount());
+        assertSame("same image shared", results[0], results[1]);
+        assertSame("served from memory afterwards", results[0], cache.getFromMemory("url"));
+    }
+
+    @SmallTest
+    public void test_memory_boundedByBytes() {
+        final ImageCache cache = new ImageCache(100);
+
+        cache.put("url1", new byte[40]);
+        cache.put("url2", new byte[40]);
+        cache.getFromMemory("url1");
+        cache.put("url3", new byte[40]);
+        cache.put("huge", new byte[200]);
+
+        assertNotNull("recently used image kept", cache.getFromMemory("url1"));
+        assertNull("least recently used image evicted", cache.getFromMemory("url2"));
+        assertNull("image larger than the cache not kept", cache.getFromMemory("huge"));
+        assertEquals("size", 80, cache.getMemorySize());
+    }
+
+    @SmallTest
+    public void test_disk_evictsLeastRecentlyUsed() {
+        final ImageCache cache = new ImageCache(ImageCache.DEFAULT_MEMORY_SIZE, directory, 100);
+        cache.put("url1", new byte[40]);
+        cache.put("url2", new byte[40]);
+        for (File file : directory.listFiles()) {
+            file.setLastModified(System.currentTimeMillis() - 60000);
+        }
+        final ImageCache reopened = new ImageCache(ImageCache.DEFAULT_MEMORY_SIZE, directory, 100);
+        assertNotNull("image read from disk", reopened.getCached("url1"));
+        reopened.put("url3", new byte[40]);
+
+        final ImageCache fresh = new ImageCache(ImageCache.DEFAULT_MEMORY_SIZE, directory, 100);
+        assertNotNull("recently read image kept", fresh.getCached("url1"));
+        assertNull("least recently used image evicted", fresh.getCached("url2"));
+        assertNotNull("new image stored", fresh.getCached("url3"));
+    }
+
+    private static Thread fetch(final ImageCache cache, final ImageCache.Downloader downloader,
+                                final byte[][] results, final int index) {
+        final Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    results[index] = cache.get("url", downloader);
+                } catch (MendeleyException ignored) {
+                }
+            }
+        };
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,91 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.exceptions.UserCancelledException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class InFlightRequestsTest extends AndroidTestCase {
+
+    private static final String URL = "https://api.mendeley.com/documents/1";
+    private static final String CONTENT_TYPE = "application/vnd.mendeley-document.1+json";
+
+    @SmallTest
+    public void test_join_sharesResultOfLeader() throws Exception {
+        final InFlightRequests requests = new InFlightRequests();
+        final InFlightRequests.Flight leader = requests.join("GET", URL, CONTENT_TYPE);
+        final InFlightRequests.Flight follower = requests.join("GET", URL, CONTENT_TYPE);
+        final InFlightRequests.Flight other = requests.join("GET", URL, "application/json");
+
+        assertTrue(leader.isLeader());
+        assertFalse(follower.isLeader());
+        assertTrue(other.isLeader());
+        assertEquals(1, requests.getCoalescedCount());
+
+        final Object model = new Object();
+        leader.complete("{}", model);
+        final InFlightRequests.Response response = follower.await();
+
+        assertEquals("{}", response.body);
+        assertSame(model, response.model);
+        assertTrue("Completed calls are not joined any more", requests.join("GET", URL, CONTENT_TYPE).isLeader());
+    }
+
+    @SmallTest
+    public void test_await_throwsFailureOfLeader() throws Exception {
+        final InFlightRequests requests = new InFlightRequests();
+        final InFlightRequests.Flight leader = requests.join("GET", URL, CONTENT_TYPE);
+        final InFlightRequests.Flight follower = requests.join("GET", URL, CONTENT_TYPE);
+
+        leader.fail(new MendeleyException("failed"));
+        try {
+            follower.await();
+            fail("Expected the failure of the leader");
+        } catch (MendeleyException e) {
+            assertTrue(e.getMessage().startsWith("failed"));
+        }
+    }
+
+    @SmallTest
+    public void test_release_abandonsCallOnlyWhenNoRequestWaits() throws Exception {
+        final InFlightRequests requests = new InFlightRequests();
+        final InFlightRequests.Flight leader = requests.join("GET", URL, CONTENT_TYPE);
+        final InFlightRequests.Flight follower = requests.join("GET", URL, CONTENT_TYPE);
+
+        assertFalse(leader.release());
+        assertTrue(follower.release());
+        assertEquals(0, requests.getInFlightCount());
+    }
+
+    @SmallTest
+    public void test_await_interruptedFollowerLeavesFlight() throws Exception {
+        final InFlightRequests requests = new InFlightRequests();
+        final InFlightRequests.Flight leader = requests.join("GET", URL, CONTENT_TYPE);
+        final InFlightRequests.Flight follower = requests.join("GET", URL, CONTENT_TYPE);
+        final AtomicReference<Exception> thrown = new AtomicReference<Exception>();
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        final Thread waiter = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    follower.await();
+                } catch (MendeleyException e) {
+                    thrown.set(e);
+                }
+                finished.countDown();
+            }
+        };
+        waiter.start();
+        waiter.interrupt();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertTrue(thrown.get() instanceof UserCancelledException);
+        assertTrue("The leader is the only request left", leader.release());
+    }
+}
@@ -467,6 +467,49 @@ public class JsonParserTest extends InstrumentationTestCase {
 
         JSONAssert.assertEquals(expectedString, actualString, false);
     }
+
+    @SmallTest
+    public void test_jsonFromFile_isParsedBack() throws JSONException {
+        File expectedFile = getTestFile();
+
+        File actualFile = JsonParser.parseFile(JsonParser.jsonFromFile(expectedFile));
+
+        assertEquals("id", expectedFile.id, actualFile.id);
+        assertEquals("document_id", expectedFile.documentId, actualFile.documentId);
+        assertEquals("mime_type", expectedFile.mimeType, actualFile.mimeType);
+        assertEquals("file_name", expectedFile.fileName, actualFile.fileName);
+        assertEquals("filehash", expectedFile.fileHash, actualFile.fileHash);
+        assertEquals("size", expectedFile.fileSize, actualFile.fileSize);
+    }
+
+    @SmallTest
+    public void test_jsonFromGroup_isParsedBack() throws JSONException {
+        Group expectedGroup = getTestGroup();
+
+        Group actualGroup = JsonParser.parseGroup(JsonParser.jsonFromGroup(expectedGroup));
+
+        assertEquals("id", expectedGroup.id, actualGroup.id);
+        assertEquals("name", expectedGroup.name, actualGroup.name);
+        assertEquals("access_level", expectedGroup.accessLevel, actualGroup.accessLevel);
+        assertEquals("role", expectedGroup.role, actualGroup.role);
+        assertEquals("disciplines", expectedGroup.disciplines, actualGroup.disciplines);
+        assertPhoto(expectedGroup.photo, actualGroup.photo);
+    }
+
+    @SmallTest
+    public void test_jsonFromProfile_isParsedBack() throws JSONException {
+        Profile expectedProfile = getTestProfile();
+
+        Profile actualProfile = JsonParser.parseProfile(JsonParser.jsonFromProfile(expectedProfile));
+
+        assertEquals("id", expectedProfile.id, actualProfile.id);
+        assertEquals("display_name", expectedProfile.displayName, actualProfile.displayName);
+        assertEquals("verified", expectedProfile.verified, actualProfile.verified);
+        assertEquals("discipline", expectedProfile.discipline.name, actualProfile.discipline.name);
+        assertEquals("education", expectedProfile.education.get(0).degree, actualProfile.education.get(0).degree);
+        assertEquals("employment classes", expectedProfile.employment.get(0).classes, actualProfile.employment.get(0).classes);
+        assertPhoto(expectedProfile.photo, actualProfile.photo);
+    }
 	
 	@SmallTest
 	public void test_parseDocumentIds()
@@ -0,0 +1,101 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.model.Annotation;
+import com.mendeley.api.model.Document;
+import com.mendeley.api.model.File;
+import com.mendeley.api.model.Folder;
+
+import org.json.JSONException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public class JsonStreamParserTest extends AndroidTestCase {
+
+    private static final String DOCUMENTS =
+            "[{\"id\":\"doc1\",\"title\":\"First title\",\"type\":\"journal\",\"year\":2014,\"read\":true," +
+            "\"abstract\":\"Line one\\nline two\",\"source\":null,\"unknown\":{\"nested\":[1,2]}," +
+            "\"authors\":[{\"first_name\":\"Ada\",\"last_name\":\"Lovelace\"},{\"last_name\":\"Turing\"}]," +
+            "\"identifiers\":{\"doi\":\"10.1000/1\",\"pmid\":null},\"tags\":[\"a\",\"b\"]}," +
+            "{\"id\":\"doc2\",\"title\":\"Second title\"}]";
+
+    @SmallTest
+    public void test_parseDocumentList_matchesJsonParser() throws IOException, JSONException {
+        final List<Document> streamed = JsonStreamParser.parseDocumentList(toStream(DOCUMENTS));
+        final List<Document> parsed = JsonParser.parseDocumentList(DOCUMENTS);
+
+        assertEquals("number of documents", parsed.size(), streamed.size());
+        for (int i = 0; i < parsed.size(); i++) {
+            assertEquals("document id", parsed.get(i).id, streamed.get(i).id);
+            assertEquals("document title", parsed.get(i).title, streamed.get(i).title);
+        }
+
+        final Document first = streamed.get(0);
+        assertEquals("year", Integer.valueOf(2014), first.year);
+        assertEquals("abstract keeps newlines", "Line one\nline two", first.abstractString);
+        assertNull("null values are skipped", first.source);
+        assertEquals("number of authors", 2, first.authors.size());
+        assertEquals("author last name", "Turing", first.authors.get(1).lastName);
+        assertEquals("identifier", "10.1000/1", first.identifiers.get("doi"));
+        assertFalse("null identifier skipped", first.identifiers.containsKey("pmid"));
+        assertEquals("tags", 2, first.tags.size());
+    }
+
+    @SmallTest
+    public void test_parseFileList() throws IOException, JSONException {
+        final String json = "[{\"id\":\"file1\",\"document_id\":\"doc1\",\"mime_type\":\"application/pdf\"," +
+                "\"file_name\":\"paper.pdf\",\"filehash\":\"abc\",\"size\":1024}]";
+
+        final List<File> files = JsonStreamParser.parseFileList(toStream(json));
+
+        assertEquals("number of files", 1, files.size());
+        assertEquals("file", JsonParser.parseFileList(json).get(0), files.get(0));
+    }
+
+    @SmallTest
+    public void test_parseFolderList_withoutName() throws IOException {
+        try {
+            JsonStreamParser.parseFolderList(toStream("[{\"id\":\"folder1\"}]"));
+            fail("folder without a name must not be parsed");
+        } catch (JSONException expected) {
+        }
+    }
+
+    @SmallTest
+    public void test_parseFolderList() throws IOException, JSONException {
+        final String json = "[{\"id\":\"folder1\",\"name\":\"Folder\",\"parent_id\":\"folder0\"}]";
+
+        final List<Folder> folders = JsonStreamParser.parseFolderList(toStream(json));
+
+        assertEquals("folder", JsonParser.parseFolderList(json).get(0), folders.get(0));
+    }
+
+    @SmallTest
+    public void test_parseAnnotationList() throws IOException, JSONException {
+        final String json = "[{\"id\":\"ann1\",\"type\":\"highlight\",\"color\":{\"r\":255,\"g\":0,\"b\":0}," +
+                "\"positions\":[{\"page\":1,\"top_left\":{\"x\":1.5,\"y\":2},\"bottom_right\":{\"x\":3,\"y\":4}}]," +
+                "\"privacy_level\":\"private\",\"document_id\":\"doc1\"}]";
+
+        final List<Annotation> annotations = JsonStreamParser.parseAnnotationList(toStream(json));
+
+        assertEquals("annotation", JsonParser.parseAnnotationList(json).get(0), annotations.get(0));
+    }
+
+    @SmallTest
+    public void test_parseDocumentList_malformed() throws IOException {
+        try {
+            JsonStreamParser.parseDocumentList(toStream("[{\"id\":\"doc1\",\"year\":\"not a year\"}]"));
+            fail("malformed json must be reported");
+        } catch (JSONException expected) {
+        }
+    }
+
+    private static InputStream toStream(String json) throws IOException {
+        return new ByteArrayInputStream(json.getBytes("UTF-8"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+public class PartialDownloadTest extends AndroidTestCase {
+
+    private File directory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = new File(System.getProperty("java.io.tmpdir"), "partial-download-test-" + System.nanoTime());
+        directory.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        super.tearDown();
+    }
+
+    /**
+     * Connection returning canned response headers, and never connecting.
+     */
+    private static class FakeConnection extends HttpURLConnection {
+        final Map<String, String> headers = new HashMap<String, String>();
+        int code = 200;
+
+        FakeConnection() throws IOException {
+            super(new URL("https://example.com/file"));
+        }
+
+        @Override
+        public String getHeaderField(String name) {
+            return headers.get(name);
+        }
+
+        @Override
+        public int getResponseCode() {
+            return code;
+        }
+
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+    }
+
+    private PartialDownload startDownload(String etag, byte[] firstBytes) throws IOException {
+        final FakeConnection response = new FakeConnection();
+        response.headers.put("ETag", etag);
+        final PartialDownload partial = PartialDownload.forFile(directory.getPath(), "file-id");
+        partial.start(response, "paper.pdf", 100);
+        final OutputStream out = partial.openOutput(false);
+        out.write(firstBytes);
+        out.close();
+        return partial;
+    }
+
+    @SmallTest
+    public void test_partialDownload_isResumedAfterRestart() throws Exception {
+        startDownload("\"v1\"", new byte[40]);
+
+        final PartialDownload restored = PartialDownload.forFile(directory.getPath(), "file-id");
+        final FakeConnection request = new FakeConnection();
+        restored.addRangeHeaders(request);
+
+        assertEquals(40, restored.getOffset());
+        assertEquals("paper.pdf", restored.getFileName());
+        assertEquals(100, restored.getTotalLength());
+        assertEquals("bytes=40-", request.getRequestProperty("Range"));
+        assertEquals("\"v1\"", request.getRequestProperty("If-Range"));
+
+        final FakeConnection response = new FakeConnection();
+        response.code = 206;
+        response.headers.put("Content-Range", "bytes 40-99/100");
+        assertTrue(restored.isResumedBy(response));
+
+        response.headers.put("Content-Range", "bytes 0-99/100");
+        assertFalse(restored.isResumedBy(response));
+
+        response.headers.put("Content-Range", "bytes 40-119/120");
+        assertFalse(restored.isResumedBy(response));
+    }
+
+    @SmallTest
+    public void test_partialDownload_withoutStrongValidatorIsNotResumed() throws Exception {
+        startDownload("W/\"weak\"", new byte[40]);
+
+        final PartialDownload restored = PartialDownload.forFile(directory.getPath(), "file-id");
+        final FakeConnection request = new FakeConnection();
+        restored.addRangeHeaders(request);
+
+        assertEquals(0, restored.getOffset());
+        assertNull(request.getRequestProperty("Range"));
+    }
+
+    @SmallTest
+    public void test_complete_movesFileAndForgetsDownload() throws Exception {
+        final PartialDownload partial = startDownload("\"v1\"", new byte[100]);
+        final File target = new File(directory, "paper.pdf");
+
+        assertTrue(partial.complete(target));
+
+        assertEquals(100, target.length());
+        assertEquals(0, PartialDownload.forFile(directory.getPath(), "file-id").getOffset());
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    @SmallTest
+    public void test_parseContentRange() {
+        assertEquals(100, PartialDownload.parseContentRangeStart("bytes 100-199/200"));
+        assertEquals(200, PartialDownload.parseContentRangeTotal("bytes 100-199/200"));
+        assertEquals(-1, PartialDownload.parseContentRangeTotal("bytes 100-199/*"));
+        assertEquals(-1, PartialDownload.parseContentRangeStart("bytes */200"));
+        assertEquals(-1, PartialDownload.parseContentRangeStart(null));
+    }
+}
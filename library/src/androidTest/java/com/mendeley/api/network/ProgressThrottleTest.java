@@ -0,0 +1,54 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ProgressThrottleTest extends AndroidTestCase {
+
+    private final List<Integer> dispatched = new ArrayList<Integer>();
+
+    private ProgressThrottle.Target target() {
+        return new ProgressThrottle.Target() {
+            @Override
+            public void onProgress(int percent) {
+                dispatched.add(percent);
+            }
+        };
+    }
+
+    @SmallTest
+    public void test_update_dispatchesEachPercentOnce() {
+        final ProgressThrottle throttle = new ProgressThrottle(1000, 0, target());
+
+        for (long downloaded = 0; downloaded <= 30; downloaded += 5) {
+            throttle.update(downloaded);
+        }
+
+        assertEquals("percentages", Arrays.asList(0, 1, 2, 3), dispatched);
+    }
+
+    @SmallTest
+    public void test_update_waitsForIntervalButAlwaysDispatchesCompletion() {
+        final ProgressThrottle throttle = new ProgressThrottle(100, 60000, target());
+
+        for (long downloaded = 1; downloaded <= 100; downloaded++) {
+            throttle.update(downloaded);
+        }
+
+        assertEquals("percentages", Arrays.asList(1, 100), dispatched);
+    }
+
+    @SmallTest
+    public void test_update_countsBeyondTwoGigabytes() {
+        final long length = 5L * 1024 * 1024 * 1024;
+        final ProgressThrottle throttle = new ProgressThrottle(length, 0, target());
+
+        throttle.update(length / 2);
+
+        assertEquals("percentages", Arrays.asList(50), dispatched);
+    }
+}
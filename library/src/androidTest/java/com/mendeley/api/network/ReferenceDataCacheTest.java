@@ -0,0 +1,77 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.exceptions.MendeleyException;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+public class ReferenceDataCacheTest extends AndroidTestCase {
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    private File file;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = new File(System.getProperty("java.io.tmpdir"), "reference-data-test-" + System.nanoTime() + ".json");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        file.delete();
+        super.tearDown();
+    }
+
+    @SmallTest
+    public void test_get_bundledValuesBeforeFirstFetch() {
+        final ReferenceDataCache cache = new ReferenceDataCache();
+
+        assertEquals("bundled document type", "Journal", cache.get(ReferenceDataCache.Kind.DOCUMENT_TYPES).get("journal"));
+        assertEquals("bundled identifier type", "DOI", cache.get(ReferenceDataCache.Kind.IDENTIFIER_TYPES).get("doi"));
+        assertTrue("bundled values expired", cache.isExpired(ReferenceDataCache.Kind.DOCUMENT_TYPES));
+    }
+
+    @SmallTest
+    public void test_put_persistedAcrossInstances() {
+        new ReferenceDataCache(file, ReferenceDataCache.DEFAULT_TTL_MILLIS)
+                .put(ReferenceDataCache.Kind.IDENTIFIER_TYPES, Collections.singletonMap("doi", "Digital Object Identifier"));
+
+        final ReferenceDataCache cache = new ReferenceDataCache(file, ReferenceDataCache.DEFAULT_TTL_MILLIS);
+
+        assertFalse("fetched values not expired", cache.isExpired(ReferenceDataCache.Kind.IDENTIFIER_TYPES));
+        assertEquals("fetched values read from file", "Digital Object Identifier",
+                cache.get(ReferenceDataCache.Kind.IDENTIFIER_TYPES).get("doi"));
+        assertTrue("other kind still bundled", cache.isExpired(ReferenceDataCache.Kind.DOCUMENT_TYPES));
+    }
+
+    @SmallTest
+    public void test_get_refreshesExpiredValuesAfterReturningThem() {
+        final ReferenceDataCache cache = new ReferenceDataCache();
+        final int[] loads = new int[1];
+        final ReferenceDataCache.Loader loader = new ReferenceDataCache.Loader() {
+            @Override
+            public Map<String, String> load() throws MendeleyException {
+                loads[0]++;
+                return Collections.singletonMap("journal", "Journal Article");
+            }
+        };
+
+        final Map<String, String> first = cache.get(ReferenceDataCache.Kind.DOCUMENT_TYPES, loader, DIRECT_EXECUTOR);
+        final Map<String, String> second = cache.get(ReferenceDataCache.Kind.DOCUMENT_TYPES, loader, DIRECT_EXECUTOR);
+
+        assertEquals("bundled value returned while refreshing", "Journal", first.get("journal"));
+        assertEquals("refreshed value returned next", "Journal Article", second.get("journal"));
+        assertEquals("fresh values not loaded again", 1, loads[0]);
+    }
+}
@@ -0,0 +1,64 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.params.RequestPriority;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class RequestSchedulerTest extends AndroidTestCase {
+
+    private final RequestScheduler scheduler = new RequestScheduler(1, 1, 1);
+
+    @SmallTest
+    public void test_execute_limitsConcurrencyPerLane() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(2);
+
+        scheduler.execute(blocking(started, release), RequestPriority.BULK, null);
+        scheduler.execute(blocking(started, release), RequestPriority.BULK, null);
+        scheduler.execute(blocking(started, release), RequestPriority.INTERACTIVE, null);
+
+        assertTrue("one request per lane started", started.await(5, TimeUnit.SECONDS));
+        assertEquals("bulk running", 1, scheduler.getRunningCount(RequestPriority.BULK));
+        assertEquals("bulk queued", 1, scheduler.getQueuedCount(RequestPriority.BULK));
+        assertEquals("interactive running", 1, scheduler.getRunningCount(RequestPriority.INTERACTIVE));
+
+        release.countDown();
+    }
+
+    @SmallTest
+    public void test_setPriority_movesQueuedRequest() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch moved = new CountDownLatch(1);
+        final Object key = new Object();
+
+        scheduler.execute(blocking(started, release), RequestPriority.BULK, null);
+        assertTrue("first bulk request started", started.await(5, TimeUnit.SECONDS));
+
+        scheduler.execute(blocking(moved, release), RequestPriority.BULK, key);
+        assertEquals("second bulk request queued", 1, scheduler.getQueuedCount(RequestPriority.BULK));
+
+        assertTrue("queued request found", scheduler.setPriority(key, RequestPriority.INTERACTIVE));
+        assertTrue("moved request started", moved.await(5, TimeUnit.SECONDS));
+        assertFalse("started request no longer queued", scheduler.setPriority(key, RequestPriority.BULK));
+
+        release.countDown();
+    }
+
+    private static Runnable blocking(final CountDownLatch started, final CountDownLatch release) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+public class ResponseBodyReaderTest extends AndroidTestCase {
+
+    @SmallTest
+    public void test_readString_keepsNewlines() throws IOException {
+        final String body = "{\"abstract\":\"first line\nsecond line\"}\n";
+
+        assertEquals("body", body, ResponseBodyReader.readString(new ByteArrayInputStream(body.getBytes("UTF-8"))));
+    }
+
+    @SmallTest
+    public void test_readString_decodesUtf8() throws IOException {
+        final String body = "{\"title\":\"Schrödinger – 文献\"}";
+
+        assertEquals("body", body, ResponseBodyReader.readString(new ByteArrayInputStream(body.getBytes("UTF-8"))));
+    }
+
+    @SmallTest
+    public void test_readString_biggerThanBuffer() throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        while (builder.length() < ResponseBodyReader.MAX_POOLED_BUFFER_SIZE * 2) {
+            builder.append("{\"id\":\"").append(builder.length()).append("\"},");
+        }
+        final String body = builder.toString();
+
+        assertEquals("unknown length", body, ResponseBodyReader.readString(new ByteArrayInputStream(body.getBytes("UTF-8")), -1));
+        assertEquals("presized", body, ResponseBodyReader.readString(new ByteArrayInputStream(body.getBytes("UTF-8")), body.length()));
+        assertEquals("wrong length", body, ResponseBodyReader.readString(new ByteArrayInputStream(body.getBytes("UTF-8")), 10));
+    }
+
+    @SmallTest
+    public void test_readString_withContentLength() throws IOException {
+        final String body = "[{\"id\":\"doc1\"}]";
+        final byte[] bytes = body.getBytes("UTF-8");
+        final DecodingInputStream stream = new DecodingInputStream("url", null, bytes.length, new ByteArrayInputStream(bytes));
+
+        assertEquals("body", body, ResponseBodyReader.readString(stream));
+        assertTrue("stream read to the end", stream.isAtEnd());
+    }
+}
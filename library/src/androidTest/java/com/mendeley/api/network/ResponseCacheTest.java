@@ -0,0 +1,122 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import java.io.File;
+
+public class ResponseCacheTest extends AndroidTestCase {
+
+    private static final String CONTENT_TYPE = "application/vnd.mendeley-document.1+json";
+
+    private File directory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = new File(System.getProperty("java.io.tmpdir"), "response-cache-test-" + System.nanoTime());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        super.tearDown();
+    }
+
+    @SmallTest
+    public void test_put_onlyWithValidator() {
+        final ResponseCache cache = new ResponseCache(ResponseCache.DEFAULT_MEMORY_SIZE);
+
+        cache.put("url1", CONTENT_TYPE, null, null, "{}", null);
+        cache.put("url2", CONTENT_TYPE, "\"abc\"", null, "{}", null);
+
+        assertNull("response without validator not cached", cache.get("url1", CONTENT_TYPE));
+        assertEquals("etag kept", "\"abc\"", cache.get("url2", CONTENT_TYPE).getEtag());
+        assertNull("keyed by content type", cache.get("url2", "application/json"));
+    }
+
+    @SmallTest
+    public void test_memory_evictsLeastRecentlyUsed() {
+        final String body = "{\"title\":\"0123456789\"}";
+        final ResponseCache cache = new ResponseCache(450);
+
+        cache.put("url1", CONTENT_TYPE, "1", null, body, null);
+        cache.put("url2", CONTENT_TYPE, "2", null, body, null);
+        cache.get("url1", CONTENT_TYPE);
+        cache.put("url3", CONTENT_TYPE, "3", null, body, null);
+
+        assertNotNull("recently used entry kept", cache.get("url1", CONTENT_TYPE));
+        assertNull("least recently used entry evicted", cache.get("url2", CONTENT_TYPE));
+        assertTrue("size bounded", cache.getMemorySize() <= 450);
+    }
+
+    @SmallTest
+    public void test_disk_survivesNewInstance() {
+        final ResponseCache cache = new ResponseCache(ResponseCache.DEFAULT_MEMORY_SIZE, directory, 1024 * 1024);
+        cache.put("url", CONTENT_TYPE, "\"abc\"", "Wed, 21 Oct 2015 07:28:00 GMT", "{\"title\":\"été\"}", new Object());
+
+        final ResponseCache.Entry entry = new ResponseCache(ResponseCache.DEFAULT_MEMORY_SIZE, directory, 1024 * 1024)
+                .get("url", CONTENT_TYPE);
+
+        assertNotNull("entry read from disk", entry);
+        assertEquals("body", "{\"title\":\"été\"}", entry.getBody());
+        assertEquals("etag", "\"abc\"", entry.getEtag());
+        assertEquals("last modified", "Wed, 21 Oct 2015 07:28:00 GMT", entry.getLastModified());
+        assertNull("model only kept in memory", entry.getModel());
+    }
+
+    @SmallTest
+    public void test_disk_boundedBySize() {
+        final StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            body.append('x');
+        }
+        final ResponseCache cache = new ResponseCache(0, directory, 400);
+
+        for (int i = 0; i < 5; i++) {
+            cache.put("url" + i, CONTENT_TYPE, "\"" + i + "\"", null, body.toString(), null);
+        }
+
+        long size = 0;
+        int count = 0;
+        for (File file : directory.listFiles()) {
+            size += file.length();
+            count++;
+        }
+        assertTrue("disk size bounded", size <= 400);
+        assertTrue("some entries kept", count > 0);
+    }
+
+    @SmallTest
+    public void test_freshness() {
+        final ResponseCache cache = new ResponseCache(ResponseCache.DEFAULT_MEMORY_SIZE);
+        cache.put("url", CONTENT_TYPE, "\"abc\"", null, "{}", null);
+        final ResponseCache.Entry entry = cache.get("url", CONTENT_TYPE);
+
+        assertFalse("always revalidated by default", cache.isFresh(entry));
+        assertFalse("not served stale by default", cache.isStaleWhileRevalidate(entry));
+
+        cache.setStaleWhileRevalidateMillis(60000);
+        assertTrue("served while revalidating", cache.isStaleWhileRevalidate(entry));
+
+        cache.setMaxAgeMillis(60000);
+        assertTrue("fresh within max age", cache.isFresh(entry));
+    }
+
+    @SmallTest
+    public void test_clear() {
+        final ResponseCache cache = new ResponseCache(ResponseCache.DEFAULT_MEMORY_SIZE, directory, 1024 * 1024);
+        cache.put("url", CONTENT_TYPE, "\"abc\"", null, "{}", null);
+
+        cache.clear();
+
+        assertNull("memory cleared", cache.get("url", CONTENT_TYPE));
+        assertEquals("memory size reset", 0, cache.getMemorySize());
+    }
+}
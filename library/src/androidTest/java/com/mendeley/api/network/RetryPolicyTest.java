@@ -0,0 +1,73 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.exceptions.HttpResponseException;
+import com.mendeley.api.exceptions.MendeleyException;
+
+import java.io.IOException;
+
+public class RetryPolicyTest extends AndroidTestCase {
+
+    private final RetryPolicy retryPolicy = new RetryPolicy(3, 100, 1000);
+
+    @SmallTest
+    public void test_shouldRetry_ioErrorOnlyWhenIdempotent() {
+        final MendeleyException ioError = new MendeleyException("IO error", new IOException());
+
+        assertTrue("idempotent request retried", retryPolicy.shouldRetry(0, true, ioError));
+        assertFalse("non idempotent request not retried", retryPolicy.shouldRetry(0, false, ioError));
+        assertFalse("retries exhausted", retryPolicy.shouldRetry(3, true, ioError));
+    }
+
+    @SmallTest
+    public void test_shouldRetry_httpStatus() {
+        assertTrue("429 retried for any request", retryPolicy.shouldRetry(0, false, new HttpResponseException("url", 429, "")));
+        assertTrue("503 retried when idempotent", retryPolicy.shouldRetry(0, true, new HttpResponseException("url", 503, "")));
+        assertFalse("503 not retried when not idempotent", retryPolicy.shouldRetry(0, false, new HttpResponseException("url", 503, "")));
+        assertFalse("404 not retried", retryPolicy.shouldRetry(0, true, new HttpResponseException("url", 404, "")));
+        assertFalse("parsing errors not retried", retryPolicy.shouldRetry(0, true, new MendeleyException("bad json")));
+    }
+
+    @SmallTest
+    public void test_getDelayMillis_exponentialWithJitter() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue("first delay within base", retryPolicy.getDelayMillis(0, -1) <= 100);
+            assertTrue("third delay within 4 * base", retryPolicy.getDelayMillis(2, -1) <= 400);
+            assertTrue("delay capped", retryPolicy.getDelayMillis(10, -1) <= 1000);
+        }
+    }
+
+    @SmallTest
+    public void test_getDelayMillis_retryAfter() {
+        assertEquals("retry after honoured", 500, retryPolicy.getDelayMillis(0, 500));
+        assertEquals("retry after capped", 1000, retryPolicy.getDelayMillis(0, 5000));
+    }
+
+    @SmallTest
+    public void test_parseRetryAfter() {
+        assertEquals("seconds", 120000, RetryPolicy.parseRetryAfter("120"));
+        assertEquals("missing", -1, RetryPolicy.parseRetryAfter(null));
+        assertEquals("invalid", -1, RetryPolicy.parseRetryAfter("soon"));
+        assertEquals("date in the past", 0, RetryPolicy.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+    }
+
+    @SmallTest
+    public void test_awaitRetry_isObservable() throws InterruptedException {
+        final int[] notified = new int[1];
+        retryPolicy.setRetryListener(new RetryPolicy.RetryListener() {
+            @Override
+            public void onRetry(int retry, long delayMillis, MendeleyException cause) {
+                notified[0]++;
+            }
+        });
+
+        retryPolicy.awaitRetry(1, 5, new MendeleyException("error"));
+        retryPolicy.awaitRetry(2, 10, new MendeleyException("error"));
+
+        assertEquals("listener notified", 2, notified[0]);
+        assertEquals("retry count", 2, retryPolicy.getRetryCount());
+        assertEquals("total delay", 15, retryPolicy.getTotalDelayMillis());
+    }
+}
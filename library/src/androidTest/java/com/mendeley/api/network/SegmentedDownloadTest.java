@@ -0,0 +1,256 @@
+package com.mendeley.api.network;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import org.apache.http.client.HttpClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class SegmentedDownloadTest extends AndroidTestCase {
+
+    private static final String ETAG = "\"v1\"";
+    private static final int SEGMENT_SIZE = 1000;
+
+    private File directory;
+    private ExecutorService executor;
+    private byte[] content;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = new File(System.getProperty("java.io.tmpdir"), "segmented-download-test-" + System.nanoTime());
+        directory.mkdirs();
+        executor = Executors.newCachedThreadPool();
+        content = new byte[10 * SEGMENT_SIZE + 123];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        // The default transport is created again when next needed
+        NetworkUtils.setHttpTransport(null);
+        executor.shutdownNow();
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        super.tearDown();
+    }
+
+    /**
+     * Serves byte ranges of the content, or the whole content from the given position on.
+     */
+    private class RangeTransport implements HttpTransport {
+        final long changedFrom;
+
+        RangeTransport(long changedFrom) {
+            this.changedFrom = changedFrom;
+        }
+
+        @Override
+        public HttpURLConnection openConnection(String url, String method) throws IOException {
+            return new RangeConnection(this);
+        }
+
+        @Override
+        public HttpClient getHttpClient() {
+            return null;
+        }
+
+        @Override
+        public void releaseConnection(HttpURLConnection con, InputStream is) {
+        }
+    }
+
+    private class RangeConnection extends HttpURLConnection {
+        final RangeTransport transport;
+        final Map<String, String> requestHeaders = new HashMap<String, String>();
+        final Map<String, String> headers = new HashMap<String, String>();
+        int code;
+        byte[] body;
+
+        RangeConnection(RangeTransport transport) throws IOException {
+            super(new URL("https://example.com/file"));
+            this.transport = transport;
+        }
+
+        @Override
+        public void setRequestProperty(String key, String value) {
+            requestHeaders.put(key, value);
+        }
+
+        @Override
+        public void connect() {
+            final String range = requestHeaders.get("Range");
+            final int dash = range.indexOf('-');
+            final int start = Integer.parseInt(range.substring("bytes=".length(), dash));
+            final int end = Integer.parseInt(range.substring(dash + 1));
+            if (start >= transport.changedFrom) {
+                code = 200;
+                body = content;
+                return;
+            }
+            code = 206;
+            headers.put("Content-Range", "bytes " + start + "-" + end + "/" + content.length);
+            body = new byte[end - start + 1];
+            System.arraycopy(content, start, body, 0, body.length);
+        }
+
+        @Override
+        public int getResponseCode() {
+            return code;
+        }
+
+        @Override
+        public String getHeaderField(String name) {
+            return headers.get(name);
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+    }
+
+    private PartialDownload startDownload() throws IOException {
+        final RangeConnection response = new RangeConnection(null);
+        response.headers.put("ETag", ETAG);
+        final PartialDownload partial = PartialDownload.forFile(directory.getPath(), "file-id");
+        partial.start(response, "paper.pdf", content.length);
+        return partial;
+    }
+
+    private byte[] read(File file) throws IOException {
+        final byte[] bytes = new byte[(int) file.length()];
+        final InputStream in = new FileInputStream(file);
+        try {
+            int read = 0;
+            while (read < bytes.length) {
+                read += in.read(bytes, read, bytes.length - read);
+            }
+        } finally {
+            in.close();
+        }
+        return bytes;
+    }
+
+    private SegmentedDownload.Listener listener() {
+        return new SegmentedDownload.Listener() {
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+
+            @Override
+            public void onProgress(long downloaded) {
+            }
+        };
+    }
+
+    @SmallTest
+    public void test_run_writesAllSegmentsInPlace() throws Exception {
+        NetworkUtils.setHttpTransport(new RangeTransport(Long.MAX_VALUE));
+        final PartialDownload partial = startDownload();
+
+        final SegmentedDownload download = new SegmentedDownload("https://example.com/file", partial,
+                0, content.length, 4, SEGMENT_SIZE, executor);
+
+        assertTrue("download completed", download.run(listener()));
+        assertTrue("several connections used", download.getConnections() >= 2);
+        assertTrue("file content", Arrays.equals(content, read(partial.getPartFile())));
+        assertEquals("whole file resumable", content.length, partial.getOffset());
+    }
+
+    @SmallTest
+    public void test_run_keepsContiguousBytesWhenContentChanges() throws Exception {
+        NetworkUtils.setHttpTransport(new RangeTransport(4 * SEGMENT_SIZE));
+        final PartialDownload partial = startDownload();
+
+        final SegmentedDownload download = new SegmentedDownload("https://example.com/file", partial,
+                0, content.length, 4, SEGMENT_SIZE, executor);
+
+        try {
+            download.run(listener());
+            fail("changed content not detected");
+        } catch (IOException e) {
+            // expected
+        }
+
+        final long offset = partial.getOffset();
+        assertTrue("bytes after the changed range dropped", offset <= 4 * SEGMENT_SIZE);
+        final byte[] kept = read(partial.getPartFile());
+        assertEquals("part file cut to the resumable bytes", offset, kept.length);
+        for (int i = 0; i < kept.length; i++) {
+            assertEquals("byte " + i, content[i], kept[i]);
+        }
+    }
+
+    @SmallTest
+    public void test_run_completesWhenExecutorIsBusy() throws Exception {
+        NetworkUtils.setHttpTransport(new RangeTransport(Long.MAX_VALUE));
+        final PartialDownload partial = startDownload();
+        // A saturated lane never starts the extra connections while the download runs
+        final List<Runnable> queued = new ArrayList<Runnable>();
+        final Executor busy = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                queued.add(command);
+            }
+        };
+
+        final SegmentedDownload download = new SegmentedDownload("https://example.com/file", partial,
+                0, content.length, 4, SEGMENT_SIZE, busy);
+
+        assertTrue("download completed", download.run(listener()));
+        assertFalse("extra connection queued", queued.isEmpty());
+        for (Runnable connection : queued) {
+            connection.run();
+        }
+        assertTrue("file content", Arrays.equals(content, read(partial.getPartFile())));
+    }
+
+    @SmallTest
+    public void test_run_resumesFromOffset() throws Exception {
+        NetworkUtils.setHttpTransport(new RangeTransport(Long.MAX_VALUE));
+        final PartialDownload partial = startDownload();
+        final OutputStream out = partial.openOutput(false);
+        out.write(content, 0, 2500);
+        out.close();
+
+        final SegmentedDownload download = new SegmentedDownload("https://example.com/file", partial,
+                2500, content.length, 3, SEGMENT_SIZE, executor);
+
+        assertTrue("download completed", download.run(listener()));
+        assertTrue("file content", Arrays.equals(content, read(partial.getPartFile())));
+    }
+}
@@ -0,0 +1,45 @@
+package com.mendeley.api.store;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class FullTextSearchTest extends AndroidTestCase {
+
+    /**
+     * Builds a matchinfo 'pcx' blob for one phrase: for each column, the hits in the row,
+     * the hits in all rows and the rows with hits.
+     */
+    private static byte[] matchInfo(int... hitsPerColumn) {
+        final int columns = hitsPerColumn.length / 3;
+        final ByteBuffer buffer = ByteBuffer.allocate(4 * (2 + hitsPerColumn.length)).order(ByteOrder.nativeOrder());
+        buffer.putInt(1).putInt(columns);
+        for (int value : hitsPerColumn) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    @SmallTest
+    public void test_toMatchQuery_makesEveryWordAPrefix() {
+        assertEquals("smith* prot*", FullTextSearch.toMatchQuery("Smith, prot"));
+    }
+
+    @SmallTest
+    public void test_toMatchQuery_neutralisesOperatorsAndQuotes() {
+        assertEquals("cats* or* dogs* near*", FullTextSearch.toMatchQuery("\"cats OR dogs\" -NEAR"));
+        assertNull(FullTextSearch.toMatchQuery(" \"*- "));
+    }
+
+    @SmallTest
+    public void test_score_weighsColumns() {
+        final double[] weights = { 10, 1 };
+        final byte[] inTitle = matchInfo(1, 2, 2, 0, 4, 2);
+        final byte[] inAbstract = matchInfo(0, 2, 2, 1, 4, 2);
+
+        assertTrue(FullTextSearch.score(inTitle, weights) > FullTextSearch.score(inAbstract, weights));
+        assertEquals(5.0, FullTextSearch.score(inTitle, weights), 0.0001);
+    }
+}
@@ -0,0 +1,97 @@
+package com.mendeley.api.store;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.model.Document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class LocalStoreTest extends AndroidTestCase {
+
+    private LocalStore store;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        store = new LocalStore(getContext(), null);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        store.close();
+        super.tearDown();
+    }
+
+    private static Document document(String id, String groupId, String title, String lastModified) {
+        return new Document.Builder()
+                .setId(id)
+                .setGroupId(groupId)
+                .setType("journal")
+                .setTitle(title)
+                .setLastModified(lastModified)
+                .build();
+    }
+
+    private static List<String> ids(List<Document> documents) {
+        final List<String> ids = new ArrayList<String>();
+        for (Document document : documents) {
+            ids.add(document.id);
+        }
+        return ids;
+    }
+
+    @SmallTest
+    public void test_putDocuments_getsStoredDocument() throws MendeleyException {
+        store.putDocuments(Collections.singletonList(document("doc-1", null, "Protein folding", "2014-01-01T00:00:00.000Z")));
+
+        final Document stored = store.getDocument("doc-1");
+        assertNotNull("document stored", stored);
+        assertEquals("title", "Protein folding", stored.title);
+        assertNull("unknown document", store.getDocument("doc-2"));
+    }
+
+    @SmallTest
+    public void test_getDocuments_byGroupMostRecentFirst() throws MendeleyException {
+        store.putDocuments(Arrays.asList(
+                document("old", null, "Old", "2014-01-01T00:00:00.000Z"),
+                document("new", null, "New", "2014-02-01T00:00:00.000Z"),
+                document("shared", "group-1", "Shared", "2014-03-01T00:00:00.000Z")));
+
+        assertEquals("user's library", Arrays.asList("new", "old"), ids(store.getDocuments(null)));
+        assertEquals("group", Collections.singletonList("shared"), ids(store.getDocuments("group-1")));
+        assertTrue("unknown group", store.getDocuments("group-2").isEmpty());
+    }
+
+    @SmallTest
+    public void test_deleteDocuments_removesRowsAndIndex() throws MendeleyException {
+        store.putDocuments(Arrays.asList(
+                document("doc-1", null, "Protein folding", "2014-01-01T00:00:00.000Z"),
+                document("doc-2", null, "Gene expression", "2014-02-01T00:00:00.000Z")));
+
+        store.deleteDocuments(Collections.singletonList("doc-1"));
+
+        assertNull("document deleted", store.getDocument("doc-1"));
+        assertEquals("other document kept", Collections.singletonList("doc-2"), ids(store.getDocuments(null)));
+        assertTrue("deleted document not found", store.searchDocuments("protein", 10).isEmpty());
+    }
+
+    @SmallTest
+    public void test_putDocuments_replacesRowAndReindexes() throws MendeleyException {
+        store.putDocuments(Collections.singletonList(document("doc-1", null, "Protein folding", "2014-01-01T00:00:00.000Z")));
+
+        // The replaced row is the last one, so SQLite gives its _id to the new row: a stale
+        // index entry would then match the new row
+        store.putDocuments(Collections.singletonList(document("doc-1", "group-1", "Gene expression", "2014-02-01T00:00:00.000Z")));
+
+        assertEquals("title replaced", "Gene expression", store.getDocument("doc-1").title);
+        assertTrue("moved out of the user's library", store.getDocuments(null).isEmpty());
+        assertEquals("moved to the group", Collections.singletonList("doc-1"), ids(store.getDocuments("group-1")));
+        assertTrue("old title unindexed", store.searchDocuments("protein", 10).isEmpty());
+        assertEquals("new title indexed once", Collections.singletonList("doc-1"), ids(store.searchDocuments("gene", 10)));
+    }
+}
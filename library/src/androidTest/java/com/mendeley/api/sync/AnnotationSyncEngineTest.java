@@ -0,0 +1,91 @@
+package com.mendeley.api.sync;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.FakeBlockingSdk;
+import com.mendeley.api.callbacks.annotations.AnnotationList;
+import com.mendeley.api.model.Annotation;
+import com.mendeley.api.params.AnnotationRequestParameters;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+public class AnnotationSyncEngineTest extends AndroidTestCase {
+
+    /**
+     * Serves a single page of annotations, or of deleted annotation ids when deleted_since is set.
+     */
+    private static class FakeServer extends FakeBlockingSdk {
+        List<Annotation> annotations = new ArrayList<Annotation>();
+        List<String> deletedIds = new ArrayList<String>();
+        final List<AnnotationRequestParameters> requests = new ArrayList<AnnotationRequestParameters>();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getName().equals("getAnnotations")) {
+                final AnnotationRequestParameters params = (AnnotationRequestParameters) args[0];
+                requests.add(params);
+                if (params.deletedSince != null) {
+                    final List<Annotation> deleted = new ArrayList<Annotation>();
+                    for (String id : deletedIds) {
+                        deleted.add(new Annotation.Builder().setId(id).build());
+                    }
+                    return new AnnotationList(deleted, null, new Date(2000000));
+                }
+                return new AnnotationList(annotations, null, new Date(2000000));
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private static Annotation annotation(String id, String documentId, String fileHash) {
+        return new Annotation.Builder().setId(id).setDocumentId(documentId).setFileHash(fileHash).build();
+    }
+
+    @SmallTest
+    public void test_sync_indexesAnnotationsByFileHashAndDocument() throws Exception {
+        final FakeServer server = new FakeServer();
+        server.annotations = Arrays.asList(annotation("a1", "d1", "h1"), annotation("a2", "d1", "h2"),
+                annotation("a3", "d2", "h1"));
+        final InMemoryAnnotationMirror mirror = new InMemoryAnnotationMirror();
+        final AnnotationSyncEngine engine = new AnnotationSyncEngine(server.asSdk(), new InMemorySyncCursorStore(), mirror);
+
+        final ChangeSet<Annotation> changes = engine.sync();
+
+        assertTrue(changes.fullSync);
+        assertEquals(3, changes.added.size());
+        assertEquals(2, mirror.getAnnotationsByFileHash("h1").size());
+        assertEquals(2, mirror.getAnnotationsByDocumentId("d1").size());
+        assertNull(server.requests.get(0).modifiedSince);
+        assertNotNull(engine.getCursor(null));
+    }
+
+    @SmallTest
+    public void test_sync_incrementalSyncAppliesOnlyTheDelta() throws Exception {
+        final FakeServer server = new FakeServer();
+        server.annotations = Arrays.asList(annotation("a1", "d1", "h1"), annotation("a2", "d1", "h1"));
+        final InMemoryAnnotationMirror mirror = new InMemoryAnnotationMirror();
+        final AnnotationSyncEngine engine = new AnnotationSyncEngine(server.asSdk(), new InMemorySyncCursorStore(), mirror);
+        engine.sync();
+        final String cursor = engine.getCursor(null);
+
+        // a1 moves to another file, a2 is deleted
+        server.annotations = Collections.singletonList(annotation("a1", "d1", "h2"));
+        server.deletedIds = Arrays.asList("a2", "unknown");
+        server.requests.clear();
+        final ChangeSet<Annotation> changes = engine.sync();
+
+        assertFalse(changes.fullSync);
+        assertEquals(1, changes.updated.size());
+        assertEquals(Collections.singletonList("a2"), changes.deletedIds);
+        assertEquals(cursor, server.requests.get(0).modifiedSince);
+        assertEquals(cursor, server.requests.get(1).deletedSince);
+        assertTrue(mirror.getAnnotationsByFileHash("h1").isEmpty());
+        assertEquals("a1", mirror.getAnnotationsByFileHash("h2").get(0).id);
+    }
+}
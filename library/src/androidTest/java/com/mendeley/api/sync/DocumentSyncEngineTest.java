@@ -0,0 +1,112 @@
+package com.mendeley.api.sync;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.FakeBlockingSdk;
+import com.mendeley.api.callbacks.document.DocumentIdList;
+import com.mendeley.api.callbacks.document.DocumentList;
+import com.mendeley.api.model.Document;
+import com.mendeley.api.model.DocumentId;
+import com.mendeley.api.params.DocumentRequestParameters;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+
+public class DocumentSyncEngineTest extends AndroidTestCase {
+
+    /**
+     * Serves a single page of documents and deleted ids, recording the parameters it receives.
+     */
+    private static class FakeServer extends FakeBlockingSdk {
+        List<Document> documents = new ArrayList<Document>();
+        List<String> deletedIds = new ArrayList<String>();
+        Date serverDate = new Date(1000000);
+        final List<DocumentRequestParameters> documentRequests = new ArrayList<DocumentRequestParameters>();
+        final List<String> deletedSinceRequests = new ArrayList<String>();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getName().equals("getDocuments")) {
+                documentRequests.add((DocumentRequestParameters) args[0]);
+                return new DocumentList(documents, null, serverDate);
+            }
+            if (method.getName().equals("getDeletedDocuments")) {
+                deletedSinceRequests.add((String) args[0]);
+                final List<DocumentId> ids = new ArrayList<DocumentId>();
+                for (String id : deletedIds) {
+                    ids.add(new DocumentId.Builder().setDocumentId(id).build());
+                }
+                return new DocumentIdList(ids, null, serverDate);
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private static Document document(String id, String title) {
+        return new Document.Builder().setId(id).setTitle(title).build();
+    }
+
+    @SmallTest
+    public void test_sync_firstSyncFetchesEverythingAndStoresCursor() throws Exception {
+        final FakeServer server = new FakeServer();
+        server.documents = Arrays.asList(document("a", "A"), document("b", "B"));
+        final InMemoryDocumentMirror mirror = new InMemoryDocumentMirror();
+        final DocumentSyncEngine engine = new DocumentSyncEngine(server.asSdk(), new InMemorySyncCursorStore(), mirror);
+
+        final ChangeSet<Document> changes = engine.sync();
+
+        assertTrue(changes.fullSync);
+        assertEquals(2, changes.added.size());
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b")), mirror.getDocumentIds(null));
+        assertNull(server.documentRequests.get(0).modifiedSince);
+        assertTrue(server.deletedSinceRequests.isEmpty());
+        assertNotNull(engine.getCursor(null));
+    }
+
+    @SmallTest
+    public void test_sync_incrementalSyncAppliesChangesSinceCursor() throws Exception {
+        final FakeServer server = new FakeServer();
+        server.documents = Arrays.asList(document("a", "A"), document("b", "B"));
+        final InMemoryDocumentMirror mirror = new InMemoryDocumentMirror();
+        final DocumentSyncEngine engine = new DocumentSyncEngine(server.asSdk(), new InMemorySyncCursorStore(), mirror);
+        engine.sync();
+        final String cursor = engine.getCursor(null);
+
+        server.documents = Arrays.asList(document("a", "A2"), document("c", "C"));
+        server.deletedIds = Arrays.asList("b", "unknown");
+        server.serverDate = new Date(2000000);
+        final ChangeSet<Document> changes = engine.sync();
+
+        assertFalse(changes.fullSync);
+        assertEquals(cursor, server.documentRequests.get(1).modifiedSince);
+        assertEquals(Collections.singletonList(cursor), server.deletedSinceRequests);
+        assertEquals("c", changes.added.get(0).id);
+        assertEquals("a", changes.updated.get(0).id);
+        assertEquals(Collections.singletonList("b"), changes.deletedIds);
+        assertEquals("A2", mirror.getDocument(null, "a").title);
+        assertEquals(new HashSet<String>(Arrays.asList("a", "c")), mirror.getDocumentIds(null));
+        assertFalse(cursor.equals(engine.getCursor(null)));
+    }
+
+    @SmallTest
+    public void test_sync_groupsHaveSeparateCursorsAndCollections() throws Exception {
+        final FakeServer server = new FakeServer();
+        server.documents = Collections.singletonList(document("g", "G"));
+        final InMemoryDocumentMirror mirror = new InMemoryDocumentMirror();
+        final DocumentSyncEngine engine = new DocumentSyncEngine(server.asSdk(), new InMemorySyncCursorStore(), mirror);
+
+        engine.sync("group");
+
+        assertEquals("group", server.documentRequests.get(0).groupId);
+        assertNotNull(engine.getCursor("group"));
+        assertNull(engine.getCursor(null));
+        assertTrue(mirror.getDocumentIds(null).isEmpty());
+        assertEquals(Collections.singleton("g"), mirror.getDocumentIds("group"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.mendeley.api.sync;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.BaseExecutorTest;
+import com.mendeley.api.FakeBlockingSdk;
+import com.mendeley.api.callbacks.folder.FolderList;
+import com.mendeley.api.model.Folder;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class FolderTreeTest extends BaseExecutorTest {
+
+    /**
+     * Serves a single page of folders and echoes posted and patched folders.
+     */
+    private static class FakeServer extends FakeBlockingSdk {
+        List<Folder> folders = new ArrayList<Folder>();
+        final List<String> deletedIds = new ArrayList<String>();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getName().equals("getFolders")) {
+                return new FolderList(folders, null);
+            }
+            if (method.getName().equals("postFolder")) {
+                return new Folder.Builder((Folder) args[0]).setId("posted").build();
+            }
+            if (method.getName().equals("patchFolder")) {
+                return null;
+            }
+            if (method.getName().equals("deleteFolder")) {
+                deletedIds.add((String) args[0]);
+                return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private static Folder folder(String id, String parentId) {
+        return new Folder.Builder(id).setId(id).setParentId(parentId).build();
+    }
+
+    private static List<String> ids(List<Folder> folders) {
+        final List<String> ids = new ArrayList<String>();
+        for (Folder folder : folders) {
+            ids.add(folder.id);
+        }
+        return ids;
+    }
+
+    private FolderTree loadTree(FakeServer server) throws Exception {
+        // a -> b -> c, a -> d, e
+        server.folders = Arrays.asList(folder("c", "b"), folder("b", "a"), folder("a", null),
+                folder("d", "a"), folder("e", null));
+        final FolderTree tree = new FolderTree(server.asSdk(), null, executor);
+        tree.load();
+        return tree;
+    }
+
+    @SmallTest
+    public void test_load_indexesHierarchy() throws Exception {
+        final FolderTree tree = loadTree(new FakeServer());
+
+        assertEquals(5, tree.size());
+        assertEquals(Arrays.asList("a", "b"), tree.getAncestorIds("c"));
+        assertEquals(Arrays.asList("b", "d"), ids(tree.getChildren("a")));
+        assertEquals(Arrays.asList("b", "c", "d"), ids(tree.getDescendants("a")));
+        assertEquals("b", tree.getParent("c").id);
+        assertTrue(tree.isAncestor("a", "c"));
+        assertFalse(tree.isAncestor("e", "c"));
+        assertEquals(2, tree.getRoots().size());
+    }
+
+    @SmallTest
+    public void test_patchFolder_movesSubtree() throws Exception {
+        final FolderTree tree = loadTree(new FakeServer());
+
+        tree.patchFolder("b", new Folder.Builder("renamed").setParentId("e").build());
+
+        assertEquals("renamed", tree.getFolder("b").name);
+        assertEquals(Arrays.asList("e", "b"), tree.getAncestorIds("c"));
+        assertEquals(Arrays.asList("d"), ids(tree.getChildren("a")));
+        assertEquals(Arrays.asList("b", "c"), ids(tree.getDescendants("e")));
+    }
+
+    @SmallTest
+    public void test_postAndDeleteFolder_updateTreeInPlace() throws Exception {
+        final FakeServer server = new FakeServer();
+        final FolderTree tree = loadTree(server);
+
+        tree.postFolder(new Folder.Builder("new").setParentId("c").build());
+        assertEquals(Arrays.asList("a", "b", "c"), tree.getAncestorIds("posted"));
+
+        tree.deleteFolder("b");
+
+        assertEquals(Arrays.asList("b"), server.deletedIds);
+        assertEquals(3, tree.size());
+        assertNull(tree.getFolder("posted"));
+        assertEquals(Arrays.asList("d"), ids(tree.getChildren("a")));
+    }
+}
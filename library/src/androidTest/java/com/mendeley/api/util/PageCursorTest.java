@@ -0,0 +1,135 @@
+package com.mendeley.api.util;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.params.Page;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PageCursorTest extends AndroidTestCase {
+
+    private ExecutorService executor;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.shutdownNow();
+        super.tearDown();
+    }
+
+    /**
+     * Pages of two integers, "0" to "pageCount - 1"; page N holds 2N and 2N + 1.
+     */
+    private static class IntegerPages implements PageCursor.PageSource<List<Integer>, Integer> {
+        final int pageCount;
+        final int failingPage;
+        final AtomicInteger fetchCount = new AtomicInteger();
+        final Semaphore fetched = new Semaphore(0);
+
+        IntegerPages(int pageCount, int failingPage) {
+            this.pageCount = pageCount;
+            this.failingPage = failingPage;
+        }
+
+        @Override
+        public List<Integer> getFirstPage() throws MendeleyException {
+            return fetch(0);
+        }
+
+        @Override
+        public List<Integer> getPage(Page page) throws MendeleyException {
+            return fetch(Integer.parseInt(page.link));
+        }
+
+        @Override
+        public List<Integer> getItems(List<Integer> list) {
+            return list;
+        }
+
+        @Override
+        public Page getNextPage(List<Integer> list) {
+            final int next = list.get(0) / 2 + 1;
+            return next < pageCount ? new Page(String.valueOf(next)) : null;
+        }
+
+        private List<Integer> fetch(int page) throws MendeleyException {
+            fetchCount.incrementAndGet();
+            fetched.release();
+            if (page == failingPage) {
+                throw new MendeleyException("Page " + page + " failed");
+            }
+            return Arrays.asList(page * 2, page * 2 + 1);
+        }
+    }
+
+    @SmallTest
+    public void test_iterate_returnsItemsOfAllPagesInOrder() throws Exception {
+        final IntegerPages pages = new IntegerPages(5, -1);
+        final PageCursor<Integer> cursor = new PageCursor<Integer>(pages, executor, 2, 100);
+
+        final List<Integer> items = new ArrayList<Integer>();
+        for (Integer item : cursor.asIterable()) {
+            items.add(item);
+        }
+
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), items);
+        assertEquals(5, pages.fetchCount.get());
+    }
+
+    @SmallTest
+    public void test_next_prefetchesUpToDepth() throws Exception {
+        final IntegerPages pages = new IntegerPages(10, -1);
+        final PageCursor<Integer> cursor = new PageCursor<Integer>(pages, executor, 2, 100);
+
+        assertEquals(Integer.valueOf(0), cursor.next());
+
+        // The page being consumed and two pages ahead
+        assertTrue(pages.fetched.tryAcquire(3, 5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(3, pages.fetchCount.get());
+        cursor.close();
+    }
+
+    @SmallTest
+    public void test_next_stopsPrefetchingAtItemBudget() throws Exception {
+        final IntegerPages pages = new IntegerPages(10, -1);
+        final PageCursor<Integer> cursor = new PageCursor<Integer>(pages, executor, 5, 2);
+
+        assertEquals(Integer.valueOf(0), cursor.next());
+
+        // One page ahead already holds the two buffered items allowed
+        assertTrue(pages.fetched.tryAcquire(2, 5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(2, pages.fetchCount.get());
+        cursor.close();
+    }
+
+    @SmallTest
+    public void test_hasNext_throwsWhenPageFails() throws Exception {
+        final IntegerPages pages = new IntegerPages(5, 1);
+        final PageCursor<Integer> cursor = new PageCursor<Integer>(pages, executor, 1, 100);
+
+        assertEquals(Integer.valueOf(0), cursor.next());
+        assertEquals(Integer.valueOf(1), cursor.next());
+        try {
+            cursor.hasNext();
+            fail("Expected the failure of the second page");
+        } catch (MendeleyException e) {
+            assertTrue(e.getMessage().startsWith("Page 1 failed"));
+        }
+    }
+}
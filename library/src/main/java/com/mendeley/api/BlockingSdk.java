@@ -1,11 +1,14 @@
 package com.mendeley.api;
 
 import com.mendeley.api.callbacks.annotations.AnnotationList;
+import com.mendeley.api.callbacks.document.DocumentBatch;
 import com.mendeley.api.callbacks.document.DocumentIdList;
 import com.mendeley.api.callbacks.document.DocumentList;
 import com.mendeley.api.callbacks.file.FileList;
+import com.mendeley.api.callbacks.folder.FolderDocumentsBatch;
 import com.mendeley.api.callbacks.folder.FolderList;
 import com.mendeley.api.callbacks.group.GroupList;
+import com.mendeley.api.callbacks.group.GroupMemberProfiles;
 import com.mendeley.api.callbacks.group.GroupMembersList;
 import com.mendeley.api.exceptions.MendeleyException;
 import com.mendeley.api.model.Annotation;
@@ -14,6 +17,7 @@ import com.mendeley.api.model.File;
 import com.mendeley.api.model.Folder;
 import com.mendeley.api.model.Group;
 import com.mendeley.api.model.Profile;
+import com.mendeley.api.model.UserRole;
 import com.mendeley.api.params.AnnotationRequestParameters;
 import com.mendeley.api.params.CatalogDocumentRequestParameters;
 import com.mendeley.api.params.DocumentRequestParameters;
@@ -24,7 +28,9 @@ import com.mendeley.api.params.Page;
 import com.mendeley.api.params.View;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 public interface BlockingSdk {
@@ -55,6 +61,15 @@ public interface BlockingSdk {
      */
     Document getDocument(String documentId, View view) throws MendeleyException;
 
+    /**
+     * Retrieve several documents, specified by ID, with a bounded number of requests in parallel.
+     * Documents which cannot be retrieved are reported in the batch, without failing the others.
+     *
+     * @param documentIds the ids of the documents to get.
+     * @param view extended document view. If null, only core fields are returned.
+     */
+    DocumentBatch getDocuments(Collection<String> documentIds, View view) throws MendeleyException;
+
     /**
      * Retrieve a list of deleted documents in the user's library.
      *
@@ -240,6 +255,28 @@ public interface BlockingSdk {
      */
     void deleteDocumentFromFolder(String folderId, String documentId) throws MendeleyException;
 
+    /**
+     * Add several documents to a folder, with a bounded number of requests in parallel.
+     * Documents already in the folder are skipped, and documents which cannot be added are
+     * reported in the batch, without failing the others.
+     *
+     * @param folderId the ID of the folder.
+     * @param documentIds the IDs of the documents to add.
+     */
+    FolderDocumentsBatch addDocumentsToFolder(String folderId, Collection<String> documentIds) throws MendeleyException;
+
+    /**
+     * Remove several documents from a folder, with a bounded number of requests in parallel.
+     * Documents not in the folder are skipped, and documents which cannot be removed are
+     * reported in the batch, without failing the others.
+     * <p>
+     * This does not delete the documents themselves.
+     *
+     * @param folderId the ID of the folder.
+     * @param documentIds the IDs of the documents to remove.
+     */
+    FolderDocumentsBatch removeDocumentsFromFolder(String folderId, Collection<String> documentIds) throws MendeleyException;
+
     /* GROUPS */
 
     /**
@@ -275,6 +312,18 @@ public interface BlockingSdk {
      */
     GroupMembersList getGroupMembers(Page next) throws MendeleyException;
 
+    /**
+     * Retrieve the profiles of group members, e.g. a page returned by getGroupMembers().
+     * Profiles are taken from the profile cache where possible, and the others are fetched
+     * with a bounded number of requests in parallel. Profiles which cannot be retrieved are
+     * reported in the result, without failing the others.
+     *
+     * @param userRoles the members whose profiles to get.
+     * @param prefetchPhotos if true, also download the square photo of each profile into the
+     *                       image cache.
+     */
+    GroupMemberProfiles getGroupMemberProfiles(List<UserRole> userRoles, boolean prefetchPhotos) throws MendeleyException;
+
     /**
      * Return group image
      * @param url image url
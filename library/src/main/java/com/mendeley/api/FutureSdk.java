@@ -0,0 +1,418 @@
+package com.mendeley.api;
+
+import com.mendeley.api.callbacks.MendeleyFuture;
+import com.mendeley.api.callbacks.annotations.AnnotationList;
+import com.mendeley.api.callbacks.document.DocumentBatch;
+import com.mendeley.api.callbacks.document.DocumentIdList;
+import com.mendeley.api.callbacks.document.DocumentList;
+import com.mendeley.api.callbacks.file.FileList;
+import com.mendeley.api.callbacks.folder.FolderDocumentsBatch;
+import com.mendeley.api.callbacks.folder.FolderList;
+import com.mendeley.api.callbacks.group.GroupList;
+import com.mendeley.api.callbacks.group.GroupMemberProfiles;
+import com.mendeley.api.callbacks.group.GroupMembersList;
+import com.mendeley.api.model.Annotation;
+import com.mendeley.api.model.Document;
+import com.mendeley.api.model.File;
+import com.mendeley.api.model.Folder;
+import com.mendeley.api.model.Group;
+import com.mendeley.api.model.Profile;
+import com.mendeley.api.model.UserRole;
+import com.mendeley.api.params.AnnotationRequestParameters;
+import com.mendeley.api.params.CatalogDocumentRequestParameters;
+import com.mendeley.api.params.DocumentRequestParameters;
+import com.mendeley.api.params.FileRequestParameters;
+import com.mendeley.api.params.FolderRequestParameters;
+import com.mendeley.api.params.GroupRequestParameters;
+import com.mendeley.api.params.Page;
+import com.mendeley.api.params.View;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Future-returning variants of the {@link BlockingSdk} calls.
+ * <p>
+ * Each call starts immediately and returns a {@link MendeleyFuture}, which can be chained with
+ * dependent calls, joined with {@link MendeleyFuture#allOf}, given a timeout, or cancelled as a
+ * {@link com.mendeley.api.callbacks.RequestHandle}. The blocking calls run on the executor set
+ * with {@link #setExecutor}.
+ */
+public interface FutureSdk {
+    /* DOCUMENTS */
+
+    /**
+     * Retrieve a list of documents in the user's library.
+     */
+    MendeleyFuture<DocumentList> getDocuments(DocumentRequestParameters parameters);
+
+    /**
+     * Retrieve a list of documents in the user's library.
+     */
+    MendeleyFuture<DocumentList> getDocuments();
+
+    /**
+     * Retrieve subsequent pages of documents in the user's library.
+     *
+     * @param next reference to next page returned in a previous DocumentList.
+     */
+    MendeleyFuture<DocumentList> getDocuments(Page next);
+
+    /**
+     * Retrieve a single document, specified by ID.
+     *
+     * @param documentId the document id to get.
+     * @param view extended document view. If null, only core fields are returned.
+     */
+    MendeleyFuture<Document> getDocument(String documentId, View view);
+
+    /**
+     * Retrieve several documents, specified by ID, with a bounded number of requests in parallel.
+     * Documents which cannot be retrieved are reported in the batch, without failing the others.
+     *
+     * @param documentIds the ids of the documents to get.
+     * @param view extended document view. If null, only core fields are returned.
+     */
+    MendeleyFuture<DocumentBatch> getDocuments(Collection<String> documentIds, View view);
+
+    /**
+     * Retrieve a list of deleted documents in the user's library.
+     *
+     * @param deletedSince only return documents deleted since this timestamp. Should be supplied in ISO 8601 format.
+     * @param parameters holds optional query parameters, will be ignored if null
+     */
+    MendeleyFuture<DocumentIdList> getDeletedDocuments(String deletedSince, DocumentRequestParameters parameters);
+
+    /**
+     * Retrieve subsequent pages of deleted documents in the user's library.
+     *
+     * @param next reference to next page returned in a previous DocumentIdList.
+     */
+    MendeleyFuture<DocumentIdList> getDeletedDocuments(Page next);
+
+    /**
+     * Add a new document to the user's library.
+     *
+     * @param document the document object to be added.
+     */
+    MendeleyFuture<Document> postDocument(Document document);
+
+    /**
+     * Modify an existing document in the user's library.
+     *
+     * @param documentId the id of the document to be modified.
+     * @param date sets an optional "if unmodified since" condition on the request. Ignored if null.
+     * @param document a document object containing the fields to be updated.
+     *                 Missing fields are left unchanged (not cleared).
+     */
+    MendeleyFuture<Document> patchDocument(String documentId, Date date, Document document);
+
+    /**
+     * Move an existing document into the user's trash collection.
+     *
+     * @param documentId id of the document to be trashed.
+     */
+    MendeleyFuture<Void> trashDocument(String documentId);
+
+    /**
+     * Delete a document which is NOT trashed.
+     *
+     * @param documentId id of the document to be deleted.
+     */
+    MendeleyFuture<Void> deleteDocument(String documentId);
+
+    /**
+     * Delete a document which is alreare trashed.
+     *
+     * @param documentId id of the document to be deleted.
+     */
+    MendeleyFuture<Void> deleteTrashedDocument(String documentId);
+
+    /**
+     * Return a list of valid document types.
+     */
+    MendeleyFuture<Map<String, String>> getDocumentTypes();
+
+    /**
+     * Return a list of valid identifiers types.
+     */
+    MendeleyFuture<Map<String, String>> getIdentifierTypes();
+
+    /* FILES */
+
+    /**
+     * Return metadata for a user's files, subject to specified query parameters.
+     */
+    MendeleyFuture<FileList> getFiles(FileRequestParameters parameters);
+
+    /**
+     * Return metadata for all files associated with all of the user's documents.
+     */
+    MendeleyFuture<FileList> getFiles();
+
+    /**
+     * Return the next page of file metadata entries.
+     *
+     * @param next returned from previous getFiles() call.
+     */
+    MendeleyFuture<FileList> getFiles(Page next);
+
+    /**
+     * Post a file
+     *
+     * @param contentType of the file
+     * @param documentId the id of the document this file belongs to
+     * @param inputStream the file input stream
+     * @param fileName the file name
+     * @return the file metadata
+     */
+    MendeleyFuture<File> postFile(String contentType, String documentId, InputStream inputStream, String fileName);
+
+    /**
+     * Delete file with the given id
+     * @param fileId
+     */
+    MendeleyFuture<Void> deleteFile(String fileId);
+
+    /* FOLDERS */
+
+    /**
+     * Return metadata for all the user's folders.
+     */
+    MendeleyFuture<FolderList> getFolders(FolderRequestParameters parameters);
+
+    /**
+     * Return metadata for all the user's folders.
+     */
+    MendeleyFuture<FolderList> getFolders();
+
+    /**
+     * Returns the next page of folder metadata entries.
+     *
+     * @param next returned from a previous getFolders() call.
+     */
+    MendeleyFuture<FolderList> getFolders(Page next);
+
+    /**
+     * Returns metadata for a single folder, specified by ID.
+     *
+     * @param folderId ID of the folder to retrieve metadata for.
+     */
+    MendeleyFuture<Folder> getFolder(String folderId);
+
+    /**
+     * Create a new folder.
+     *
+     * @param folder metadata for the folder to create.
+     */
+    MendeleyFuture<Folder> postFolder(Folder folder);
+
+    /**
+     * Update a folder's metadata.
+     * <p>
+     * This can be used to rename the folder, and/or to move it to a new parent.
+     *
+     * @param folderId the id of the folder to modify.
+     * @param folder metadata object that provides the new name and parentId.
+     */
+    MendeleyFuture<Folder> patchFolder(String folderId, Folder folder);
+
+    /**
+     * Return a list of IDs of the documents stored in a particular folder.
+     *
+     * @param folderId ID of the folder to inspect.
+     */
+    MendeleyFuture<DocumentIdList> getFolderDocumentIds(FolderRequestParameters parameters, String folderId);
+
+    /**
+     * Returns the next page of document IDs stored in a particular folder.
+     * @param next returned by a previous call to getFolderDocumentIds().
+     *
+     */
+    MendeleyFuture<DocumentIdList> getFolderDocumentIds(Page next);
+
+    /**
+     * Add a document to a folder.
+     *
+     * @param folderId the ID the folder.
+     * @param documentId the ID of the document to add to the folder.
+     */
+    MendeleyFuture<Void> postDocumentToFolder(String folderId, String documentId);
+
+    /**
+     * Delete a folder.
+     * <p>
+     * This does not delete the documents inside the folder.
+     *
+     * @param folderId the ID of the folder to delete.
+     */
+    MendeleyFuture<Void> deleteFolder(String folderId);
+
+    /**
+     * Remove a document from a folder.
+     * <p>
+     * This does not delete the documents itself.
+     *
+     * @param folderId the ID of the folder.
+     * @param documentId the ID of the document to remove.
+     */
+    MendeleyFuture<Void> deleteDocumentFromFolder(String folderId, String documentId);
+
+    /**
+     * Add several documents to a folder, with a bounded number of requests in parallel.
+     * Documents already in the folder are skipped, and documents which cannot be added are
+     * reported in the batch, without failing the others.
+     *
+     * @param folderId the ID of the folder.
+     * @param documentIds the IDs of the documents to add.
+     */
+    MendeleyFuture<FolderDocumentsBatch> addDocumentsToFolder(String folderId, Collection<String> documentIds);
+
+    /**
+     * Remove several documents from a folder, with a bounded number of requests in parallel.
+     * Documents not in the folder are skipped, and documents which cannot be removed are
+     * reported in the batch, without failing the others.
+     * <p>
+     * This does not delete the documents themselves.
+     *
+     * @param folderId the ID of the folder.
+     * @param documentIds the IDs of the documents to remove.
+     */
+    MendeleyFuture<FolderDocumentsBatch> removeDocumentsFromFolder(String folderId, Collection<String> documentIds);
+
+    /* GROUPS */
+
+    /**
+     * Return metadata for all the user's groups.
+     */
+    MendeleyFuture<GroupList> getGroups(GroupRequestParameters parameters);
+
+    /**
+     * Returns the next page of group metadata entries.
+     *
+     * @param next returned from a previous getGroups() call.
+     */
+    MendeleyFuture<GroupList> getGroups(Page next);
+
+    /**
+     * Returns metadata for a single group, specified by ID.
+     *
+     * @param groupId ID of the group to retrieve metadata for.
+     */
+    MendeleyFuture<Group> getGroup(String groupId);
+
+    /**
+     * Return a list of members user roles of a particular group.
+     *
+     * @param groupId ID of the group to inspect.
+     */
+    MendeleyFuture<GroupMembersList> getGroupMembers(GroupRequestParameters parameters, String groupId);
+
+    /**
+     * Return a list of members user roles of a particular group.
+     *
+     * @param next returned from a previous getGroupMembers() call.
+     */
+    MendeleyFuture<GroupMembersList> getGroupMembers(Page next);
+
+    /**
+     * Retrieve the profiles of group members, e.g. a page returned by getGroupMembers().
+     * Profiles are taken from the profile cache where possible, and the others are fetched
+     * with a bounded number of requests in parallel. Profiles which cannot be retrieved are
+     * reported in the result, without failing the others.
+     *
+     * @param userRoles the members whose profiles to get.
+     * @param prefetchPhotos if true, also download the square photo of each profile into the
+     *                       image cache.
+     */
+    MendeleyFuture<GroupMemberProfiles> getGroupMemberProfiles(List<UserRole> userRoles, boolean prefetchPhotos);
+
+    /**
+     * Return group image
+     * @param url image url
+     * @return bytes array of the image
+     */
+    MendeleyFuture<byte[]> getImage(String url);
+
+    /* TRASH */
+
+    /**
+     * Retrieve a list of documents in the user's trash.
+     */
+    MendeleyFuture<DocumentList> getTrashedDocuments(DocumentRequestParameters parameters);
+
+    /**
+     * Retrieve a list of documents in the user's trash.
+     */
+    MendeleyFuture<DocumentList> getTrashedDocuments();
+
+    /**
+     * Retrieve subsequent pages of documents from the user's trash.
+     *
+     * @param next reference to next page returned by a previous DocumentList from getTrashedDocuments().
+     */
+    MendeleyFuture<DocumentList> getTrashedDocuments(Page next);
+
+    /**
+     * Move a document from trash into the user's library.
+     *
+     * @param documentId id of the document to restore.
+     */
+    MendeleyFuture<Void> restoreDocument(String documentId);
+
+    /* PROFILES */
+
+    /**
+     * Return the user's profile information.
+     */
+    MendeleyFuture<Profile> getMyProfile();
+
+    /**
+     * Return profile information for another user.
+     *
+     * @param  profileId ID of the profile to be fetched.
+     */
+    MendeleyFuture<Profile> getProfile(String profileId);
+
+    /* CATALOG */
+
+    /**
+     * Retrieve a list of catalog documents
+     */
+    MendeleyFuture<DocumentList> getCatalogDocuments(CatalogDocumentRequestParameters parameters);
+
+    /**
+     * Retrieve a single catalog document, specified by ID.
+     *
+     * @param catalogId the catalog document id to get.
+     * @param view extended catalog document view. If null, only core fields are returned.
+     */
+    MendeleyFuture<Document> getCatalogDocument(String catalogId, View view);
+
+    /* ANNOTATIONS */
+
+    MendeleyFuture<AnnotationList> getAnnotations();
+
+    MendeleyFuture<AnnotationList> getAnnotations(AnnotationRequestParameters parameters);
+
+    MendeleyFuture<AnnotationList> getAnnotations(Page next);
+
+    MendeleyFuture<Annotation> getAnnotation(String annotationId);
+
+    MendeleyFuture<Annotation> postAnnotation(Annotation annotation);
+
+    MendeleyFuture<Annotation> patchAnnotation(String annotationId, Annotation annotation);
+
+    MendeleyFuture<Void> deleteAnnotation(String annotationId);
+
+    /* CONTROL */
+
+    /**
+     * Specify the executor used to run the blocking calls.
+     */
+    FutureSdk setExecutor(Executor executor);
+}
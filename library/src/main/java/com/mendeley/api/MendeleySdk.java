@@ -22,6 +22,7 @@ import com.mendeley.api.callbacks.MendeleySignInInterface;
 import com.mendeley.api.callbacks.RequestHandle;
 import com.mendeley.api.callbacks.document.DeleteDocumentCallback;
 import com.mendeley.api.callbacks.document.GetDeletedDocumentsCallback;
+import com.mendeley.api.callbacks.document.GetDocumentBatchCallback;
 import com.mendeley.api.callbacks.document.GetDocumentCallback;
 import com.mendeley.api.callbacks.document.GetDocumentTypesCallback;
 import com.mendeley.api.callbacks.document.GetDocumentsCallback;
@@ -30,10 +31,12 @@ import com.mendeley.api.callbacks.document.PostDocumentCallback;
 import com.mendeley.api.callbacks.document.TrashDocumentCallback;
 import com.mendeley.api.callbacks.file.DeleteFileCallback;
 import com.mendeley.api.callbacks.file.GetFileCallback;
+import com.mendeley.api.callbacks.file.GetFileContentCallback;
 import com.mendeley.api.callbacks.file.GetFilesCallback;
 import com.mendeley.api.callbacks.file.PostFileCallback;
 import com.mendeley.api.callbacks.folder.DeleteFolderCallback;
 import com.mendeley.api.callbacks.folder.DeleteFolderDocumentCallback;
+import com.mendeley.api.callbacks.folder.FolderDocumentsBatchCallback;
 import com.mendeley.api.callbacks.folder.GetFolderCallback;
 import com.mendeley.api.callbacks.folder.GetFolderDocumentIdsCallback;
 import com.mendeley.api.callbacks.folder.GetFoldersCallback;
@@ -41,22 +44,28 @@ import com.mendeley.api.callbacks.folder.PatchFolderCallback;
 import com.mendeley.api.callbacks.folder.PostDocumentToFolderCallback;
 import com.mendeley.api.callbacks.folder.PostFolderCallback;
 import com.mendeley.api.callbacks.group.GetGroupCallback;
+import com.mendeley.api.callbacks.group.GetGroupMemberProfilesCallback;
 import com.mendeley.api.callbacks.group.GetGroupMembersCallback;
 import com.mendeley.api.callbacks.group.GetGroupsCallback;
 import com.mendeley.api.callbacks.profile.GetProfileCallback;
 import com.mendeley.api.callbacks.trash.RestoreDocumentCallback;
 import com.mendeley.api.callbacks.utils.GetImageCallback;
 import com.mendeley.api.model.Document;
+import com.mendeley.api.model.File;
 import com.mendeley.api.model.Folder;
+import com.mendeley.api.model.UserRole;
 import com.mendeley.api.params.DocumentRequestParameters;
 import com.mendeley.api.params.FileRequestParameters;
 import com.mendeley.api.params.FolderRequestParameters;
 import com.mendeley.api.params.GroupRequestParameters;
 import com.mendeley.api.params.Page;
+import com.mendeley.api.params.RequestPriority;
 import com.mendeley.api.params.View;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 /**
@@ -119,6 +128,15 @@ public interface MendeleySdk {
      */
     void getDocument(String documentId, View view, GetDocumentCallback callback);
 
+    /**
+     * Retrieve several documents, specified by ID, with a bounded number of requests in parallel.
+     * Documents which cannot be retrieved are reported in the batch, without failing the others.
+     *
+     * @param documentIds the ids of the documents to get.
+     * @param view extended document view. If null, only core fields are returned.
+     */
+    RequestHandle getDocuments(Collection<String> documentIds, View view, GetDocumentBatchCallback callback);
+
     /**
      * Retrieve a list of deleted documents in the user's library.
      *
@@ -167,6 +185,8 @@ public interface MendeleySdk {
 
     /**
      * Return a list of valid document types.
+     * <p>
+     * Document types are cached, so the callback may be called before this method returns.
      */
     RequestHandle getDocumentTypes(GetDocumentTypesCallback callback);
 
@@ -208,6 +228,17 @@ public interface MendeleySdk {
      */
     void getFile(String fileId, String folderPath, String fileName, GetFileCallback callback);
 
+    /**
+     * Get the content of a file from the content store set with
+     * {@link com.mendeley.api.network.NetworkUtils#setFileContentStore}, downloading it only if
+     * no file with the same hash is stored. The content is verified against the hash of the file.
+     * <p>
+     * The download can be cancelled with {@link #cancelDownload}.
+     *
+     * @param file the file, as returned by getFiles().
+     */
+    void getFileContent(File file, GetFileContentCallback callback);
+
     /**
      * Cancel an in-progress file download.
      *
@@ -341,6 +372,28 @@ public interface MendeleySdk {
      */
     void deleteDocumentFromFolder(String folderId, String documentId, DeleteFolderDocumentCallback callback);
 
+    /**
+     * Add several documents to a folder, with a bounded number of requests in parallel.
+     * Documents already in the folder are skipped, and documents which cannot be added are
+     * reported in the batch, without failing the others.
+     *
+     * @param folderId the ID of the folder.
+     * @param documentIds the IDs of the documents to add.
+     */
+    RequestHandle addDocumentsToFolder(String folderId, Collection<String> documentIds, FolderDocumentsBatchCallback callback);
+
+    /**
+     * Remove several documents from a folder, with a bounded number of requests in parallel.
+     * Documents not in the folder are skipped, and documents which cannot be removed are
+     * reported in the batch, without failing the others.
+     * <p>
+     * This does not delete the documents themselves.
+     *
+     * @param folderId the ID of the folder.
+     * @param documentIds the IDs of the documents to remove.
+     */
+    RequestHandle removeDocumentsFromFolder(String folderId, Collection<String> documentIds, FolderDocumentsBatchCallback callback);
+
     /* UTILITIES */
 
     /**
@@ -385,6 +438,18 @@ public interface MendeleySdk {
      */
     void getGroupMembers(Page next, String groupId, GetGroupMembersCallback callback);
 
+    /**
+     * Retrieve the profiles of group members, e.g. a page returned by getGroupMembers().
+     * Profiles are taken from the profile cache where possible, and the others are fetched
+     * with a bounded number of requests in parallel. Profiles which cannot be retrieved are
+     * reported in the result, without failing the others.
+     *
+     * @param userRoles the members whose profiles to get.
+     * @param prefetchPhotos if true, also download the square photo of each profile into the
+     *                       image cache.
+     */
+    RequestHandle getGroupMemberProfiles(List<UserRole> userRoles, boolean prefetchPhotos, GetGroupMemberProfilesCallback callback);
+
     /* TRASH */
 
     /**
@@ -417,4 +482,20 @@ public interface MendeleySdk {
      * Specify the executor used to run background tasks.
      */
     MendeleySdk setExecutor(Executor executor);
+
+    /**
+     * Move a request to another priority lane, e.g. when the screen that needs it becomes visible.
+     * <p>
+     * This only has an effect while the request is waiting to run, and only with the default executor.
+     *
+     * @param handle the handle returned when making the request.
+     * @param priority the new priority.
+     */
+    void setRequestPriority(RequestHandle handle, RequestPriority priority);
+
+    /**
+     * Return the future-based variant of the blocking calls, which by default runs them on the
+     * executor of this SDK.
+     */
+    FutureSdk getFutureSdk();
 }
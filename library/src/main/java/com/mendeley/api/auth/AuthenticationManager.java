@@ -9,12 +9,14 @@ import android.os.Handler;
 import android.util.Log;
 
 import com.mendeley.api.activity.SignInActivity;
+import com.mendeley.api.callbacks.PrioritizedRequestHandle;
 import com.mendeley.api.callbacks.RequestHandle;
 import com.mendeley.api.exceptions.AuthenticationException;
 import com.mendeley.api.exceptions.MendeleyException;
 import com.mendeley.api.impl.BaseMendeleySdk;
 import com.mendeley.api.network.JsonParser;
 import com.mendeley.api.network.NetworkUtils;
+import com.mendeley.api.params.RequestPriority;
 import com.mendeley.api.util.Utils;
 
 import org.apache.http.HttpResponse;
@@ -23,7 +25,6 @@ import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.http.message.BasicNameValuePair;
 import org.json.JSONException;
 
@@ -228,9 +229,10 @@ public class AuthenticationManager implements AccessTokenProvider {
 		}
     }
 
-    private class ChainedRequestHandle implements RequestHandle {
+    private class ChainedRequestHandle implements PrioritizedRequestHandle {
         private boolean cancelled;
         private RequestHandle innerRequestHandle;
+        private RequestPriority priority;
 
         public ChainedRequestHandle() {
             cancelled = false;
@@ -242,6 +244,17 @@ public class AuthenticationManager implements AccessTokenProvider {
 
         public void setInnerRequestHandle(RequestHandle handle) {
             innerRequestHandle = handle;
+            if (priority != null) {
+                setPriority(priority);
+            }
+        }
+
+        @Override
+        public void setPriority(RequestPriority priority) {
+            this.priority = priority;
+            if (innerRequestHandle instanceof PrioritizedRequestHandle) {
+                ((PrioritizedRequestHandle) innerRequestHandle).setPriority(priority);
+            }
         }
 
         @Override
@@ -288,7 +301,7 @@ public class AuthenticationManager implements AccessTokenProvider {
 	 * Helper method for executing http post request for token refresh.
 	 */
 	private HttpResponse doRefreshPost() throws ClientProtocolException, IOException {
-        HttpClient httpclient = new DefaultHttpClient();
+        HttpClient httpclient = NetworkUtils.getHttpTransport().getHttpClient();
         HttpPost httppost = new HttpPost(TOKENS_URL);
         
         List<NameValuePair> nameValuePairs = new ArrayList<NameValuePair>();
@@ -309,7 +322,7 @@ public class AuthenticationManager implements AccessTokenProvider {
      * Helper method for executing http post request for password-based authentication.
      */
     private HttpResponse doPasswordPost() throws ClientProtocolException, IOException {
-        HttpClient httpclient = new DefaultHttpClient();
+        HttpClient httpclient = NetworkUtils.getHttpTransport().getHttpClient();
         HttpPost httppost = new HttpPost(TOKENS_URL);
 
         List<NameValuePair> nameValuePairs = new ArrayList<NameValuePair>();
@@ -0,0 +1,511 @@
+package com.mendeley.api.callbacks;
+
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.exceptions.UserCancelledException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The pending result of an API call, which can be composed with other calls.
+ * <p>
+ * Listeners and chained functions run on the thread that completes the future, unless an
+ * executor is given. Cancelling a future, directly or through {@link RequestHandle#cancel()},
+ * interrupts the call if it is running and cancels the futures it was derived from.
+ *
+ * @param <T> the type of the result
+ */
+public class MendeleyFuture<T> implements Future<T>, RequestHandle {
+
+    /**
+     * A blocking call run by {@link #submit}.
+     */
+    public interface Call<T> {
+        T call() throws MendeleyException;
+    }
+
+    /**
+     * Receives the outcome of a future.
+     */
+    public interface Listener<T> {
+        void onSuccess(T result);
+
+        void onFailure(MendeleyException e);
+    }
+
+    /**
+     * Transforms the result of a future, see {@link #then}.
+     */
+    public interface Function<T, R> {
+        R apply(T value) throws MendeleyException;
+    }
+
+    /**
+     * Starts a dependent call from the result of a future, see {@link #thenCompose}.
+     */
+    public interface AsyncFunction<T, R> {
+        MendeleyFuture<R> apply(T value) throws MendeleyException;
+    }
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    private static ScheduledExecutorService timer;
+
+    private boolean done;
+    private boolean cancelled;
+    private T result;
+    private MendeleyException exception;
+
+    private Thread runner;
+    private final List<RequestHandle> upstream = new ArrayList<RequestHandle>();
+    private List<Runnable> listeners = new ArrayList<Runnable>();
+
+    /**
+     * Creates a future to be completed with {@link #set} or {@link #setException}.
+     */
+    public MendeleyFuture() {
+    }
+
+    /**
+     * Runs a blocking call on the given executor.
+     */
+    public static <T> MendeleyFuture<T> submit(final Call<T> call, Executor executor) {
+        final MendeleyFuture<T> future = new MendeleyFuture<T>();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!future.startRunning()) {
+                    return;
+                }
+                try {
+                    future.set(call.call());
+                } catch (MendeleyException e) {
+                    future.setException(e);
+                } catch (RuntimeException e) {
+                    future.setException(new MendeleyException(String.valueOf(e.getMessage()), e));
+                } finally {
+                    future.stopRunning();
+                }
+            }
+        });
+        return future;
+    }
+
+    public static <T> MendeleyFuture<T> completed(T result) {
+        final MendeleyFuture<T> future = new MendeleyFuture<T>();
+        future.set(result);
+        return future;
+    }
+
+    public static <T> MendeleyFuture<T> failed(MendeleyException e) {
+        final MendeleyFuture<T> future = new MendeleyFuture<T>();
+        future.setException(e);
+        return future;
+    }
+
+    /**
+     * Joins several futures. The returned future succeeds with the results in the same order as
+     * the given futures, or fails with the first failure, in which case the others are cancelled.
+     * Cancelling it cancels all the given futures.
+     */
+    public static <T> MendeleyFuture<List<T>> allOf(final List<? extends MendeleyFuture<? extends T>> futures) {
+        final MendeleyFuture<List<T>> all = new MendeleyFuture<List<T>>();
+        if (futures.isEmpty()) {
+            all.set(Collections.<T>emptyList());
+            return all;
+        }
+
+        final Object[] results = new Object[futures.size()];
+        final AtomicInteger remaining = new AtomicInteger(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            final int index = i;
+            final MendeleyFuture<? extends T> future = futures.get(i);
+            all.addUpstream(future);
+            future.addListener(new Listener<T>() {
+                @Override
+                public void onSuccess(T result) {
+                    results[index] = result;
+                    if (remaining.decrementAndGet() == 0) {
+                        all.set(MendeleyFuture.<T>toList(results));
+                    }
+                }
+
+                @Override
+                public void onFailure(MendeleyException e) {
+                    if (all.setException(e)) {
+                        for (MendeleyFuture<? extends T> other : futures) {
+                            other.cancel(true);
+                        }
+                    }
+                }
+            });
+        }
+        return all;
+    }
+
+    @SafeVarargs
+    public static <T> MendeleyFuture<List<T>> allOf(MendeleyFuture<? extends T>... futures) {
+        // Copied rather than wrapped, so the generic varargs array does not escape
+        final List<MendeleyFuture<? extends T>> list = new ArrayList<MendeleyFuture<? extends T>>(futures.length);
+        for (MendeleyFuture<? extends T> future : futures) {
+            list.add(future);
+        }
+        return allOf(list);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> toList(Object[] results) {
+        final List<T> list = new ArrayList<T>(results.length);
+        for (Object result : results) {
+            list.add((T) result);
+        }
+        return list;
+    }
+
+    /**
+     * Completes the future with a result.
+     *
+     * @return false if the future was already completed
+     */
+    public boolean set(T result) {
+        return complete(result, null, false, false);
+    }
+
+    /**
+     * Completes the future with an error.
+     *
+     * @return false if the future was already completed
+     */
+    public boolean setException(MendeleyException e) {
+        return complete(null, e, false, false);
+    }
+
+    /**
+     * Returns a future completed with the result of the function applied to the result of this one,
+     * or with the error of this one.
+     */
+    public <R> MendeleyFuture<R> then(Function<? super T, ? extends R> function) {
+        return then(function, DIRECT_EXECUTOR);
+    }
+
+    /**
+     * Like {@link #then(Function)}, but the function runs on the given executor.
+     */
+    public <R> MendeleyFuture<R> then(final Function<? super T, ? extends R> function, Executor executor) {
+        final MendeleyFuture<R> next = new MendeleyFuture<R>();
+        next.addUpstream(this);
+        addListener(new Listener<T>() {
+            @Override
+            public void onSuccess(T result) {
+                try {
+                    next.set(function.apply(result));
+                } catch (MendeleyException e) {
+                    next.setException(e);
+                } catch (RuntimeException e) {
+                    next.setException(new MendeleyException("Error applying function: " + e.toString(), e));
+                }
+            }
+
+            @Override
+            public void onFailure(MendeleyException e) {
+                next.setException(e);
+            }
+        }, executor);
+        return next;
+    }
+
+    /**
+     * Returns a future completed with the outcome of the call started by the function once this
+     * one succeeds, or with the error of this one.
+     */
+    public <R> MendeleyFuture<R> thenCompose(final AsyncFunction<? super T, R> function) {
+        final MendeleyFuture<R> next = new MendeleyFuture<R>();
+        next.addUpstream(this);
+        addListener(new Listener<T>() {
+            @Override
+            public void onSuccess(T result) {
+                final MendeleyFuture<R> inner;
+                try {
+                    inner = function.apply(result);
+                } catch (MendeleyException e) {
+                    next.setException(e);
+                    return;
+                } catch (RuntimeException e) {
+                    next.setException(new MendeleyException("Error applying function: " + e.toString(), e));
+                    return;
+                }
+                next.addUpstream(inner);
+                inner.addListener(new Listener<R>() {
+                    @Override
+                    public void onSuccess(R innerResult) {
+                        next.set(innerResult);
+                    }
+
+                    @Override
+                    public void onFailure(MendeleyException e) {
+                        next.setException(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(MendeleyException e) {
+                next.setException(e);
+            }
+        });
+        return next;
+    }
+
+    /**
+     * Fails this future if it has not completed within the given time, and stops the call.
+     *
+     * @return this future
+     */
+    public MendeleyFuture<T> withTimeout(final long timeout, final TimeUnit unit) {
+        final ScheduledFuture<?> scheduled = getTimer().schedule(new Runnable() {
+            @Override
+            public void run() {
+                final MendeleyException e = new MendeleyException("Request timed out after "
+                        + unit.toMillis(timeout) + " ms", new TimeoutException());
+                complete(null, e, false, true);
+            }
+        }, timeout, unit);
+        addListener(new Listener<T>() {
+            @Override
+            public void onSuccess(T result) {
+                scheduled.cancel(false);
+            }
+
+            @Override
+            public void onFailure(MendeleyException e) {
+                scheduled.cancel(false);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Notifies the listener on the thread completing the future, or immediately if it is done.
+     */
+    public void addListener(Listener<? super T> listener) {
+        addListener(listener, DIRECT_EXECUTOR);
+    }
+
+    /**
+     * Notifies the listener on the given executor once the future is done.
+     */
+    public void addListener(final Listener<? super T> listener, final Executor executor) {
+        final Runnable notification = new Runnable() {
+            @Override
+            public void run() {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        final MendeleyException e = getException();
+                        if (e == null) {
+                            listener.onSuccess(getResultNow());
+                        } else {
+                            listener.onFailure(e);
+                        }
+                    }
+                });
+            }
+        };
+        synchronized (this) {
+            if (!done) {
+                listeners.add(notification);
+                return;
+            }
+        }
+        notification.run();
+    }
+
+    /**
+     * Waits for the result of the call.
+     *
+     * @throws MendeleyException the error of the call, {@link UserCancelledException} if it was
+     * cancelled, or a MendeleyException if the waiting thread is interrupted
+     */
+    public T getResult() throws MendeleyException {
+        try {
+            await(0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MendeleyException("Interrupted while waiting for the request", e);
+        }
+        final MendeleyException e = getException();
+        if (e != null) {
+            throw e;
+        }
+        return getResultNow();
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        await(0);
+        return getOrThrow();
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        final long millis = Math.max(1, unit.toMillis(timeout));
+        if (!await(millis)) {
+            throw new TimeoutException();
+        }
+        return getOrThrow();
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return complete(null, new UserCancelledException(), true, mayInterruptIfRunning);
+    }
+
+    @Override
+    public void cancel() {
+        cancel(true);
+    }
+
+    private synchronized MendeleyException getException() {
+        return exception;
+    }
+
+    private synchronized T getResultNow() {
+        return result;
+    }
+
+    private T getOrThrow() throws ExecutionException {
+        synchronized (this) {
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            if (exception != null) {
+                throw new ExecutionException(exception);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * @param timeoutMillis how long to wait, or 0 to wait until done
+     * @return true if the future is done
+     */
+    private synchronized boolean await(long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!done) {
+            if (timeoutMillis == 0) {
+                wait();
+            } else {
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    private void addUpstream(RequestHandle handle) {
+        synchronized (this) {
+            if (!cancelled) {
+                upstream.add(handle);
+                return;
+            }
+        }
+        handle.cancel();
+    }
+
+    private synchronized boolean startRunning() {
+        if (done) {
+            return false;
+        }
+        runner = Thread.currentThread();
+        return true;
+    }
+
+    private void stopRunning() {
+        synchronized (this) {
+            runner = null;
+        }
+        // Clear an interrupt aimed at this call, so it does not leak into the next task of the thread
+        Thread.interrupted();
+    }
+
+    private boolean complete(T result, MendeleyException e, boolean cancel, boolean stopCall) {
+        final List<Runnable> toNotify;
+        final List<RequestHandle> toCancel;
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+            done = true;
+            cancelled = cancel;
+            this.result = result;
+            exception = e;
+            if (stopCall && runner != null) {
+                runner.interrupt();
+            }
+            toCancel = stopCall ? new ArrayList<RequestHandle>(upstream) : Collections.<RequestHandle>emptyList();
+            upstream.clear();
+            toNotify = listeners;
+            listeners = null;
+            notifyAll();
+        }
+        for (RequestHandle handle : toCancel) {
+            handle.cancel();
+        }
+        for (Runnable notification : toNotify) {
+            try {
+                notification.run();
+            } catch (RuntimeException listenerError) {
+                // A failing listener must not keep the others from being notified
+                final Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+                if (handler != null) {
+                    handler.uncaughtException(Thread.currentThread(), listenerError);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static synchronized ScheduledExecutorService getTimer() {
+        if (timer == null) {
+            timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    final Thread thread = new Thread(r, "MendeleySdk timeout");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return timer;
+    }
+}
@@ -0,0 +1,13 @@
+package com.mendeley.api.callbacks;
+
+import com.mendeley.api.params.RequestPriority;
+
+/**
+ * A RequestHandle whose request can be moved to another scheduling lane while it is queued.
+ */
+public interface PrioritizedRequestHandle extends RequestHandle {
+    /**
+     * Changes the priority of the request. Has no effect if the request has already started.
+     */
+    public void setPriority(RequestPriority priority);
+}
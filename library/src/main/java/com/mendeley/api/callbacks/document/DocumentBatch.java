@@ -0,0 +1,55 @@
+package com.mendeley.api.callbacks.document;
+
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.model.Document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The documents retrieved by id in a batch, in the order of the requested ids.
+ */
+public class DocumentBatch {
+    /**
+     * The requested ids.
+     */
+    public final List<String> ids;
+
+    /**
+     * The document for each requested id, or null where it could not be retrieved.
+     */
+    public final List<Document> documents;
+
+    /**
+     * The reason each document which could not be retrieved failed, by id.
+     */
+    public final Map<String, MendeleyException> failures;
+
+    public DocumentBatch(List<String> ids, List<Document> documents, Map<String, MendeleyException> failures) {
+        this.ids = Collections.unmodifiableList(ids);
+        this.documents = Collections.unmodifiableList(documents);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return true if some documents could not be retrieved.
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    /**
+     * @return the retrieved documents, in the order of the requested ids, without the failed ones
+     */
+    public List<Document> getRetrievedDocuments() {
+        final List<Document> retrieved = new ArrayList<Document>(documents.size());
+        for (Document document : documents) {
+            if (document != null) {
+                retrieved.add(document);
+            }
+        }
+        return retrieved;
+    }
+}
@@ -0,0 +1,15 @@
+package com.mendeley.api.callbacks.document;
+
+import com.mendeley.api.exceptions.MendeleyException;
+
+public interface GetDocumentBatchCallback {
+    /**
+     * Called when every document has been requested; those which failed are reported in the batch.
+     */
+    public void onDocumentBatchReceived(DocumentBatch batch);
+
+    /**
+     * Called when the batch as a whole failed, e.g. because it was interrupted.
+     */
+    public void onDocumentBatchNotReceived(MendeleyException mendeleyException);
+}
@@ -0,0 +1,11 @@
+package com.mendeley.api.callbacks.file;
+
+import com.mendeley.api.exceptions.MendeleyException;
+
+import java.io.File;
+
+public interface GetFileContentCallback {
+    public void onFileContentProgress(String fileId, int progress);
+    public void onFileContentReceived(String fileId, File content);
+    public void onFileContentNotReceived(String fileId, MendeleyException mendeleyException);
+}
@@ -0,0 +1,45 @@
+package com.mendeley.api.callbacks.folder;
+
+import com.mendeley.api.exceptions.MendeleyException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of adding several documents to a folder, or removing them from it.
+ */
+public class FolderDocumentsBatch {
+    public final String folderId;
+
+    /**
+     * The documents which were added or removed.
+     */
+    public final List<String> changedIds;
+
+    /**
+     * The documents which were not requested, as they were already in the folder when adding
+     * or not in it when removing. Repeated ids are only requested once.
+     */
+    public final List<String> skippedIds;
+
+    /**
+     * The reason each document which could not be added or removed failed, by id.
+     */
+    public final Map<String, MendeleyException> failures;
+
+    public FolderDocumentsBatch(String folderId, List<String> changedIds, List<String> skippedIds,
+                                Map<String, MendeleyException> failures) {
+        this.folderId = folderId;
+        this.changedIds = Collections.unmodifiableList(changedIds);
+        this.skippedIds = Collections.unmodifiableList(skippedIds);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return true if some documents could not be added or removed.
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
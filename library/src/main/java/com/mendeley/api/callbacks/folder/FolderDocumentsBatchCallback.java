@@ -0,0 +1,16 @@
+package com.mendeley.api.callbacks.folder;
+
+import com.mendeley.api.exceptions.MendeleyException;
+
+public interface FolderDocumentsBatchCallback {
+    /**
+     * Called when every document has been handled; those which failed are reported in the batch.
+     */
+    public void onFolderDocumentsBatchCompleted(FolderDocumentsBatch batch);
+
+    /**
+     * Called when the batch as a whole failed, e.g. because the content of the folder could
+     * not be retrieved or the batch was interrupted.
+     */
+    public void onFolderDocumentsBatchNotCompleted(MendeleyException mendeleyException);
+}
@@ -0,0 +1,15 @@
+package com.mendeley.api.callbacks.group;
+
+import com.mendeley.api.exceptions.MendeleyException;
+
+public interface GetGroupMemberProfilesCallback {
+    /**
+     * Called when every profile has been requested; those which failed are reported in the result.
+     */
+    public void onGroupMemberProfilesReceived(GroupMemberProfiles memberProfiles);
+
+    /**
+     * Called when the request as a whole failed, e.g. because it was interrupted.
+     */
+    public void onGroupMemberProfilesNotReceived(MendeleyException mendeleyException);
+}
@@ -0,0 +1,39 @@
+package com.mendeley.api.callbacks.group;
+
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.model.Profile;
+import com.mendeley.api.model.UserRole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The profiles of a list of group members, in the order of the members.
+ */
+public class GroupMemberProfiles {
+    public final List<UserRole> userRoles;
+
+    /**
+     * The profile of each member, or null where it could not be retrieved.
+     */
+    public final List<Profile> profiles;
+
+    /**
+     * The reason each profile which could not be retrieved failed, by profile id.
+     */
+    public final Map<String, MendeleyException> failures;
+
+    public GroupMemberProfiles(List<UserRole> userRoles, List<Profile> profiles, Map<String, MendeleyException> failures) {
+        this.userRoles = Collections.unmodifiableList(userRoles);
+        this.profiles = Collections.unmodifiableList(profiles);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return true if some profiles could not be retrieved.
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
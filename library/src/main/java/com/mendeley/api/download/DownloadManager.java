@@ -0,0 +1,463 @@
+package com.mendeley.api.download;
+
+import com.mendeley.api.callbacks.file.GetFileCallback;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.network.PartialDownload;
+import com.mendeley.api.network.RequestScheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queues file downloads and runs a bounded number of them at a time, e.g. to make many files
+ * available offline without the downloads competing for the bandwidth.
+ * <p>
+ * The queued downloads are ordered by priority, then by the order in which they were enqueued.
+ * At most a number of downloads run at the same time, and at most a number per host. A file
+ * enqueued again while it is waiting or running is not downloaded twice; only its priority is raised.
+ * <p>
+ * The queue is kept in a {@link DownloadQueueStore}. The downloads restored from a persistent
+ * store, e.g. after the process was killed, start again once {@link #start()} is called, and
+ * resume from their partial content. The store is written outside the lock of the manager, in
+ * the order of the changes, so that a slow store does not hold the callers.
+ * <p>
+ * A paused download is cancelled, keeping its partial content, and stays in the queue until it
+ * is resumed or cancelled. Cancelling a download removes it from the queue and deletes its
+ * partial content.
+ */
+public class DownloadManager {
+    public static final int DEFAULT_MAX_ACTIVE = RequestScheduler.DEFAULT_BULK_CONCURRENCY;
+    public static final int DEFAULT_MAX_ACTIVE_PER_HOST = RequestScheduler.DEFAULT_BULK_CONCURRENCY;
+
+    public enum State {
+        /** Waiting for a free slot */
+        QUEUED,
+        /** Being downloaded */
+        RUNNING,
+        /** Kept in the queue, but not downloaded until resumed */
+        PAUSED
+    }
+
+    private static class Entry {
+        DownloadRequest request;
+        final long sequence;
+        State state;
+        Attempt attempt;
+
+        Entry(DownloadRequest request, long sequence, State state) {
+            this.request = request;
+            this.sequence = sequence;
+            this.state = state;
+        }
+    }
+
+    private static final Comparator<Entry> ORDER = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry lhs, Entry rhs) {
+            if (lhs.request.priority != rhs.request.priority) {
+                return lhs.request.priority > rhs.request.priority ? -1 : 1;
+            }
+            return lhs.sequence < rhs.sequence ? -1 : (lhs.sequence == rhs.sequence ? 0 : 1);
+        }
+    };
+
+    private final FileDownloader downloader;
+    private final DownloadQueueStore store;
+    private final int maxActive;
+    private final int maxActivePerHost;
+
+    // Serializes the writes to the store, which are made outside the lock of the manager
+    private final Object storeLock = new Object();
+    // Changes of the queue not written to the store yet, in order
+    private final LinkedList<Runnable> pendingWrites = new LinkedList<Runnable>();
+
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+    private final Map<String, Integer> activeByHost = new HashMap<String, Integer>();
+    private int active;
+    private long nextSequence;
+    private boolean started;
+
+    private volatile GetFileCallback callback;
+
+    public DownloadManager(FileDownloader downloader, DownloadQueueStore store) {
+        this(downloader, store, DEFAULT_MAX_ACTIVE, DEFAULT_MAX_ACTIVE_PER_HOST);
+    }
+
+    /**
+     * Restores the downloads kept in the store, which start with {@link #start()}.
+     *
+     * @param maxActive maximum number of downloads running at the same time
+     * @param maxActivePerHost maximum number of downloads from the same host running at the same time
+     */
+    public DownloadManager(FileDownloader downloader, DownloadQueueStore store, int maxActive, int maxActivePerHost) {
+        this.downloader = downloader;
+        this.store = store;
+        this.maxActive = Math.max(1, maxActive);
+        this.maxActivePerHost = Math.max(1, maxActivePerHost);
+        for (QueuedDownload queued : store.load()) {
+            entries.put(queued.request.fileId, new Entry(queued.request, queued.sequence,
+                    queued.paused ? State.PAUSED : State.QUEUED));
+            nextSequence = Math.max(nextSequence, queued.sequence + 1);
+        }
+    }
+
+    /**
+     * Sets the callback receiving the progress and the outcome of all the downloads.
+     * Cancelled and paused downloads are not reported.
+     */
+    public void setCallback(GetFileCallback callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * Starts running the queued downloads. Until then, downloads are only queued.
+     */
+    public void start() {
+        synchronized (this) {
+            started = true;
+        }
+        scheduleNext();
+    }
+
+    /**
+     * Adds a download to the queue.
+     *
+     * @return false if the file was already queued; its priority is raised to the one of the
+     * request if lower
+     */
+    public boolean enqueue(DownloadRequest request) {
+        final boolean added;
+        synchronized (this) {
+            final Entry existing = entries.get(request.fileId);
+            added = existing == null;
+            if (added) {
+                final Entry entry = new Entry(request, nextSequence++, State.QUEUED);
+                entries.put(request.fileId, entry);
+                persist(entry);
+            } else if (request.priority > existing.request.priority) {
+                existing.request = existing.request.withPriority(request.priority);
+                persist(existing);
+            }
+        }
+        flushWrites();
+        if (added) {
+            scheduleNext();
+        }
+        return added;
+    }
+
+    /**
+     * Changes the priority of a queued download. A running download is not interrupted.
+     *
+     * @return false if the file is not queued
+     */
+    public boolean setPriority(String fileId, int priority) {
+        synchronized (this) {
+            final Entry entry = entries.get(fileId);
+            if (entry == null) {
+                return false;
+            }
+            entry.request = entry.request.withPriority(priority);
+            persist(entry);
+        }
+        flushWrites();
+        scheduleNext();
+        return true;
+    }
+
+    /**
+     * Pauses a download, cancelling it if it is running. Its partial content is kept.
+     *
+     * @return false if the file is not queued
+     */
+    public boolean pause(String fileId) {
+        final boolean running;
+        synchronized (this) {
+            final Entry entry = entries.get(fileId);
+            if (entry == null) {
+                return false;
+            }
+            running = entry.attempt != null;
+            if (running) {
+                entry.attempt.cancelled = true;
+            }
+            entry.state = State.PAUSED;
+            persist(entry);
+        }
+        flushWrites();
+        if (running) {
+            downloader.cancel(fileId);
+        }
+        return true;
+    }
+
+    /**
+     * Pauses all the downloads.
+     */
+    public void pauseAll() {
+        for (String fileId : getFileIds()) {
+            pause(fileId);
+        }
+    }
+
+    /**
+     * Queues a paused download again, where it was in the queue.
+     *
+     * @return false if the file is not paused
+     */
+    public boolean resume(String fileId) {
+        synchronized (this) {
+            final Entry entry = entries.get(fileId);
+            if (entry == null || entry.state != State.PAUSED) {
+                return false;
+            }
+            // If the cancelled attempt has not ended yet, the download starts again once it has
+            entry.state = State.QUEUED;
+            persist(entry);
+        }
+        flushWrites();
+        scheduleNext();
+        return true;
+    }
+
+    /**
+     * Resumes all the paused downloads.
+     */
+    public void resumeAll() {
+        for (String fileId : getFileIds()) {
+            resume(fileId);
+        }
+    }
+
+    /**
+     * Removes a download from the queue, cancelling it if it is running, and deletes its partial content.
+     *
+     * @return false if the file is not queued
+     */
+    public boolean cancel(String fileId) {
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.remove(fileId);
+            if (entry == null) {
+                return false;
+            }
+            unpersist(fileId);
+            if (entry.attempt != null) {
+                // The partial content is deleted once the download has stopped writing it
+                entry.attempt.discard = true;
+            }
+        }
+        flushWrites();
+        if (entry.attempt != null) {
+            downloader.cancel(fileId);
+        } else {
+            PartialDownload.forFile(entry.request.folderPath, fileId).discard();
+        }
+        return true;
+    }
+
+    /**
+     * @return the state of a download, or null if the file is not queued
+     */
+    public synchronized State getState(String fileId) {
+        final Entry entry = entries.get(fileId);
+        return entry != null ? entry.state : null;
+    }
+
+    /**
+     * @return the queued downloads, running or not, in the order they are started
+     */
+    public synchronized List<DownloadRequest> getRequests() {
+        final List<Entry> ordered = new ArrayList<Entry>(entries.values());
+        Collections.sort(ordered, ORDER);
+        final List<DownloadRequest> requests = new ArrayList<DownloadRequest>(ordered.size());
+        for (Entry entry : ordered) {
+            requests.add(entry.request);
+        }
+        return requests;
+    }
+
+    /**
+     * @return the number of downloads running
+     */
+    public synchronized int getActiveCount() {
+        return active;
+    }
+
+    private synchronized List<String> getFileIds() {
+        return new ArrayList<String>(entries.keySet());
+    }
+
+    /**
+     * Queues the write of an entry to the store. Must be called holding the lock of the manager,
+     * and followed by {@link #flushWrites} once it is released.
+     */
+    private void persist(Entry entry) {
+        final QueuedDownload queued = new QueuedDownload(entry.request, entry.sequence, entry.state == State.PAUSED);
+        pendingWrites.add(new Runnable() {
+            @Override
+            public void run() {
+                store.put(queued);
+            }
+        });
+    }
+
+    /**
+     * Queues the removal of a download from the store, as {@link #persist}.
+     */
+    private void unpersist(final String fileId) {
+        pendingWrites.add(new Runnable() {
+            @Override
+            public void run() {
+                store.remove(fileId);
+            }
+        });
+    }
+
+    /**
+     * Writes the pending changes to the store, in order. Must not be called holding the lock
+     * of the manager.
+     */
+    private void flushWrites() {
+        synchronized (storeLock) {
+            while (true) {
+                final Runnable write;
+                synchronized (this) {
+                    write = pendingWrites.poll();
+                }
+                if (write == null) {
+                    return;
+                }
+                write.run();
+            }
+        }
+    }
+
+    /**
+     * Starts the first queued downloads that the limits allow.
+     */
+    private void scheduleNext() {
+        final List<Attempt> toStart = new ArrayList<Attempt>();
+        synchronized (this) {
+            if (!started || active >= maxActive) {
+                return;
+            }
+            final List<Entry> candidates = new ArrayList<Entry>();
+            for (Entry entry : entries.values()) {
+                if (entry.attempt == null && entry.state != State.PAUSED) {
+                    candidates.add(entry);
+                }
+            }
+            Collections.sort(candidates, ORDER);
+            for (Entry entry : candidates) {
+                if (active >= maxActive) {
+                    break;
+                }
+                final String host = entry.request.host;
+                final int hostActive = getActiveCount(host);
+                if (hostActive >= maxActivePerHost) {
+                    continue;
+                }
+                active++;
+                activeByHost.put(host, hostActive + 1);
+                entry.state = State.RUNNING;
+                entry.attempt = new Attempt(entry.request);
+                toStart.add(entry.attempt);
+            }
+        }
+        for (Attempt attempt : toStart) {
+            downloader.download(attempt.request, attempt);
+        }
+    }
+
+    private int getActiveCount(String host) {
+        final Integer count = activeByHost.get(host);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Ends an attempt, which frees its slot whether or not its download is still queued.
+     *
+     * @return true if the outcome of the attempt is the outcome of its download
+     */
+    private boolean finish(Attempt attempt, boolean received) {
+        boolean reported = false;
+        boolean discard;
+        synchronized (this) {
+            active--;
+            final String host = attempt.request.host;
+            final int hostActive = getActiveCount(host) - 1;
+            if (hostActive > 0) {
+                activeByHost.put(host, hostActive);
+            } else {
+                activeByHost.remove(host);
+            }
+
+            discard = attempt.discard;
+            final Entry entry = entries.get(attempt.request.fileId);
+            if (entry != null && entry.attempt == attempt) {
+                entry.attempt = null;
+                if (received || !attempt.cancelled) {
+                    entries.remove(attempt.request.fileId);
+                    unpersist(attempt.request.fileId);
+                    reported = true;
+                }
+                // Otherwise the download was paused, and may have been resumed meanwhile
+            }
+        }
+        flushWrites();
+        if (discard) {
+            PartialDownload.forFile(attempt.request.folderPath, attempt.request.fileId).discard();
+        }
+        scheduleNext();
+        return reported;
+    }
+
+    private synchronized boolean isCurrent(Attempt attempt) {
+        final Entry entry = entries.get(attempt.request.fileId);
+        return entry != null && entry.attempt == attempt && entry.state == State.RUNNING;
+    }
+
+    /**
+     * One run of a download, which reports to the manager callback only while it is the current
+     * attempt of a running download.
+     */
+    private class Attempt implements GetFileCallback {
+        final DownloadRequest request;
+        boolean cancelled;
+        boolean discard;
+
+        Attempt(DownloadRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public void onFileDownloadProgress(String fileId, int progress) {
+            final GetFileCallback current = callback;
+            if (current != null && isCurrent(this)) {
+                current.onFileDownloadProgress(fileId, progress);
+            }
+        }
+
+        @Override
+        public void onFileReceived(String fileId, String fileName) {
+            final GetFileCallback current = callback;
+            if (finish(this, true) && current != null) {
+                current.onFileReceived(fileId, fileName);
+            }
+        }
+
+        @Override
+        public void onFileNotReceived(String fileId, MendeleyException mendeleyException) {
+            final GetFileCallback current = callback;
+            if (finish(this, false) && current != null) {
+                current.onFileNotReceived(fileId, mendeleyException);
+            }
+        }
+    }
+}
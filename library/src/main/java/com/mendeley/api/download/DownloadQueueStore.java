@@ -0,0 +1,21 @@
+package com.mendeley.api.download;
+
+import java.util.List;
+
+/**
+ * Keeps the queue of a {@link DownloadManager}, so that the downloads which did not complete are
+ * started again with the next manager, e.g. after the process was killed.
+ */
+public interface DownloadQueueStore {
+    /**
+     * @return all the queued downloads, in no particular order
+     */
+    List<QueuedDownload> load();
+
+    /**
+     * Adds a download, or replaces the one with the same file id.
+     */
+    void put(QueuedDownload download);
+
+    void remove(String fileId);
+}
@@ -0,0 +1,68 @@
+package com.mendeley.api.download;
+
+import com.mendeley.api.network.NetworkUtils;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+
+/**
+ * A file to be downloaded by a {@link DownloadManager}.
+ */
+public class DownloadRequest {
+    public static final int DEFAULT_PRIORITY = 0;
+
+    /**
+     * The host the downloads are counted against unless another one is given: the file
+     * requests all go to the API, which redirects them to the storage host.
+     */
+    public static final String DEFAULT_HOST = getHost(NetworkUtils.API_URL);
+
+    public final String fileId;
+    public final String folderPath;
+    /** The local file name, or null to use the name of the file being downloaded */
+    public final String fileName;
+    /** The host whose concurrent downloads are limited together */
+    public final String host;
+    /** Requests with a higher priority are started first */
+    public final int priority;
+
+    public DownloadRequest(String fileId, String folderPath) {
+        this(fileId, folderPath, null, DEFAULT_HOST, DEFAULT_PRIORITY);
+    }
+
+    public DownloadRequest(String fileId, String folderPath, String fileName, int priority) {
+        this(fileId, folderPath, fileName, DEFAULT_HOST, priority);
+    }
+
+    public DownloadRequest(String fileId, String folderPath, String fileName, String host, int priority) {
+        this.fileId = fileId;
+        this.folderPath = folderPath;
+        this.fileName = fileName;
+        this.host = host != null ? host : DEFAULT_HOST;
+        this.priority = priority;
+    }
+
+    /**
+     * @return the same request with another priority
+     */
+    public DownloadRequest withPriority(int priority) {
+        return new DownloadRequest(fileId, folderPath, fileName, host, priority);
+    }
+
+    private static String getHost(String url) {
+        try {
+            return new URL(url).getHost();
+        } catch (MalformedURLException e) {
+            return url;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "fileId: " + fileId +
+                ", folderPath: " + folderPath +
+                ", fileName: " + fileName +
+                ", host: " + host +
+                ", priority: " + priority;
+    }
+}
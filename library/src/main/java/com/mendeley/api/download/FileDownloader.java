@@ -0,0 +1,19 @@
+package com.mendeley.api.download;
+
+import com.mendeley.api.callbacks.file.GetFileCallback;
+
+/**
+ * Runs the downloads of a {@link DownloadManager}.
+ */
+public interface FileDownloader {
+    /**
+     * Starts downloading a file. The callback must eventually receive either
+     * onFileReceived or onFileNotReceived, including when the download is cancelled.
+     */
+    void download(DownloadRequest request, GetFileCallback callback);
+
+    /**
+     * Cancels the download of a file, keeping its partial content.
+     */
+    void cancel(String fileId);
+}
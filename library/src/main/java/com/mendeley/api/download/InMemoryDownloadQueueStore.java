@@ -0,0 +1,29 @@
+package com.mendeley.api.download;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the download queue in memory only, for a manager whose queue does not need to survive
+ * the process.
+ */
+public class InMemoryDownloadQueueStore implements DownloadQueueStore {
+    private final Map<String, QueuedDownload> downloads = new LinkedHashMap<String, QueuedDownload>();
+
+    @Override
+    public synchronized List<QueuedDownload> load() {
+        return new ArrayList<QueuedDownload>(downloads.values());
+    }
+
+    @Override
+    public synchronized void put(QueuedDownload download) {
+        downloads.put(download.request.fileId, download);
+    }
+
+    @Override
+    public synchronized void remove(String fileId) {
+        downloads.remove(fileId);
+    }
+}
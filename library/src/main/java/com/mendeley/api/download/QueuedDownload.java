@@ -0,0 +1,17 @@
+package com.mendeley.api.download;
+
+/**
+ * A request waiting in the queue of a {@link DownloadManager}, as kept by a {@link DownloadQueueStore}.
+ */
+public class QueuedDownload {
+    public final DownloadRequest request;
+    /** The order in which the requests were enqueued */
+    public final long sequence;
+    public final boolean paused;
+
+    public QueuedDownload(DownloadRequest request, long sequence, boolean paused) {
+        this.request = request;
+        this.sequence = sequence;
+        this.paused = paused;
+    }
+}
@@ -0,0 +1,30 @@
+package com.mendeley.api.download;
+
+import com.mendeley.api.MendeleySdk;
+import com.mendeley.api.callbacks.file.GetFileCallback;
+
+/**
+ * Downloads the files through {@link MendeleySdk#getFile}, which resumes from the partial content
+ * of a cancelled download.
+ */
+public class SdkFileDownloader implements FileDownloader {
+    private final MendeleySdk sdk;
+
+    public SdkFileDownloader(MendeleySdk sdk) {
+        this.sdk = sdk;
+    }
+
+    @Override
+    public void download(DownloadRequest request, GetFileCallback callback) {
+        if (request.fileName == null) {
+            sdk.getFile(request.fileId, request.folderPath, callback);
+        } else {
+            sdk.getFile(request.fileId, request.folderPath, request.fileName, callback);
+        }
+    }
+
+    @Override
+    public void cancel(String fileId) {
+        sdk.cancelDownload(fileId);
+    }
+}
@@ -0,0 +1,89 @@
+package com.mendeley.api.download;
+
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.mendeley.api.impl.BaseMendeleySdk;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the download queue in SharedPreferences, one JSON entry per file, so that it survives
+ * process restarts.
+ * <p>
+ * The preferences should be dedicated to the queue, or at least not use keys starting with
+ * the download prefix. Changes are written to disk asynchronously.
+ */
+public class SharedPreferencesDownloadQueueStore implements DownloadQueueStore {
+    private static final String TAG = BaseMendeleySdk.TAG;
+    private static final String KEY_PREFIX = "download:";
+
+    private final SharedPreferences preferences;
+
+    public SharedPreferencesDownloadQueueStore(SharedPreferences preferences) {
+        this.preferences = preferences;
+    }
+
+    @Override
+    public List<QueuedDownload> load() {
+        final List<QueuedDownload> downloads = new ArrayList<QueuedDownload>();
+        for (Map.Entry<String, ?> entry : preferences.getAll().entrySet()) {
+            if (!entry.getKey().startsWith(KEY_PREFIX) || !(entry.getValue() instanceof String)) {
+                continue;
+            }
+            try {
+                downloads.add(parse((String) entry.getValue()));
+            } catch (JSONException e) {
+                Log.w(TAG, "Dropping unreadable queued download " + entry.getKey() + ": " + e.getMessage());
+                preferences.edit().remove(entry.getKey()).apply();
+            }
+        }
+        return downloads;
+    }
+
+    @Override
+    public void put(QueuedDownload download) {
+        try {
+            preferences.edit().putString(KEY_PREFIX + download.request.fileId, format(download)).apply();
+        } catch (JSONException e) {
+            // Only thrown for non-finite numbers, which a download does not have
+            Log.w(TAG, "Cannot store queued download " + download.request.fileId + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void remove(String fileId) {
+        preferences.edit().remove(KEY_PREFIX + fileId).apply();
+    }
+
+    private static String format(QueuedDownload download) throws JSONException {
+        final DownloadRequest request = download.request;
+        final JSONObject json = new JSONObject();
+        json.put("fileId", request.fileId);
+        json.put("folderPath", request.folderPath);
+        if (request.fileName != null) {
+            json.put("fileName", request.fileName);
+        }
+        json.put("host", request.host);
+        json.put("priority", request.priority);
+        json.put("sequence", download.sequence);
+        json.put("paused", download.paused);
+        return json.toString();
+    }
+
+    private static QueuedDownload parse(String value) throws JSONException {
+        final JSONObject json = new JSONObject(value);
+        final DownloadRequest request = new DownloadRequest(
+                json.getString("fileId"),
+                json.getString("folderPath"),
+                json.has("fileName") ? json.getString("fileName") : null,
+                json.optString("host", DownloadRequest.DEFAULT_HOST),
+                json.optInt("priority", DownloadRequest.DEFAULT_PRIORITY));
+        return new QueuedDownload(request, json.optLong("sequence"), json.optBoolean("paused"));
+    }
+}
@@ -2,10 +2,14 @@ package com.mendeley.api.impl;
 
 import android.os.AsyncTask;
 
+import com.mendeley.api.FutureSdk;
 import com.mendeley.api.MendeleySdk;
+import com.mendeley.api.callbacks.PrioritizedRequestHandle;
 import com.mendeley.api.callbacks.RequestHandle;
 import com.mendeley.api.callbacks.document.DeleteDocumentCallback;
 import com.mendeley.api.callbacks.document.GetDeletedDocumentsCallback;
+import com.mendeley.api.callbacks.document.DocumentBatch;
+import com.mendeley.api.callbacks.document.GetDocumentBatchCallback;
 import com.mendeley.api.callbacks.document.GetDocumentCallback;
 import com.mendeley.api.callbacks.document.GetDocumentTypesCallback;
 import com.mendeley.api.callbacks.document.GetDocumentsCallback;
@@ -14,10 +18,13 @@ import com.mendeley.api.callbacks.document.PostDocumentCallback;
 import com.mendeley.api.callbacks.document.TrashDocumentCallback;
 import com.mendeley.api.callbacks.file.DeleteFileCallback;
 import com.mendeley.api.callbacks.file.GetFileCallback;
+import com.mendeley.api.callbacks.file.GetFileContentCallback;
 import com.mendeley.api.callbacks.file.GetFilesCallback;
 import com.mendeley.api.callbacks.file.PostFileCallback;
 import com.mendeley.api.callbacks.folder.DeleteFolderCallback;
 import com.mendeley.api.callbacks.folder.DeleteFolderDocumentCallback;
+import com.mendeley.api.callbacks.folder.FolderDocumentsBatch;
+import com.mendeley.api.callbacks.folder.FolderDocumentsBatchCallback;
 import com.mendeley.api.callbacks.folder.GetFolderCallback;
 import com.mendeley.api.callbacks.folder.GetFolderDocumentIdsCallback;
 import com.mendeley.api.callbacks.folder.GetFoldersCallback;
@@ -25,31 +32,48 @@ import com.mendeley.api.callbacks.folder.PatchFolderCallback;
 import com.mendeley.api.callbacks.folder.PostDocumentToFolderCallback;
 import com.mendeley.api.callbacks.folder.PostFolderCallback;
 import com.mendeley.api.callbacks.group.GetGroupCallback;
+import com.mendeley.api.callbacks.group.GetGroupMemberProfilesCallback;
 import com.mendeley.api.callbacks.group.GetGroupMembersCallback;
+import com.mendeley.api.callbacks.group.GroupMemberProfiles;
 import com.mendeley.api.callbacks.group.GetGroupsCallback;
 import com.mendeley.api.callbacks.profile.GetProfileCallback;
 import com.mendeley.api.callbacks.trash.RestoreDocumentCallback;
 import com.mendeley.api.callbacks.utils.GetImageCallback;
 import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.exceptions.UserCancelledException;
 import com.mendeley.api.model.Document;
 import com.mendeley.api.model.File;
 import com.mendeley.api.model.Folder;
+import com.mendeley.api.model.UserRole;
+import com.mendeley.api.network.ImageCache;
+import com.mendeley.api.network.NetworkUtils;
+import com.mendeley.api.network.NullRequest;
+import com.mendeley.api.network.ProfileCache;
+import com.mendeley.api.network.ReferenceDataCache;
+import com.mendeley.api.network.RequestScheduler;
+import com.mendeley.api.network.ResponseCache;
+import com.mendeley.api.network.provider.DocumentNetworkProvider;
 import com.mendeley.api.params.DocumentRequestParameters;
 import com.mendeley.api.params.FileRequestParameters;
 import com.mendeley.api.params.FolderRequestParameters;
 import com.mendeley.api.params.GroupRequestParameters;
 import com.mendeley.api.params.Page;
+import com.mendeley.api.params.RequestPriority;
 import com.mendeley.api.params.View;
 
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 /**
  * Adds async calls to BaseMendeleySdk.
  */
 public abstract class AsyncMendeleySdk extends BaseMendeleySdk implements MendeleySdk {
-    private Executor executor = AsyncTask.THREAD_POOL_EXECUTOR;
+    private Executor executor = new RequestScheduler();
+    private FutureSdk futureSdk;
 
     @Override
     public boolean isSignedIn() {
@@ -61,6 +85,18 @@ public abstract class AsyncMendeleySdk extends BaseMendeleySdk implements Mendel
         if (authenticationManager != null) {
             authenticationManager.clearCredentials();
         }
+        final ResponseCache responseCache = NetworkUtils.getResponseCache();
+        if (responseCache != null) {
+            responseCache.clear();
+        }
+        final ImageCache imageCache = NetworkUtils.getImageCache();
+        if (imageCache != null) {
+            imageCache.clear();
+        }
+        final ProfileCache profileCache = NetworkUtils.getProfileCache();
+        if (profileCache != null) {
+            profileCache.clear();
+        }
     }
 
     /* DOCUMENTS ASYNC */
@@ -101,6 +137,18 @@ public abstract class AsyncMendeleySdk extends BaseMendeleySdk implements Mendel
         });
     }
 
+    @Override
+    public RequestHandle getDocuments(final Collection<String> documentIds, final View view, final GetDocumentBatchCallback callback) {
+        return run(new Command() {
+            @Override
+            public RequestHandle exec() {
+                final GetDocumentBatchTask task = new GetDocumentBatchTask(createDocumentBatchFetcher(), documentIds, view, callback);
+                task.executeOnExecutor(getExecutor());
+                return task;
+            }
+        });
+    }
+
     @Override
     public RequestHandle getDeletedDocuments(final String deletedSince, final DocumentRequestParameters parameters, final GetDeletedDocumentsCallback callback) {
         return run(new Command() {
@@ -166,6 +214,12 @@ public abstract class AsyncMendeleySdk extends BaseMendeleySdk implements Mendel
 
     @Override
     public RequestHandle getDocumentTypes(final GetDocumentTypesCallback callback) {
+        final Map<String, String> cached =
+                getCachedReferenceData(ReferenceDataCache.Kind.DOCUMENT_TYPES, DocumentNetworkProvider.DOCUMENT_TYPES_BASE_URL);
+        if (cached != null) {
+            callback.onDocumentTypesReceived(cached);
+            return NullRequest.get();
+        }
         return run(new Command() {
             @Override
             public RequestHandle exec() {
@@ -223,6 +277,17 @@ public abstract class AsyncMendeleySdk extends BaseMendeleySdk implements Mendel
         });
     }
 
+    @Override
+    public void getFileContent(final File file, final GetFileContentCallback callback) {
+        run(new Command() {
+            @Override
+            public RequestHandle exec() {
+                fileNetworkProvider.doGetFileContent(file, callback);
+                return null;
+            }
+        });
+    }
+
     @Override
     public void cancelDownload(final String fileId) {
         run(new Command() {
@@ -405,6 +470,30 @@ public abstract class AsyncMendeleySdk extends BaseMendeleySdk implements Mendel
         });
     }
 
+    @Override
+    public RequestHandle addDocumentsToFolder(final String folderId, final Collection<String> documentIds, final FolderDocumentsBatchCallback callback) {
+        return run(new Command() {
+            @Override
+            public RequestHandle exec() {
+                final FolderDocumentsBatchTask task = new FolderDocumentsBatchTask(createFolderDocumentsBatcher(), true, folderId, documentIds, callback);
+                task.executeOnExecutor(getExecutor());
+                return task;
+            }
+        });
+    }
+
+    @Override
+    public RequestHandle removeDocumentsFromFolder(final String folderId, final Collection<String> documentIds, final FolderDocumentsBatchCallback callback) {
+        return run(new Command() {
+            @Override
+            public RequestHandle exec() {
+                final FolderDocumentsBatchTask task = new FolderDocumentsBatchTask(createFolderDocumentsBatcher(), false, folderId, documentIds, callback);
+                task.executeOnExecutor(getExecutor());
+                return task;
+            }
+        });
+    }
+
     /* UTILITIES */
 
     @Override
@@ -473,6 +562,18 @@ public abstract class AsyncMendeleySdk extends BaseMendeleySdk implements Mendel
         });
     }
 
+    @Override
+    public RequestHandle getGroupMemberProfiles(final List<UserRole> userRoles, final boolean prefetchPhotos, final GetGroupMemberProfilesCallback callback) {
+        return run(new Command() {
+            @Override
+            public RequestHandle exec() {
+                final GetGroupMemberProfilesTask task = new GetGroupMemberProfilesTask(createProfileHydrator(), userRoles, prefetchPhotos, callback);
+                task.executeOnExecutor(getExecutor());
+                return task;
+            }
+        });
+    }
+
     /* TRASH ASYNC */
 
     @Override
@@ -519,6 +620,180 @@ public abstract class AsyncMendeleySdk extends BaseMendeleySdk implements Mendel
         return this;
     }
 
+    @Override
+    public synchronized FutureSdk getFutureSdk() {
+        if (futureSdk == null) {
+            // Follows the executor of this SDK until the future SDK is given its own
+            futureSdk = new FutureMendeleySdk(this, new Executor() {
+                @Override
+                public void execute(Runnable runnable) {
+                    getExecutor().execute(runnable);
+                }
+            });
+        }
+        return futureSdk;
+    }
+
+    @Override
+    public void setRequestPriority(RequestHandle handle, RequestPriority priority) {
+        if (handle instanceof PrioritizedRequestHandle) {
+            ((PrioritizedRequestHandle) handle).setPriority(priority);
+        }
+    }
+
+    /**
+     * Retrieves a batch of documents in the background, and reports it on the UI thread.
+     */
+    private static class GetDocumentBatchTask extends AsyncTask<Void, Void, DocumentBatch> implements RequestHandle {
+        private final DocumentBatchFetcher fetcher;
+        private final Collection<String> documentIds;
+        private final View view;
+        private final GetDocumentBatchCallback callback;
+
+        private MendeleyException exception;
+
+        GetDocumentBatchTask(DocumentBatchFetcher fetcher, Collection<String> documentIds, View view,
+                             GetDocumentBatchCallback callback) {
+            this.fetcher = fetcher;
+            this.documentIds = documentIds;
+            this.view = view;
+            this.callback = callback;
+        }
+
+        @Override
+        protected DocumentBatch doInBackground(Void... params) {
+            try {
+                return fetcher.fetch(documentIds, view);
+            } catch (MendeleyException e) {
+                exception = e;
+                return null;
+            }
+        }
+
+        @Override
+        protected void onPostExecute(DocumentBatch batch) {
+            if (exception != null) {
+                callback.onDocumentBatchNotReceived(exception);
+            } else {
+                callback.onDocumentBatchReceived(batch);
+            }
+        }
+
+        @Override
+        protected void onCancelled(DocumentBatch batch) {
+            callback.onDocumentBatchNotReceived(new UserCancelledException());
+        }
+
+        @Override
+        public void cancel() {
+            fetcher.cancel();
+            cancel(true);
+        }
+    }
+
+    /**
+     * Adds documents to a folder or removes them from it in the background, and reports the
+     * batch on the UI thread.
+     */
+    private static class FolderDocumentsBatchTask extends AsyncTask<Void, Void, FolderDocumentsBatch> implements RequestHandle {
+        private final FolderDocumentsBatcher batcher;
+        private final boolean add;
+        private final String folderId;
+        private final Collection<String> documentIds;
+        private final FolderDocumentsBatchCallback callback;
+
+        private MendeleyException exception;
+
+        FolderDocumentsBatchTask(FolderDocumentsBatcher batcher, boolean add, String folderId,
+                                 Collection<String> documentIds, FolderDocumentsBatchCallback callback) {
+            this.batcher = batcher;
+            this.add = add;
+            this.folderId = folderId;
+            this.documentIds = documentIds;
+            this.callback = callback;
+        }
+
+        @Override
+        protected FolderDocumentsBatch doInBackground(Void... params) {
+            try {
+                return add ? batcher.add(folderId, documentIds) : batcher.remove(folderId, documentIds);
+            } catch (MendeleyException e) {
+                exception = e;
+                return null;
+            }
+        }
+
+        @Override
+        protected void onPostExecute(FolderDocumentsBatch batch) {
+            if (exception != null) {
+                callback.onFolderDocumentsBatchNotCompleted(exception);
+            } else {
+                callback.onFolderDocumentsBatchCompleted(batch);
+            }
+        }
+
+        @Override
+        protected void onCancelled(FolderDocumentsBatch batch) {
+            callback.onFolderDocumentsBatchNotCompleted(new UserCancelledException());
+        }
+
+        @Override
+        public void cancel() {
+            batcher.cancel();
+            cancel(true);
+        }
+    }
+
+    /**
+     * Retrieves the profiles of group members in the background, and reports them on the UI thread.
+     */
+    private static class GetGroupMemberProfilesTask extends AsyncTask<Void, Void, GroupMemberProfiles> implements RequestHandle {
+        private final ProfileHydrator hydrator;
+        private final List<UserRole> userRoles;
+        private final boolean prefetchPhotos;
+        private final GetGroupMemberProfilesCallback callback;
+
+        private MendeleyException exception;
+
+        GetGroupMemberProfilesTask(ProfileHydrator hydrator, List<UserRole> userRoles, boolean prefetchPhotos,
+                                   GetGroupMemberProfilesCallback callback) {
+            this.hydrator = hydrator;
+            this.userRoles = userRoles;
+            this.prefetchPhotos = prefetchPhotos;
+            this.callback = callback;
+        }
+
+        @Override
+        protected GroupMemberProfiles doInBackground(Void... params) {
+            try {
+                return hydrator.hydrate(userRoles, prefetchPhotos);
+            } catch (MendeleyException e) {
+                exception = e;
+                return null;
+            }
+        }
+
+        @Override
+        protected void onPostExecute(GroupMemberProfiles memberProfiles) {
+            if (exception != null) {
+                callback.onGroupMemberProfilesNotReceived(exception);
+            } else {
+                callback.onGroupMemberProfilesReceived(memberProfiles);
+            }
+        }
+
+        @Override
+        protected void onCancelled(GroupMemberProfiles memberProfiles) {
+            callback.onGroupMemberProfilesNotReceived(new UserCancelledException());
+        }
+
+        @Override
+        public void cancel() {
+            hydrator.cancel();
+            cancel(true);
+        }
+    }
+
     /**
      * Return the executor used to run background tasks.
      */
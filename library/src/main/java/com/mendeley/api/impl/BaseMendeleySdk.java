@@ -19,7 +19,9 @@ import static com.mendeley.api.network.provider.ProfileNetworkProvider.PROFILES_
 
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 import org.json.JSONException;
@@ -30,11 +32,14 @@ import com.mendeley.api.auth.AuthenticationManager;
 import com.mendeley.api.callbacks.MendeleySignInInterface;
 import com.mendeley.api.callbacks.RequestHandle;
 import com.mendeley.api.callbacks.annotations.AnnotationList;
+import com.mendeley.api.callbacks.document.DocumentBatch;
 import com.mendeley.api.callbacks.document.DocumentIdList;
 import com.mendeley.api.callbacks.document.DocumentList;
 import com.mendeley.api.callbacks.file.FileList;
+import com.mendeley.api.callbacks.folder.FolderDocumentsBatch;
 import com.mendeley.api.callbacks.folder.FolderList;
 import com.mendeley.api.callbacks.group.GroupList;
+import com.mendeley.api.callbacks.group.GroupMemberProfiles;
 import com.mendeley.api.callbacks.group.GroupMembersList;
 import com.mendeley.api.exceptions.JsonParsingException;
 import com.mendeley.api.exceptions.MendeleyException;
@@ -46,8 +51,11 @@ import com.mendeley.api.model.File;
 import com.mendeley.api.model.Folder;
 import com.mendeley.api.model.Group;
 import com.mendeley.api.model.Profile;
+import com.mendeley.api.model.UserRole;
 import com.mendeley.api.network.Environment;
 import com.mendeley.api.network.JsonParser;
+import com.mendeley.api.network.NetworkUtils;
+import com.mendeley.api.network.ReferenceDataCache;
 import com.mendeley.api.network.procedure.DeleteNetworkProcedure;
 import com.mendeley.api.network.procedure.PostNoBodyNetworkProcedure;
 import com.mendeley.api.network.procedure.Procedure;
@@ -108,6 +116,8 @@ public abstract class BaseMendeleySdk implements BlockingSdk, Environment {
     protected TrashNetworkProvider trashNetworkProvider;
     protected AnnotationsNetworkProvider annotationsNetworkProvider;
 
+    private volatile int batchConcurrency = DocumentBatchFetcher.DEFAULT_CONCURRENCY;
+
     protected void initProviders() {
         documentNetworkProvider = new DocumentNetworkProvider(this, authenticationManager);
         fileNetworkProvider = new FileNetworkProvider(this, authenticationManager);
@@ -175,6 +185,24 @@ public abstract class BaseMendeleySdk implements BlockingSdk, Environment {
         return proc.checkedRun();
     }
 
+    @Override
+    public DocumentBatch getDocuments(Collection<String> documentIds, View view) throws MendeleyException {
+        return createDocumentBatchFetcher().fetch(documentIds, view);
+    }
+
+    /**
+     * Sets the maximum number of requests run in parallel by the calls retrieving several
+     * documents by id or the profiles of group members, or adding or removing several documents
+     * from a folder. It is also bounded by the executor and the HTTP connection pool.
+     */
+    public void setBatchConcurrency(int concurrency) {
+        batchConcurrency = concurrency;
+    }
+
+    DocumentBatchFetcher createDocumentBatchFetcher() {
+        return new DocumentBatchFetcher(this, getExecutor(), batchConcurrency);
+    }
+
     @Override
     public DocumentIdList getDeletedDocuments(String deletedSince, DocumentRequestParameters parameters) throws MendeleyException {
         try {
@@ -238,16 +266,48 @@ public abstract class BaseMendeleySdk implements BlockingSdk, Environment {
 
     @Override
     public Map<String, String> getDocumentTypes() throws MendeleyException {
-        Procedure<Map<String, String>> proc =
-                new GetDocumentTypesProcedure(DOCUMENT_TYPES_BASE_URL, authenticationManager);
-        return proc.checkedRun();
+        return getReferenceData(ReferenceDataCache.Kind.DOCUMENT_TYPES, DOCUMENT_TYPES_BASE_URL);
     }
 
     @Override
     public Map<String, String> getIdentifierTypes() throws MendeleyException {
-        Procedure<Map<String, String>> proc =
-                new GetDocumentTypesProcedure(IDENTIFIER_TYPES_BASE_URL, authenticationManager);
-        return proc.checkedRun();
+        return getReferenceData(ReferenceDataCache.Kind.IDENTIFIER_TYPES, IDENTIFIER_TYPES_BASE_URL);
+    }
+
+    private Map<String, String> getReferenceData(ReferenceDataCache.Kind kind, String url) throws MendeleyException {
+        final Map<String, String> cached = getCachedReferenceData(kind, url);
+        if (cached != null) {
+            return cached;
+        }
+        Procedure<Map<String, String>> proc = new GetDocumentTypesProcedure(url, authenticationManager);
+        final Map<String, String> values = proc.checkedRun();
+        final ReferenceDataCache cache = NetworkUtils.getReferenceDataCache();
+        if (cache != null) {
+            cache.put(kind, values);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the cached reference data, which is refreshed in the background if it has expired.
+     *
+     * @return the values, or null if they must be fetched
+     */
+    protected Map<String, String> getCachedReferenceData(ReferenceDataCache.Kind kind, final String url) {
+        final ReferenceDataCache cache = NetworkUtils.getReferenceDataCache();
+        if (cache == null) {
+            return null;
+        }
+        ReferenceDataCache.Loader loader = null;
+        if (authenticationManager != null && authenticationManager.isSignedIn()) {
+            loader = new ReferenceDataCache.Loader() {
+                @Override
+                public Map<String, String> load() throws MendeleyException {
+                    return new GetDocumentTypesProcedure(url, authenticationManager).checkedRun();
+                }
+            };
+        }
+        return cache.get(kind, loader, getExecutor());
     }
 
     /* ANNOTATIONS BLOCKING */
@@ -452,6 +512,20 @@ public abstract class BaseMendeleySdk implements BlockingSdk, Environment {
         proc.checkedRun();
     }
 
+    @Override
+    public FolderDocumentsBatch addDocumentsToFolder(String folderId, Collection<String> documentIds) throws MendeleyException {
+        return createFolderDocumentsBatcher().add(folderId, documentIds);
+    }
+
+    @Override
+    public FolderDocumentsBatch removeDocumentsFromFolder(String folderId, Collection<String> documentIds) throws MendeleyException {
+        return createFolderDocumentsBatcher().remove(folderId, documentIds);
+    }
+
+    FolderDocumentsBatcher createFolderDocumentsBatcher() {
+        return new FolderDocumentsBatcher(this, getExecutor(), batchConcurrency);
+    }
+
     /* PROFILES BLOCKING */
 
     @Override
@@ -507,6 +581,15 @@ public abstract class BaseMendeleySdk implements BlockingSdk, Environment {
         return proc.checkedRun();
     }
 
+    @Override
+    public GroupMemberProfiles getGroupMemberProfiles(List<UserRole> userRoles, boolean prefetchPhotos) throws MendeleyException {
+        return createProfileHydrator().hydrate(userRoles, prefetchPhotos);
+    }
+
+    ProfileHydrator createProfileHydrator() {
+        return new ProfileHydrator(this, NetworkUtils.getProfileCache(), getExecutor(), batchConcurrency);
+    }
+
     @Override
     public byte[] getImage(String url) throws MendeleyException {
         return utilsNetworkProvider.getImage(url);
@@ -0,0 +1,89 @@
+package com.mendeley.api.impl;
+
+import com.mendeley.api.exceptions.UserCancelledException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a number of independent items with a bounded number of them in parallel.
+ * <p>
+ * The calling thread runs items too, while helpers are started on the executor. As the calling
+ * thread alone can run all the items, the run completes even if the executor is busy, and at
+ * most as many items run in parallel as the concurrency limit.
+ */
+class BoundedParallelRunner {
+
+    /**
+     * Runs one item. It must catch its own failures.
+     */
+    interface Item {
+        void run(int index);
+    }
+
+    private static final long CANCEL_POLL_MILLIS = 100;
+
+    private final Executor executor;
+    private final int concurrency;
+
+    private volatile boolean cancelled;
+
+    BoundedParallelRunner(Executor executor, int concurrency) {
+        this.executor = executor;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * Stops starting new items; {@link #run} then throws UserCancelledException.
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Runs the items with indexes 0 to count - 1, and returns when they have all run.
+     */
+    void run(final int count, final Item item) throws UserCancelledException {
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(count);
+
+        final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                int index;
+                while (!cancelled && (index = nextIndex.getAndIncrement()) < count) {
+                    try {
+                        item.run(index);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }
+        };
+
+        final int helpers = Math.min(concurrency, count) - 1;
+        for (int i = 0; i < helpers; i++) {
+            executor.execute(worker);
+        }
+        worker.run();
+
+        try {
+            // Only waits for the items already started by the helpers. Once cancelled,
+            // the remaining items are never run, so the latch is polled instead.
+            while (!cancelled && !done.await(CANCEL_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            }
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+        }
+        if (cancelled) {
+            throw new UserCancelledException();
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.mendeley.api.impl;
 
 import android.app.Activity;
+import android.content.Context;
 
 import com.mendeley.api.ClientCredentials;
 import com.mendeley.api.auth.AuthenticationManager;
 import com.mendeley.api.callbacks.MendeleySignInInterface;
+import com.mendeley.api.network.ImageCache;
+import com.mendeley.api.network.NetworkUtils;
+import com.mendeley.api.network.ReferenceDataCache;
+
+import java.io.File;
 
 public class DefaultMendeleySdk extends AsyncMendeleySdk {
+    private static final String REFERENCE_DATA_FILE = "mendeley_reference_data.json";
+    private static final String IMAGE_CACHE_DIRECTORY = "mendeley_images";
+
     private static DefaultMendeleySdk instance;
 
     private DefaultMendeleySdk() {}
@@ -32,6 +41,24 @@ public class DefaultMendeleySdk extends AsyncMendeleySdk {
                 clientCredentials.clientSecret,
                 clientCredentials.redirectUri);
         initProviders();
+        initCaches(activity);
         authenticationManager.signIn(activity);
     }
+
+    /**
+     * Keeps the fetched document and identifier types and the downloaded images across restarts,
+     * unless the application has set up its own caches.
+     */
+    private void initCaches(Context context) {
+        final ReferenceDataCache referenceDataCache = NetworkUtils.getReferenceDataCache();
+        if (referenceDataCache != null && !referenceDataCache.isPersistent()) {
+            NetworkUtils.setReferenceDataCache(new ReferenceDataCache(
+                    new File(context.getFilesDir(), REFERENCE_DATA_FILE), ReferenceDataCache.DEFAULT_TTL_MILLIS));
+        }
+        final ImageCache imageCache = NetworkUtils.getImageCache();
+        if (imageCache != null && !imageCache.isPersistent()) {
+            NetworkUtils.setImageCache(new ImageCache(ImageCache.DEFAULT_MEMORY_SIZE,
+                    new File(context.getCacheDir(), IMAGE_CACHE_DIRECTORY), ImageCache.DEFAULT_DISK_SIZE));
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package com.mendeley.api.impl;
+
+import com.mendeley.api.BlockingSdk;
+import com.mendeley.api.callbacks.document.DocumentBatch;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.model.Document;
+import com.mendeley.api.params.View;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Retrieves documents by id with a bounded number of requests in parallel, which reuse the
+ * pooled connections of the HTTP transport.
+ *
+ * @see BoundedParallelRunner
+ */
+class DocumentBatchFetcher {
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    private final BlockingSdk sdk;
+    private final BoundedParallelRunner runner;
+
+    DocumentBatchFetcher(BlockingSdk sdk, Executor executor, int concurrency) {
+        this.sdk = sdk;
+        this.runner = new BoundedParallelRunner(executor, concurrency);
+    }
+
+    /**
+     * Stops starting new requests; {@link #fetch} then throws UserCancelledException.
+     */
+    void cancel() {
+        runner.cancel();
+    }
+
+    DocumentBatch fetch(Collection<String> documentIds, final View view) throws MendeleyException {
+        final List<String> ids = new ArrayList<String>(documentIds);
+        final Document[] documents = new Document[ids.size()];
+        final Map<String, MendeleyException> failures = new HashMap<String, MendeleyException>();
+
+        runner.run(ids.size(), new BoundedParallelRunner.Item() {
+            @Override
+            public void run(int index) {
+                final String id = ids.get(index);
+                try {
+                    documents[index] = sdk.getDocument(id, view);
+                } catch (MendeleyException e) {
+                    synchronized (failures) {
+                        failures.put(id, e);
+                    }
+                } catch (RuntimeException e) {
+                    synchronized (failures) {
+                        failures.put(id, new MendeleyException("Error retrieving document " + id + ": " + e.toString(), e));
+                    }
+                }
+            }
+        });
+
+        final List<Document> ordered = new ArrayList<Document>(documents.length);
+        for (Document document : documents) {
+            ordered.add(document);
+        }
+        synchronized (failures) {
+            return new DocumentBatch(ids, ordered, new HashMap<String, MendeleyException>(failures));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.mendeley.api.impl;
+
+import com.mendeley.api.BlockingSdk;
+import com.mendeley.api.callbacks.document.DocumentIdList;
+import com.mendeley.api.callbacks.folder.FolderDocumentsBatch;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.exceptions.UserCancelledException;
+import com.mendeley.api.model.DocumentId;
+import com.mendeley.api.params.FolderRequestParameters;
+import com.mendeley.api.params.Page;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Adds documents to a folder, or removes them from it, with a bounded number of requests in
+ * parallel.
+ * <p>
+ * The content of the folder is retrieved first, so that documents already in the folder are not
+ * added again and documents not in it are not removed.
+ *
+ * @see BoundedParallelRunner
+ */
+class FolderDocumentsBatcher {
+    /**
+     * The largest page size allowed by the server.
+     */
+    private static final int MEMBERSHIP_PAGE_SIZE = 500;
+
+    private final BlockingSdk sdk;
+    private final BoundedParallelRunner runner;
+
+    FolderDocumentsBatcher(BlockingSdk sdk, Executor executor, int concurrency) {
+        this.sdk = sdk;
+        this.runner = new BoundedParallelRunner(executor, concurrency);
+    }
+
+    /**
+     * Stops starting new requests; the batch then throws UserCancelledException.
+     */
+    void cancel() {
+        runner.cancel();
+    }
+
+    FolderDocumentsBatch add(String folderId, Collection<String> documentIds) throws MendeleyException {
+        return run(folderId, documentIds, true);
+    }
+
+    FolderDocumentsBatch remove(String folderId, Collection<String> documentIds) throws MendeleyException {
+        return run(folderId, documentIds, false);
+    }
+
+    private FolderDocumentsBatch run(final String folderId, Collection<String> documentIds, final boolean add)
+            throws MendeleyException {
+        final Set<String> members = getFolderDocumentIds(folderId);
+        final List<String> ids = new ArrayList<String>();
+        final List<String> skippedIds = new ArrayList<String>();
+        for (String id : new LinkedHashSet<String>(documentIds)) {
+            if (members.contains(id) == add) {
+                skippedIds.add(id);
+            } else {
+                ids.add(id);
+            }
+        }
+
+        final boolean[] changed = new boolean[ids.size()];
+        final Map<String, MendeleyException> failures = new HashMap<String, MendeleyException>();
+
+        runner.run(ids.size(), new BoundedParallelRunner.Item() {
+            @Override
+            public void run(int index) {
+                final String id = ids.get(index);
+                try {
+                    if (add) {
+                        sdk.postDocumentToFolder(folderId, id);
+                    } else {
+                        sdk.deleteDocumentFromFolder(folderId, id);
+                    }
+                    changed[index] = true;
+                } catch (MendeleyException e) {
+                    synchronized (failures) {
+                        failures.put(id, e);
+                    }
+                } catch (RuntimeException e) {
+                    synchronized (failures) {
+                        failures.put(id, new MendeleyException("Error updating document " + id + " in folder: " + e.toString(), e));
+                    }
+                }
+            }
+        });
+
+        final List<String> changedIds = new ArrayList<String>();
+        for (int i = 0; i < changed.length; i++) {
+            if (changed[i]) {
+                changedIds.add(ids.get(i));
+            }
+        }
+        synchronized (failures) {
+            return new FolderDocumentsBatch(folderId, changedIds, skippedIds, new HashMap<String, MendeleyException>(failures));
+        }
+    }
+
+    private Set<String> getFolderDocumentIds(String folderId) throws MendeleyException {
+        final FolderRequestParameters params = new FolderRequestParameters();
+        params.limit = MEMBERSHIP_PAGE_SIZE;
+        final Set<String> ids = new HashSet<String>();
+        DocumentIdList list = sdk.getFolderDocumentIds(params, folderId);
+        while (true) {
+            if (runner.isCancelled()) {
+                throw new UserCancelledException();
+            }
+            for (DocumentId documentId : list.documentIds) {
+                ids.add(documentId.id);
+            }
+            if (!Page.isValidPage(list.next)) {
+                return ids;
+            }
+            list = sdk.getFolderDocumentIds(list.next);
+        }
+    }
+}
@@ -0,0 +1,634 @@
+package com.mendeley.api.impl;
+
+import com.mendeley.api.BlockingSdk;
+import com.mendeley.api.FutureSdk;
+import com.mendeley.api.callbacks.MendeleyFuture;
+import com.mendeley.api.callbacks.MendeleyFuture.Call;
+import com.mendeley.api.callbacks.annotations.AnnotationList;
+import com.mendeley.api.callbacks.document.DocumentBatch;
+import com.mendeley.api.callbacks.document.DocumentIdList;
+import com.mendeley.api.callbacks.document.DocumentList;
+import com.mendeley.api.callbacks.file.FileList;
+import com.mendeley.api.callbacks.folder.FolderDocumentsBatch;
+import com.mendeley.api.callbacks.folder.FolderList;
+import com.mendeley.api.callbacks.group.GroupList;
+import com.mendeley.api.callbacks.group.GroupMemberProfiles;
+import com.mendeley.api.callbacks.group.GroupMembersList;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.model.Annotation;
+import com.mendeley.api.model.Document;
+import com.mendeley.api.model.File;
+import com.mendeley.api.model.Folder;
+import com.mendeley.api.model.Group;
+import com.mendeley.api.model.Profile;
+import com.mendeley.api.model.UserRole;
+import com.mendeley.api.params.AnnotationRequestParameters;
+import com.mendeley.api.params.CatalogDocumentRequestParameters;
+import com.mendeley.api.params.DocumentRequestParameters;
+import com.mendeley.api.params.FileRequestParameters;
+import com.mendeley.api.params.FolderRequestParameters;
+import com.mendeley.api.params.GroupRequestParameters;
+import com.mendeley.api.params.Page;
+import com.mendeley.api.params.View;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Implementation of the future-based API calls, running the blocking calls of a {@link BlockingSdk}
+ * on an executor.
+ */
+public class FutureMendeleySdk implements FutureSdk {
+    private final BlockingSdk sdk;
+    private volatile Executor executor;
+
+    public FutureMendeleySdk(BlockingSdk sdk, Executor executor) {
+        this.sdk = sdk;
+        this.executor = executor;
+    }
+
+    /* DOCUMENTS */
+
+    @Override
+    public MendeleyFuture<DocumentList> getDocuments(final DocumentRequestParameters parameters) {
+        return submit(new Call<DocumentList>() {
+            @Override
+            public DocumentList call() throws MendeleyException {
+                return sdk.getDocuments(parameters);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<DocumentList> getDocuments() {
+        return submit(new Call<DocumentList>() {
+            @Override
+            public DocumentList call() throws MendeleyException {
+                return sdk.getDocuments();
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<DocumentList> getDocuments(final Page next) {
+        return submit(new Call<DocumentList>() {
+            @Override
+            public DocumentList call() throws MendeleyException {
+                return sdk.getDocuments(next);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Document> getDocument(final String documentId, final View view) {
+        return submit(new Call<Document>() {
+            @Override
+            public Document call() throws MendeleyException {
+                return sdk.getDocument(documentId, view);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<DocumentBatch> getDocuments(final Collection<String> documentIds, final View view) {
+        return submit(new Call<DocumentBatch>() {
+            @Override
+            public DocumentBatch call() throws MendeleyException {
+                return sdk.getDocuments(documentIds, view);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<DocumentIdList> getDeletedDocuments(final String deletedSince, final DocumentRequestParameters parameters) {
+        return submit(new Call<DocumentIdList>() {
+            @Override
+            public DocumentIdList call() throws MendeleyException {
+                return sdk.getDeletedDocuments(deletedSince, parameters);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<DocumentIdList> getDeletedDocuments(final Page next) {
+        return submit(new Call<DocumentIdList>() {
+            @Override
+            public DocumentIdList call() throws MendeleyException {
+                return sdk.getDeletedDocuments(next);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Document> postDocument(final Document document) {
+        return submit(new Call<Document>() {
+            @Override
+            public Document call() throws MendeleyException {
+                return sdk.postDocument(document);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Document> patchDocument(final String documentId, final Date date, final Document document) {
+        return submit(new Call<Document>() {
+            @Override
+            public Document call() throws MendeleyException {
+                return sdk.patchDocument(documentId, date, document);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Void> trashDocument(final String documentId) {
+        return submit(new Call<Void>() {
+            @Override
+            public Void call() throws MendeleyException {
+                sdk.trashDocument(documentId);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Void> deleteDocument(final String documentId) {
+        return submit(new Call<Void>() {
+            @Override
+            public Void call() throws MendeleyException {
+                sdk.deleteDocument(documentId);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Void> deleteTrashedDocument(final String documentId) {
+        return submit(new Call<Void>() {
+            @Override
+            public Void call() throws MendeleyException {
+                sdk.deleteTrashedDocument(documentId);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Map<String, String>> getDocumentTypes() {
+        return submit(new Call<Map<String, String>>() {
+            @Override
+            public Map<String, String> call() throws MendeleyException {
+                return sdk.getDocumentTypes();
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Map<String, String>> getIdentifierTypes() {
+        return submit(new Call<Map<String, String>>() {
+            @Override
+            public Map<String, String> call() throws MendeleyException {
+                return sdk.getIdentifierTypes();
+            }
+        });
+    }
+
+    /* FILES */
+
+    @Override
+    public MendeleyFuture<FileList> getFiles(final FileRequestParameters parameters) {
+        return submit(new Call<FileList>() {
+            @Override
+            public FileList call() throws MendeleyException {
+                return sdk.getFiles(parameters);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<FileList> getFiles() {
+        return submit(new Call<FileList>() {
+            @Override
+            public FileList call() throws MendeleyException {
+                return sdk.getFiles();
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<FileList> getFiles(final Page next) {
+        return submit(new Call<FileList>() {
+            @Override
+            public FileList call() throws MendeleyException {
+                return sdk.getFiles(next);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<File> postFile(final String contentType, final String documentId, final InputStream inputStream, final String fileName) {
+        return submit(new Call<File>() {
+            @Override
+            public File call() throws MendeleyException {
+                return sdk.postFile(contentType, documentId, inputStream, fileName);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Void> deleteFile(final String fileId) {
+        return submit(new Call<Void>() {
+            @Override
+            public Void call() throws MendeleyException {
+                sdk.deleteFile(fileId);
+                return null;
+            }
+        });
+    }
+
+    /* FOLDERS */
+
+    @Override
+    public MendeleyFuture<FolderList> getFolders(final FolderRequestParameters parameters) {
+        return submit(new Call<FolderList>() {
+            @Override
+            public FolderList call() throws MendeleyException {
+                return sdk.getFolders(parameters);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<FolderList> getFolders() {
+        return submit(new Call<FolderList>() {
+            @Override
+            public FolderList call() throws MendeleyException {
+                return sdk.getFolders();
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<FolderList> getFolders(final Page next) {
+        return submit(new Call<FolderList>() {
+            @Override
+            public FolderList call() throws MendeleyException {
+                return sdk.getFolders(next);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Folder> getFolder(final String folderId) {
+        return submit(new Call<Folder>() {
+            @Override
+            public Folder call() throws MendeleyException {
+                return sdk.getFolder(folderId);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Folder> postFolder(final Folder folder) {
+        return submit(new Call<Folder>() {
+            @Override
+            public Folder call() throws MendeleyException {
+                return sdk.postFolder(folder);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Folder> patchFolder(final String folderId, final Folder folder) {
+        return submit(new Call<Folder>() {
+            @Override
+            public Folder call() throws MendeleyException {
+                return sdk.patchFolder(folderId, folder);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<DocumentIdList> getFolderDocumentIds(final FolderRequestParameters parameters, final String folderId) {
+        return submit(new Call<DocumentIdList>() {
+            @Override
+            public DocumentIdList call() throws MendeleyException {
+                return sdk.getFolderDocumentIds(parameters, folderId);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<DocumentIdList> getFolderDocumentIds(final Page next) {
+        return submit(new Call<DocumentIdList>() {
+            @Override
+            public DocumentIdList call() throws MendeleyException {
+                return sdk.getFolderDocumentIds(next);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Void> postDocumentToFolder(final String folderId, final String documentId) {
+        return submit(new Call<Void>() {
+            @Override
+            public Void call() throws MendeleyException {
+                sdk.postDocumentToFolder(folderId, documentId);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Void> deleteFolder(final String folderId) {
+        return submit(new Call<Void>() {
+            @Override
+            public Void call() throws MendeleyException {
+                sdk.deleteFolder(folderId);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Void> deleteDocumentFromFolder(final String folderId, final String documentId) {
+        return submit(new Call<Void>() {
+            @Override
+            public Void call() throws MendeleyException {
+                sdk.deleteDocumentFromFolder(folderId, documentId);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<FolderDocumentsBatch> addDocumentsToFolder(final String folderId, final Collection<String> documentIds) {
+        return submit(new Call<FolderDocumentsBatch>() {
+            @Override
+            public FolderDocumentsBatch call() throws MendeleyException {
+                return sdk.addDocumentsToFolder(folderId, documentIds);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<FolderDocumentsBatch> removeDocumentsFromFolder(final String folderId, final Collection<String> documentIds) {
+        return submit(new Call<FolderDocumentsBatch>() {
+            @Override
+            public FolderDocumentsBatch call() throws MendeleyException {
+                return sdk.removeDocumentsFromFolder(folderId, documentIds);
+            }
+        });
+    }
+
+    /* GROUPS */
+
+    @Override
+    public MendeleyFuture<GroupList> getGroups(final GroupRequestParameters parameters) {
+        return submit(new Call<GroupList>() {
+            @Override
+            public GroupList call() throws MendeleyException {
+                return sdk.getGroups(parameters);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<GroupList> getGroups(final Page next) {
+        return submit(new Call<GroupList>() {
+            @Override
+            public GroupList call() throws MendeleyException {
+                return sdk.getGroups(next);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Group> getGroup(final String groupId) {
+        return submit(new Call<Group>() {
+            @Override
+            public Group call() throws MendeleyException {
+                return sdk.getGroup(groupId);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<GroupMembersList> getGroupMembers(final GroupRequestParameters parameters, final String groupId) {
+        return submit(new Call<GroupMembersList>() {
+            @Override
+            public GroupMembersList call() throws MendeleyException {
+                return sdk.getGroupMembers(parameters, groupId);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<GroupMembersList> getGroupMembers(final Page next) {
+        return submit(new Call<GroupMembersList>() {
+            @Override
+            public GroupMembersList call() throws MendeleyException {
+                return sdk.getGroupMembers(next);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<GroupMemberProfiles> getGroupMemberProfiles(final List<UserRole> userRoles, final boolean prefetchPhotos) {
+        return submit(new Call<GroupMemberProfiles>() {
+            @Override
+            public GroupMemberProfiles call() throws MendeleyException {
+                return sdk.getGroupMemberProfiles(userRoles, prefetchPhotos);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<byte[]> getImage(final String url) {
+        return submit(new Call<byte[]>() {
+            @Override
+            public byte[] call() throws MendeleyException {
+                return sdk.getImage(url);
+            }
+        });
+    }
+
+    /* TRASH */
+
+    @Override
+    public MendeleyFuture<DocumentList> getTrashedDocuments(final DocumentRequestParameters parameters) {
+        return submit(new Call<DocumentList>() {
+            @Override
+            public DocumentList call() throws MendeleyException {
+                return sdk.getTrashedDocuments(parameters);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<DocumentList> getTrashedDocuments() {
+        return submit(new Call<DocumentList>() {
+            @Override
+            public DocumentList call() throws MendeleyException {
+                return sdk.getTrashedDocuments();
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<DocumentList> getTrashedDocuments(final Page next) {
+        return submit(new Call<DocumentList>() {
+            @Override
+            public DocumentList call() throws MendeleyException {
+                return sdk.getTrashedDocuments(next);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Void> restoreDocument(final String documentId) {
+        return submit(new Call<Void>() {
+            @Override
+            public Void call() throws MendeleyException {
+                sdk.restoreDocument(documentId);
+                return null;
+            }
+        });
+    }
+
+    /* PROFILES */
+
+    @Override
+    public MendeleyFuture<Profile> getMyProfile() {
+        return submit(new Call<Profile>() {
+            @Override
+            public Profile call() throws MendeleyException {
+                return sdk.getMyProfile();
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Profile> getProfile(final String profileId) {
+        return submit(new Call<Profile>() {
+            @Override
+            public Profile call() throws MendeleyException {
+                return sdk.getProfile(profileId);
+            }
+        });
+    }
+
+    /* CATALOG */
+
+    @Override
+    public MendeleyFuture<DocumentList> getCatalogDocuments(final CatalogDocumentRequestParameters parameters) {
+        return submit(new Call<DocumentList>() {
+            @Override
+            public DocumentList call() throws MendeleyException {
+                return sdk.getCatalogDocuments(parameters);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Document> getCatalogDocument(final String catalogId, final View view) {
+        return submit(new Call<Document>() {
+            @Override
+            public Document call() throws MendeleyException {
+                return sdk.getCatalogDocument(catalogId, view);
+            }
+        });
+    }
+
+    /* ANNOTATIONS */
+
+    @Override
+    public MendeleyFuture<AnnotationList> getAnnotations() {
+        return submit(new Call<AnnotationList>() {
+            @Override
+            public AnnotationList call() throws MendeleyException {
+                return sdk.getAnnotations();
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<AnnotationList> getAnnotations(final AnnotationRequestParameters parameters) {
+        return submit(new Call<AnnotationList>() {
+            @Override
+            public AnnotationList call() throws MendeleyException {
+                return sdk.getAnnotations(parameters);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<AnnotationList> getAnnotations(final Page next) {
+        return submit(new Call<AnnotationList>() {
+            @Override
+            public AnnotationList call() throws MendeleyException {
+                return sdk.getAnnotations(next);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Annotation> getAnnotation(final String annotationId) {
+        return submit(new Call<Annotation>() {
+            @Override
+            public Annotation call() throws MendeleyException {
+                return sdk.getAnnotation(annotationId);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Annotation> postAnnotation(final Annotation annotation) {
+        return submit(new Call<Annotation>() {
+            @Override
+            public Annotation call() throws MendeleyException {
+                return sdk.postAnnotation(annotation);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Annotation> patchAnnotation(final String annotationId, final Annotation annotation) {
+        return submit(new Call<Annotation>() {
+            @Override
+            public Annotation call() throws MendeleyException {
+                return sdk.patchAnnotation(annotationId, annotation);
+            }
+        });
+    }
+
+    @Override
+    public MendeleyFuture<Void> deleteAnnotation(final String annotationId) {
+        return submit(new Call<Void>() {
+            @Override
+            public Void call() throws MendeleyException {
+                sdk.deleteAnnotation(annotationId);
+                return null;
+            }
+        });
+    }
+
+    /* CONTROL */
+
+    @Override
+    public FutureSdk setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    private <T> MendeleyFuture<T> submit(Call<T> call) {
+        return MendeleyFuture.submit(call, executor);
+    }
+}
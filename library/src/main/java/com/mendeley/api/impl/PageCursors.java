@@ -0,0 +1,293 @@
+package com.mendeley.api.impl;
+
+import com.mendeley.api.BlockingSdk;
+import com.mendeley.api.callbacks.annotations.AnnotationList;
+import com.mendeley.api.callbacks.document.DocumentIdList;
+import com.mendeley.api.callbacks.document.DocumentList;
+import com.mendeley.api.callbacks.file.FileList;
+import com.mendeley.api.callbacks.folder.FolderList;
+import com.mendeley.api.callbacks.group.GroupList;
+import com.mendeley.api.callbacks.group.GroupMembersList;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.model.Annotation;
+import com.mendeley.api.model.Document;
+import com.mendeley.api.model.DocumentId;
+import com.mendeley.api.model.File;
+import com.mendeley.api.model.Folder;
+import com.mendeley.api.model.Group;
+import com.mendeley.api.model.UserRole;
+import com.mendeley.api.params.AnnotationRequestParameters;
+import com.mendeley.api.params.DocumentRequestParameters;
+import com.mendeley.api.params.FileRequestParameters;
+import com.mendeley.api.params.FolderRequestParameters;
+import com.mendeley.api.params.GroupRequestParameters;
+import com.mendeley.api.params.Page;
+import com.mendeley.api.util.PageCursor;
+import com.mendeley.api.util.PageCursor.PageSource;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Creates {@link PageCursor}s over the paged calls of a {@link BlockingSdk}, so that all the
+ * results of a call can be iterated without handling the pages, e.g.
+ * <pre>
+ * PageCursor&lt;Document&gt; cursor = new PageCursors(sdk, sdk.getExecutor()).documents(params);
+ * try {
+ *     while (cursor.hasNext()) {
+ *         process(cursor.next());
+ *     }
+ * } finally {
+ *     cursor.close();
+ * }
+ * </pre>
+ * The next pages are fetched in the background while the current one is being processed, on the
+ * given executor; with the executor of the SDK, they run in the background lane of its
+ * {@link com.mendeley.api.network.RequestScheduler}.
+ */
+public class PageCursors {
+    private final BlockingSdk sdk;
+    private final Executor executor;
+
+    private volatile int prefetchDepth = PageCursor.DEFAULT_PREFETCH_DEPTH;
+    private volatile int maxBufferedItems = PageCursor.DEFAULT_MAX_BUFFERED_ITEMS;
+
+    /**
+     * @param sdk makes the blocking calls
+     * @param executor runs the page requests; it must not be the thread consuming the cursors
+     */
+    public PageCursors(BlockingSdk sdk, Executor executor) {
+        this.sdk = sdk;
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the number of pages fetched ahead of the page being consumed, for the cursors
+     * created afterwards. 0 fetches each page only when it is needed.
+     */
+    public void setPrefetchDepth(int prefetchDepth) {
+        this.prefetchDepth = prefetchDepth;
+    }
+
+    /**
+     * Sets the number of fetched but unconsumed items above which no more pages are prefetched,
+     * for the cursors created afterwards.
+     */
+    public void setMaxBufferedItems(int maxBufferedItems) {
+        this.maxBufferedItems = maxBufferedItems;
+    }
+
+    /* DOCUMENTS */
+
+    public PageCursor<Document> documents(final DocumentRequestParameters parameters) {
+        return create(new DocumentListSource() {
+            @Override
+            public DocumentList getFirstPage() throws MendeleyException {
+                return sdk.getDocuments(parameters);
+            }
+
+            @Override
+            public DocumentList getPage(Page page) throws MendeleyException {
+                return sdk.getDocuments(page);
+            }
+        });
+    }
+
+    public PageCursor<DocumentId> deletedDocuments(final String deletedSince, final DocumentRequestParameters parameters) {
+        return create(new DocumentIdListSource() {
+            @Override
+            public DocumentIdList getFirstPage() throws MendeleyException {
+                return sdk.getDeletedDocuments(deletedSince, parameters);
+            }
+
+            @Override
+            public DocumentIdList getPage(Page page) throws MendeleyException {
+                return sdk.getDeletedDocuments(page);
+            }
+        });
+    }
+
+    public PageCursor<Document> trashedDocuments(final DocumentRequestParameters parameters) {
+        return create(new DocumentListSource() {
+            @Override
+            public DocumentList getFirstPage() throws MendeleyException {
+                return sdk.getTrashedDocuments(parameters);
+            }
+
+            @Override
+            public DocumentList getPage(Page page) throws MendeleyException {
+                return sdk.getTrashedDocuments(page);
+            }
+        });
+    }
+
+    /* FILES */
+
+    public PageCursor<File> files(final FileRequestParameters parameters) {
+        return create(new PageSource<FileList, File>() {
+            @Override
+            public FileList getFirstPage() throws MendeleyException {
+                return sdk.getFiles(parameters);
+            }
+
+            @Override
+            public FileList getPage(Page page) throws MendeleyException {
+                return sdk.getFiles(page);
+            }
+
+            @Override
+            public List<File> getItems(FileList list) {
+                return list.files;
+            }
+
+            @Override
+            public Page getNextPage(FileList list) {
+                return list.next;
+            }
+        });
+    }
+
+    /* FOLDERS */
+
+    public PageCursor<Folder> folders(final FolderRequestParameters parameters) {
+        return create(new PageSource<FolderList, Folder>() {
+            @Override
+            public FolderList getFirstPage() throws MendeleyException {
+                return sdk.getFolders(parameters);
+            }
+
+            @Override
+            public FolderList getPage(Page page) throws MendeleyException {
+                return sdk.getFolders(page);
+            }
+
+            @Override
+            public List<Folder> getItems(FolderList list) {
+                return list.folders;
+            }
+
+            @Override
+            public Page getNextPage(FolderList list) {
+                return list.next;
+            }
+        });
+    }
+
+    public PageCursor<DocumentId> folderDocumentIds(final FolderRequestParameters parameters, final String folderId) {
+        return create(new DocumentIdListSource() {
+            @Override
+            public DocumentIdList getFirstPage() throws MendeleyException {
+                return sdk.getFolderDocumentIds(parameters, folderId);
+            }
+
+            @Override
+            public DocumentIdList getPage(Page page) throws MendeleyException {
+                return sdk.getFolderDocumentIds(page);
+            }
+        });
+    }
+
+    /* GROUPS */
+
+    public PageCursor<Group> groups(final GroupRequestParameters parameters) {
+        return create(new PageSource<GroupList, Group>() {
+            @Override
+            public GroupList getFirstPage() throws MendeleyException {
+                return sdk.getGroups(parameters);
+            }
+
+            @Override
+            public GroupList getPage(Page page) throws MendeleyException {
+                return sdk.getGroups(page);
+            }
+
+            @Override
+            public List<Group> getItems(GroupList list) {
+                return list.groups;
+            }
+
+            @Override
+            public Page getNextPage(GroupList list) {
+                return list.next;
+            }
+        });
+    }
+
+    public PageCursor<UserRole> groupMembers(final GroupRequestParameters parameters, final String groupId) {
+        return create(new PageSource<GroupMembersList, UserRole>() {
+            @Override
+            public GroupMembersList getFirstPage() throws MendeleyException {
+                return sdk.getGroupMembers(parameters, groupId);
+            }
+
+            @Override
+            public GroupMembersList getPage(Page page) throws MendeleyException {
+                return sdk.getGroupMembers(page);
+            }
+
+            @Override
+            public List<UserRole> getItems(GroupMembersList list) {
+                return list.userRoles;
+            }
+
+            @Override
+            public Page getNextPage(GroupMembersList list) {
+                return list.next;
+            }
+        });
+    }
+
+    /* ANNOTATIONS */
+
+    public PageCursor<Annotation> annotations(final AnnotationRequestParameters parameters) {
+        return create(new PageSource<AnnotationList, Annotation>() {
+            @Override
+            public AnnotationList getFirstPage() throws MendeleyException {
+                return sdk.getAnnotations(parameters);
+            }
+
+            @Override
+            public AnnotationList getPage(Page page) throws MendeleyException {
+                return sdk.getAnnotations(page);
+            }
+
+            @Override
+            public List<Annotation> getItems(AnnotationList list) {
+                return list.annotations;
+            }
+
+            @Override
+            public Page getNextPage(AnnotationList list) {
+                return list.next;
+            }
+        });
+    }
+
+    private <L, T> PageCursor<T> create(PageSource<L, T> source) {
+        return new PageCursor<T>(source, executor, prefetchDepth, maxBufferedItems);
+    }
+
+    private static abstract class DocumentListSource implements PageSource<DocumentList, Document> {
+        @Override
+        public List<Document> getItems(DocumentList list) {
+            return list.documents;
+        }
+
+        @Override
+        public Page getNextPage(DocumentList list) {
+            return list.next;
+        }
+    }
+
+    private static abstract class DocumentIdListSource implements PageSource<DocumentIdList, DocumentId> {
+        @Override
+        public List<DocumentId> getItems(DocumentIdList list) {
+            return list.documentIds;
+        }
+
+        @Override
+        public Page getNextPage(DocumentIdList list) {
+            return list.next;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.mendeley.api.impl;
+
+import android.util.Log;
+
+import com.mendeley.api.BlockingSdk;
+import com.mendeley.api.callbacks.group.GroupMemberProfiles;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.model.Profile;
+import com.mendeley.api.model.UserRole;
+import com.mendeley.api.network.ProfileCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Retrieves the profiles of group members, taking those already in the {@link ProfileCache}
+ * and fetching the others with a bounded number of requests in parallel. Each profile is
+ * requested once, however many times it appears.
+ * <p>
+ * Optionally, the square photo of each profile is also downloaded, into the image cache, so
+ * that the member list can show it without another round trip.
+ *
+ * @see BoundedParallelRunner
+ */
+class ProfileHydrator {
+    private static final String TAG = BaseMendeleySdk.TAG;
+
+    private final BlockingSdk sdk;
+    private final ProfileCache cache;
+    private final BoundedParallelRunner runner;
+
+    /**
+     * @param cache cache of the profiles, or null to fetch them all
+     */
+    ProfileHydrator(BlockingSdk sdk, ProfileCache cache, Executor executor, int concurrency) {
+        this.sdk = sdk;
+        this.cache = cache;
+        this.runner = new BoundedParallelRunner(executor, concurrency);
+    }
+
+    /**
+     * Stops starting new requests; {@link #hydrate} then throws UserCancelledException.
+     */
+    void cancel() {
+        runner.cancel();
+    }
+
+    GroupMemberProfiles hydrate(List<UserRole> userRoles, final boolean prefetchPhotos) throws MendeleyException {
+        final Map<String, Profile> found = new HashMap<String, Profile>();
+        final List<String> pending = new ArrayList<String>();
+        for (String id : getProfileIds(userRoles)) {
+            final Profile cached = cache != null ? cache.get(id) : null;
+            if (cached != null) {
+                found.put(id, cached);
+            }
+            // Cached profiles still need their photo prefetched
+            if (cached == null || prefetchPhotos) {
+                pending.add(id);
+            }
+        }
+
+        final Map<String, MendeleyException> failures = new HashMap<String, MendeleyException>();
+        runner.run(pending.size(), new BoundedParallelRunner.Item() {
+            @Override
+            public void run(int index) {
+                final String id = pending.get(index);
+                try {
+                    Profile profile;
+                    synchronized (found) {
+                        profile = found.get(id);
+                    }
+                    if (profile == null) {
+                        profile = sdk.getProfile(id);
+                        if (cache != null) {
+                            cache.put(profile);
+                        }
+                        synchronized (found) {
+                            found.put(id, profile);
+                        }
+                    }
+                    if (prefetchPhotos) {
+                        prefetchPhoto(profile);
+                    }
+                } catch (MendeleyException e) {
+                    synchronized (failures) {
+                        failures.put(id, e);
+                    }
+                } catch (RuntimeException e) {
+                    synchronized (failures) {
+                        failures.put(id, new MendeleyException("Error retrieving profile " + id + ": " + e.toString(), e));
+                    }
+                }
+            }
+        });
+
+        final List<Profile> profiles = new ArrayList<Profile>(userRoles.size());
+        synchronized (found) {
+            for (UserRole userRole : userRoles) {
+                profiles.add(found.get(userRole.profileId));
+            }
+        }
+        synchronized (failures) {
+            return new GroupMemberProfiles(userRoles, profiles, new HashMap<String, MendeleyException>(failures));
+        }
+    }
+
+    private void prefetchPhoto(Profile profile) {
+        if (profile == null || profile.photo == null || profile.photo.square == null) {
+            return;
+        }
+        try {
+            sdk.getImage(profile.photo.square);
+        } catch (MendeleyException e) {
+            // The photo is only an optimisation, it is requested again when displayed
+            Log.w(TAG, "Could not prefetch photo of profile " + profile.id + ": " + e.getMessage());
+        }
+    }
+
+    private static LinkedHashSet<String> getProfileIds(List<UserRole> userRoles) {
+        final LinkedHashSet<String> ids = new LinkedHashSet<String>();
+        for (UserRole userRole : userRoles) {
+            if (userRole.profileId != null) {
+                ids.add(userRole.profileId);
+            }
+        }
+        return ids;
+    }
+}
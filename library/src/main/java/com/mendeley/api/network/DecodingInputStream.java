@@ -0,0 +1,209 @@
+package com.mendeley.api.network;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Response body stream which decodes gzip or deflate content while it is read,
+ * counting the bytes received from the network and the bytes handed to the caller.
+ * <p>
+ * The counts are reported once to the {@link TransferListener} set in {@link NetworkUtils}
+ * when the stream is closed.
+ */
+public class DecodingInputStream extends FilterInputStream {
+    public static final String ENCODING_GZIP = "gzip";
+    public static final String ENCODING_DEFLATE = "deflate";
+
+    private final String url;
+    private final String contentEncoding;
+    private final long contentLength;
+    private final CountingInputStream wireStream;
+
+    private long decodedBytes;
+    private boolean atEnd;
+    private boolean closed;
+
+    /**
+     * @param url the request url, used when reporting the transfer
+     * @param contentEncoding the Content-Encoding of the response, or null
+     * @param raw the stream as received from the network
+     */
+    public DecodingInputStream(String url, String contentEncoding, InputStream raw) throws IOException {
+        this(url, contentEncoding, -1, raw);
+    }
+
+    /**
+     * @param url the request url, used when reporting the transfer
+     * @param contentEncoding the Content-Encoding of the response, or null
+     * @param contentLength the Content-Length of the response, or -1 if unknown
+     * @param raw the stream as received from the network
+     */
+    public DecodingInputStream(String url, String contentEncoding, long contentLength, InputStream raw) throws IOException {
+        this(url, contentEncoding, contentLength, new CountingInputStream(raw));
+    }
+
+    private DecodingInputStream(String url, String contentEncoding, long contentLength, CountingInputStream wireStream) throws IOException {
+        super(decode(contentEncoding, wireStream));
+        this.url = url;
+        this.contentEncoding = contentEncoding;
+        this.contentLength = contentLength;
+        this.wireStream = wireStream;
+    }
+
+    private static InputStream decode(String contentEncoding, InputStream wireStream) throws IOException {
+        if (contentEncoding == null) {
+            return wireStream;
+        }
+        final String encoding = contentEncoding.trim().toLowerCase();
+        if (ENCODING_GZIP.equals(encoding) || "x-gzip".equals(encoding)) {
+            return new GZIPInputStream(wireStream);
+        }
+        if (ENCODING_DEFLATE.equals(encoding)) {
+            // "deflate" should be zlib wrapped, but some servers send the raw deflate data
+            final PushbackInputStream pushback = new PushbackInputStream(wireStream, 2);
+            final byte[] header = new byte[2];
+            final int read = pushback.read(header);
+            if (read > 0) {
+                pushback.unread(header, 0, read);
+            }
+            final boolean zlibWrapped = read == 2
+                    && (header[0] & 0x0F) == 8
+                    && (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % 31 == 0;
+            return new InflaterInputStream(pushback, new Inflater(!zlibWrapped));
+        }
+        return wireStream;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b == -1) {
+            atEnd = true;
+        } else {
+            decodedBytes++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int count) throws IOException {
+        final int read = super.read(buffer, offset, count);
+        if (read == -1) {
+            atEnd = true;
+        } else {
+            decodedBytes += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long count) throws IOException {
+        final long skipped = super.skip(count);
+        decodedBytes += skipped;
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            super.close();
+        } finally {
+            final TransferListener listener = NetworkUtils.getTransferListener();
+            if (listener != null) {
+                listener.onResponseRead(url, contentEncoding, getCompressedBytes(), getUncompressedBytes());
+            }
+        }
+    }
+
+    /**
+     * @return the number of body bytes received from the network so far.
+     */
+    public long getCompressedBytes() {
+        return wireStream.getCount();
+    }
+
+    /**
+     * @return the number of decoded body bytes read so far.
+     */
+    public long getUncompressedBytes() {
+        return decodedBytes;
+    }
+
+    /**
+     * @return the Content-Length of the response as sent by the server, which is the
+     * compressed size if the body is encoded, or -1 if unknown.
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * @return true if the body is compressed, so that the decoded size is not known in advance.
+     */
+    public boolean isEncoded() {
+        return in != wireStream;
+    }
+
+    /**
+     * @return true if the whole body has been read.
+     */
+    public boolean isAtEnd() {
+        return atEnd;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            final int read = super.read(buffer, offset, length);
+            if (read != -1) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
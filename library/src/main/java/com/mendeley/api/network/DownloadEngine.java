@@ -0,0 +1,111 @@
+package com.mendeley.api.network;
+
+import com.mendeley.api.util.BufferPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+
+/**
+ * Copies download responses to files.
+ * <p>
+ * The bytes go through large buffers taken from a shared pool, each filled with all the bytes
+ * already received before it is written at its position through a FileChannel, so that a
+ * download makes few large writes rather than one small write per network packet.
+ */
+public class DownloadEngine {
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int MAX_POOLED_BUFFERS = 8;
+
+    private static final BufferPool buffers = new BufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+
+    /**
+     * Follows a copy. Called from the copying thread.
+     */
+    public interface Listener {
+        boolean isCancelled();
+
+        /**
+         * @param count the number of bytes just written
+         */
+        void onBytesWritten(int count);
+    }
+
+    private DownloadEngine() {}
+
+    /**
+     * Copies a response body to a file, until the end of the body, the maximum number of bytes
+     * or the cancellation of the copy.
+     *
+     * @param in the response body
+     * @param channel the file
+     * @param position the position in the file of the first byte
+     * @param maxBytes the maximum number of bytes copied, or -1 to copy the whole body
+     * @return the number of bytes copied
+     */
+    public static long copy(InputStream in, FileChannel channel, long position, long maxBytes, Listener listener) throws IOException {
+        return copy(in, channel, position, maxBytes, null, listener);
+    }
+
+    /**
+     * Copies a response body to a file, updating a digest with the bytes copied.
+     *
+     * @param digest the digest, or null
+     */
+    public static long copy(InputStream in, FileChannel channel, long position, long maxBytes,
+                            MessageDigest digest, Listener listener) throws IOException {
+        final byte[] buffer = buffers.acquire();
+        try {
+            final ByteBuffer bytes = ByteBuffer.wrap(buffer);
+            long copied = 0;
+            while ((maxBytes < 0 || copied < maxBytes) && !listener.isCancelled()) {
+                final int max = maxBytes < 0 ? buffer.length : (int) Math.min(buffer.length, maxBytes - copied);
+                int filled = in.read(buffer, 0, max);
+                if (filled == -1) {
+                    break;
+                }
+                // Take what has already arrived, without waiting for more
+                while (filled < max && in.available() > 0) {
+                    final int count = in.read(buffer, filled, max - filled);
+                    if (count == -1) {
+                        break;
+                    }
+                    filled += count;
+                }
+                if (digest != null) {
+                    digest.update(buffer, 0, filled);
+                }
+                bytes.clear();
+                bytes.limit(filled);
+                while (bytes.hasRemaining()) {
+                    position += channel.write(bytes, position);
+                }
+                copied += filled;
+                listener.onBytesWritten(filled);
+            }
+            return copied;
+        } finally {
+            buffers.release(buffer);
+        }
+    }
+
+    /**
+     * @return the Content-Length of the response as a long, as {@link HttpURLConnection#getContentLength}
+     * overflows above 2 GB; -1 if unknown
+     */
+    public static long getContentLength(HttpURLConnection con) {
+        final String length = con.getHeaderField("Content-Length");
+        if (length == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(length.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
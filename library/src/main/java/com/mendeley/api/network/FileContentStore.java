@@ -0,0 +1,278 @@
+package com.mendeley.api.network;
+
+import com.mendeley.api.util.Utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Local store of file contents addressed by their SHA-1 hash, the fileHash of
+ * {@link com.mendeley.api.model.File}.
+ * <p>
+ * A content is stored once whatever the number of files sharing it, e.g. the same paper attached
+ * to documents in several groups, and is not downloaded again while it is stored. Every content
+ * is verified against its hash before being stored.
+ * <p>
+ * The total size of the contents is bounded: when it goes over the maximum, the contents opened
+ * least recently are deleted. The content just stored is never deleted, so the store can exceed
+ * its maximum by one content larger than the rest.
+ */
+public class FileContentStore {
+    public static final long DEFAULT_MAX_SIZE = 256 * 1024 * 1024;
+
+    private static final String CONTENT_SUFFIX = ".content";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final String HASH_ALGORITHM = "SHA-1";
+    private static final int HASH_LENGTH = 40;
+
+    private final File directory;
+    private final long maxSize;
+
+    /**
+     * @param directory directory holding the contents, e.g. under Context.getFilesDir()
+     * @param maxSize maximum total size of the contents, in bytes
+     */
+    public FileContentStore(File directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        directory.mkdirs();
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return true if the content with the given hash is stored
+     */
+    public boolean contains(String fileHash) {
+        return isValidHash(fileHash) && getContentFile(fileHash).isFile();
+    }
+
+    /**
+     * Returns the stored content with the given hash, recording the time it was opened, which
+     * orders the contents for eviction.
+     *
+     * @return the file holding the content, or null if it is not stored. It must not be modified.
+     */
+    public File open(String fileHash) {
+        if (!isValidHash(fileHash)) {
+            return null;
+        }
+        final File file = getContentFile(fileHash);
+        synchronized (this) {
+            if (!file.isFile()) {
+                return null;
+            }
+            file.setLastModified(System.currentTimeMillis());
+        }
+        return file;
+    }
+
+    /**
+     * Moves a downloaded file into the store, after verifying its hash.
+     *
+     * @param fileHash the expected SHA-1 hash
+     * @param source the downloaded file, which is moved or deleted
+     * @param digest the SHA-1 digest of the source computed while it was written, or null to
+     *               compute it from the file
+     * @return the stored content
+     * @throws IOException if the content does not match the hash, or cannot be stored
+     */
+    public File put(String fileHash, File source, byte[] digest) throws IOException {
+        checkHash(fileHash);
+        try {
+            final String actual = Utils.toHex(digest != null ? digest : hash(source));
+            if (!actual.equalsIgnoreCase(fileHash)) {
+                throw new IOException("Content hash " + actual + " does not match file hash " + fileHash);
+            }
+            final File file = getContentFile(fileHash);
+            synchronized (this) {
+                file.delete();
+                if (!source.renameTo(file)) {
+                    throw new IOException("Cannot move " + source + " to " + file);
+                }
+                file.setLastModified(System.currentTimeMillis());
+                trim(file);
+            }
+            return file;
+        } finally {
+            source.delete();
+        }
+    }
+
+    /**
+     * Copies a content into the store, verifying its hash while it is written.
+     *
+     * @param fileHash the expected SHA-1 hash
+     * @param in the content, which is closed
+     * @return the stored content
+     * @throws IOException if the content does not match the hash, or cannot be stored
+     */
+    public File put(String fileHash, InputStream in) throws IOException {
+        checkHash(fileHash);
+        final File tmp = new File(directory, fileHash.toLowerCase(Locale.US) + TMP_SUFFIX + System.nanoTime());
+        final MessageDigest digest = newDigest();
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(tmp);
+            final byte[] buffer = new byte[DownloadEngine.BUFFER_SIZE];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, count);
+                out.write(buffer, 0, count);
+            }
+            out.close();
+            out = null;
+        } catch (IOException e) {
+            tmp.delete();
+            throw e;
+        } finally {
+            Utils.closeQuietly(out);
+            Utils.closeQuietly(in);
+        }
+        return put(fileHash, tmp, digest.digest());
+    }
+
+    /**
+     * Deletes the content with the given hash.
+     */
+    public synchronized void remove(String fileHash) {
+        if (isValidHash(fileHash)) {
+            getContentFile(fileHash).delete();
+        }
+    }
+
+    /**
+     * Deletes all the contents.
+     */
+    public synchronized void clear() {
+        for (File file : listContents()) {
+            file.delete();
+        }
+    }
+
+    /**
+     * @return the total size of the contents, in bytes
+     */
+    public synchronized long getSize() {
+        long size = 0;
+        for (File file : listContents()) {
+            size += file.length();
+        }
+        return size;
+    }
+
+    /**
+     * @return a new SHA-1 digest, to hash a content while it is downloaded
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform provides SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return true if the value is a hexadecimal SHA-1 hash, and so a safe file name
+     */
+    public static boolean isValidHash(String fileHash) {
+        if (fileHash == null || fileHash.length() != HASH_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < HASH_LENGTH; i++) {
+            final char c = fileHash.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f') && !(c >= 'A' && c <= 'F')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkHash(String fileHash) {
+        if (!isValidHash(fileHash)) {
+            throw new IllegalArgumentException("Not a SHA-1 hash: " + fileHash);
+        }
+    }
+
+    private static byte[] hash(File file) throws IOException {
+        final MessageDigest digest = newDigest();
+        final InputStream in = new FileInputStream(file);
+        try {
+            final byte[] buffer = new byte[DownloadEngine.BUFFER_SIZE];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, count);
+            }
+        } finally {
+            Utils.closeQuietly(in);
+        }
+        return digest.digest();
+    }
+
+    private File getContentFile(String fileHash) {
+        return new File(directory, fileHash.toLowerCase(Locale.US) + CONTENT_SUFFIX);
+    }
+
+    private File[] listContents() {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return new File[0];
+        }
+        int count = 0;
+        for (File file : files) {
+            if (file.getName().endsWith(CONTENT_SUFFIX)) {
+                files[count++] = file;
+            }
+        }
+        return Arrays.copyOf(files, count);
+    }
+
+    /**
+     * Deletes the least recently opened contents until the store is within its maximum size.
+     * Called with the lock held.
+     *
+     * @param keep the content which must not be deleted
+     */
+    private void trim(File keep) {
+        final File[] files = listContents();
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        if (size <= maxSize) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                final long l = lhs.lastModified();
+                final long r = rhs.lastModified();
+                return l < r ? -1 : (l == r ? 0 : 1);
+            }
+        });
+        for (File file : files) {
+            if (size <= maxSize) {
+                break;
+            }
+            if (file.equals(keep)) {
+                continue;
+            }
+            final long length = file.length();
+            if (file.delete()) {
+                size -= length;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.mendeley.api.network;
+
+import org.apache.http.client.HttpClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+
+/**
+ * Opens and recycles the HTTP connections used by all the network procedures and tasks.
+ * <p>
+ * A single transport is shared by the whole SDK (see {@link NetworkUtils#setHttpTransport}),
+ * so implementations must be thread safe.
+ */
+public interface HttpTransport {
+
+    /**
+     * Opens a connection to the given url, with the timeouts and request method already set.
+     * No authorization header is added.
+     *
+     * @param url the call url
+     * @param method the request method
+     * @return the connection, not yet connected
+     * @throws IOException
+     */
+    HttpURLConnection openConnection(String url, String method) throws IOException;
+
+    /**
+     * Returns the HttpClient used for the requests that HttpURLConnection cannot issue
+     * (PATCH) and for the OAuth token calls.
+     * <p>
+     * The response entity of every request must be consumed or closed so that the connection
+     * is returned to the pool.
+     */
+    HttpClient getHttpClient();
+
+    /**
+     * Releases a connection obtained from {@link #openConnection}, making the underlying socket
+     * available for reuse if possible.
+     *
+     * @param con the connection, may be null
+     * @param is the response stream that was read, or null if the body was not opened
+     */
+    void releaseConnection(HttpURLConnection con, InputStream is);
+}
@@ -0,0 +1,354 @@
+package com.mendeley.api.network;
+
+import android.util.Log;
+
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.impl.BaseMendeleySdk;
+import com.mendeley.api.util.Utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Cache of the images downloaded by {@link com.mendeley.api.network.provider.UtilsNetworkProvider},
+ * such as profile and group photos.
+ * <p>
+ * Images are held in a memory tier bounded by their size in bytes, and optionally in a disk
+ * tier evicting the least recently used images. Concurrent requests for the same URL share a
+ * single download.
+ * <p>
+ * The returned arrays are shared between callers and must not be modified.
+ */
+public class ImageCache {
+    public static final long DEFAULT_MEMORY_SIZE = 2 * 1024 * 1024;
+    public static final long DEFAULT_DISK_SIZE = 10 * 1024 * 1024;
+
+    private static final String TAG = BaseMendeleySdk.TAG;
+
+    private static final String DISK_SUFFIX = ".image";
+
+    /**
+     * Downloads an image which is not cached.
+     */
+    public interface Downloader {
+        byte[] download(String url) throws MendeleyException;
+    }
+
+    private static class Download {
+        final CountDownLatch done = new CountDownLatch(1);
+        byte[] data;
+        MendeleyException exception;
+    }
+
+    private final long maxMemorySize;
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<String, byte[]>(16, 0.75f, true);
+    private long memorySize;
+
+    private final File directory;
+    private final long maxDiskSize;
+
+    private final Map<String, Download> inFlight = new HashMap<String, Download>();
+
+    private int memoryHitCount;
+    private int diskHitCount;
+    private int downloadCount;
+    private int coalescedCount;
+
+    /**
+     * Creates a memory-only cache.
+     *
+     * @param maxMemorySize maximum total size of the images held in memory, in bytes
+     */
+    public ImageCache(long maxMemorySize) {
+        this(maxMemorySize, null, 0);
+    }
+
+    /**
+     * @param maxMemorySize maximum total size of the images held in memory, in bytes
+     * @param directory directory holding the disk tier, e.g. under Context.getCacheDir(); null for none
+     * @param maxDiskSize maximum total size of the images stored on disk, in bytes
+     */
+    public ImageCache(long maxMemorySize, File directory, long maxDiskSize) {
+        this.maxMemorySize = maxMemorySize;
+        this.directory = directory;
+        this.maxDiskSize = maxDiskSize;
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            Log.w(TAG, "Could not create image cache directory " + directory);
+        }
+    }
+
+    /**
+     * @return true if the images are also stored on disk.
+     */
+    public boolean isPersistent() {
+        return directory != null;
+    }
+
+    /**
+     * Returns the image, from memory, from disk, or by downloading it. If the image is
+     * already being downloaded, waits for that download instead of starting another one.
+     */
+    public byte[] get(String url, Downloader downloader) throws MendeleyException {
+        final byte[] cached = getCached(url);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Download download;
+        final boolean leader;
+        synchronized (inFlight) {
+            final Download existing = inFlight.get(url);
+            leader = existing == null;
+            download = leader ? new Download() : existing;
+            if (leader) {
+                inFlight.put(url, download);
+            }
+        }
+
+        if (!leader) {
+            synchronized (this) {
+                coalescedCount++;
+            }
+            return await(url, download);
+        }
+
+        try {
+            download.data = downloader.download(url);
+            synchronized (this) {
+                downloadCount++;
+            }
+            put(url, download.data);
+            return download.data;
+        } catch (MendeleyException e) {
+            download.exception = e;
+            throw e;
+        } finally {
+            synchronized (inFlight) {
+                inFlight.remove(url);
+            }
+            download.done.countDown();
+        }
+    }
+
+    /**
+     * @return the image held in memory, or null. Does not access the disk, so it can be used
+     * on the UI thread.
+     */
+    public synchronized byte[] getFromMemory(String url) {
+        final byte[] data = memory.get(url);
+        if (data != null) {
+            memoryHitCount++;
+        }
+        return data;
+    }
+
+    /**
+     * @return the image held in memory or on disk, or null
+     */
+    public byte[] getCached(String url) {
+        final byte[] inMemory = getFromMemory(url);
+        if (inMemory != null) {
+            return inMemory;
+        }
+        final byte[] onDisk = readFromDisk(url);
+        if (onDisk != null) {
+            synchronized (this) {
+                diskHitCount++;
+            }
+            putInMemory(url, onDisk);
+        }
+        return onDisk;
+    }
+
+    /**
+     * Stores an image in memory and on disk.
+     */
+    public void put(String url, byte[] data) {
+        putInMemory(url, data);
+        writeToDisk(url, data);
+    }
+
+    /**
+     * Removes all the images, from memory and disk.
+     */
+    public void clear() {
+        synchronized (this) {
+            memory.clear();
+            memorySize = 0;
+        }
+        if (directory == null) {
+            return;
+        }
+        synchronized (directory) {
+            final File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    if (file.getName().endsWith(DISK_SUFFIX)) {
+                        file.delete();
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized int getMemoryHitCount() {
+        return memoryHitCount;
+    }
+
+    public synchronized int getDiskHitCount() {
+        return diskHitCount;
+    }
+
+    public synchronized int getDownloadCount() {
+        return downloadCount;
+    }
+
+    /**
+     * @return the number of requests which waited for a download started by another request.
+     */
+    public synchronized int getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    public synchronized long getMemorySize() {
+        return memorySize;
+    }
+
+    private byte[] await(String url, Download download) throws MendeleyException {
+        try {
+            download.done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MendeleyException("Interrupted while waiting for image: " + url, e);
+        }
+        if (download.exception != null) {
+            throw download.exception;
+        }
+        return download.data;
+    }
+
+    private synchronized void putInMemory(String url, byte[] data) {
+        if (data.length > maxMemorySize) {
+            return;
+        }
+        final byte[] previous = memory.put(url, data);
+        if (previous != null) {
+            memorySize -= previous.length;
+        }
+        memorySize += data.length;
+        final Iterator<byte[]> it = memory.values().iterator();
+        while (memorySize > maxMemorySize && it.hasNext()) {
+            memorySize -= it.next().length;
+            it.remove();
+        }
+    }
+
+    private byte[] readFromDisk(String url) {
+        if (directory == null) {
+            return null;
+        }
+        final File file = getDiskFile(url);
+        synchronized (directory) {
+            if (!file.isFile()) {
+                return null;
+            }
+            InputStream in = null;
+            try {
+                in = new FileInputStream(file);
+                final byte[] data = new byte[(int) file.length()];
+                int offset = 0;
+                int count;
+                while (offset < data.length && (count = in.read(data, offset, data.length - offset)) != -1) {
+                    offset += count;
+                }
+                if (offset != data.length) {
+                    throw new IOException("Truncated image file");
+                }
+                // The modification time orders the files for eviction
+                file.setLastModified(System.currentTimeMillis());
+                return data;
+            } catch (IOException e) {
+                Log.w(TAG, "Discarding unreadable cached image " + file + ": " + e.toString());
+                file.delete();
+                return null;
+            } finally {
+                Utils.closeQuietly(in);
+            }
+        }
+    }
+
+    private void writeToDisk(String url, byte[] data) {
+        if (directory == null || data.length > maxDiskSize) {
+            return;
+        }
+        final File file = getDiskFile(url);
+        final File tmp = new File(directory, file.getName() + ".tmp");
+        synchronized (directory) {
+            OutputStream out = null;
+            try {
+                out = new FileOutputStream(tmp);
+                out.write(data);
+                out.close();
+                out = null;
+                if (!tmp.renameTo(file)) {
+                    tmp.delete();
+                    return;
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "Could not store image in " + file + ": " + e.toString());
+                tmp.delete();
+                return;
+            } finally {
+                Utils.closeQuietly(out);
+            }
+            trimDisk();
+        }
+    }
+
+    private void trimDisk() {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        if (size <= maxDiskSize) {
+            return;
+        }
+        // Least recently used first
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                final long l = lhs.lastModified();
+                final long r = rhs.lastModified();
+                return l < r ? -1 : (l == r ? 0 : 1);
+            }
+        });
+        for (File file : files) {
+            if (size <= maxDiskSize) {
+                break;
+            }
+            final long length = file.length();
+            if (file.delete()) {
+                size -= length;
+            }
+        }
+    }
+
+    private File getDiskFile(String url) {
+        return new File(directory, Utils.md5Hex(url) + DISK_SUFFIX);
+    }
+}
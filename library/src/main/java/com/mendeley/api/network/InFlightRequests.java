@@ -0,0 +1,165 @@
+package com.mendeley.api.network;
+
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.exceptions.UserCancelledException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Coalesces identical GET requests running at the same time, from both the async tasks and
+ * the blocking procedures, so that they share one network call and one parse.
+ * <p>
+ * The first request for a method, URL and content type becomes the leader of a
+ * {@link Flight} and makes the call; the following ones wait for its result. A cancelled
+ * request leaves the flight, and the call is only abandoned once every request has left it.
+ */
+public class InFlightRequests {
+
+    /**
+     * The result of a flight: the response body, and the model read from it by the leader if
+     * it can be shared. As for cached responses, the model must not be modified.
+     */
+    public static class Response {
+        public final String body;
+        public final Object model;
+
+        Response(String body, Object model) {
+            this.body = body;
+            this.model = model;
+        }
+    }
+
+    /**
+     * The part of one caller in a request shared by several callers.
+     */
+    public class Flight {
+        private final String key;
+        private final SharedCall call;
+        private final boolean leader;
+
+        private Flight(String key, SharedCall call, boolean leader) {
+            this.key = key;
+            this.call = call;
+            this.leader = leader;
+        }
+
+        /**
+         * @return true if the caller must make the request and then call {@link #complete} or
+         * {@link #fail}; false if it must {@link #await} the result.
+         */
+        public boolean isLeader() {
+            return leader;
+        }
+
+        /**
+         * Waits for the leader. If the waiting thread is interrupted, e.g. because its request
+         * is cancelled, it leaves the flight.
+         */
+        public Response await() throws MendeleyException {
+            try {
+                call.done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                release();
+                throw new UserCancelledException();
+            }
+            if (call.exception != null) {
+                throw call.exception;
+            }
+            return call.response;
+        }
+
+        /**
+         * Delivers the result of the leader to the waiting requests.
+         */
+        public void complete(String body, Object model) {
+            finish(new Response(body, model), null);
+        }
+
+        /**
+         * Delivers the failure of the leader to the waiting requests.
+         */
+        public void fail(MendeleyException e) {
+            finish(null, e);
+        }
+
+        /**
+         * Leaves the flight, because the caller's request has been cancelled.
+         *
+         * @return true if no other request is waiting, so the call can be abandoned
+         */
+        public boolean release() {
+            synchronized (calls) {
+                call.references--;
+                if (call.references > 0) {
+                    return false;
+                }
+                // Later requests start a new call
+                if (calls.get(key) == call) {
+                    calls.remove(key);
+                }
+                return true;
+            }
+        }
+
+        private void finish(Response response, MendeleyException exception) {
+            synchronized (calls) {
+                if (calls.get(key) == call) {
+                    calls.remove(key);
+                }
+            }
+            call.response = response;
+            call.exception = exception;
+            call.done.countDown();
+        }
+    }
+
+    private static class SharedCall {
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Response response;
+        volatile MendeleyException exception;
+        int references = 1;
+    }
+
+    private final Map<String, SharedCall> calls = new HashMap<String, SharedCall>();
+    private int coalescedCount;
+
+    /**
+     * Joins the flight of an identical request in progress, or starts a new one.
+     */
+    public Flight join(String method, String url, String contentType) {
+        final String key = method + " " + url + " " + contentType;
+        synchronized (calls) {
+            SharedCall call = calls.get(key);
+            final boolean leader = call == null;
+            if (leader) {
+                call = new SharedCall();
+                calls.put(key, call);
+            } else {
+                call.references++;
+                coalescedCount++;
+            }
+            return new Flight(key, call, leader);
+        }
+    }
+
+    /**
+     * @return the number of requests which shared the call of another request.
+     */
+    public int getCoalescedCount() {
+        synchronized (calls) {
+            return coalescedCount;
+        }
+    }
+
+    /**
+     * @return the number of calls in progress.
+     */
+    public int getInFlightCount() {
+        synchronized (calls) {
+            return calls.size();
+        }
+    }
+}
@@ -22,10 +22,8 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -229,6 +227,137 @@ public class JsonParser {
 		return jFolder.toString();
 	}
 	
+    /**
+     * Creating a json string from a File object, in the format returned by the server
+     *
+     * @param file the File object
+     * @return the json string
+     * @throws JSONException
+     */
+    public static String jsonFromFile(File file) throws JSONException {
+        JSONObject jFile = new JSONObject();
+
+        jFile.put("id", file.id);
+        jFile.put("document_id", file.documentId);
+        jFile.put("mime_type", file.mimeType);
+        jFile.put("file_name", file.fileName);
+        jFile.put("filehash", file.fileHash);
+        jFile.put("size", file.fileSize);
+
+        return jFile.toString();
+    }
+
+    /**
+     * Creating a json string from a Group object, in the format returned by the server
+     *
+     * @param group the Group object
+     * @return the json string
+     * @throws JSONException
+     */
+    public static String jsonFromGroup(Group group) throws JSONException {
+        JSONObject jGroup = new JSONObject();
+
+        jGroup.put("id", group.id);
+        jGroup.put("created", group.created);
+        jGroup.put("owning_profile_id", group.owningProfileId);
+        jGroup.put("link", group.link);
+        if (group.role != null) {
+            jGroup.put("role", group.role.toValue());
+        }
+        if (group.accessLevel != null) {
+            jGroup.put("access_level", group.accessLevel.toValue());
+        }
+        jGroup.put("name", group.name);
+        jGroup.put("description", group.description);
+        if (group.tags != null) {
+            jGroup.put("tags", new JSONArray(group.tags));
+        }
+        jGroup.put("webpage", group.webpage);
+        if (group.disciplines != null) {
+            jGroup.put("disciplines", new JSONArray(group.disciplines));
+        }
+        if (group.photo != null) {
+            jGroup.put("photo", serializePhoto(group.photo));
+        }
+
+        return jGroup.toString();
+    }
+
+    /**
+     * Creating a json string from a Profile object, in the format returned by the server
+     *
+     * @param profile the Profile object
+     * @return the json string
+     * @throws JSONException
+     */
+    public static String jsonFromProfile(Profile profile) throws JSONException {
+        JSONObject jProfile = new JSONObject();
+
+        jProfile.put("id", profile.id);
+        jProfile.put("location", profile.location);
+        jProfile.put("display_name", profile.displayName);
+        jProfile.put("user_type", profile.userType);
+        jProfile.put("url", profile.url);
+        jProfile.put("email", profile.email);
+        jProfile.put("link", profile.link);
+        jProfile.put("first_name", profile.firstName);
+        jProfile.put("last_name", profile.lastName);
+        jProfile.put("research_interests", profile.researchInterests);
+        jProfile.put("academic_status", profile.academicStatus);
+        jProfile.put("verified", profile.verified);
+        jProfile.put("created_at", profile.createdAt);
+        if (profile.discipline != null) {
+            JSONObject discipline = new JSONObject();
+            discipline.put("name", profile.discipline.name);
+            jProfile.put("discipline", discipline);
+        }
+        if (profile.photo != null) {
+            jProfile.put("photo", serializePhoto(profile.photo));
+        }
+        if (profile.education != null) {
+            JSONArray education = new JSONArray();
+            for (Education item : profile.education) {
+                JSONObject jEducation = new JSONObject();
+                jEducation.put("id", item.id);
+                jEducation.put("degree", item.degree);
+                jEducation.put("institution", item.institution);
+                jEducation.put("start_date", item.startDate);
+                jEducation.put("end_date", item.endDate);
+                jEducation.put("website", item.website);
+                education.put(jEducation);
+            }
+            jProfile.put("education", education);
+        }
+        if (profile.employment != null) {
+            JSONArray employment = new JSONArray();
+            for (Employment item : profile.employment) {
+                JSONObject jEmployment = new JSONObject();
+                jEmployment.put("id", item.id);
+                jEmployment.put("institution", item.institution);
+                jEmployment.put("position", item.position);
+                jEmployment.put("start_date", item.startDate);
+                jEmployment.put("end_date", item.endDate);
+                jEmployment.put("website", item.website);
+                if (item.classes != null) {
+                    jEmployment.put("classes", new JSONArray(item.classes));
+                }
+                jEmployment.put("is_main_employment", item.isMainEmployment);
+                employment.put(jEmployment);
+            }
+            jProfile.put("employment", employment);
+        }
+
+        return jProfile.toString();
+    }
+
+    private static JSONObject serializePhoto(Photo photo) throws JSONException {
+        JSONObject jPhoto = new JSONObject();
+        jPhoto.put("original", photo.original);
+        jPhoto.put("standard", photo.standard);
+        jPhoto.put("square", photo.square);
+        return jPhoto;
+    }
+
 	/**
 	 * Creating a json string from a document id string
 	 * 
@@ -1030,26 +1159,6 @@ public class JsonParser {
      * @throws IOException
      */
     public static String getJsonString(InputStream stream) throws IOException {
-		
-		StringBuffer data = new StringBuffer();
-		InputStreamReader isReader = null;
-		BufferedReader br = null;
-		
-		try {
-			
-			isReader = new InputStreamReader(stream); 
-            br = new BufferedReader(isReader);
-            String brl = ""; 
-            while ((brl = br.readLine()) != null) {
-        	    data.append(brl);
-            }
-            
-		} finally {
-			stream.close();
-            isReader.close();
-            br.close();
-		}
-		
-		return data.toString();
+        return ResponseBodyReader.readString(stream);
 	}
 }
@@ -0,0 +1,624 @@
+package com.mendeley.api.network;
+
+import android.graphics.Color;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.MalformedJsonException;
+
+import com.mendeley.api.model.Annotation;
+import com.mendeley.api.model.Box;
+import com.mendeley.api.model.Document;
+import com.mendeley.api.model.File;
+import com.mendeley.api.model.Folder;
+import com.mendeley.api.model.Group;
+import com.mendeley.api.model.Person;
+import com.mendeley.api.model.Photo;
+import com.mendeley.api.model.Point;
+import com.mendeley.api.model.UserRole;
+
+import org.json.JSONException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static com.mendeley.api.model.Annotation.PrivacyLevel;
+
+/**
+ * Streaming counterpart of the {@link JsonParser} list methods, which reads the models
+ * directly from the response stream instead of building a String and a JSONArray first.
+ * <p>
+ * Null values are treated as absent. Malformed or unexpected json is reported as a
+ * JSONException, like in JsonParser; IOExceptions are only thrown for stream errors.
+ */
+public class JsonStreamParser {
+
+    private interface ElementReader<T> {
+        T read(JsonReader reader) throws IOException, JSONException;
+    }
+
+    private static final ElementReader<Document> DOCUMENT_READER = new ElementReader<Document>() {
+        @Override
+        public Document read(JsonReader reader) throws IOException, JSONException {
+            return readDocument(reader);
+        }
+    };
+
+    private static final ElementReader<File> FILE_READER = new ElementReader<File>() {
+        @Override
+        public File read(JsonReader reader) throws IOException, JSONException {
+            return readFile(reader);
+        }
+    };
+
+    private static final ElementReader<Folder> FOLDER_READER = new ElementReader<Folder>() {
+        @Override
+        public Folder read(JsonReader reader) throws IOException, JSONException {
+            return readFolder(reader);
+        }
+    };
+
+    private static final ElementReader<Annotation> ANNOTATION_READER = new ElementReader<Annotation>() {
+        @Override
+        public Annotation read(JsonReader reader) throws IOException, JSONException {
+            return readAnnotation(reader);
+        }
+    };
+
+    private static final ElementReader<Group> GROUP_READER = new ElementReader<Group>() {
+        @Override
+        public Group read(JsonReader reader) throws IOException, JSONException {
+            return readGroup(reader);
+        }
+    };
+
+    private static final ElementReader<UserRole> USER_ROLE_READER = new ElementReader<UserRole>() {
+        @Override
+        public UserRole read(JsonReader reader) throws IOException, JSONException {
+            return readUserRole(reader);
+        }
+    };
+
+    public static List<Document> parseDocumentList(InputStream stream) throws IOException, JSONException {
+        return parseList(stream, DOCUMENT_READER);
+    }
+
+    public static List<File> parseFileList(InputStream stream) throws IOException, JSONException {
+        return parseList(stream, FILE_READER);
+    }
+
+    public static List<Folder> parseFolderList(InputStream stream) throws IOException, JSONException {
+        return parseList(stream, FOLDER_READER);
+    }
+
+    public static List<Annotation> parseAnnotationList(InputStream stream) throws IOException, JSONException {
+        return parseList(stream, ANNOTATION_READER);
+    }
+
+    public static List<Group> parseGroupList(InputStream stream) throws IOException, JSONException {
+        return parseList(stream, GROUP_READER);
+    }
+
+    public static List<UserRole> parseUserRoleList(InputStream stream) throws IOException, JSONException {
+        return parseList(stream, USER_ROLE_READER);
+    }
+
+    private static <T> List<T> parseList(InputStream stream, ElementReader<T> elementReader) throws IOException, JSONException {
+        final JsonReader reader = new JsonReader(new InputStreamReader(stream, "UTF-8"));
+        try {
+            final List<T> list = new ArrayList<T>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                } else {
+                    list.add(elementReader.read(reader));
+                }
+            }
+            reader.endArray();
+            return list;
+        } catch (MalformedJsonException e) {
+            throw new JSONException(e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new JSONException(e.getMessage());
+        } catch (NumberFormatException e) {
+            throw new JSONException(e.getMessage());
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads the next name of the current object, skipping the entries with null values.
+     *
+     * @return the name, or null if the object has no more entries
+     */
+    private static String nextNonNullName(JsonReader reader) throws IOException {
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+            } else {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private static ArrayList<String> readStringArray(JsonReader reader) throws IOException {
+        final ArrayList<String> strings = new ArrayList<String>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+            } else {
+                strings.add(reader.nextString());
+            }
+        }
+        reader.endArray();
+        return strings;
+    }
+
+    public static Document readDocument(JsonReader reader) throws IOException, JSONException {
+        final Document.Builder bld = new Document.Builder();
+
+        reader.beginObject();
+        String key;
+        while ((key = nextNonNullName(reader)) != null) {
+            if (key.equals("title")) {
+                bld.setTitle(reader.nextString());
+
+            } else if (key.equals("type")) {
+                bld.setType(reader.nextString());
+
+            } else if (key.equals("last_modified")) {
+                bld.setLastModified(reader.nextString());
+
+            } else if (key.equals("group_id")) {
+                bld.setGroupId(reader.nextString());
+
+            } else if (key.equals("profile_id")) {
+                bld.setProfileId(reader.nextString());
+
+            } else if (key.equals("read")) {
+                bld.setRead(reader.nextBoolean());
+
+            } else if (key.equals("starred")) {
+                bld.setStarred(reader.nextBoolean());
+
+            } else if (key.equals("authored")) {
+                bld.setAuthored(reader.nextBoolean());
+
+            } else if (key.equals("confirmed")) {
+                bld.setConfirmed(reader.nextBoolean());
+
+            } else if (key.equals("hidden")) {
+                bld.setHidden(reader.nextBoolean());
+
+            } else if (key.equals("id")) {
+                bld.setId(reader.nextString());
+
+            } else if (key.equals("month")) {
+                bld.setMonth(reader.nextInt());
+
+            } else if (key.equals("year")) {
+                bld.setYear(reader.nextInt());
+
+            } else if (key.equals("day")) {
+                bld.setDay(reader.nextInt());
+
+            } else if (key.equals("source")) {
+                bld.setSource(reader.nextString());
+
+            } else if (key.equals("revision")) {
+                bld.setRevision(reader.nextString());
+
+            } else if (key.equals("created")) {
+                bld.setCreated(reader.nextString());
+
+            } else if (key.equals("abstract")) {
+                bld.setAbstractString(reader.nextString());
+
+            } else if (key.equals("pages")) {
+                bld.setPages(reader.nextString());
+
+            } else if (key.equals("volume")) {
+                bld.setVolume(reader.nextString());
+
+            } else if (key.equals("issue")) {
+                bld.setIssue(reader.nextString());
+
+            } else if (key.equals("publisher")) {
+                bld.setPublisher(reader.nextString());
+
+            } else if (key.equals("city")) {
+                bld.setCity(reader.nextString());
+
+            } else if (key.equals("edition")) {
+                bld.setEdition(reader.nextString());
+
+            } else if (key.equals("institution")) {
+                bld.setInstitution(reader.nextString());
+
+            } else if (key.equals("series")) {
+                bld.setSeries(reader.nextString());
+
+            } else if (key.equals("chapter")) {
+                bld.setChapter(reader.nextString());
+
+            } else if (key.equals("client_data")) {
+                bld.setClientData(reader.nextString());
+
+            } else if (key.equals("unique_id")) {
+                bld.setUniqueId(reader.nextString());
+
+            } else if (key.equals("authors")) {
+                bld.setAuthors(readPersons(reader));
+
+            } else if (key.equals("editors")) {
+                bld.setEditors(readPersons(reader));
+
+            } else if (key.equals("identifiers")) {
+                final HashMap<String, String> identifiersMap = new HashMap<String, String>();
+                reader.beginObject();
+                String identifierKey;
+                while ((identifierKey = nextNonNullName(reader)) != null) {
+                    identifiersMap.put(identifierKey, reader.nextString());
+                }
+                reader.endObject();
+                bld.setIdentifiers(identifiersMap);
+
+            } else if (key.equals("tags")) {
+                bld.setTags(readStringArray(reader));
+
+            } else if (key.equals("accessed")) {
+                bld.setAccessed(reader.nextString());
+
+            } else if (key.equals("file_attached")) {
+                bld.setFileAttached(reader.nextBoolean());
+
+            } else if (key.equals("keywords")) {
+                bld.setKeywords(readStringArray(reader));
+
+            } else if (key.equals("websites")) {
+                bld.setWebsites(readStringArray(reader));
+
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return bld.build();
+    }
+
+    private static ArrayList<Person> readPersons(JsonReader reader) throws IOException, JSONException {
+        final ArrayList<Person> persons = new ArrayList<Person>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String firstName = "";
+            String lastName = null;
+
+            reader.beginObject();
+            String key;
+            while ((key = nextNonNullName(reader)) != null) {
+                if (key.equals("first_name")) {
+                    firstName = reader.nextString();
+                } else if (key.equals("last_name")) {
+                    lastName = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (lastName == null) {
+                throw new JSONException("JSONObject[\"last_name\"] not found.");
+            }
+            persons.add(new Person(firstName, lastName));
+        }
+        reader.endArray();
+        return persons;
+    }
+
+    public static File readFile(JsonReader reader) throws IOException {
+        final File.Builder mendeleyFile = new File.Builder();
+
+        reader.beginObject();
+        String key;
+        while ((key = nextNonNullName(reader)) != null) {
+            if (key.equals("id")) {
+                mendeleyFile.setId(reader.nextString());
+
+            } else if (key.equals("document_id")) {
+                mendeleyFile.setDocumentId(reader.nextString());
+
+            } else if (key.equals("mime_type")) {
+                mendeleyFile.setMimeType(reader.nextString());
+
+            } else if (key.equals("file_name")) {
+                mendeleyFile.setFileName(reader.nextString());
+
+            } else if (key.equals("filehash")) {
+                mendeleyFile.setFileHash(reader.nextString());
+
+            } else if (key.equals("size")) {
+                mendeleyFile.setFileSize(reader.nextInt());
+
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return mendeleyFile.build();
+    }
+
+    public static Folder readFolder(JsonReader reader) throws IOException, JSONException {
+        final Folder.Builder mendeleyFolder = new Folder.Builder((String) null);
+        boolean hasName = false;
+
+        reader.beginObject();
+        String key;
+        while ((key = nextNonNullName(reader)) != null) {
+            if (key.equals("name")) {
+                mendeleyFolder.setName(reader.nextString());
+                hasName = true;
+
+            } else if (key.equals("parent_id")) {
+                mendeleyFolder.setParentId(reader.nextString());
+
+            } else if (key.equals("id")) {
+                mendeleyFolder.setId(reader.nextString());
+
+            } else if (key.equals("group_id")) {
+                mendeleyFolder.setGroupId(reader.nextString());
+
+            } else if (key.equals("added")) {
+                mendeleyFolder.setAdded(reader.nextString());
+
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (!hasName) {
+            throw new JSONException("JSONObject[\"name\"] not found.");
+        }
+        return mendeleyFolder.build();
+    }
+
+    public static UserRole readUserRole(JsonReader reader) throws IOException {
+        final UserRole.Builder mendeleyUserRole = new UserRole.Builder();
+
+        reader.beginObject();
+        String key;
+        while ((key = nextNonNullName(reader)) != null) {
+            if (key.equals("profile_id")) {
+                mendeleyUserRole.setProfileId(reader.nextString());
+
+            } else if (key.equals("joined")) {
+                mendeleyUserRole.setJoined(reader.nextString());
+
+            } else if (key.equals("role")) {
+                mendeleyUserRole.setRole(reader.nextString());
+
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return mendeleyUserRole.build();
+    }
+
+    public static Annotation readAnnotation(JsonReader reader) throws IOException, JSONException {
+        final Annotation.Builder builder = new Annotation.Builder();
+
+        reader.beginObject();
+        String key;
+        while ((key = nextNonNullName(reader)) != null) {
+            if (key.equals("id")) {
+                builder.setId(reader.nextString());
+
+            } else if (key.equals("type")) {
+                builder.setType(Annotation.Type.fromName(reader.nextString()));
+
+            } else if (key.equals("previous_id")) {
+                builder.setPreviousId(reader.nextString());
+
+            } else if (key.equals("color")) {
+                builder.setColor(readColor(reader));
+
+            } else if (key.equals("text")) {
+                builder.setText(reader.nextString());
+
+            } else if (key.equals("profile_id")) {
+                builder.setProfileId(reader.nextString());
+
+            } else if (key.equals("positions")) {
+                builder.setPositions(readBoundingBoxes(reader));
+
+            } else if (key.equals("created")) {
+                builder.setCreated(reader.nextString());
+
+            } else if (key.equals("last_modified")) {
+                builder.setLastModified(reader.nextString());
+
+            } else if (key.equals("privacy_level")) {
+                builder.setPrivacyLevel(PrivacyLevel.fromName(reader.nextString()));
+
+            } else if (key.equals("filehash")) {
+                builder.setFileHash(reader.nextString());
+
+            } else if (key.equals("document_id")) {
+                builder.setDocumentId(reader.nextString());
+
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return builder.build();
+    }
+
+    private static int readColor(JsonReader reader) throws IOException, JSONException {
+        Integer r = null;
+        Integer g = null;
+        Integer b = null;
+
+        reader.beginObject();
+        String key;
+        while ((key = nextNonNullName(reader)) != null) {
+            if (key.equals("r")) {
+                r = reader.nextInt();
+            } else if (key.equals("g")) {
+                g = reader.nextInt();
+            } else if (key.equals("b")) {
+                b = reader.nextInt();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (r == null || g == null || b == null) {
+            throw new JSONException("Incomplete color");
+        }
+        return Color.rgb(r, g, b);
+    }
+
+    private static List<Box> readBoundingBoxes(JsonReader reader) throws IOException, JSONException {
+        final List<Box> boxes = new ArrayList<Box>();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Point topLeft = null;
+            Point bottomRight = null;
+            Integer page = null;
+
+            reader.beginObject();
+            String key;
+            while ((key = nextNonNullName(reader)) != null) {
+                if (key.equals("page")) {
+                    page = reader.nextInt();
+                } else if (key.equals("top_left")) {
+                    topLeft = readPoint(reader);
+                } else if (key.equals("bottom_right")) {
+                    bottomRight = readPoint(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            boxes.add(new Box(topLeft, bottomRight, page));
+        }
+        reader.endArray();
+
+        return boxes;
+    }
+
+    private static Point readPoint(JsonReader reader) throws IOException, JSONException {
+        Double x = null;
+        Double y = null;
+
+        reader.beginObject();
+        String key;
+        while ((key = nextNonNullName(reader)) != null) {
+            if (key.equals("x")) {
+                x = reader.nextDouble();
+            } else if (key.equals("y")) {
+                y = reader.nextDouble();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (x == null || y == null) {
+            throw new JSONException("Incomplete point");
+        }
+        return new Point(x, y);
+    }
+
+    public static Group readGroup(JsonReader reader) throws IOException {
+        final Group.Builder mendeleyGroup = new Group.Builder();
+
+        reader.beginObject();
+        String key;
+        while ((key = nextNonNullName(reader)) != null) {
+            if (key.equals("id")) {
+                mendeleyGroup.setId(reader.nextString());
+
+            } else if (key.equals("created")) {
+                mendeleyGroup.setCreated(reader.nextString());
+
+            } else if (key.equals("owning_profile_id")) {
+                mendeleyGroup.setOwningProfileId(reader.nextString());
+
+            } else if (key.equals("link")) {
+                mendeleyGroup.setLink(reader.nextString());
+
+            } else if (key.equals("role")) {
+                mendeleyGroup.setRole(Group.Role.fromValue(reader.nextString()));
+
+            } else if (key.equals("access_level")) {
+                mendeleyGroup.setAccessLevel(Group.AccessLevel.fromValue(reader.nextString()));
+
+            } else if (key.equals("name")) {
+                mendeleyGroup.setName(reader.nextString());
+
+            } else if (key.equals("description")) {
+                mendeleyGroup.setDescription(reader.nextString());
+
+            } else if (key.equals("tags")) {
+                mendeleyGroup.setTags(readStringArray(reader));
+
+            } else if (key.equals("webpage")) {
+                mendeleyGroup.setWebpage(reader.nextString());
+
+            } else if (key.equals("disciplines")) {
+                mendeleyGroup.setDisciplines(readStringArray(reader));
+
+            } else if (key.equals("photo")) {
+                mendeleyGroup.setPhoto(readPhoto(reader));
+
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return mendeleyGroup.build();
+    }
+
+    public static Photo readPhoto(JsonReader reader) throws IOException {
+        // Same defaults as JSONObject.optString
+        String original = "";
+        String standard = "";
+        String square = "";
+
+        reader.beginObject();
+        String key;
+        while ((key = nextNonNullName(reader)) != null) {
+            if (key.equals("original")) {
+                original = reader.nextString();
+            } else if (key.equals("standard")) {
+                standard = reader.nextString();
+            } else if (key.equals("square")) {
+                square = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new Photo(original, standard, square);
+    }
+}
@@ -1,17 +1,17 @@
 package com.mendeley.api.network;
 
 import com.mendeley.api.auth.AccessTokenProvider;
+import com.mendeley.api.impl.BaseMendeleySdk;
 
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URI;
-import java.net.URL;
 
 import javax.net.ssl.HttpsURLConnection;
 
@@ -24,10 +24,204 @@ public class NetworkUtils {
     public static final int CONNECTION_TIMEOUT = 1500;
     public static final int READ_TIMEOUT = 15000 ;
 
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static HttpTransport httpTransport;
+    private static volatile RetryPolicy retryPolicy = new RetryPolicy(BaseMendeleySdk.MAX_HTTP_RETRIES,
+            RetryPolicy.DEFAULT_BASE_DELAY_MILLIS, RetryPolicy.DEFAULT_MAX_DELAY_MILLIS);
+    private static volatile TransferListener transferListener;
+    private static volatile ResponseCache responseCache = new ResponseCache(ResponseCache.DEFAULT_MEMORY_SIZE);
+    private static volatile ReferenceDataCache referenceDataCache = new ReferenceDataCache();
+    private static volatile ImageCache imageCache = new ImageCache(ImageCache.DEFAULT_MEMORY_SIZE);
+    private static volatile ProfileCache profileCache = new ProfileCache();
+    private static volatile InFlightRequests inFlightRequests = new InFlightRequests();
+    private static volatile FileContentStore fileContentStore;
+    private static volatile int maxDownloadConnections = SegmentedDownload.DEFAULT_MAX_CONNECTIONS;
+
     static {
         HttpsURLConnection.setDefaultSSLSocketFactory(new NoSSLv3Factory());
     }
 
+    /**
+     * @return the transport used to open and recycle all the SDK connections.
+     */
+    public static synchronized HttpTransport getHttpTransport() {
+        if (httpTransport == null) {
+            httpTransport = new PooledHttpTransport();
+        }
+        return httpTransport;
+    }
+
+    /**
+     * Replaces the transport used by the SDK, e.g. to change the connection pool limits.
+     * Should be called before any request is made.
+     */
+    public static synchronized void setHttpTransport(HttpTransport transport) {
+        httpTransport = transport;
+    }
+
+    /**
+     * @return the policy deciding which failed requests are retried.
+     */
+    public static RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Replaces the retry policy used by all the procedures and tasks.
+     */
+    public static void setRetryPolicy(RetryPolicy policy) {
+        retryPolicy = policy;
+    }
+
+    /**
+     * Sets a listener notified of the compressed and uncompressed size of every response body,
+     * or null to remove it.
+     */
+    public static void setTransferListener(TransferListener listener) {
+        transferListener = listener;
+    }
+
+    public static TransferListener getTransferListener() {
+        return transferListener;
+    }
+
+    /**
+     * @return the cache revalidating the responses of single object requests, or null if disabled.
+     */
+    public static ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Replaces the response cache, e.g. to add a disk tier, or disables caching if null.
+     */
+    public static void setResponseCache(ResponseCache cache) {
+        responseCache = cache;
+    }
+
+    /**
+     * @return the cache of document and identifier types, or null if disabled.
+     */
+    public static ReferenceDataCache getReferenceDataCache() {
+        return referenceDataCache;
+    }
+
+    /**
+     * Replaces the cache of document and identifier types, or disables it if null.
+     */
+    public static void setReferenceDataCache(ReferenceDataCache cache) {
+        referenceDataCache = cache;
+    }
+
+    /**
+     * @return the cache of profile and group images, or null if disabled.
+     */
+    public static ImageCache getImageCache() {
+        return imageCache;
+    }
+
+    /**
+     * Replaces the cache of profile and group images, or disables it if null.
+     */
+    public static void setImageCache(ImageCache cache) {
+        imageCache = cache;
+    }
+
+    /**
+     * @return the cache of the profiles of other users, or null if disabled.
+     */
+    public static ProfileCache getProfileCache() {
+        return profileCache;
+    }
+
+    /**
+     * Replaces the cache of the profiles of other users, or disables it if null.
+     */
+    public static void setProfileCache(ProfileCache cache) {
+        profileCache = cache;
+    }
+
+    /**
+     * @return the registry coalescing identical single object requests, or null if disabled.
+     */
+    public static InFlightRequests getInFlightRequests() {
+        return inFlightRequests;
+    }
+
+    /**
+     * Replaces the registry coalescing identical single object requests, or disables coalescing if null.
+     */
+    public static void setInFlightRequests(InFlightRequests requests) {
+        inFlightRequests = requests;
+    }
+
+    /**
+     * @return the store of file contents addressed by hash, or null if none was set.
+     */
+    public static FileContentStore getFileContentStore() {
+        return fileContentStore;
+    }
+
+    /**
+     * Sets the store of file contents addressed by hash, used to download file contents only once.
+     */
+    public static void setFileContentStore(FileContentStore store) {
+        fileContentStore = store;
+    }
+
+    /**
+     * @return the maximum number of connections downloading the same file.
+     */
+    public static int getMaxDownloadConnections() {
+        return maxDownloadConnections;
+    }
+
+    /**
+     * Sets the maximum number of connections downloading the same file; 1 disables segmented downloads.
+     */
+    public static void setMaxDownloadConnections(int connections) {
+        maxDownloadConnections = connections;
+    }
+
+    /**
+     * Returns the response body of the given connection, decoded according to its Content-Encoding.
+     *
+     * @param con the connection, already connected
+     * @return the decoded stream
+     * @throws IOException
+     */
+    public static DecodingInputStream getInputStream(HttpURLConnection con) throws IOException {
+        return new DecodingInputStream(con.getURL().toString(), con.getContentEncoding(), con.getContentLength(), con.getInputStream());
+    }
+
+    /**
+     * Opens the (usually empty) body of a response that is not read, so that releasing the
+     * connection through the {@link HttpTransport} consumes it and the connection can be reused.
+     *
+     * @param con the connection, already connected
+     * @return the raw stream, to pass to {@link HttpTransport#releaseConnection}
+     * @throws IOException
+     */
+    public static InputStream openUnreadBody(HttpURLConnection con) throws IOException {
+        return con.getInputStream();
+    }
+
+    /**
+     * Returns the response body of the given HttpClient response, decoded according to its
+     * Content-Encoding.
+     *
+     * @param url the request url
+     * @param response the response, which must have an entity
+     * @return the decoded stream
+     * @throws IOException
+     */
+    public static DecodingInputStream getInputStream(String url, HttpResponse response) throws IOException {
+        final HttpEntity entity = response.getEntity();
+        final Header encoding = entity.getContentEncoding();
+        return new DecodingInputStream(url, encoding != null ? encoding.getValue() : null, entity.getContentLength(), entity.getContent());
+    }
+
     /**
      * Extends HttpEntityEnclosingRequestBase to provide PATCH request method.
      */
@@ -66,9 +260,10 @@ public class NetworkUtils {
         InputStream is = null;
         try {
             message = con.getResponseCode() + " "  + con.getResponseMessage();
-            is = con.getErrorStream();
+            final InputStream errorStream = con.getErrorStream();
             String responseString = "";
-            if (is != null) {
+            if (errorStream != null) {
+                is = new DecodingInputStream(con.getURL().toString(), con.getContentEncoding(), errorStream);
                 responseString = getJsonString(is);
             }
             message += "\n" + responseString;
@@ -96,7 +291,7 @@ public class NetworkUtils {
         InputStream is = null;
         try {
             message = response.getStatusLine().getStatusCode() + " "  + response.getStatusLine().getReasonPhrase();
-            is = response.getEntity().getContent();
+            is = getInputStream(null, response);
             String responseString = "";
             if (is != null) {
                 responseString = getJsonString(is);
@@ -122,6 +317,7 @@ public class NetworkUtils {
         HttpPatch httpPatch = new HttpPatch(url);
         httpPatch.setHeader("Authorization", "Bearer " + accessTokenProvider.getAccessToken());
         httpPatch.setHeader("Content-type", contentType);
+        httpPatch.setHeader("Accept-Encoding", ACCEPT_ENCODING);
         if (date != null) {
             httpPatch.setHeader("If-Unmodified-Since", date);
         }
@@ -141,6 +337,8 @@ public class NetworkUtils {
     public static HttpsURLConnection getConnection(String url, String method, AccessTokenProvider accessTokenProvider) throws IOException {
         final HttpsURLConnection con = getDownloadConnection(url, method);
         con.addRequestProperty("Authorization", "Bearer " + accessTokenProvider.getAccessToken());
+        // Setting it explicitly makes the response stream undecoded, see getInputStream()
+        con.addRequestProperty("Accept-Encoding", ACCEPT_ENCODING);
 
         return con;
     }
@@ -155,51 +353,22 @@ public class NetworkUtils {
      * @throws IOException
      */
     public static HttpsURLConnection getDownloadConnection(String url, String method) throws IOException {
-        final URL callUrl = new URL(url);
-        final HttpsURLConnection con = (HttpsURLConnection) callUrl.openConnection();
-        con.setConnectTimeout(CONNECTION_TIMEOUT);
-        con.setReadTimeout(READ_TIMEOUT);
-        con.setRequestMethod(method);
-
-        return con;
+        return (HttpsURLConnection) getHttpTransport().openConnection(url, method);
     }
 
     public static HttpURLConnection getHttpDownloadConnection(String url, String method) throws IOException {
-        final URL callUrl = new URL(url);
-        final HttpURLConnection con = (HttpURLConnection) callUrl.openConnection();
-        con.setConnectTimeout(CONNECTION_TIMEOUT);
-        con.setReadTimeout(READ_TIMEOUT);
-        con.setRequestMethod(method);
-
-        return con;
+        return getHttpTransport().openConnection(url, method);
     }
 
     /**
      * Extracting json String from the given InputStream object.
+     * The stream is read as UTF-8 and closed.
      *
      * @param stream the InputStream holding the json string
      * @return the json string
      * @throws IOException
      */
     public static String getJsonString(InputStream stream) throws IOException {
-        StringBuffer data = new StringBuffer();
-        InputStreamReader isReader = null;
-        BufferedReader br = null;
-
-        try {
-            isReader = new InputStreamReader(stream);
-            br = new BufferedReader(isReader);
-            String brl = "";
-            while ((brl = br.readLine()) != null) {
-                data.append(brl);
-            }
-
-        } finally {
-            stream.close();
-            isReader.close();
-            br.close();
-        }
-
-        return data.toString();
+        return ResponseBodyReader.readString(stream);
     }
 }
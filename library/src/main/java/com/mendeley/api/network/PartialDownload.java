@@ -0,0 +1,333 @@
+package com.mendeley.api.network;
+
+import android.util.Log;
+
+import com.mendeley.api.impl.BaseMendeleySdk;
+import com.mendeley.api.util.Utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.nio.channels.FileChannel;
+import java.util.Properties;
+
+/**
+ * The partially downloaded content of a file, which survives a cancelled or failed download so
+ * that the next attempt can resume where it stopped.
+ * <p>
+ * The bytes are written to a ".part" file, next to a ".meta" file recording the validator of
+ * the content (a strong ETag, or else Last-Modified), the name of the file and its total length.
+ * A download is resumed with a Range request made conditional by If-Range: if the content has
+ * changed, or the server does not support ranges, the whole file is returned and the download
+ * starts again from the first byte.
+ * <p>
+ * The download URLs are redirects to signed URLs which change at every attempt, so the
+ * partial content is identified by the id of the file rather than by its URL.
+ * <p>
+ * While a {@link SegmentedDownload} writes the part file out of order, the partial content is
+ * marked as segmented and is not resumed; when the segments stop, the file is cut to the bytes
+ * received without gap.
+ */
+public class PartialDownload {
+    public static final String PART_EXTENSION = ".part";
+    public static final String META_EXTENSION = ".meta";
+
+    private static final String TAG = BaseMendeleySdk.TAG;
+
+    private static final String META_VALIDATOR = "validator";
+    private static final String META_FILE_NAME = "fileName";
+    private static final String META_TOTAL_LENGTH = "totalLength";
+    private static final String META_SEGMENTED = "segmented";
+
+    private final File partFile;
+    private final File metaFile;
+
+    private String validator;
+    private String fileName;
+    private long totalLength = -1;
+    private boolean segmented;
+
+    /**
+     * @param partFile the file holding the downloaded bytes
+     */
+    public PartialDownload(File partFile) {
+        this.partFile = partFile;
+        this.metaFile = new File(partFile.getPath() + META_EXTENSION);
+        readMeta();
+    }
+
+    /**
+     * @return the partial download of a file saved in the folder
+     */
+    public static PartialDownload forFile(String folderPath, String fileId) {
+        return new PartialDownload(new File(folderPath, fileId + PART_EXTENSION));
+    }
+
+    public File getPartFile() {
+        return partFile;
+    }
+
+    /**
+     * @return the number of bytes which can be resumed from, 0 if the download must start over
+     */
+    public synchronized long getOffset() {
+        if (validator == null || segmented || !partFile.isFile()) {
+            return 0;
+        }
+        return partFile.length();
+    }
+
+    /**
+     * @return the name of the downloaded file, or null if unknown
+     */
+    public synchronized String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * @return the total length of the file, or -1 if unknown
+     */
+    public synchronized long getTotalLength() {
+        return totalLength;
+    }
+
+    /**
+     * @return the validator of the partial content, or null if it cannot be resumed
+     */
+    public synchronized String getValidator() {
+        return validator;
+    }
+
+    /**
+     * Adds the headers requesting the missing bytes, if there are resumable bytes.
+     * Must be called before connecting.
+     */
+    public synchronized void addRangeHeaders(HttpURLConnection con) {
+        // Ranges count the bytes of the encoded content, which must be the bytes on disk
+        con.setRequestProperty("Accept-Encoding", "identity");
+        final long offset = getOffset();
+        if (offset > 0) {
+            con.setRequestProperty("Range", "bytes=" + offset + "-");
+            con.setRequestProperty("If-Range", validator);
+        }
+    }
+
+    /**
+     * @return true if the response carries the bytes following those already downloaded;
+     * false if it carries the whole file, or anything else
+     */
+    public synchronized boolean isResumedBy(HttpURLConnection con) throws IOException {
+        final long offset = getOffset();
+        if (offset == 0 || con.getResponseCode() != 206) {
+            return false;
+        }
+        final String contentRange = con.getHeaderField("Content-Range");
+        final long total = parseContentRangeTotal(contentRange);
+        return parseContentRangeStart(contentRange) == offset
+                && (total < 0 || totalLength < 0 || total == totalLength);
+    }
+
+    /**
+     * Records the response starting the download from the first byte, discarding any partial
+     * content. The download can only be resumed later if the response has a validator.
+     *
+     * @param totalLength the length of the file, or -1 if unknown
+     */
+    public synchronized void start(HttpURLConnection con, String fileName, long totalLength) {
+        partFile.delete();
+        this.validator = getValidator(con);
+        this.fileName = fileName;
+        this.totalLength = totalLength;
+        this.segmented = false;
+        if (validator != null) {
+            writeMeta();
+        } else {
+            metaFile.delete();
+        }
+    }
+
+    /**
+     * @param append true to add to the bytes already downloaded, false to start over
+     */
+    public OutputStream openOutput(boolean append) throws IOException {
+        createParent();
+        return new FileOutputStream(partFile, append);
+    }
+
+    /**
+     * @param append true to keep the bytes already downloaded, false to start over
+     * @return a channel on the part file, for writes at explicit positions
+     */
+    public FileChannel openChannel(boolean append) throws IOException {
+        createParent();
+        final RandomAccessFile file = new RandomAccessFile(partFile, "rw");
+        if (!append) {
+            file.setLength(0);
+        }
+        return file.getChannel();
+    }
+
+    /**
+     * Marks the part file as being written out of order, so that it is not resumed if the
+     * download is interrupted before {@link #endSegments}.
+     */
+    public synchronized void beginSegments() {
+        segmented = true;
+        if (validator != null) {
+            writeMeta();
+        }
+    }
+
+    /**
+     * Cuts the part file to the bytes received without gap, which can be resumed from.
+     *
+     * @param contiguousLength the number of bytes received from the start of the file
+     */
+    public synchronized void endSegments(long contiguousLength) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(partFile, "rw");
+        try {
+            file.setLength(contiguousLength);
+        } finally {
+            Utils.closeQuietly(file);
+        }
+        segmented = false;
+        if (validator != null) {
+            writeMeta();
+        }
+    }
+
+    /**
+     * Moves the downloaded file to its final location, and forgets the partial download.
+     * An existing file at the location is replaced atomically, and kept if the move fails.
+     *
+     * @return true if the file was moved
+     */
+    public synchronized boolean complete(File target) {
+        if (!partFile.renameTo(target)) {
+            return false;
+        }
+        metaFile.delete();
+        validator = null;
+        return true;
+    }
+
+    /**
+     * Deletes the partial content, so that the next download starts over.
+     */
+    public synchronized void discard() {
+        partFile.delete();
+        metaFile.delete();
+        validator = null;
+        fileName = null;
+        totalLength = -1;
+        segmented = false;
+    }
+
+    /**
+     * @return a validator usable in If-Range: a strong ETag, or else the Last-Modified date;
+     * null if the response has neither
+     */
+    static String getValidator(HttpURLConnection con) {
+        final String etag = con.getHeaderField("ETag");
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return con.getHeaderField("Last-Modified");
+    }
+
+    /**
+     * @return the first byte position of a Content-Range header such as "bytes 100-199/200",
+     * or -1 if it cannot be parsed
+     */
+    static long parseContentRangeStart(String contentRange) {
+        if (contentRange == null || !contentRange.startsWith("bytes ")) {
+            return -1;
+        }
+        final int dash = contentRange.indexOf('-');
+        if (dash < 0) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentRange.substring("bytes ".length(), dash).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the total length of a Content-Range header such as "bytes 100-199/200",
+     * or -1 if it is unknown
+     */
+    static long parseContentRangeTotal(String contentRange) {
+        if (contentRange == null) {
+            return -1;
+        }
+        final int slash = contentRange.lastIndexOf('/');
+        if (slash < 0) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentRange.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void createParent() {
+        final File parent = partFile.getParentFile();
+        if (parent != null && !parent.isDirectory()) {
+            parent.mkdirs();
+        }
+    }
+
+    private void readMeta() {
+        if (!metaFile.isFile()) {
+            return;
+        }
+        InputStream in = null;
+        try {
+            in = new FileInputStream(metaFile);
+            final Properties meta = new Properties();
+            meta.load(in);
+            validator = meta.getProperty(META_VALIDATOR);
+            fileName = meta.getProperty(META_FILE_NAME);
+            segmented = Boolean.parseBoolean(meta.getProperty(META_SEGMENTED));
+            totalLength = Long.parseLong(meta.getProperty(META_TOTAL_LENGTH, "-1"));
+        } catch (IOException e) {
+            Log.w(TAG, "Discarding unreadable partial download " + partFile + ": " + e.toString());
+            discard();
+        } catch (NumberFormatException e) {
+            totalLength = -1;
+        } finally {
+            Utils.closeQuietly(in);
+        }
+    }
+
+    private void writeMeta() {
+        final Properties meta = new Properties();
+        meta.setProperty(META_VALIDATOR, validator);
+        if (fileName != null) {
+            meta.setProperty(META_FILE_NAME, fileName);
+        }
+        meta.setProperty(META_TOTAL_LENGTH, String.valueOf(totalLength));
+        if (segmented) {
+            meta.setProperty(META_SEGMENTED, "true");
+        }
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(metaFile);
+            meta.store(out, null);
+        } catch (IOException e) {
+            // Without its metadata the partial content is simply not resumed
+            Log.w(TAG, "Could not record partial download " + partFile + ": " + e.toString());
+            metaFile.delete();
+        } finally {
+            Utils.closeQuietly(out);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.mendeley.api.network;
+
+import com.mendeley.api.util.Utils;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.params.ConnManagerParams;
+import org.apache.http.conn.params.ConnPerRouteBean;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Default {@link HttpTransport}, which keeps connections alive and reuses them between requests.
+ * <p>
+ * HttpURLConnection connections are pooled by the platform, as long as the response body is
+ * fully read and the connection is not disconnected; the pool size is controlled by the
+ * <code>http.maxConnections</code> system property, which is set by this class. PATCH and OAuth
+ * requests go through a single shared HttpClient backed by a ThreadSafeClientConnManager.
+ * <p>
+ * The system properties are read by the platform when the first connection is opened, so the
+ * transport must be created before any request is made.
+ */
+public class PooledHttpTransport implements HttpTransport {
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 4;
+    public static final int DEFAULT_MAX_CONNECTIONS = 8;
+
+    // Bodies left unread beyond this size are cheaper to drop than to drain.
+    private static final int MAX_DRAIN_BYTES = 64 * 1024;
+
+    private final HttpClient httpClient;
+
+    public PooledHttpTransport() {
+        this(DEFAULT_MAX_CONNECTIONS_PER_HOST, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * @param maxConnectionsPerHost maximum number of keep-alive connections kept for each host
+     * @param maxConnections maximum number of connections held by the HttpClient pool
+     */
+    public PooledHttpTransport(int maxConnectionsPerHost, int maxConnections) {
+        System.setProperty("http.keepAlive", "true");
+        System.setProperty("http.maxConnections", String.valueOf(maxConnectionsPerHost));
+
+        final HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setConnectionTimeout(params, NetworkUtils.CONNECTION_TIMEOUT);
+        HttpConnectionParams.setSoTimeout(params, NetworkUtils.READ_TIMEOUT);
+        ConnManagerParams.setMaxTotalConnections(params, maxConnections);
+        ConnManagerParams.setMaxConnectionsPerRoute(params, new ConnPerRouteBean(maxConnectionsPerHost));
+
+        final SchemeRegistry registry = new SchemeRegistry();
+        registry.register(new Scheme("http", PlainSocketFactory.getSocketFactory(), 80));
+        registry.register(new Scheme("https", SSLSocketFactory.getSocketFactory(), 443));
+
+        final ClientConnectionManager connectionManager = new ThreadSafeClientConnManager(params, registry);
+        httpClient = new DefaultHttpClient(connectionManager, params);
+    }
+
+    @Override
+    public HttpURLConnection openConnection(String url, String method) throws IOException {
+        final URL callUrl = new URL(url);
+        final HttpURLConnection con = (HttpURLConnection) callUrl.openConnection();
+        con.setConnectTimeout(NetworkUtils.CONNECTION_TIMEOUT);
+        con.setReadTimeout(NetworkUtils.READ_TIMEOUT);
+        con.setRequestMethod(method);
+
+        return con;
+    }
+
+    @Override
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    @Override
+    public void releaseConnection(HttpURLConnection con, InputStream is) {
+        if (con == null) {
+            Utils.closeQuietly(is);
+            return;
+        }
+        // The platform only returns the socket to the pool once the body has been consumed
+        final boolean reusable = is != null && drain(is);
+        Utils.closeQuietly(is);
+        if (!reusable) {
+            con.disconnect();
+        }
+    }
+
+    /**
+     * @return true if the end of the stream was reached.
+     */
+    private static boolean drain(InputStream is) {
+        if (is instanceof DecodingInputStream && ((DecodingInputStream) is).isAtEnd()) {
+            // Already consumed, and possibly closed by the reader
+            return true;
+        }
+        final byte[] buffer = new byte[4096];
+        int drained = 0;
+        try {
+            int count;
+            while ((count = is.read(buffer)) != -1) {
+                drained += count;
+                if (drained > MAX_DRAIN_BYTES) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
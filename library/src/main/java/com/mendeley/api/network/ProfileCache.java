@@ -0,0 +1,94 @@
+package com.mendeley.api.network;
+
+import com.mendeley.api.model.Profile;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the profiles of other users, such as group members, which are shown often and
+ * change rarely.
+ * <p>
+ * Holds a bounded number of profiles in memory, evicting the least recently used ones.
+ * Profiles older than the TTL are treated as missing, so that they are fetched again.
+ */
+public class ProfileCache {
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static class Entry {
+        final Profile profile;
+        final long storedAtMillis;
+
+        Entry(Profile profile, long storedAtMillis) {
+            this.profile = profile;
+            this.storedAtMillis = storedAtMillis;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+    private int hitCount;
+    private int missCount;
+
+    public ProfileCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * @param maxEntries maximum number of profiles held
+     * @param ttlMillis time after which a profile is fetched again
+     */
+    public ProfileCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * @return the profile, or null if it is not cached or has expired
+     */
+    public synchronized Profile get(String profileId) {
+        final Entry entry = entries.get(profileId);
+        if (entry == null || System.currentTimeMillis() - entry.storedAtMillis > ttlMillis) {
+            if (entry != null) {
+                entries.remove(profileId);
+            }
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.profile;
+    }
+
+    public synchronized void put(Profile profile) {
+        entries.put(profile.id, new Entry(profile, System.currentTimeMillis()));
+        final Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    public synchronized void remove(String profileId) {
+        entries.remove(profileId);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+}
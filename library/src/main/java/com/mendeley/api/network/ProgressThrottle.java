@@ -0,0 +1,62 @@
+package com.mendeley.api.network;
+
+/**
+ * Turns the byte counts of a download into percentages, dispatched only when the percentage
+ * grows and at most once per interval, so that a download posts about a hundred progress
+ * messages to the main thread rather than one per buffer read. Reaching 100% is always dispatched.
+ * <p>
+ * Thread safe, the byte counts can come from several download threads.
+ */
+public class ProgressThrottle {
+    public static final long DEFAULT_INTERVAL_MILLIS = 100;
+
+    /**
+     * Receives the dispatched percentages, in increasing order.
+     */
+    public interface Target {
+        void onProgress(int percent);
+    }
+
+    private final long totalLength;
+    private final long intervalMillis;
+    private final Target target;
+
+    private int lastPercent = -1;
+    private long lastDispatchMillis;
+
+    /**
+     * @param totalLength the length of the file, nothing is dispatched if it is unknown (not positive)
+     */
+    public ProgressThrottle(long totalLength, Target target) {
+        this(totalLength, DEFAULT_INTERVAL_MILLIS, target);
+    }
+
+    /**
+     * @param intervalMillis the minimum time between two dispatched percentages
+     */
+    public ProgressThrottle(long totalLength, long intervalMillis, Target target) {
+        this.totalLength = totalLength;
+        this.intervalMillis = intervalMillis;
+        this.target = target;
+    }
+
+    /**
+     * @param downloaded the number of bytes of the file downloaded so far
+     */
+    public synchronized void update(long downloaded) {
+        if (totalLength <= 0) {
+            return;
+        }
+        final int percent = (int) Math.min(100, downloaded * 100 / totalLength);
+        if (percent <= lastPercent) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        if (percent < 100 && lastPercent >= 0 && now - lastDispatchMillis < intervalMillis) {
+            return;
+        }
+        lastPercent = percent;
+        lastDispatchMillis = now;
+        target.onProgress(percent);
+    }
+}
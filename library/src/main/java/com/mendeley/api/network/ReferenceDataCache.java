@@ -0,0 +1,237 @@
+package com.mendeley.api.network;
+
+import android.util.Log;
+
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.impl.BaseMendeleySdk;
+import com.mendeley.api.util.Utils;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the reference data returned by the document_types and identifier_types endpoints,
+ * which changes very rarely.
+ * <p>
+ * Before anything has been fetched, the values bundled with the SDK are used. Once the data
+ * is older than the TTL, the cached values are still returned immediately while they are
+ * refreshed in the background. If a file is given, the fetched values survive process restarts.
+ * <p>
+ * The returned maps are shared and cannot be modified.
+ */
+public class ReferenceDataCache {
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private static final String TAG = BaseMendeleySdk.TAG;
+
+    private static final String JSON_FETCHED_AT = "fetchedAt";
+    private static final String JSON_VALUES = "values";
+
+    /**
+     * The kinds of reference data.
+     */
+    public enum Kind {
+        DOCUMENT_TYPES,
+        IDENTIFIER_TYPES
+    }
+
+    /**
+     * Fetches a kind of reference data from the server.
+     */
+    public interface Loader {
+        Map<String, String> load() throws MendeleyException;
+    }
+
+    private static class Data {
+        final Map<String, String> values;
+        final long fetchedAtMillis;
+
+        Data(Map<String, String> values, long fetchedAtMillis) {
+            this.values = Collections.unmodifiableMap(values);
+            this.fetchedAtMillis = fetchedAtMillis;
+        }
+    }
+
+    private final File file;
+    private final long ttlMillis;
+
+    private Map<Kind, Data> data;
+    private final Set<Kind> refreshing = EnumSet.noneOf(Kind.class);
+
+    /**
+     * Creates a cache kept in memory only.
+     */
+    public ReferenceDataCache() {
+        this(null, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * @param file the file storing the fetched values, or null to keep them in memory only
+     * @param ttlMillis how long fetched values are used before being refreshed
+     */
+    public ReferenceDataCache(File file, long ttlMillis) {
+        this.file = file;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * @return true if the fetched values are stored in a file.
+     */
+    public boolean isPersistent() {
+        return file != null;
+    }
+
+    /**
+     * Returns the cached values, refreshing them in the background if they have expired.
+     *
+     * @param kind the kind of reference data
+     * @param loader fetches the values, or null if they cannot be refreshed now
+     * @param executor runs the refresh
+     * @return the cached or bundled values, or null if there are none
+     */
+    public Map<String, String> get(final Kind kind, final Loader loader, Executor executor) {
+        final Data current;
+        synchronized (this) {
+            current = getData().get(kind);
+            if (current == null || !isExpired(current) || loader == null || !refreshing.add(kind)) {
+                return current != null ? current.values : null;
+            }
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    put(kind, loader.load());
+                } catch (MendeleyException e) {
+                    Log.w(TAG, "Could not refresh " + kind + ": " + e.getMessage());
+                } finally {
+                    synchronized (ReferenceDataCache.this) {
+                        refreshing.remove(kind);
+                    }
+                }
+            }
+        });
+        return current.values;
+    }
+
+    /**
+     * @return the cached or bundled values, or null if there are none
+     */
+    public synchronized Map<String, String> get(Kind kind) {
+        final Data current = getData().get(kind);
+        return current != null ? current.values : null;
+    }
+
+    /**
+     * @return true if the values have not been fetched within the TTL.
+     */
+    public synchronized boolean isExpired(Kind kind) {
+        final Data current = getData().get(kind);
+        return current == null || isExpired(current);
+    }
+
+    /**
+     * Stores values fetched from the server.
+     */
+    public void put(Kind kind, Map<String, String> values) {
+        synchronized (this) {
+            getData().put(kind, new Data(new HashMap<String, String>(values), System.currentTimeMillis()));
+            if (file != null) {
+                writeToFile();
+            }
+        }
+    }
+
+    private boolean isExpired(Data current) {
+        return System.currentTimeMillis() - current.fetchedAtMillis >= ttlMillis;
+    }
+
+    private Map<Kind, Data> getData() {
+        if (data == null) {
+            data = new EnumMap<Kind, Data>(Kind.class);
+            // Never fetched, so expired straight away
+            data.put(Kind.DOCUMENT_TYPES, new Data(ReferenceDataSnapshot.getDocumentTypes(), 0));
+            data.put(Kind.IDENTIFIER_TYPES, new Data(ReferenceDataSnapshot.getIdentifierTypes(), 0));
+            if (file != null && file.isFile()) {
+                readFromFile();
+            }
+        }
+        return data;
+    }
+
+    private void readFromFile() {
+        FileInputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            final JSONObject json = new JSONObject(NetworkUtils.getJsonString(in));
+            for (Kind kind : Kind.values()) {
+                final JSONObject kindJson = json.optJSONObject(kind.name());
+                if (kindJson == null) {
+                    continue;
+                }
+                final JSONObject valuesJson = kindJson.getJSONObject(JSON_VALUES);
+                final Map<String, String> values = new HashMap<String, String>();
+                final Iterator<?> keys = valuesJson.keys();
+                while (keys.hasNext()) {
+                    final String key = (String) keys.next();
+                    values.put(key, valuesJson.getString(key));
+                }
+                data.put(kind, new Data(values, kindJson.getLong(JSON_FETCHED_AT)));
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not read reference data from " + file + ": " + e.toString());
+        } catch (JSONException e) {
+            Log.w(TAG, "Discarding invalid reference data in " + file + ": " + e.toString());
+        } finally {
+            Utils.closeQuietly(in);
+        }
+    }
+
+    private void writeToFile() {
+        final File tmp = new File(file.getPath() + ".tmp");
+        OutputStream out = null;
+        try {
+            final JSONObject json = new JSONObject();
+            for (Map.Entry<Kind, Data> entry : data.entrySet()) {
+                if (entry.getValue().fetchedAtMillis == 0) {
+                    // Bundled values are not worth storing
+                    continue;
+                }
+                final JSONObject kindJson = new JSONObject();
+                kindJson.put(JSON_FETCHED_AT, entry.getValue().fetchedAtMillis);
+                kindJson.put(JSON_VALUES, new JSONObject(entry.getValue().values));
+                json.put(entry.getKey().name(), kindJson);
+            }
+            out = new FileOutputStream(tmp);
+            out.write(json.toString().getBytes("UTF-8"));
+            out.close();
+            out = null;
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not store reference data in " + file + ": " + e.toString());
+            tmp.delete();
+        } catch (JSONException e) {
+            Log.w(TAG, "Could not store reference data in " + file + ": " + e.toString());
+            tmp.delete();
+        } finally {
+            Utils.closeQuietly(out);
+        }
+    }
+}
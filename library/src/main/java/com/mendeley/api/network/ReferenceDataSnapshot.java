@@ -0,0 +1,51 @@
+package com.mendeley.api.network;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reference data bundled with the SDK, used by {@link ReferenceDataCache} until it has
+ * been fetched from the server.
+ */
+class ReferenceDataSnapshot {
+    private ReferenceDataSnapshot() {}
+
+    static Map<String, String> getDocumentTypes() {
+        final Map<String, String> types = new HashMap<String, String>();
+        types.put("journal", "Journal");
+        types.put("book", "Book");
+        types.put("generic", "Generic");
+        types.put("book_section", "Book Section");
+        types.put("conference_proceedings", "Conference Proceedings");
+        types.put("working_paper", "Working Paper");
+        types.put("report", "Report");
+        types.put("web_page", "Web Page");
+        types.put("thesis", "Thesis");
+        types.put("magazine_article", "Magazine Article");
+        types.put("statute", "Statute");
+        types.put("patent", "Patent");
+        types.put("newspaper_article", "Newspaper Article");
+        types.put("computer_program", "Computer Program");
+        types.put("hearing", "Hearing");
+        types.put("television_broadcast", "Television Broadcast");
+        types.put("encyclopedia_article", "Encyclopedia Article");
+        types.put("case", "Case");
+        types.put("film", "Film");
+        types.put("bill", "Bill");
+        return types;
+    }
+
+    static Map<String, String> getIdentifierTypes() {
+        final Map<String, String> types = new HashMap<String, String>();
+        types.put("arxiv", "arXiv ID");
+        types.put("doi", "DOI");
+        types.put("isbn", "ISBN");
+        types.put("issn", "ISSN");
+        types.put("pmid", "PubMed Unique Identifier (PMID)");
+        types.put("scopus", "Scopus identifier (EID)");
+        types.put("ssrn", "SSRN");
+        types.put("pui", "PUI");
+        types.put("sgr", "SGR");
+        return types;
+    }
+}
@@ -0,0 +1,200 @@
+package com.mendeley.api.network;
+
+import com.mendeley.api.params.RequestPriority;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor running the async requests in one lane per {@link RequestPriority}.
+ * <p>
+ * Every lane has a bounded number of requests running at the same time and its own FIFO queue,
+ * so a burst of file transfers cannot delay interactive requests. Requests submitted with a key
+ * can be moved to another lane while they are still queued, see {@link #setPriority}.
+ * <p>
+ * Runnables submitted through {@link #execute(Runnable)} go to the {@link RequestPriority#BACKGROUND} lane.
+ */
+public class RequestScheduler implements Executor {
+    public static final int DEFAULT_INTERACTIVE_CONCURRENCY = 4;
+    public static final int DEFAULT_BACKGROUND_CONCURRENCY = 3;
+    public static final int DEFAULT_BULK_CONCURRENCY = 2;
+
+    private static final int KEEP_ALIVE_SECONDS = 30;
+
+    private static class Entry implements Runnable {
+        final Runnable runnable;
+        final Object key;
+        RequestPriority priority;
+
+        Entry(Runnable runnable, Object key, RequestPriority priority) {
+            this.runnable = runnable;
+            this.key = key;
+            this.priority = priority;
+        }
+
+        @Override
+        public void run() {
+            runnable.run();
+        }
+    }
+
+    private final int[] limits;
+    private final int[] running;
+    private final List<LinkedList<Entry>> queues;
+    private final Map<Object, Entry> queuedByKey = new HashMap<Object, Entry>();
+
+    private final ThreadPoolExecutor threadPool;
+
+    public RequestScheduler() {
+        this(DEFAULT_INTERACTIVE_CONCURRENCY, DEFAULT_BACKGROUND_CONCURRENCY, DEFAULT_BULK_CONCURRENCY);
+    }
+
+    /**
+     * @param interactiveConcurrency maximum number of interactive requests running at the same time
+     * @param backgroundConcurrency maximum number of background requests running at the same time
+     * @param bulkConcurrency maximum number of bulk transfers running at the same time
+     */
+    public RequestScheduler(int interactiveConcurrency, int backgroundConcurrency, int bulkConcurrency) {
+        final RequestPriority[] priorities = RequestPriority.values();
+        limits = new int[priorities.length];
+        limits[RequestPriority.INTERACTIVE.ordinal()] = interactiveConcurrency;
+        limits[RequestPriority.BACKGROUND.ordinal()] = backgroundConcurrency;
+        limits[RequestPriority.BULK.ordinal()] = bulkConcurrency;
+        running = new int[priorities.length];
+
+        queues = new ArrayList<LinkedList<Entry>>(priorities.length);
+        for (int i = 0; i < priorities.length; i++) {
+            queues.add(new LinkedList<Entry>());
+        }
+
+        // The lanes bound the concurrency, so the pool itself only needs to reuse idle threads
+        threadPool = new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable r) {
+                return new Thread(r, "MendeleySdk #" + count.getAndIncrement());
+            }
+        });
+    }
+
+    @Override
+    public void execute(Runnable runnable) {
+        execute(runnable, RequestPriority.BACKGROUND, null);
+    }
+
+    /**
+     * @param runnable the work to run
+     * @param priority the lane to run it in
+     * @param key identifies the request in {@link #setPriority}, or null
+     */
+    public void execute(Runnable runnable, RequestPriority priority, Object key) {
+        final Entry entry = new Entry(runnable, key, priority);
+        synchronized (this) {
+            queues.get(priority.ordinal()).add(entry);
+            if (key != null) {
+                queuedByKey.put(key, entry);
+            }
+        }
+        scheduleNext();
+    }
+
+    /**
+     * Returns an Executor which submits to the given lane, e.g. for AsyncTask.executeOnExecutor().
+     *
+     * @param priority the lane
+     * @param key identifies the request in {@link #setPriority}, or null
+     */
+    public Executor getExecutor(final RequestPriority priority, final Object key) {
+        return new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                RequestScheduler.this.execute(runnable, priority, key);
+            }
+        };
+    }
+
+    /**
+     * Moves a queued request to another lane, behind the requests already queued there.
+     *
+     * @param key the key the request was submitted with
+     * @param priority the new lane
+     * @return true if the request was still queued
+     */
+    public boolean setPriority(Object key, RequestPriority priority) {
+        synchronized (this) {
+            final Entry entry = queuedByKey.get(key);
+            if (entry == null) {
+                return false;
+            }
+            if (entry.priority != priority) {
+                queues.get(entry.priority.ordinal()).remove(entry);
+                entry.priority = priority;
+                queues.get(priority.ordinal()).add(entry);
+            }
+        }
+        scheduleNext();
+        return true;
+    }
+
+    /**
+     * @return the number of requests waiting in the given lane.
+     */
+    public synchronized int getQueuedCount(RequestPriority priority) {
+        return queues.get(priority.ordinal()).size();
+    }
+
+    /**
+     * @return the number of requests running in the given lane.
+     */
+    public synchronized int getRunningCount(RequestPriority priority) {
+        return running[priority.ordinal()];
+    }
+
+    private void scheduleNext() {
+        final List<Entry> toStart = new ArrayList<Entry>();
+        synchronized (this) {
+            for (RequestPriority priority : RequestPriority.values()) {
+                final int lane = priority.ordinal();
+                final LinkedList<Entry> queue = queues.get(lane);
+                while (running[lane] < limits[lane] && !queue.isEmpty()) {
+                    final Entry entry = queue.removeFirst();
+                    if (entry.key != null) {
+                        queuedByKey.remove(entry.key);
+                    }
+                    running[lane]++;
+                    toStart.add(entry);
+                }
+            }
+        }
+        for (Entry entry : toStart) {
+            start(entry);
+        }
+    }
+
+    private void start(final Entry entry) {
+        threadPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    entry.run();
+                } finally {
+                    synchronized (RequestScheduler.this) {
+                        running[entry.priority.ordinal()]--;
+                    }
+                    scheduleNext();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package com.mendeley.api.network;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Reads whole response bodies into Strings, decoding them as UTF-8.
+ * <p>
+ * The body is read into a byte buffer sized from the Content-Length when it is known, and
+ * decoded in one go. Each thread keeps its buffer between calls, so reading many pages in a
+ * row does not allocate a new buffer per page; buffers bigger than {@link #MAX_POOLED_BUFFER_SIZE}
+ * are used for a single body and then dropped, which bounds the memory held by the pool.
+ */
+public class ResponseBodyReader {
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+    public static final int MAX_POOLED_BUFFER_SIZE = 256 * 1024;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // Typical ratio of the decoded to the compressed size of a json page
+    private static final int COMPRESSION_RATIO_ESTIMATE = 4;
+
+    private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[DEFAULT_BUFFER_SIZE];
+        }
+    };
+
+    /**
+     * Reads the stream until its end, and closes it.
+     *
+     * @param stream the response body; if it is a {@link DecodingInputStream}, its Content-Length
+     *               is used to size the buffer
+     * @return the body as a String
+     * @throws IOException
+     */
+    public static String readString(InputStream stream) throws IOException {
+        long expectedLength = -1;
+        if (stream instanceof DecodingInputStream) {
+            final DecodingInputStream decodingStream = (DecodingInputStream) stream;
+            expectedLength = decodingStream.getContentLength();
+            if (expectedLength > 0 && decodingStream.isEncoded()) {
+                expectedLength *= COMPRESSION_RATIO_ESTIMATE;
+            }
+        }
+        return readString(stream, expectedLength);
+    }
+
+    /**
+     * Reads the stream until its end, and closes it.
+     *
+     * @param stream the response body
+     * @param expectedLength the expected number of bytes, or -1 if unknown
+     * @return the body as a String
+     * @throws IOException
+     */
+    public static String readString(InputStream stream, long expectedLength) throws IOException {
+        try {
+            byte[] buffer = obtainBuffer(expectedLength);
+            int length = 0;
+            int count;
+            while (true) {
+                if (length == buffer.length) {
+                    buffer = grow(buffer);
+                }
+                count = stream.read(buffer, length, buffer.length - length);
+                if (count == -1) {
+                    break;
+                }
+                length += count;
+            }
+            recycleBuffer(buffer);
+            return new String(buffer, 0, length, UTF_8);
+        } finally {
+            stream.close();
+        }
+    }
+
+    private static byte[] obtainBuffer(long expectedLength) {
+        final byte[] pooled = BUFFERS.get();
+        // One extra byte, so that reaching the end of the stream does not need a bigger buffer
+        if (expectedLength < 0 || expectedLength + 1 <= pooled.length) {
+            return pooled;
+        }
+        final long size = expectedLength + 1;
+        return new byte[(int) Math.min(size, Integer.MAX_VALUE - 8)];
+    }
+
+    private static byte[] grow(byte[] buffer) {
+        final byte[] grown = new byte[(int) Math.min(buffer.length * 2L, Integer.MAX_VALUE - 8)];
+        System.arraycopy(buffer, 0, grown, 0, buffer.length);
+        return grown;
+    }
+
+    private static void recycleBuffer(byte[] buffer) {
+        if (buffer.length <= MAX_POOLED_BUFFER_SIZE && buffer.length > BUFFERS.get().length) {
+            BUFFERS.set(buffer);
+        }
+    }
+}
@@ -0,0 +1,553 @@
+package com.mendeley.api.network;
+
+import android.util.Log;
+
+import com.mendeley.api.auth.AccessTokenProvider;
+import com.mendeley.api.impl.BaseMendeleySdk;
+import com.mendeley.api.util.Utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.net.ssl.HttpsURLConnection;
+
+/**
+ * Cache of GET response bodies, revalidated with the ETag and Last-Modified validators sent by
+ * the server.
+ * <p>
+ * Cached responses are sent again with If-None-Match/If-Modified-Since, so an unchanged resource
+ * costs a 304 response without a body. The parsed model is kept along with the body in memory,
+ * so it is not parsed again either; models are shared between callers and must not be modified.
+ * <p>
+ * Entries are held in a memory tier bounded by size, and optionally in a disk tier which
+ * survives restarts. By default every use revalidates the entry; {@link #setMaxAgeMillis}
+ * allows serving recent entries without any request, and {@link #setStaleWhileRevalidateMillis}
+ * serves older entries immediately while revalidating them in the background.
+ * <p>
+ * Only the procedures and tasks returning single objects use the cache. A single cache is shared
+ * by all of them, see {@link NetworkUtils#setResponseCache}; it is cleared when the user signs out.
+ */
+public class ResponseCache {
+    public static final long DEFAULT_MEMORY_SIZE = 512 * 1024;
+
+    private static final String TAG = BaseMendeleySdk.TAG;
+
+    private static final int DISK_FORMAT_VERSION = 1;
+    private static final String DISK_SUFFIX = ".response";
+
+    // Approximate size of an entry besides its strings
+    private static final int ENTRY_OVERHEAD = 64;
+
+    /**
+     * A cached response.
+     */
+    public static class Entry {
+        private final String key;
+        private final String body;
+        private final String etag;
+        private final String lastModified;
+        private volatile long storedAtMillis;
+        private volatile Object model;
+
+        Entry(String key, String body, String etag, String lastModified, long storedAtMillis, Object model) {
+            this.key = key;
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.storedAtMillis = storedAtMillis;
+            this.model = model;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return the time the response was received or last revalidated.
+         */
+        public long getStoredAtMillis() {
+            return storedAtMillis;
+        }
+
+        public Object getModel() {
+            return model;
+        }
+
+        public void setModel(Object model) {
+            this.model = model;
+        }
+
+        long getSize() {
+            return 2L * (key.length() + body.length()) + ENTRY_OVERHEAD;
+        }
+    }
+
+    private final long maxMemorySize;
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private long memorySize;
+
+    private final File directory;
+    private final long maxDiskSize;
+
+    // Guards the accounting of the disk tier, so lookups in memory never wait for the disk
+    private final Object diskLock = new Object();
+    // Total size of the disk tier, or -1 until it is first measured
+    private long diskSize = -1;
+
+    private volatile long maxAgeMillis;
+    private volatile long staleWhileRevalidateMillis;
+
+    private final Set<String> revalidating = new HashSet<String>();
+    private Executor revalidationExecutor;
+
+    private int hitCount;
+    private int revalidatedCount;
+    private int missCount;
+
+    /**
+     * Creates a memory-only cache.
+     *
+     * @param maxMemorySize approximate maximum size of the cached bodies, in bytes
+     */
+    public ResponseCache(long maxMemorySize) {
+        this(maxMemorySize, null, 0);
+    }
+
+    /**
+     * @param maxMemorySize approximate maximum size of the bodies cached in memory, in bytes
+     * @param directory directory holding the disk tier, e.g. under Context.getCacheDir(); null for none
+     * @param maxDiskSize maximum size of the disk tier, in bytes
+     */
+    public ResponseCache(long maxMemorySize, File directory, long maxDiskSize) {
+        this.maxMemorySize = maxMemorySize;
+        this.directory = directory;
+        this.maxDiskSize = maxDiskSize;
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            Log.w(TAG, "Could not create response cache directory " + directory);
+        }
+    }
+
+    /**
+     * @param maxAgeMillis how long a response is used without revalidation, 0 to always revalidate
+     */
+    public void setMaxAgeMillis(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * @param staleWhileRevalidateMillis how long after its max age a response is still returned
+     *                                   immediately, while it is revalidated in the background
+     */
+    public void setStaleWhileRevalidateMillis(long staleWhileRevalidateMillis) {
+        this.staleWhileRevalidateMillis = staleWhileRevalidateMillis;
+    }
+
+    /**
+     * @return the cached response for the request, or null
+     */
+    public Entry get(String url, String contentType) {
+        final String key = getKey(url, contentType);
+        synchronized (this) {
+            final Entry entry = memory.get(key);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        final Entry entry = readFromDisk(key);
+        if (entry != null) {
+            putInMemory(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Stores a response, if the server sent an ETag or Last-Modified header.
+     */
+    public void put(String url, String contentType, HttpURLConnection con, String body, Object model) {
+        put(url, contentType, con.getHeaderField("ETag"), con.getHeaderField("Last-Modified"), body, model);
+    }
+
+    /**
+     * Stores a response, if it has a validator.
+     */
+    public void put(String url, String contentType, String etag, String lastModified, String body, Object model) {
+        final String key = getKey(url, contentType);
+        if (etag == null && lastModified == null) {
+            // Cannot be revalidated, and a previously cached version is now outdated
+            remove(key);
+            return;
+        }
+        final Entry entry = new Entry(key, body, etag, lastModified, System.currentTimeMillis(), model);
+        putInMemory(entry);
+        writeToDisk(entry);
+    }
+
+    /**
+     * Records that the server confirmed the entry is still valid.
+     */
+    public void refresh(Entry entry) {
+        entry.storedAtMillis = System.currentTimeMillis();
+        synchronized (this) {
+            revalidatedCount++;
+        }
+        if (directory != null) {
+            getDiskFile(entry.key).setLastModified(entry.storedAtMillis);
+        }
+    }
+
+    /**
+     * Records that an entry is used without revalidation.
+     */
+    public synchronized void recordHit() {
+        hitCount++;
+    }
+
+    /**
+     * Records that a response is downloaded in full.
+     */
+    public synchronized void recordMiss() {
+        missCount++;
+    }
+
+    /**
+     * Adds the headers making the server answer 304 if the cached response is still valid.
+     */
+    public void addConditionalHeaders(HttpURLConnection con, Entry entry) {
+        if (entry.etag != null) {
+            con.addRequestProperty("If-None-Match", entry.etag);
+        }
+        if (entry.lastModified != null) {
+            con.addRequestProperty("If-Modified-Since", entry.lastModified);
+        }
+    }
+
+    /**
+     * @return true if the entry can be used without revalidation
+     */
+    public boolean isFresh(Entry entry) {
+        return getAgeMillis(entry) < maxAgeMillis;
+    }
+
+    /**
+     * @return true if the entry can be used while it is revalidated in the background
+     */
+    public boolean isStaleWhileRevalidate(Entry entry) {
+        return getAgeMillis(entry) < maxAgeMillis + staleWhileRevalidateMillis;
+    }
+
+    /**
+     * Revalidates the cached response for the request on a background thread. Does nothing
+     * if it is already being revalidated.
+     */
+    public void revalidateInBackground(final String url, final String contentType,
+                                       final AccessTokenProvider accessTokenProvider) {
+        final String key = getKey(url, contentType);
+        synchronized (revalidating) {
+            if (!revalidating.add(key)) {
+                return;
+            }
+        }
+        getRevalidationExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    revalidate(url, contentType, accessTokenProvider);
+                } catch (IOException e) {
+                    Log.w(TAG, "Could not revalidate " + url + ": " + e.toString());
+                } finally {
+                    synchronized (revalidating) {
+                        revalidating.remove(key);
+                    }
+                }
+            }
+        });
+    }
+
+    private void revalidate(String url, String contentType, AccessTokenProvider accessTokenProvider) throws IOException {
+        final Entry cached = get(url, contentType);
+        final HttpsURLConnection con = NetworkUtils.getConnection(url, "GET", accessTokenProvider);
+        InputStream is = null;
+        try {
+            con.addRequestProperty("Content-type", contentType);
+            if (cached != null) {
+                addConditionalHeaders(con, cached);
+            }
+            final int responseCode = con.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                is = con.getInputStream();
+                refresh(cached);
+            } else if (responseCode == HttpURLConnection.HTTP_OK) {
+                is = NetworkUtils.getInputStream(con);
+                put(url, contentType, con, NetworkUtils.getJsonString(is), null);
+                recordMiss();
+            }
+        } finally {
+            NetworkUtils.getHttpTransport().releaseConnection(con, is);
+        }
+    }
+
+    /**
+     * Removes all the entries, from memory and disk.
+     */
+    public void clear() {
+        synchronized (this) {
+            memory.clear();
+            memorySize = 0;
+        }
+        if (directory == null) {
+            return;
+        }
+        synchronized (diskLock) {
+            for (File file : listDiskFiles()) {
+                file.delete();
+            }
+            diskSize = 0;
+        }
+    }
+
+    /**
+     * @return the number of responses used without any request.
+     */
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of responses confirmed by a 304 response.
+     */
+    public synchronized int getRevalidatedCount() {
+        return revalidatedCount;
+    }
+
+    /**
+     * @return the number of responses downloaded in full.
+     */
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the approximate size of the entries held in memory.
+     */
+    public synchronized long getMemorySize() {
+        return memorySize;
+    }
+
+    private long getAgeMillis(Entry entry) {
+        return System.currentTimeMillis() - entry.storedAtMillis;
+    }
+
+    private synchronized void putInMemory(Entry entry) {
+        final Entry previous = memory.put(entry.key, entry);
+        if (previous != null) {
+            memorySize -= previous.getSize();
+        }
+        memorySize += entry.getSize();
+        final Iterator<Entry> it = memory.values().iterator();
+        while (memorySize > maxMemorySize && it.hasNext()) {
+            memorySize -= it.next().getSize();
+            it.remove();
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (this) {
+            final Entry previous = memory.remove(key);
+            if (previous != null) {
+                memorySize -= previous.getSize();
+            }
+        }
+        if (directory != null) {
+            deleteFromDisk(getDiskFile(key));
+        }
+    }
+
+    /**
+     * Reads an entry without any lock: files are only replaced by renaming, so a file being
+     * read is never partly written.
+     */
+    private Entry readFromDisk(String key) {
+        if (directory == null) {
+            return null;
+        }
+        final File file = getDiskFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != DISK_FORMAT_VERSION || !key.equals(in.readUTF())) {
+                return null;
+            }
+            final String etag = emptyToNull(in.readUTF());
+            final String lastModified = emptyToNull(in.readUTF());
+            final byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new Entry(key, new String(body, "UTF-8"), etag, lastModified, file.lastModified(), null);
+        } catch (IOException e) {
+            Log.w(TAG, "Discarding unreadable cached response " + file + ": " + e.toString());
+            deleteFromDisk(file);
+            return null;
+        } finally {
+            Utils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Writes an entry to a temporary file without any lock, then renames it over the previous
+     * version and trims the disk tier if it went over its maximum size.
+     */
+    private void writeToDisk(Entry entry) {
+        if (directory == null) {
+            return;
+        }
+        final File file = getDiskFile(entry.key);
+        File tmp = null;
+        DataOutputStream out = null;
+        try {
+            tmp = File.createTempFile(file.getName(), ".tmp", directory);
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            final byte[] body = entry.body.getBytes("UTF-8");
+            out.writeInt(DISK_FORMAT_VERSION);
+            out.writeUTF(entry.key);
+            out.writeUTF(entry.etag != null ? entry.etag : "");
+            out.writeUTF(entry.lastModified != null ? entry.lastModified : "");
+            out.writeInt(body.length);
+            out.write(body);
+            out.close();
+            out = null;
+            tmp.setLastModified(entry.storedAtMillis);
+            synchronized (diskLock) {
+                final long previousLength = file.length();
+                if (!tmp.renameTo(file)) {
+                    tmp.delete();
+                    return;
+                }
+                if (diskSize >= 0) {
+                    diskSize += file.length() - previousLength;
+                }
+                if (diskSize < 0 || diskSize > maxDiskSize) {
+                    trimDisk();
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not store response in " + file + ": " + e.toString());
+            if (tmp != null) {
+                tmp.delete();
+            }
+        } finally {
+            Utils.closeQuietly(out);
+        }
+    }
+
+    private void deleteFromDisk(File file) {
+        synchronized (diskLock) {
+            final long length = file.length();
+            if (file.delete() && diskSize >= 0) {
+                diskSize -= length;
+            }
+        }
+    }
+
+    /**
+     * Measures the disk tier, and deletes its oldest files while it is over its maximum size.
+     * Called with the disk lock held, on the first write and then only once the tracked size
+     * goes over the maximum.
+     */
+    private void trimDisk() {
+        final File[] files = listDiskFiles();
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        diskSize = size;
+        if (size <= maxDiskSize) {
+            return;
+        }
+        // Least recently stored or revalidated first
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                final long l = lhs.lastModified();
+                final long r = rhs.lastModified();
+                return l < r ? -1 : (l == r ? 0 : 1);
+            }
+        });
+        for (File file : files) {
+            if (size <= maxDiskSize) {
+                break;
+            }
+            final long length = file.length();
+            if (file.delete()) {
+                size -= length;
+            }
+        }
+        diskSize = size;
+    }
+
+    private File[] listDiskFiles() {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return new File[0];
+        }
+        int count = 0;
+        for (File file : files) {
+            if (file.getName().endsWith(DISK_SUFFIX)) {
+                files[count++] = file;
+            }
+        }
+        return Arrays.copyOf(files, count);
+    }
+
+    private File getDiskFile(String key) {
+        return new File(directory, Utils.md5Hex(key) + DISK_SUFFIX);
+    }
+
+    private synchronized Executor getRevalidationExecutor() {
+        if (revalidationExecutor == null) {
+            revalidationExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    final Thread thread = new Thread(r, "MendeleySdk revalidation");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return revalidationExecutor;
+    }
+
+    private static String getKey(String url, String contentType) {
+        return contentType + " " + url;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.length() == 0 ? null : value;
+    }
+}
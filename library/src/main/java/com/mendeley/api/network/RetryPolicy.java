@@ -0,0 +1,166 @@
+package com.mendeley.api.network;
+
+import com.mendeley.api.exceptions.HttpResponseException;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.util.DateUtils;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether a failed request is retried, and how long to wait before doing so.
+ * <p>
+ * Requests are retried after connection errors and 502/503/504 responses only if they are
+ * idempotent; 429 responses are retried for all requests, as the server did not process them.
+ * The delay grows exponentially with the number of retries, with "full jitter" so that
+ * clients do not retry in lock step. A Retry-After header sent with a 429 or 503 response
+ * takes precedence over the computed delay, up to {@link #getMaxDelayMillis()}.
+ * <p>
+ * A single policy is shared by all the procedures and tasks, see {@link NetworkUtils#setRetryPolicy}.
+ */
+public class RetryPolicy {
+    public static final long DEFAULT_BASE_DELAY_MILLIS = 500;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 30 * 1000;
+
+    /**
+     * Notified before every retry, on the thread that will sleep and retry the request.
+     */
+    public interface RetryListener {
+        /**
+         * @param retry the number of this retry, starting at 1
+         * @param delayMillis how long the request will wait before being retried
+         * @param cause the error of the failed attempt
+         */
+        void onRetry(int retry, long delayMillis, MendeleyException cause);
+    }
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    private final Random random = new Random();
+
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong totalDelayMillis = new AtomicLong();
+
+    private volatile RetryListener listener;
+
+    /**
+     * @param maxRetries maximum number of retries after the first attempt, 0 to disable retries
+     * @param baseDelayMillis upper bound of the delay before the first retry
+     * @param maxDelayMillis maximum delay before any retry
+     */
+    public RetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis) {
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    public void setRetryListener(RetryListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return the number of retries made under this policy.
+     */
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * @return the total time spent waiting before retries under this policy.
+     */
+    public long getTotalDelayMillis() {
+        return totalDelayMillis.get();
+    }
+
+    /**
+     * @param retriesSoFar the number of retries already made for the request
+     * @param idempotent whether the request can safely be repeated
+     * @param e the error of the last attempt
+     * @return true if the request should be retried
+     */
+    public boolean shouldRetry(int retriesSoFar, boolean idempotent, MendeleyException e) {
+        if (retriesSoFar >= maxRetries) {
+            return false;
+        }
+        if (e instanceof HttpResponseException) {
+            final int code = ((HttpResponseException) e).httpReturnCode;
+            if (code == 429) {
+                return true;
+            }
+            return idempotent && (code == 502 || code == 503 || code == 504);
+        }
+        return idempotent && e.getCause() instanceof IOException;
+    }
+
+    /**
+     * @param retriesSoFar the number of retries already made for the request
+     * @param retryAfterMillis the delay requested by the server, or -1
+     * @return how long to wait before the next attempt
+     */
+    public long getDelayMillis(int retriesSoFar, long retryAfterMillis) {
+        if (retryAfterMillis >= 0) {
+            return Math.min(retryAfterMillis, maxDelayMillis);
+        }
+        final long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(retriesSoFar, 20));
+        synchronized (random) {
+            return (long) (random.nextDouble() * ceiling);
+        }
+    }
+
+    /**
+     * Records a retry and waits for the given delay.
+     *
+     * @param retry the number of this retry, starting at 1
+     * @param delayMillis how long to wait
+     * @param cause the error of the failed attempt
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void awaitRetry(int retry, long delayMillis, MendeleyException cause) throws InterruptedException {
+        retryCount.incrementAndGet();
+        totalDelayMillis.addAndGet(delayMillis);
+        final RetryListener l = listener;
+        if (l != null) {
+            l.onRetry(retry, delayMillis, cause);
+        }
+        if (delayMillis > 0) {
+            Thread.sleep(delayMillis);
+        }
+    }
+
+    /**
+     * Parses a Retry-After header, given either in seconds or as an HTTP date.
+     *
+     * @param value the header value, may be null
+     * @return the delay in milliseconds, or -1 if there is no valid value
+     */
+    public static long parseRetryAfter(String value) {
+        if (value == null) {
+            return -1;
+        }
+        final String trimmed = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(trimmed) * 1000);
+        } catch (NumberFormatException e) {
+            // Not in seconds, try an HTTP date
+        }
+        try {
+            final Date date = DateUtils.parseDateInHeader(trimmed);
+            return Math.max(0, date.getTime() - System.currentTimeMillis());
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+}
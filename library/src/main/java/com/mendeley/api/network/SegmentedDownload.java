@@ -0,0 +1,336 @@
+package com.mendeley.api.network;
+
+import com.mendeley.api.util.Utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Downloads the rest of a file as byte ranges fetched concurrently, each written at its own
+ * position in the part file of a {@link PartialDownload}.
+ * <p>
+ * The missing bytes are split into segments of a fixed size, which the connections take in
+ * order. The download starts with two connections, and opens one more each time the throughput
+ * measured with the last one grew by a quarter, up to a maximum: a link which one connection
+ * cannot fill ends up with several, a saturated link keeps two.
+ * <p>
+ * The calling thread downloads segments too, while the other connections are started on the
+ * executor, e.g. the lane of the bulk transfers of the SDK. As the calling thread alone can
+ * download all the segments, the download completes even if the executor is busy; connections
+ * which only start once all the segments are taken end at once.
+ * <p>
+ * Every range is requested with If-Range on the validator of the partial download, so a file
+ * replaced during the download fails instead of mixing two contents. When the download fails or
+ * is cancelled, the part file is cut to the bytes received without gap, which the next download
+ * resumes from.
+ */
+public class SegmentedDownload {
+    public static final long DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+    public static final int DEFAULT_MAX_CONNECTIONS = 4;
+
+    /**
+     * Number of missing bytes below which the file is downloaded as a single stream.
+     */
+    public static final long MIN_SEGMENTED_LENGTH = 4 * DEFAULT_SEGMENT_SIZE;
+
+    private static final int INITIAL_CONNECTIONS = 2;
+    private static final double MIN_THROUGHPUT_GAIN = 1.25;
+
+    /**
+     * Follows a segmented download. Called from the download threads.
+     */
+    public interface Listener {
+        boolean isCancelled();
+
+        /**
+         * @param downloaded the number of bytes of the file downloaded so far
+         */
+        void onProgress(long downloaded);
+    }
+
+    private final String url;
+    private final PartialDownload partial;
+    private final long offset;
+    private final long totalLength;
+    private final long segmentSize;
+    private final int maxConnections;
+    private final Executor executor;
+
+    private final int segmentCount;
+    private final long[] received;
+    private final AtomicInteger nextSegment = new AtomicInteger();
+    private final AtomicLong downloaded;
+
+    private final Object lock = new Object();
+    private int connections;
+    private int activeConnections;
+    private volatile IOException error;
+    private volatile Listener listener;
+    private FileChannel channel;
+
+    private boolean finished;
+    private boolean probing = true;
+    private long probeStartTime;
+    private long probeStartBytes;
+    private int probeSegments;
+    private double lastThroughput;
+
+    /**
+     * @param url the signed url of the file content
+     * @param partial the partial download, started with the validator of the content
+     * @param offset the number of bytes already in the part file
+     * @param totalLength the length of the file
+     * @param maxConnections the maximum number of connections used at the same time
+     * @param executor runs the connections other than the calling thread
+     */
+    public SegmentedDownload(String url, PartialDownload partial, long offset, long totalLength,
+                             int maxConnections, Executor executor) {
+        this(url, partial, offset, totalLength, maxConnections, DEFAULT_SEGMENT_SIZE, executor);
+    }
+
+    /**
+     * @param segmentSize the number of bytes requested by each range request
+     */
+    public SegmentedDownload(String url, PartialDownload partial, long offset, long totalLength,
+                             int maxConnections, long segmentSize, Executor executor) {
+        this.url = url;
+        this.partial = partial;
+        this.offset = offset;
+        this.totalLength = totalLength;
+        this.maxConnections = Math.max(1, maxConnections);
+        this.segmentSize = segmentSize;
+        this.executor = executor;
+        this.segmentCount = (int) ((totalLength - offset + segmentSize - 1) / segmentSize);
+        this.received = new long[segmentCount];
+        this.downloaded = new AtomicLong(offset);
+    }
+
+    /**
+     * @param con a connected download request
+     * @param remaining the number of bytes of the file not downloaded yet
+     * @return true if the server accepts ranges for the content of the response, which has a
+     * validator, and enough bytes remain to be worth several connections
+     */
+    public static boolean isSupported(HttpURLConnection con, long remaining) throws IOException {
+        final boolean acceptsRanges = con.getResponseCode() == 206
+                || "bytes".equalsIgnoreCase(con.getHeaderField("Accept-Ranges"));
+        return acceptsRanges
+                && PartialDownload.getValidator(con) != null
+                && remaining >= MIN_SEGMENTED_LENGTH;
+    }
+
+    /**
+     * Downloads the missing bytes, blocking until all the segments are written, one of them
+     * failed or the listener cancelled the download. On success the part file holds the whole
+     * file and the partial download can be completed.
+     *
+     * @return false if the download was cancelled
+     * @throws IOException if a segment could not be downloaded
+     */
+    public boolean run(Listener listener) throws IOException {
+        this.listener = listener;
+        final RandomAccessFile file = new RandomAccessFile(partial.getPartFile(), "rw");
+        partial.beginSegments();
+        long contiguousLength = offset;
+        try {
+            file.setLength(totalLength);
+            channel = file.getChannel();
+            synchronized (lock) {
+                startProbe(System.nanoTime());
+                // The calling thread is one of the connections
+                connections++;
+                activeConnections++;
+                final int initial = Math.min(Math.min(INITIAL_CONNECTIONS, maxConnections), segmentCount);
+                for (int i = 1; i < initial; i++) {
+                    startConnection();
+                }
+            }
+            download();
+            synchronized (lock) {
+                while (activeConnections > 0) {
+                    lock.wait();
+                }
+                // Connections still queued on the executor must not write to the closed file
+                finished = true;
+            }
+            contiguousLength = getContiguousLength();
+            if (error != null) {
+                throw error;
+            }
+            if (listener.isCancelled()) {
+                return false;
+            }
+            if (contiguousLength != totalLength) {
+                throw new IOException("Only " + contiguousLength + " of " + totalLength + " bytes downloaded");
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while downloading segments");
+        } finally {
+            Utils.closeQuietly(file);
+            partial.endSegments(contiguousLength);
+        }
+    }
+
+    /**
+     * @return the number of connections opened so far
+     */
+    public int getConnections() {
+        synchronized (lock) {
+            return connections;
+        }
+    }
+
+    /**
+     * Starts another connection. Called with the lock held. The connection is only waited for
+     * once it runs, so one left in the queue of the executor does not hold the download.
+     */
+    private void startConnection() {
+        connections++;
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (lock) {
+                        if (finished) {
+                            return;
+                        }
+                        activeConnections++;
+                    }
+                    download();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            connections--;
+        }
+    }
+
+    /**
+     * Downloads segments until there are none left, then ends the connection.
+     */
+    private void download() {
+        try {
+            int segment;
+            while (!isStopped() && (segment = nextSegment.getAndIncrement()) < segmentCount) {
+                downloadSegment(segment);
+                onSegmentDownloaded();
+            }
+        } catch (IOException e) {
+            setError(e);
+        } catch (RuntimeException e) {
+            setError(new IOException(String.valueOf(e.getMessage()), e));
+        } finally {
+            synchronized (lock) {
+                activeConnections--;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void downloadSegment(final int segment) throws IOException {
+        final long start = offset + segment * segmentSize;
+        final long end = Math.min(start + segmentSize, totalLength) - 1;
+        HttpURLConnection con = null;
+        InputStream is = null;
+        try {
+            con = NetworkUtils.getHttpDownloadConnection(url, "GET");
+            con.setRequestProperty("Accept-Encoding", "identity");
+            con.setRequestProperty("Range", "bytes=" + start + "-" + end);
+            con.setRequestProperty("If-Range", partial.getValidator());
+            con.connect();
+
+            final int responseCode = con.getResponseCode();
+            final String contentRange = con.getHeaderField("Content-Range");
+            if (responseCode != 206
+                    || PartialDownload.parseContentRangeStart(contentRange) != start
+                    || PartialDownload.parseContentRangeTotal(contentRange) != totalLength) {
+                // A 200 means the content changed since the download started
+                throw new IOException("Range " + start + "-" + end + " not returned (status " + responseCode + ")");
+            }
+
+            is = con.getInputStream();
+            final long length = end + 1 - start;
+            final long copied = DownloadEngine.copy(is, channel, start, length, new DownloadEngine.Listener() {
+                @Override
+                public boolean isCancelled() {
+                    return isStopped();
+                }
+
+                @Override
+                public void onBytesWritten(int count) {
+                    received[segment] += count;
+                    listener.onProgress(downloaded.addAndGet(count));
+                }
+            });
+            if (copied < length && !isStopped()) {
+                throw new IOException("Connection closed after " + copied + " bytes of range " + start + "-" + end);
+            }
+        } finally {
+            NetworkUtils.getHttpTransport().releaseConnection(con, is);
+        }
+    }
+
+    /**
+     * Measures the throughput once every connection downloaded a segment since the last one was
+     * opened, and opens another while it keeps growing.
+     */
+    private void onSegmentDownloaded() {
+        synchronized (lock) {
+            if (!probing || ++probeSegments < connections) {
+                return;
+            }
+            final long now = System.nanoTime();
+            final double throughput = (downloaded.get() - probeStartBytes) / (double) Math.max(1, now - probeStartTime);
+            if (connections < maxConnections && nextSegment.get() < segmentCount
+                    && throughput >= lastThroughput * MIN_THROUGHPUT_GAIN) {
+                lastThroughput = throughput;
+                startConnection();
+                startProbe(now);
+            } else {
+                probing = false;
+            }
+        }
+    }
+
+    private void startProbe(long now) {
+        probeStartTime = now;
+        probeStartBytes = downloaded.get();
+        probeSegments = 0;
+    }
+
+    private boolean isStopped() {
+        return error != null || listener.isCancelled();
+    }
+
+    private void setError(IOException e) {
+        synchronized (lock) {
+            if (error == null) {
+                error = e;
+            }
+        }
+    }
+
+    /**
+     * @return the number of bytes from the start of the file received without gap.
+     * Called once all the connections ended.
+     */
+    private long getContiguousLength() {
+        long length = offset;
+        for (int i = 0; i < segmentCount; i++) {
+            length += received[i];
+            if (received[i] < Math.min(segmentSize, totalLength - offset - i * segmentSize)) {
+                break;
+            }
+        }
+        return length;
+    }
+}
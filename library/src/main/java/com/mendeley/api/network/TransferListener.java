@@ -0,0 +1,18 @@
+package com.mendeley.api.network;
+
+/**
+ * Receives the size of every response body read by the SDK, so that the savings of
+ * compressed transfers can be measured. Set it with {@link NetworkUtils#setTransferListener}.
+ * <p>
+ * Called on the thread that read the response, so implementations must be thread safe.
+ */
+public interface TransferListener {
+
+    /**
+     * @param url the request url
+     * @param contentEncoding the Content-Encoding of the response, or null if it was not encoded
+     * @param compressedBytes body bytes received from the network
+     * @param uncompressedBytes body bytes after decoding
+     */
+    void onResponseRead(String url, String contentEncoding, long compressedBytes, long uncompressedBytes);
+}
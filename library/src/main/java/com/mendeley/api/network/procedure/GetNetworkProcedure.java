@@ -1,20 +1,20 @@
 package com.mendeley.api.network.procedure;
 
-import android.util.Log;
-
 import com.mendeley.api.auth.AuthenticationManager;
-import com.mendeley.api.exceptions.HttpResponseException;
 import com.mendeley.api.exceptions.JsonParsingException;
 import com.mendeley.api.exceptions.MendeleyException;
-import com.mendeley.api.impl.BaseMendeleySdk;
+import com.mendeley.api.network.InFlightRequests;
+import com.mendeley.api.network.NetworkUtils;
+import com.mendeley.api.network.ResponseCache;
 
 import org.json.JSONException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.text.ParseException;
 
 import static com.mendeley.api.network.NetworkUtils.getConnection;
-import static com.mendeley.api.network.NetworkUtils.getErrorMessage;
 import static com.mendeley.api.network.NetworkUtils.getJsonString;
 
 /**
@@ -22,11 +22,11 @@ import static com.mendeley.api.network.NetworkUtils.getJsonString;
  */
 public abstract class GetNetworkProcedure<ResultType> extends NetworkProcedure<ResultType> {
 
-    private static final String TAG = BaseMendeleySdk.TAG;
-
     private final String url;
     private final String contentType;
 
+    private String responseString;
+
     protected GetNetworkProcedure(String url, String contentType,
                                   AuthenticationManager authenticationManager) {
         super(authenticationManager);
@@ -39,38 +39,101 @@ public abstract class GetNetworkProcedure<ResultType> extends NetworkProcedure<R
         return 200;
     }
 
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    /**
+     * @return true if the response is stored in the shared {@link ResponseCache}, and revalidated
+     * instead of being downloaded again. Only suitable for responses without paging links.
+     */
+    protected boolean isCacheable() {
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
     public ResultType run() throws MendeleyException {
-        return run(0);
+        final InFlightRequests inFlightRequests = isCacheable() ? NetworkUtils.getInFlightRequests() : null;
+        if (inFlightRequests == null) {
+            return fetch();
+        }
+
+        final InFlightRequests.Flight flight = inFlightRequests.join("GET", url, contentType);
+        if (!flight.isLeader()) {
+            final InFlightRequests.Response response = flight.await();
+            if (response.model != null) {
+                return (ResultType) response.model;
+            }
+            try {
+                return processJsonString(response.body);
+            } catch (JSONException e) {
+                throw new JsonParsingException("Passing error in GET request " + url + ": " + e.toString() + ". Response was: " + response.body, e);
+            }
+        }
+        try {
+            final ResultType result = fetch();
+            flight.complete(responseString, result);
+            return result;
+        } catch (MendeleyException e) {
+            flight.fail(e);
+            throw e;
+        } catch (RuntimeException e) {
+            flight.fail(new MendeleyException("Error in GET request " + url + ": " + e.toString(), e));
+            throw e;
+        }
     }
 
-    private ResultType run(final int currentRetry) throws MendeleyException {
-        String responseString = null;
+    private ResultType fetch() throws MendeleyException {
+        responseString = null;
+        final ResponseCache cache = isCacheable() ? NetworkUtils.getResponseCache() : null;
         try {
+            final ResponseCache.Entry cached = cache != null ? cache.get(url, contentType) : null;
+            if (cached != null && cache.isFresh(cached)) {
+                cache.recordHit();
+                return fromCache(cached);
+            }
+            if (cached != null && cache.isStaleWhileRevalidate(cached)) {
+                cache.recordHit();
+                cache.revalidateInBackground(url, contentType, authenticationManager);
+                return fromCache(cached);
+            }
+
             con = getConnection(url, "GET", authenticationManager);
             con.addRequestProperty("Content-type", contentType);
+            if (cached != null) {
+                cache.addConditionalHeaders(con, cached);
+            }
             con.connect();
 
             final int responseCode = con.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                is = con.getInputStream();
+                cache.refresh(cached);
+                return fromCache(cached);
+            }
             if (responseCode != getExpectedResponse()) {
-                throw new HttpResponseException(url, responseCode, getErrorMessage(con));
+                throw createHttpResponseException(url, responseCode);
             }
 
             getResponseHeaders();
-            is = con.getInputStream();
-            responseString = getJsonString(is);
-            return processJsonString(responseString);
+            is = NetworkUtils.getInputStream(con);
+            if (cache != null) {
+                responseString = getJsonString(is);
+                final ResultType result = processJsonString(responseString);
+                cache.put(url, contentType, con, responseString, result);
+                cache.recordMiss();
+                return result;
+            }
+            return processJsonStream(is);
         } catch (MendeleyException me) {
             throw me;
         } catch (ParseException pe) {
             throw new MendeleyException("Could not parse web API headers for " + url, pe);
         } catch (IOException ioe) {
-            // If the issue is due to IOException, retry up to MAX_HTTP_RETRIES times
-            if (currentRetry <  BaseMendeleySdk.MAX_HTTP_RETRIES) {
-                Log.w(TAG, "Problem connecting to " + url + ": " + ioe.getMessage() + ". Retrying (" + (currentRetry + 1) + "/" + BaseMendeleySdk.MAX_HTTP_RETRIES + ")");
-                return run(currentRetry + 1);
-            } else {
-                throw new MendeleyException("IO error in GET request " + url + ": " + ioe.toString(), ioe);
-            }
+            // Retried by execute(), according to the RetryPolicy
+            throw new MendeleyException("IO error in GET request " + url + ": " + ioe.toString(), ioe);
         } catch (JSONException e) {
             throw new JsonParsingException("Passing error in GET request " + url + ": " + e.toString() + ". Response was: " + responseString, e);
         } catch (Exception e) {
@@ -80,5 +143,27 @@ public abstract class GetNetworkProcedure<ResultType> extends NetworkProcedure<R
         }
     }
 
+    /**
+     * Reads the result from the response body. By default the body is read into a String,
+     * which is passed to {@link #processJsonString}; procedures returning large lists
+     * override this to parse the stream directly.
+     */
+    protected ResultType processJsonStream(InputStream stream) throws IOException, JSONException {
+        responseString = getJsonString(stream);
+        return processJsonString(responseString);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResultType fromCache(ResponseCache.Entry entry) throws JSONException {
+        responseString = entry.getBody();
+        final Object model = entry.getModel();
+        if (model != null) {
+            return (ResultType) model;
+        }
+        final ResultType result = processJsonString(responseString);
+        entry.setModel(result);
+        return result;
+    }
+
     protected abstract ResultType processJsonString(String jsonString) throws JSONException;
 }
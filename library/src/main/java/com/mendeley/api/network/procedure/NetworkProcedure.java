@@ -1,7 +1,15 @@
 package com.mendeley.api.network.procedure;
 
+import android.util.Log;
+
 import com.mendeley.api.auth.AuthenticationManager;
+import com.mendeley.api.exceptions.HttpResponseException;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.impl.BaseMendeleySdk;
 import com.mendeley.api.network.procedure.Procedure;
+import com.mendeley.api.network.HttpTransport;
+import com.mendeley.api.network.NetworkUtils;
+import com.mendeley.api.network.RetryPolicy;
 import com.mendeley.api.params.Page;
 import com.mendeley.api.util.DateUtils;
 import com.mendeley.api.util.Utils;
@@ -22,9 +30,12 @@ import javax.net.ssl.HttpsURLConnection;
  * Base class for all synchronous network calls.
  */
 public abstract class NetworkProcedure<ResultType> extends Procedure<ResultType> {
+    private static final String TAG = BaseMendeleySdk.TAG;
+
     protected Page next;
     protected String location;
     protected Date serverDate;
+    protected long retryAfterMillis = -1;
 
     protected InputStream is = null;
     protected OutputStream os = null;
@@ -36,6 +47,42 @@ public abstract class NetworkProcedure<ResultType> extends Procedure<ResultType>
 
     protected abstract int getExpectedResponse();
 
+    /**
+     * @return true if the request can be repeated without side effects, so that it can be
+     * retried after a connection error or a server failure.
+     */
+    protected boolean isIdempotent() {
+        return false;
+    }
+
+    /**
+     * Runs the procedure, retrying it according to the shared {@link RetryPolicy}.
+     */
+    @Override
+    protected ResultType execute() throws MendeleyException {
+        final RetryPolicy retryPolicy = NetworkUtils.getRetryPolicy();
+        int retries = 0;
+        while (true) {
+            retryAfterMillis = -1;
+            try {
+                return run();
+            } catch (MendeleyException e) {
+                if (!retryPolicy.shouldRetry(retries, isIdempotent(), e)) {
+                    throw e;
+                }
+                final long delay = retryPolicy.getDelayMillis(retries, retryAfterMillis);
+                retries++;
+                Log.w(TAG, e.getMessage() + ". Retrying in " + delay + " ms (" + retries + "/" + retryPolicy.getMaxRetries() + ")");
+                try {
+                    retryPolicy.awaitRetry(retries, delay, e);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
     /**
      * Extracts the headers from the given HttpsURLConnection object.
      */
@@ -89,11 +136,23 @@ public abstract class NetworkProcedure<ResultType> extends Procedure<ResultType>
         }
     }
 
+    /**
+     * Creates the exception for an unexpected response code, keeping the Retry-After header
+     * so that the retry policy can honour it.
+     */
+    protected HttpResponseException createHttpResponseException(String url, int responseCode) {
+        retryAfterMillis = RetryPolicy.parseRetryAfter(con.getHeaderField("Retry-After"));
+        return new HttpResponseException(url, responseCode, NetworkUtils.getErrorMessage(con));
+    }
+
+    /**
+     * Releases the connection through the shared {@link HttpTransport}, so that it can be
+     * reused by the next request to the same host.
+     */
     protected void closeConnection() {
-        if (con != null) {
-            con.disconnect();
-        }
-        Utils.closeQuietly(is);
         Utils.closeQuietly(os);
+        NetworkUtils.getHttpTransport().releaseConnection(con, is);
+        con = null;
+        is = null;
     }
 }
@@ -5,16 +5,13 @@ import com.mendeley.api.exceptions.HttpResponseException;
 import com.mendeley.api.exceptions.JsonParsingException;
 import com.mendeley.api.exceptions.MendeleyException;
 import com.mendeley.api.network.NetworkUtils;
+import com.mendeley.api.network.RetryPolicy;
 import com.mendeley.api.network.task.NetworkTask;
 
-import org.apache.http.HttpEntity;
+import org.apache.http.Header;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.DefaultHttpClient;
-import org.apache.http.params.BasicHttpParams;
-import org.apache.http.params.HttpConnectionParams;
-import org.apache.http.params.HttpParams;
 import org.json.JSONException;
 
 import java.io.IOException;
@@ -44,10 +41,7 @@ public abstract class PatchNetworkProcedure<ResultType> extends NetworkProcedure
 
     @Override
     protected ResultType run() throws MendeleyException {
-        final HttpParams httpParameters = new BasicHttpParams();
-        HttpConnectionParams.setConnectionTimeout(httpParameters, NetworkUtils.CONNECTION_TIMEOUT);
-        HttpConnectionParams.setSoTimeout(httpParameters, NetworkUtils.READ_TIMEOUT);
-        HttpClient httpclient = new DefaultHttpClient(httpParameters);
+        HttpClient httpclient = NetworkUtils.getHttpTransport().getHttpClient();
 
         NetworkUtils.HttpPatch httpPatch = getHttpPatch(url, date, contentType, authenticationManager);
 
@@ -57,15 +51,16 @@ public abstract class PatchNetworkProcedure<ResultType> extends NetworkProcedure
 
             final int responseCode = response.getStatusLine().getStatusCode();
             if (responseCode != getExpectedResponse()) {
+                final Header retryAfter = response.getFirstHeader("Retry-After");
+                retryAfterMillis = RetryPolicy.parseRetryAfter(retryAfter != null ? retryAfter.getValue() : null);
                 throw new HttpResponseException(url, responseCode, NetworkUtils.getErrorMessage(response));
             } else {
-                HttpEntity responseEntity = response.getEntity();
-                is = responseEntity.getContent();
+                is = NetworkUtils.getInputStream(url, response);
                 String responseString = getJsonString(is);
                 return processJsonString(responseString);
             }
         } catch (IOException e) {
-            throw new JsonParsingException(e.getMessage());
+            throw new JsonParsingException(e.getMessage(), e);
         } catch (JSONException e) {
             throw new MendeleyException(e.getMessage());
         } finally {
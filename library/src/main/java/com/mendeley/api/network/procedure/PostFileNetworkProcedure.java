@@ -1,7 +1,6 @@
 package com.mendeley.api.network.procedure;
 
 import com.mendeley.api.auth.AuthenticationManager;
-import com.mendeley.api.exceptions.HttpResponseException;
 import com.mendeley.api.exceptions.JsonParsingException;
 import com.mendeley.api.exceptions.MendeleyException;
 import com.mendeley.api.model.File;
@@ -44,6 +43,14 @@ public abstract class PostFileNetworkProcedure<ResultType> extends NetworkProced
         return 201;
     }
 
+    /**
+     * File uploads are never retried, as the file stream cannot be read again.
+     */
+    @Override
+    protected ResultType execute() throws MendeleyException {
+        return run();
+    }
+
     @Override
     protected ResultType run() throws MendeleyException {
         String link = "<"+NetworkUtils.API_URL+"documents/"+documentId+">; rel=\"document\"";
@@ -74,15 +81,15 @@ public abstract class PostFileNetworkProcedure<ResultType> extends NetworkProced
 
             final int responseCode = con.getResponseCode();
             if (responseCode != getExpectedResponse()) {
-                throw new HttpResponseException(filesUrl, responseCode, NetworkUtils.getErrorMessage(con));
+                throw createHttpResponseException(filesUrl, responseCode);
             } else {
-                is = con.getInputStream();
+                is = NetworkUtils.getInputStream(con);
                 return processJsonString(getJsonString(is));
             }
         } catch (ParseException pe) {
             throw new MendeleyException("Could not parse web API headers for " + filesUrl);
         } catch (IOException e) {
-            throw new MendeleyException(e.getMessage());
+            throw new MendeleyException(e.getMessage(), e);
         } catch (JSONException e) {
             throw new JsonParsingException(e.getMessage());
         } finally {
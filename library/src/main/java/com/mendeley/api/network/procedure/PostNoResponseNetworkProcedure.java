@@ -1,7 +1,6 @@
 package com.mendeley.api.network.procedure;
 
 import com.mendeley.api.auth.AuthenticationManager;
-import com.mendeley.api.exceptions.HttpResponseException;
 import com.mendeley.api.exceptions.JsonParsingException;
 import com.mendeley.api.exceptions.MendeleyException;
 import com.mendeley.api.network.NetworkUtils;
@@ -53,12 +52,13 @@ public abstract class PostNoResponseNetworkProcedure extends NetworkProcedure<Vo
 
             final int responseCode = con.getResponseCode();
             if (responseCode != getExpectedResponse()) {
-                throw new HttpResponseException(url, responseCode, NetworkUtils.getErrorMessage(con));
+                throw createHttpResponseException(url, responseCode);
             }
+            is = NetworkUtils.openUnreadBody(con);
         } catch (ParseException pe) {
             throw new MendeleyException("Could not parse web API headers for " + url);
         } catch (IOException e) {
-            throw new JsonParsingException(e.getMessage());
+            throw new JsonParsingException(e.getMessage(), e);
         } finally {
             closeConnection();
         }
@@ -14,6 +14,14 @@ public abstract class Procedure<Result> {
 
     protected abstract Result run() throws MendeleyException;
 
+    /**
+     * Runs the procedure once it is known to be signed in. Subclasses can override it to add
+     * behaviour around {@link #run()}, such as retries.
+     */
+    protected Result execute() throws MendeleyException {
+        return run();
+    }
+
     public Result checkedRun() throws MendeleyException {
         if (authenticationManager == null || !authenticationManager.isSignedIn()) {
             // Must call signIn first - caller error!
@@ -23,12 +31,12 @@ public abstract class Procedure<Result> {
             authenticationManager.refreshToken();
         }
         try {
-            return run();
+            return execute();
         } catch (HttpResponseException e) {
             if (e.httpReturnCode == 401 && e.getMessage().contains("Token has expired")) {
                 // The refresh-token-in-advance logic did not work for some reason: force a refresh now
                 authenticationManager.refreshToken();
-                return run();
+                return execute();
             } else {
                 throw e;
             }
@@ -6,6 +6,7 @@ import com.mendeley.api.callbacks.annotations.AnnotationList;
 import com.mendeley.api.model.Annotation;
 import com.mendeley.api.network.Environment;
 import com.mendeley.api.network.JsonParser;
+import com.mendeley.api.network.JsonStreamParser;
 import com.mendeley.api.network.procedure.GetNetworkProcedure;
 import com.mendeley.api.network.procedure.PatchNetworkProcedure;
 import com.mendeley.api.network.procedure.PostNetworkProcedure;
@@ -13,6 +14,8 @@ import com.mendeley.api.params.AnnotationRequestParameters;
 
 import org.json.JSONException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 
@@ -104,6 +107,11 @@ public class AnnotationsNetworkProvider {
         protected AnnotationList processJsonString(String jsonString) throws JSONException {
             return new AnnotationList(JsonParser.parseAnnotationList(jsonString), next, serverDate);
         }
+
+        @Override
+        protected AnnotationList processJsonStream(InputStream stream) throws IOException, JSONException {
+            return new AnnotationList(JsonStreamParser.parseAnnotationList(stream), next, serverDate);
+        }
    }
 
     public static class PostAnnotationProcedure extends PostNetworkProcedure<Annotation> {
@@ -6,6 +6,7 @@ import com.mendeley.api.callbacks.document.DocumentList;
 import com.mendeley.api.model.Document;
 import com.mendeley.api.network.Environment;
 import com.mendeley.api.network.JsonParser;
+import com.mendeley.api.network.JsonStreamParser;
 import com.mendeley.api.network.procedure.GetNetworkProcedure;
 import com.mendeley.api.network.procedure.Procedure;
 import com.mendeley.api.params.CatalogDocumentRequestParameters;
@@ -13,6 +14,8 @@ import com.mendeley.api.params.View;
 
 import org.json.JSONException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.text.SimpleDateFormat;
 
@@ -108,6 +111,11 @@ public class CatalogDocumentNetworkProvider {
         protected DocumentList processJsonString(String jsonString) throws JSONException {
             return new DocumentList(JsonParser.parseDocumentList(jsonString), next, serverDate);
         }
+
+        @Override
+        protected DocumentList processJsonStream(InputStream stream) throws IOException, JSONException {
+            return new DocumentList(JsonStreamParser.parseDocumentList(stream), next, serverDate);
+        }
     }
 
     public static class GetCatalogDocumentProcedure extends GetNetworkProcedure<Document> {
@@ -20,7 +20,10 @@ import com.mendeley.api.model.Document;
 import com.mendeley.api.model.DocumentId;
 import com.mendeley.api.network.Environment;
 import com.mendeley.api.network.JsonParser;
+import com.mendeley.api.network.JsonStreamParser;
+import com.mendeley.api.network.NetworkUtils;
 import com.mendeley.api.network.NullRequest;
+import com.mendeley.api.network.ReferenceDataCache;
 import com.mendeley.api.network.procedure.GetNetworkProcedure;
 import com.mendeley.api.network.procedure.PatchNetworkProcedure;
 import com.mendeley.api.network.procedure.PostNetworkProcedure;
@@ -31,10 +34,13 @@ import com.mendeley.api.network.task.PostNetworkTask;
 import com.mendeley.api.network.task.PostNoBodyNetworkTask;
 import com.mendeley.api.params.DocumentRequestParameters;
 import com.mendeley.api.params.Page;
+import com.mendeley.api.params.RequestPriority;
 import com.mendeley.api.params.View;
 
 import org.json.JSONException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.text.SimpleDateFormat;
@@ -67,7 +73,7 @@ public class DocumentNetworkProvider {
         try {
             String[] paramsArray = new String[] { getGetDocumentsUrl(params, null) };
             GetDocumentsTask getDocumentsTask = new GetDocumentsTask(callback, accessTokenProvider);
-            getDocumentsTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+            getDocumentsTask.executeOn(environment.getExecutor(), paramsArray);
             return getDocumentsTask;
         }
         catch (UnsupportedEncodingException e) {
@@ -81,7 +87,7 @@ public class DocumentNetworkProvider {
         try {
             String[] paramsArray = new String[] { getGetDocumentsUrl(params, deletedSince) };
             GetDeletedDocumentsTask getDocumentsTask = new GetDeletedDocumentsTask(callback);
-            getDocumentsTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+            getDocumentsTask.executeOn(environment.getExecutor(), paramsArray);
             return getDocumentsTask;
         }
         catch (UnsupportedEncodingException e) {
@@ -94,7 +100,7 @@ public class DocumentNetworkProvider {
         if (Page.isValidPage(next)) {
             String[] paramsArray = new String[] { next.link };
             GetDocumentsTask getDocumentsTask = new GetDocumentsTask(callback, accessTokenProvider);
-            getDocumentsTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+            getDocumentsTask.executeOn(environment.getExecutor(), paramsArray);
             return getDocumentsTask;
         } else {
             callback.onDocumentsNotReceived(new NoMorePagesException());
@@ -107,7 +113,7 @@ public class DocumentNetworkProvider {
         if (Page.isValidPage(next)) {
             String[] paramsArray = new String[] { next.link };
             GetDeletedDocumentsTask getDocumentsTask = new GetDeletedDocumentsTask(callback);
-            getDocumentsTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+            getDocumentsTask.executeOn(environment.getExecutor(), paramsArray);
             return getDocumentsTask;
         } else {
             callback.onDeletedDocumentsNotReceived(new NoMorePagesException());
@@ -117,7 +123,7 @@ public class DocumentNetworkProvider {
 
     public void doGetDocument(String documentId, View view, GetDocumentCallback callback) {
         String[] paramsArray = new String[] { getGetDocumentUrl(documentId, view) };
-        new GetDocumentTask(callback).executeOnExecutor(environment.getExecutor(), paramsArray);
+        new GetDocumentTask(callback).executeOn(environment.getExecutor(), paramsArray);
     }
 
 	/**
@@ -126,7 +132,7 @@ public class DocumentNetworkProvider {
     public void doPostDocument(Document document, PostDocumentCallback callback) {
 		try {
 			String[] paramsArray = new String[] { DOCUMENTS_BASE_URL, JsonParser.jsonFromDocument(document) };
-			new PostDocumentTask(callback).executeOnExecutor(environment.getExecutor(), paramsArray);
+			new PostDocumentTask(callback).executeOn(environment.getExecutor(), paramsArray);
 		} catch (JSONException e) {
             callback.onDocumentNotPosted(new JsonParsingException(e.getMessage()));
         }
@@ -143,7 +149,7 @@ public class DocumentNetworkProvider {
         try {
             String[] paramsArray = new String[] { getPatchDocumentUrl(documentId), JsonParser.jsonFromDocument(document) };
             PatchDocumentTask patchDocumentTask = new PatchDocumentTask(callback, documentId, dateString);
-            patchDocumentTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+            patchDocumentTask.executeOn(environment.getExecutor(), paramsArray);
             return patchDocumentTask;
         } catch (JSONException e) {
             callback.onDocumentNotPatched(new JsonParsingException(e.getMessage()));
@@ -153,7 +159,7 @@ public class DocumentNetworkProvider {
 
     public void doPostTrashDocument(String documentId, TrashDocumentCallback callback) {
 		String[] paramsArray = new String[] { getTrashDocumentUrl(documentId) };
-		new PostTrashDocumentTask(callback, documentId).executeOnExecutor(environment.getExecutor(), paramsArray);
+		new PostTrashDocumentTask(callback, documentId).executeOn(environment.getExecutor(), paramsArray);
 	}
 
     /**
@@ -161,13 +167,13 @@ public class DocumentNetworkProvider {
      */
     public void doDeleteDocument(String documentId, DeleteDocumentCallback callback) {
         String[] paramsArray = new String[] { getDeleteDocumentUrl(documentId) };
-        new DeleteDocumentTask(documentId, callback).executeOnExecutor(environment.getExecutor(), paramsArray);
+        new DeleteDocumentTask(documentId, callback).executeOn(environment.getExecutor(), paramsArray);
     }
 
     public RequestHandle doGetDocumentTypes(GetDocumentTypesCallback callback) {
         String[] paramsArray = new String[] { DOCUMENT_TYPES_BASE_URL };
         GetDocumentTypesTask getDocumentTypesTask = new GetDocumentTypesTask(callback);
-        getDocumentTypesTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+        getDocumentTypesTask.executeOn(environment.getExecutor(), paramsArray);
         return getDocumentTypesTask;
     }
 
@@ -312,11 +318,21 @@ public class DocumentNetworkProvider {
             this.accessTokenProvider = accessTokenProvider;
         }
 
+        @Override
+        protected RequestPriority getDefaultPriority() {
+            return RequestPriority.BACKGROUND;
+        }
+
         @Override
         protected void processJsonString(String jsonString) throws JSONException {
             documents = JsonParser.parseDocumentList(jsonString);
         }
 
+        @Override
+        protected void processJsonStream(InputStream stream) throws IOException, JSONException {
+            documents = JsonStreamParser.parseDocumentList(stream);
+        }
+
         @Override
         protected String getContentType() {
             return "application/vnd.mendeley-document.1+json";
@@ -347,6 +363,11 @@ public class DocumentNetworkProvider {
             this.callback = callback;
         }
 
+        @Override
+        protected RequestPriority getDefaultPriority() {
+            return RequestPriority.BACKGROUND;
+        }
+
         @Override
         protected void processJsonString(String jsonString) throws JSONException {
             documentIds = JsonParser.parseDocumentIds(jsonString);
@@ -382,11 +403,30 @@ public class DocumentNetworkProvider {
             this.callback = callback;
         }
 
+        @Override
+        protected boolean isCacheable() {
+            return true;
+        }
+
         @Override
         protected void processJsonString(String jsonString) throws JSONException {
             document = JsonParser.parseDocument(jsonString);
         }
 
+        @Override
+        protected Object getResult() {
+            return document;
+        }
+
+        @Override
+        protected boolean setResult(Object result) {
+            if (!(result instanceof Document)) {
+                return false;
+            }
+            document = (Document) result;
+            return true;
+        }
+
         @Override
         protected String getContentType() {
             return "application/vnd.mendeley-document.1+json";
@@ -561,8 +601,32 @@ public class DocumentNetworkProvider {
             this.callback = callback;
         }
 
+        @Override
+        protected boolean isCacheable() {
+            return true;
+        }
+
         protected void processJsonString(String jsonString) throws JSONException {
             typesMap = JsonParser.parseDocumentTypes(jsonString);
+            final ReferenceDataCache cache = NetworkUtils.getReferenceDataCache();
+            if (cache != null) {
+                cache.put(ReferenceDataCache.Kind.DOCUMENT_TYPES, typesMap);
+            }
+        }
+
+        @Override
+        protected Object getResult() {
+            return typesMap;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected boolean setResult(Object result) {
+            if (!(result instanceof Map)) {
+                return false;
+            }
+            typesMap = (Map<String, String>) result;
+            return true;
         }
 
         protected String getContentType() {
@@ -596,6 +660,11 @@ public class DocumentNetworkProvider {
         protected DocumentList processJsonString(String jsonString) throws JSONException {
             return new DocumentList(JsonParser.parseDocumentList(jsonString), next, serverDate);
         }
+
+        @Override
+        protected DocumentList processJsonStream(InputStream stream) throws IOException, JSONException {
+            return new DocumentList(JsonStreamParser.parseDocumentList(stream), next, serverDate);
+        }
    }
 
     public static class GetDeletedDocumentsProcedure extends GetNetworkProcedure<DocumentIdList> {
@@ -614,6 +683,11 @@ public class DocumentNetworkProvider {
             super(url, "application/vnd.mendeley-document.1+json", authenticationManager);
         }
 
+        @Override
+        protected boolean isCacheable() {
+            return true;
+        }
+
         @Override
         protected Document processJsonString(String jsonString) throws JSONException {
             return JsonParser.parseDocument(jsonString);
@@ -625,6 +699,11 @@ public class DocumentNetworkProvider {
             super(url, "application/vnd.mendeley-document-type.1+json", authenticationManager);
         }
 
+        @Override
+        protected boolean isCacheable() {
+            return true;
+        }
+
         protected Map<String, String> processJsonString(String jsonString) throws JSONException {
             return JsonParser.parseDocumentTypes(jsonString);
         }
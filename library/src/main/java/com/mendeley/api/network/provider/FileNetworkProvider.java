@@ -6,6 +6,7 @@ import com.mendeley.api.callbacks.RequestHandle;
 import com.mendeley.api.callbacks.file.DeleteFileCallback;
 import com.mendeley.api.callbacks.file.FileList;
 import com.mendeley.api.callbacks.file.GetFileCallback;
+import com.mendeley.api.callbacks.file.GetFileContentCallback;
 import com.mendeley.api.callbacks.file.GetFilesCallback;
 import com.mendeley.api.callbacks.file.PostFileCallback;
 import com.mendeley.api.exceptions.FileDownloadException;
@@ -16,10 +17,17 @@ import com.mendeley.api.exceptions.NoMorePagesException;
 import com.mendeley.api.exceptions.UserCancelledException;
 import com.mendeley.api.model.Document;
 import com.mendeley.api.model.File;
+import com.mendeley.api.network.DownloadEngine;
 import com.mendeley.api.network.Environment;
+import com.mendeley.api.network.FileContentStore;
 import com.mendeley.api.network.JsonParser;
+import com.mendeley.api.network.JsonStreamParser;
 import com.mendeley.api.network.NetworkUtils;
 import com.mendeley.api.network.NullRequest;
+import com.mendeley.api.network.PartialDownload;
+import com.mendeley.api.network.ProgressThrottle;
+import com.mendeley.api.network.RequestScheduler;
+import com.mendeley.api.network.SegmentedDownload;
 import com.mendeley.api.network.procedure.GetNetworkProcedure;
 import com.mendeley.api.network.procedure.PostFileNetworkProcedure;
 import com.mendeley.api.network.procedure.PostNetworkProcedure;
@@ -28,6 +36,7 @@ import com.mendeley.api.network.task.GetNetworkTask;
 import com.mendeley.api.network.task.NetworkTask;
 import com.mendeley.api.params.FileRequestParameters;
 import com.mendeley.api.params.Page;
+import com.mendeley.api.params.RequestPriority;
 import com.mendeley.api.util.Utils;
 
 import org.json.JSONException;
@@ -35,14 +44,17 @@ import org.json.JSONException;
 import java.io.DataOutputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
 import java.net.URLEncoder;
-import java.util.HashMap;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 import static com.mendeley.api.network.NetworkUtils.API_URL;
 import static com.mendeley.api.network.NetworkUtils.getConnection;
@@ -54,7 +66,8 @@ import static com.mendeley.api.network.NetworkUtils.getJsonString;
  * NetworkProvider class for Files API calls
  */
 public class FileNetworkProvider {
-	private Map<String, NetworkTask> fileTaskMap = new HashMap<String, NetworkTask>();
+	// Downloads are started and cancelled from any thread, and end on the main thread
+	private final ConcurrentMap<String, NetworkTask> fileTaskMap = new ConcurrentHashMap<String, NetworkTask>();
 
 	private static String filesUrl = API_URL + "files";
 	private static final String TAG = FileNetworkProvider.class.getSimpleName();
@@ -77,7 +90,7 @@ public class FileNetworkProvider {
 		try {
             String[] paramsArray = new String[] { getGetFilesUrl(params) };
 			GetFilesTask getFilesTask = new GetFilesTask(callback);
-			getFilesTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+			getFilesTask.executeOn(environment.getExecutor(), paramsArray);
             return getFilesTask;
 		}
 		catch (UnsupportedEncodingException e) {
@@ -96,7 +109,7 @@ public class FileNetworkProvider {
         if (Page.isValidPage(next)) {
         	String[] paramsArray = new String[] { next.link };
             GetFilesTask getFilesTask = new GetFilesTask(callback);
-            getFilesTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+            getFilesTask.executeOn(environment.getExecutor(), paramsArray);
             return getFilesTask;
         } else {
             callback.onFilesNotReceived(new NoMorePagesException());
@@ -114,9 +127,57 @@ public class FileNetworkProvider {
 		final GetFileTask fileTask = new GetFileTask(folderPath, fileName, fileId, callback);
 		fileTaskMap.put(fileId, fileTask);
 		String[] params = new String[] { getGetFileUrl(fileId) };
-		fileTask.executeOnExecutor(environment.getExecutor(), params);
+		fileTask.executeOn(environment.getExecutor(), params);
 	}
 
+    /**
+     * Gets the content of a file from the {@link FileContentStore}, downloading it into the
+     * store only if no file with the same hash was downloaded before.
+     *
+     * @param file the file, with its hash
+     * @param callback
+     */
+    public void doGetFileContent(final File file, final GetFileContentCallback callback) {
+        final FileContentStore store = NetworkUtils.getFileContentStore();
+        if (store == null) {
+            callback.onFileContentNotReceived(file.id, new MendeleyException("No file content store set in NetworkUtils"));
+            return;
+        }
+        if (!FileContentStore.isValidHash(file.fileHash)) {
+            callback.onFileContentNotReceived(file.id, new MendeleyException("File " + file.id + " has no valid hash"));
+            return;
+        }
+        final java.io.File stored = store.open(file.fileHash);
+        if (stored != null) {
+            callback.onFileContentReceived(file.id, stored);
+            return;
+        }
+        final GetFileTask fileTask = new GetFileTask(store, file.fileHash, file.id, new GetFileCallback() {
+            @Override
+            public void onFileDownloadProgress(String fileId, int progress) {
+                callback.onFileContentProgress(fileId, progress);
+            }
+
+            @Override
+            public void onFileReceived(String fileId, String fileName) {
+                final java.io.File content = store.open(file.fileHash);
+                if (content != null) {
+                    callback.onFileContentReceived(fileId, content);
+                } else {
+                    callback.onFileContentNotReceived(fileId, new FileDownloadException("Content removed from the store", fileId));
+                }
+            }
+
+            @Override
+            public void onFileNotReceived(String fileId, MendeleyException mendeleyException) {
+                callback.onFileContentNotReceived(fileId, mendeleyException);
+            }
+        });
+        fileTaskMap.put(file.id, fileTask);
+        String[] params = new String[] { getGetFileUrl(file.id) };
+        fileTask.executeOn(environment.getExecutor(), params);
+    }
+
     /**
      *  Building the url string with the parameters and executes the PostFileTask
      *  @param contentType content type of the file
@@ -136,7 +197,7 @@ public class FileNetworkProvider {
             callback.onFileNotPosted(new MendeleyException("File " + filePath + " not found"));
             return;
         }
-        new PostFileTask(callback, inputStream).executeOnExecutor(environment.getExecutor(), paramsArray);
+        new PostFileTask(callback, inputStream).executeOn(environment.getExecutor(), paramsArray);
     }
 
     /**
@@ -148,7 +209,7 @@ public class FileNetworkProvider {
      */
     public void doPostFile(String contentType, String documentId, InputStream inputStream, String fileName, PostFileCallback callback) {
         String[] paramsArray = new String[] { contentType, documentId, fileName };
-        new PostFileTask(callback, inputStream).executeOnExecutor(environment.getExecutor(), paramsArray);
+        new PostFileTask(callback, inputStream).executeOn(environment.getExecutor(), paramsArray);
     }
 
     /**
@@ -159,7 +220,7 @@ public class FileNetworkProvider {
      */
     public void doDeleteFile(String fileId, DeleteFileCallback callback) {
 		String[] paramsArray = new String[]{ getDeleteFileUrl(fileId) };
-		new DeleteFileTask(callback, fileId).executeOnExecutor(environment.getExecutor(), paramsArray);
+		new DeleteFileTask(callback, fileId).executeOn(environment.getExecutor(), paramsArray);
 	}
 	
     /**
@@ -173,6 +234,18 @@ public class FileNetworkProvider {
         }
     }
 
+    /**
+     * @return the executor running the extra connections of segmented downloads, in the lane of
+     * the bulk transfers when the SDK runs its requests on a {@link RequestScheduler}
+     */
+    private Executor getSegmentExecutor() {
+        final Executor executor = environment.getExecutor();
+        if (executor instanceof RequestScheduler) {
+            return ((RequestScheduler) executor).getExecutor(RequestPriority.BULK, null);
+        }
+        return executor;
+    }
+
     /* URLS */
 
     /**
@@ -248,11 +321,21 @@ public class FileNetworkProvider {
             this.callback = callback;
         }
 
+        @Override
+        protected RequestPriority getDefaultPriority() {
+            return RequestPriority.BACKGROUND;
+        }
+
         @Override
         protected void processJsonString(String jsonString) throws JSONException {
             files = JsonParser.parseFileList(jsonString);
         }
 
+        @Override
+        protected void processJsonStream(InputStream stream) throws IOException, JSONException {
+            files = JsonStreamParser.parseFileList(stream);
+        }
+
         @Override
         protected String getContentType() {
             return "application/vnd.mendeley-file.1+json";
@@ -275,8 +358,12 @@ public class FileNetworkProvider {
 		}
     }
 
+	/**
+	 * Downloads a file, resuming from the bytes kept by a previous cancelled or failed attempt.
+	 *
+	 * @see PartialDownload
+	 */
 	private class GetFileTask extends NetworkTask {
-        private static final String PARTIALLY_DOWNLOADED_EXTENSION = ".part";
         private final GetFileCallback callback;
 
         private final String folderPath;
@@ -284,8 +371,8 @@ public class FileNetworkProvider {
 
         private final String fileId;
 
-        private String tempFilePath;
-        private String finalFilePath;
+        private final FileContentStore contentStore;
+        private final String fileHash;
 
         /**
          * @param fileName if null, use the name from the file itself.
@@ -295,6 +382,25 @@ public class FileNetworkProvider {
             this.fileName = fileName;
             this.fileId = fileId;
             this.callback = callback;
+            this.contentStore = null;
+            this.fileHash = null;
+        }
+
+        /**
+         * Downloads the file into the content store, verifying its hash.
+         */
+        private GetFileTask(FileContentStore contentStore, String fileHash, String fileId, GetFileCallback callback) {
+            this.folderPath = contentStore.getDirectory().getPath();
+            this.fileName = fileHash;
+            this.fileId = fileId;
+            this.callback = callback;
+            this.contentStore = contentStore;
+            this.fileHash = fileHash;
+        }
+
+        @Override
+        protected RequestPriority getDefaultPriority() {
+            return RequestPriority.BULK;
         }
 
         @Override
@@ -311,7 +417,7 @@ public class FileNetworkProvider {
 		protected MendeleyException doInBackground(String... params) {
 			String url = params[0];
 
-			FileOutputStream fileOutputStream = null;
+			FileChannel fileChannel = null;
 
 			try {
 				con = getConnection(url, "GET", getAccessTokenProvider());
@@ -322,62 +428,129 @@ public class FileNetworkProvider {
 
 				if (con.getResponseCode() != getExpectedResponse()) {
 					return new FileDownloadException("HTTP status error downloading file.", new HttpResponseException(url, con.getResponseCode(), "Server did NOT redirect to final file URL"), fileId);
-				} else {		
-					con.disconnect();
-					
+				}
+				is = NetworkUtils.openUnreadBody(con);
+				closeConnection();
+				final PartialDownload partial = PartialDownload.forFile(folderPath, fileId);
+				boolean resumed = false;
+				for (boolean rangeAllowed = true; ; rangeAllowed = false) {
 					con = getDownloadConnection(location, "GET");
+					if (rangeAllowed) {
+						partial.addRangeHeaders(con);
+					}
 					con.connect();
-					
-					int responseCode = con.getResponseCode();
-					
-					if (responseCode != 200) {
+					final int responseCode = con.getResponseCode();
+					if (rangeAllowed && partial.getOffset() > 0) {
+						resumed = partial.isResumedBy(con);
+						if (!resumed && (responseCode == 206 || responseCode == 416)) {
+							// The range does not match the partial content: start over
+							partial.discard();
+							closeConnection();
+							continue;
+						}
+					}
+					if (!resumed && responseCode != 200) {
 						return new FileDownloadException("HTTP status error downloading file.", new HttpResponseException(url, responseCode, getErrorMessage(con)), fileId);
-					} else {
-                        if (fileName == null) {
-                            String content = con.getHeaderFields().get("Content-Disposition").get(0);
-                            fileName = content.substring(content.indexOf("\"") + 1, content.lastIndexOf("\""));
-                        }
-						
-						finalFilePath = folderPath + java.io.File.separator + fileName;
-                        tempFilePath = finalFilePath + PARTIALLY_DOWNLOADED_EXTENSION;
-
-                        int fileLength = con.getContentLength();
-                        is = con.getInputStream();
-						fileOutputStream = new FileOutputStream(new java.io.File(tempFilePath));
-						
-						byte data[] = new byte[1024];
-			            long total = 0;
-			            int count;
-
-			            while (!isCancelled() && (count = is.read(data)) != -1) {
-			                total += count;
-			                if (fileLength > 0) 
-			                    publishProgress((int) (total * 100 / fileLength));
-			                fileOutputStream.write(data, 0, count);
-			            }
-					    fileOutputStream.close();
-
-                        if (isCancelled()) {
-                            return new UserCancelledException();
-                        }
-
-                        if (!renameFile()) {
-                            return new FileDownloadException("Cannot rename downloaded file", fileId);
-                        }
-
-						return null;
+					}
+					break;
+				}
+
+				final long offset = resumed ? partial.getOffset() : 0;
+				final long fileLength;
+				if (resumed) {
+					if (fileName == null) {
+						fileName = partial.getFileName();
+					}
+					final long remaining = DownloadEngine.getContentLength(con);
+					fileLength = partial.getTotalLength() > 0 ? partial.getTotalLength() : remaining >= 0 ? offset + remaining : -1;
+				} else {
+					if (fileName == null) {
+						fileName = getFileName(con);
+					}
+					fileLength = DownloadEngine.getContentLength(con);
+					partial.start(con, fileName, fileLength);
+				}
+				final String finalFilePath = folderPath + java.io.File.separator + fileName;
+				final ProgressThrottle progress = new ProgressThrottle(fileLength, new ProgressThrottle.Target() {
+					@Override
+					public void onProgress(int percent) {
+						publishProgress(percent);
+					}
+				});
+
+				// The hash is computed while the bytes are written in order, or else from the file
+				MessageDigest digest = null;
+				final int maxConnections = NetworkUtils.getMaxDownloadConnections();
+				if (maxConnections > 1 && fileLength > 0 && SegmentedDownload.isSupported(con, fileLength - offset)) {
+					// The missing bytes are fetched as concurrent ranges instead of this response
+					closeConnection();
+					final SegmentedDownload segmented = new SegmentedDownload(location, partial, offset, fileLength, maxConnections,
+							getSegmentExecutor());
+					final boolean completed = segmented.run(new SegmentedDownload.Listener() {
+						@Override
+						public boolean isCancelled() {
+							return GetFileTask.this.isCancelled();
+						}
+
+						@Override
+						public void onProgress(long downloaded) {
+							progress.update(downloaded);
+						}
+					});
+					if (!completed) {
+						// The contiguous part of the content is kept, the next download resumes from it
+						return new UserCancelledException();
+					}
+				} else {
+					is = con.getInputStream();
+					fileChannel = partial.openChannel(resumed);
+					if (contentStore != null && offset == 0) {
+						digest = FileContentStore.newDigest();
+					}
+
+					final long total = offset + DownloadEngine.copy(is, fileChannel, offset, -1, digest, new DownloadEngine.Listener() {
+						private long downloaded = offset;
+
+						@Override
+						public boolean isCancelled() {
+							return GetFileTask.this.isCancelled();
+						}
+
+						@Override
+						public void onBytesWritten(int count) {
+							downloaded += count;
+							progress.update(downloaded);
+						}
+					});
+					fileChannel.close();
+					fileChannel = null;
+
+					if (isCancelled()) {
+						// The partial content is kept, the next download resumes from it
+						return new UserCancelledException();
+					}
+					if (fileLength > 0 && total < fileLength) {
+						return new FileDownloadException("Connection closed after " + total + " of " + fileLength + " bytes", fileId);
 					}
 				}
+
+				if (contentStore != null) {
+					try {
+						contentStore.put(fileHash, partial.getPartFile(), digest != null ? digest.digest() : null);
+					} finally {
+						// The part file was moved into the store, or deleted if its hash did not match
+						partial.discard();
+					}
+				} else if (!partial.complete(new java.io.File(finalFilePath))) {
+					return new FileDownloadException("Cannot rename downloaded file", fileId);
+				}
+
+				return null;
 			}	catch (IOException e) {
 				return new FileDownloadException("Error reading file: " + e.getMessage(), e, fileId);
 			} finally {
 				closeConnection();
-				if (fileOutputStream != null) {
-					try {
-						fileOutputStream.close();
-					} catch (IOException ignored) {
-					}
-				}
+				Utils.closeQuietly(fileChannel);
 			}
 		} 
 		
@@ -388,33 +561,30 @@ public class FileNetworkProvider {
 	    
 	    @Override
 	    protected void onCancelled (MendeleyException result) {
-	    	fileTaskMap.remove(fileId);
-
-	    	if (tempFilePath != null) {
-		    	java.io.File file = new java.io.File(tempFilePath);
-		    	file.delete();
-	    	}
+	    	fileTaskMap.remove(fileId, this);
             super.onCancelled(result);
 	    }
 
         /**
-         * @return true if rename successful.
+         * @return the name given by the Content-Disposition header, or the file id if there is none.
          */
-        private boolean renameFile() {
-            java.io.File tempFile = new java.io.File(tempFilePath);
-            java.io.File finalFile = new java.io.File(finalFilePath);
-            return tempFile.renameTo(finalFile);
+        private String getFileName(HttpURLConnection con) {
+            final String content = con.getHeaderField("Content-Disposition");
+            if (content == null || content.indexOf("\"") == content.lastIndexOf("\"")) {
+                return fileId;
+            }
+            return content.substring(content.indexOf("\"") + 1, content.lastIndexOf("\""));
         }
 
 		@Override
 		protected void onSuccess() {
-            fileTaskMap.remove(fileId);
+            fileTaskMap.remove(fileId, this);
             callback.onFileReceived(fileId, fileName);
 		}
 
 		@Override
 		protected void onFailure(MendeleyException exception) {		
-			fileTaskMap.remove(fileId);
+			fileTaskMap.remove(fileId, this);
 			callback.onFileNotReceived(fileId, exception);
 		}
 	}
@@ -438,6 +608,11 @@ public class FileNetworkProvider {
             this.inputStream = inputStream;
         }
 
+        @Override
+        protected RequestPriority getDefaultPriority() {
+            return RequestPriority.BULK;
+        }
+
         @Override
         protected int getExpectedResponse() {
             return 201;
@@ -494,9 +669,8 @@ public class FileNetworkProvider {
                     return new HttpResponseException(filesUrl, responseCode, getErrorMessage(con));
                 } else {
 
-                    is = con.getInputStream();
+                    is = NetworkUtils.getInputStream(con);
                     String jsonString = getJsonString(is);
-                    is.close();
 
                     file = JsonParser.parseFile(jsonString);
 
@@ -568,6 +742,11 @@ public class FileNetworkProvider {
         protected FileList processJsonString(String jsonString) throws JSONException {
             return new FileList(JsonParser.parseFileList(jsonString), next, serverDate);
         }
+
+        @Override
+        protected FileList processJsonStream(InputStream stream) throws IOException, JSONException {
+            return new FileList(JsonStreamParser.parseFileList(stream), next, serverDate);
+        }
     }
 
     public static class PostFileProcedure extends PostFileNetworkProcedure<File> {
@@ -1,5 +1,7 @@
 package com.mendeley.api.network.provider;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 import org.json.JSONException;
@@ -24,6 +26,7 @@ import com.mendeley.api.model.DocumentId;
 import com.mendeley.api.model.Folder;
 import com.mendeley.api.network.Environment;
 import com.mendeley.api.network.JsonParser;
+import com.mendeley.api.network.JsonStreamParser;
 import com.mendeley.api.network.NullRequest;
 import com.mendeley.api.network.procedure.GetNetworkProcedure;
 import com.mendeley.api.network.procedure.PatchNetworkProcedure;
@@ -36,6 +39,7 @@ import com.mendeley.api.network.task.PostNetworkTask;
 import com.mendeley.api.network.task.PostNoResponseNetworkTask;
 import com.mendeley.api.params.FolderRequestParameters;
 import com.mendeley.api.params.Page;
+import com.mendeley.api.params.RequestPriority;
 
 import static com.mendeley.api.network.NetworkUtils.*;
 
@@ -59,7 +63,7 @@ public class FolderNetworkProvider {
     public RequestHandle doGetFolders(FolderRequestParameters params, GetFoldersCallback callback) {
 		String[] paramsArray = new String[] { getGetFoldersUrl(params) };
         GetFoldersTask getFoldersTask = new GetFoldersTask(callback);
-        getFoldersTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+        getFoldersTask.executeOn(environment.getExecutor(), paramsArray);
         return getFoldersTask;
 	}
 
@@ -70,7 +74,7 @@ public class FolderNetworkProvider {
         if (Page.isValidPage(next)) {
     		String[] paramsArray = new String[] { next.link };
             GetFoldersTask getFoldersTask = new GetFoldersTask(callback);
-            new GetFoldersTask(callback).executeOnExecutor(environment.getExecutor(), paramsArray);
+            new GetFoldersTask(callback).executeOn(environment.getExecutor(), paramsArray);
             return getFoldersTask;
         } else {
             callback.onFoldersNotReceived(new NoMorePagesException());
@@ -83,7 +87,7 @@ public class FolderNetworkProvider {
 	 */
     public void doGetFolder(String folderId, GetFolderCallback callback) {
 		String[] paramsArray = new String[] { getGetFolderUrl(folderId) };
-		new GetFolderTask(callback).executeOnExecutor(environment.getExecutor(), paramsArray);
+		new GetFolderTask(callback).executeOn(environment.getExecutor(), paramsArray);
 	}
 
 	/**
@@ -91,7 +95,7 @@ public class FolderNetworkProvider {
 	 */
     public void doGetFolderDocumentIds(FolderRequestParameters params, String folderId, GetFolderDocumentIdsCallback callback) {
 		String[] paramsArray = new String[] { getGetFoldersUrl(params, getGetFolderDocumentIdsUrl(folderId)) };
-		new GetFolderDocumentIdsTask(callback, folderId).executeOnExecutor(environment.getExecutor(), paramsArray);
+		new GetFolderDocumentIdsTask(callback, folderId).executeOn(environment.getExecutor(), paramsArray);
 	}
 
     /**
@@ -100,7 +104,7 @@ public class FolderNetworkProvider {
     public void doGetFolderDocumentIds(Page next, String folderId, GetFolderDocumentIdsCallback callback) {
         if (Page.isValidPage(next)) {
     		String[] paramsArray = new String[] { next.link };
-            new GetFolderDocumentIdsTask(callback, folderId).executeOnExecutor(environment.getExecutor(), paramsArray);
+            new GetFolderDocumentIdsTask(callback, folderId).executeOn(environment.getExecutor(), paramsArray);
         } else {
             callback.onFolderDocumentIdsNotReceived(new NoMorePagesException());
         }
@@ -112,7 +116,7 @@ public class FolderNetworkProvider {
     public void doPostFolder(Folder folder, PostFolderCallback callback) {
 		try {
     		String[] paramsArray = new String[] {FOLDERS_URL, JsonParser.jsonFromFolder(folder) };
-			new PostFolderTask(callback).executeOnExecutor(environment.getExecutor(), paramsArray);
+			new PostFolderTask(callback).executeOn(environment.getExecutor(), paramsArray);
 		} catch (JSONException e) {
             callback.onFolderNotPosted(new JsonParsingException(e.getMessage()));
         }
@@ -128,7 +132,7 @@ public class FolderNetworkProvider {
             folderString  = JsonParser.jsonFromFolder(folder);
             String[] paramsArray = new String[] { getPatchFolderUrl(folderId), folderString };
             PatchFolderTask patchFolderTask = new PatchFolderTask(callback, folderId);
-            patchFolderTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+            patchFolderTask.executeOn(environment.getExecutor(), paramsArray);
             return patchFolderTask;
         } catch (JSONException e) {
             callback.onFolderNotPatched(new JsonParsingException(e.getMessage()));
@@ -141,7 +145,7 @@ public class FolderNetworkProvider {
      */
     public void doDeleteFolder(String folderId, DeleteFolderCallback callback) {
         String[] paramsArray = new String[] { getDeleteFolderUrl(folderId) };
-        new DeleteFolderTask(folderId, callback).executeOnExecutor(environment.getExecutor(), paramsArray);
+        new DeleteFolderTask(folderId, callback).executeOn(environment.getExecutor(), paramsArray);
     }
 
     /**
@@ -158,7 +162,7 @@ public class FolderNetworkProvider {
             }
         }
         String[] paramsArray = new String[] { getPostDocumentToFolderUrl(folderId), documentString };
-        new PostDocumentToFolderTask(callback, folderId).executeOnExecutor(environment.getExecutor(), paramsArray);
+        new PostDocumentToFolderTask(callback, folderId).executeOn(environment.getExecutor(), paramsArray);
     }
 
     /**
@@ -167,7 +171,7 @@ public class FolderNetworkProvider {
      */
     public void doDeleteDocumentFromFolder(String folderId, String documentId, DeleteFolderDocumentCallback callback) {
         String[] paramsArray = new String[] { getDeleteDocumentFromFolderUrl(folderId, documentId) };
-        new DeleteDocumentFromFolderTask(documentId, callback).executeOnExecutor(environment.getExecutor(), paramsArray);
+        new DeleteDocumentFromFolderTask(documentId, callback).executeOn(environment.getExecutor(), paramsArray);
     }
 
     /* URLS */
@@ -273,11 +277,21 @@ public class FolderNetworkProvider {
             this.callback = callback;
         }
 
+        @Override
+        protected RequestPriority getDefaultPriority() {
+            return RequestPriority.BACKGROUND;
+        }
+
         @Override
         protected void processJsonString(String jsonString) throws JSONException {
             folders = JsonParser.parseFolderList(jsonString);
         }
 
+        @Override
+        protected void processJsonStream(InputStream stream) throws IOException, JSONException {
+            folders = JsonStreamParser.parseFolderList(stream);
+        }
+
         @Override
         protected String getContentType() {
             return "application/vnd.mendeley-folder.1+json";
@@ -308,11 +322,30 @@ public class FolderNetworkProvider {
             this.callback = callback;
         }
 
+        @Override
+        protected boolean isCacheable() {
+            return true;
+        }
+
         @Override
         protected void processJsonString(String jsonString) throws JSONException {
             folder = JsonParser.parseFolder(jsonString);
         }
 
+        @Override
+        protected Object getResult() {
+            return folder;
+        }
+
+        @Override
+        protected boolean setResult(Object result) {
+            if (!(result instanceof Folder)) {
+                return false;
+            }
+            folder = (Folder) result;
+            return true;
+        }
+
         @Override
         protected String getContentType() {
             return "application/vnd.mendeley-folder.1+json";
@@ -505,6 +538,11 @@ public class FolderNetworkProvider {
             this.folderId = folderId;
         }
 
+        @Override
+        protected RequestPriority getDefaultPriority() {
+            return RequestPriority.BACKGROUND;
+        }
+
         @Override
         protected AccessTokenProvider getAccessTokenProvider() {
             return accessTokenProvider;
@@ -542,6 +580,11 @@ public class FolderNetworkProvider {
         protected FolderList processJsonString(String jsonString) throws JSONException {
             return new FolderList(JsonParser.parseFolderList(jsonString), next);
         }
+
+        @Override
+        protected FolderList processJsonStream(InputStream stream) throws IOException, JSONException {
+            return new FolderList(JsonStreamParser.parseFolderList(stream), next);
+        }
     }
 
     public static class GetFolderProcedure extends GetNetworkProcedure<Folder> {
@@ -549,6 +592,11 @@ public class FolderNetworkProvider {
             super(url, "application/vnd.mendeley-folder.1+json", authenticationManager);
         }
 
+        @Override
+        protected boolean isCacheable() {
+            return true;
+        }
+
         @Override
         protected Folder processJsonString(String jsonString) throws JSONException {
             return JsonParser.parseFolder(jsonString);
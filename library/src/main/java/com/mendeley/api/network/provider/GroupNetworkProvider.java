@@ -14,14 +14,18 @@ import com.mendeley.api.model.Group;
 import com.mendeley.api.model.UserRole;
 import com.mendeley.api.network.Environment;
 import com.mendeley.api.network.JsonParser;
+import com.mendeley.api.network.JsonStreamParser;
 import com.mendeley.api.network.NullRequest;
 import com.mendeley.api.network.procedure.GetNetworkProcedure;
 import com.mendeley.api.network.task.GetNetworkTask;
 import com.mendeley.api.params.GroupRequestParameters;
 import com.mendeley.api.params.Page;
+import com.mendeley.api.params.RequestPriority;
 
 import org.json.JSONException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 import static com.mendeley.api.network.NetworkUtils.API_URL;
@@ -49,7 +53,7 @@ public class GroupNetworkProvider {
     public RequestHandle doGetGroups(GroupRequestParameters params, GetGroupsCallback callback) {
         String[] paramsArray = new String[] { getGetGroupsUrl(params) };
         GetGroupsTask getGroupsTask = new GetGroupsTask(callback);
-        getGroupsTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+        getGroupsTask.executeOn(environment.getExecutor(), paramsArray);
         return getGroupsTask;
     }
 
@@ -60,7 +64,7 @@ public class GroupNetworkProvider {
         if (Page.isValidPage(next)) {
             String[] paramsArray = new String[]{next.link};
             GetGroupsTask getGroupsTask = new GetGroupsTask(callback);
-            new GetGroupsTask(callback).executeOnExecutor(environment.getExecutor(), paramsArray);
+            new GetGroupsTask(callback).executeOn(environment.getExecutor(), paramsArray);
             return getGroupsTask;
         } else {
             callback.onGroupsNotReceived(new NoMorePagesException());
@@ -73,7 +77,7 @@ public class GroupNetworkProvider {
      */
     public void doGetGroup(String groupId, GetGroupCallback callback) {
         String[] paramsArray = new String[] { getGetGroupUrl(groupId) };
-        new GetGroupTask(callback).executeOnExecutor(environment.getExecutor(), paramsArray);
+        new GetGroupTask(callback).executeOn(environment.getExecutor(), paramsArray);
     }
 
     /**
@@ -81,7 +85,7 @@ public class GroupNetworkProvider {
      */
     public void doGetGroupMembers(GroupRequestParameters params, String groupId, GetGroupMembersCallback callback) {
         String[] paramsArray = new String[] { getGetGroupsUrl(params, getGetGroupMembersUrl(groupId)) };
-        new GetGroupMembersTask(callback, groupId).executeOnExecutor(environment.getExecutor(), paramsArray);
+        new GetGroupMembersTask(callback, groupId).executeOn(environment.getExecutor(), paramsArray);
     }
 
     /**
@@ -90,7 +94,7 @@ public class GroupNetworkProvider {
     public void doGetGroupMembers(Page next, String groupId, GetGroupMembersCallback callback) {
         if (Page.isValidPage(next)) {
             String[] paramsArray = new String[] { next.link };
-            new GetGroupMembersTask(callback, groupId).executeOnExecutor(environment.getExecutor(), paramsArray);
+            new GetGroupMembersTask(callback, groupId).executeOn(environment.getExecutor(), paramsArray);
         } else {
             callback.onGroupMembersNotReceived(new NoMorePagesException());
         }
@@ -154,11 +158,21 @@ public class GroupNetworkProvider {
             this.callback = callback;
         }
 
+        @Override
+        protected RequestPriority getDefaultPriority() {
+            return RequestPriority.BACKGROUND;
+        }
+
         @Override
         protected void processJsonString(String jsonString) throws JSONException {
             groups = JsonParser.parseGroupList(jsonString);
         }
 
+        @Override
+        protected void processJsonStream(InputStream stream) throws IOException, JSONException {
+            groups = JsonStreamParser.parseGroupList(stream);
+        }
+
         @Override
         protected String getContentType() {
             return "application/vnd.mendeley-group.1+json";
@@ -189,11 +203,30 @@ public class GroupNetworkProvider {
             this.callback = callback;
         }
 
+        @Override
+        protected boolean isCacheable() {
+            return true;
+        }
+
         @Override
         protected void processJsonString(String jsonString) throws JSONException {
             group = JsonParser.parseGroup(jsonString);
         }
 
+        @Override
+        protected Object getResult() {
+            return group;
+        }
+
+        @Override
+        protected boolean setResult(Object result) {
+            if (!(result instanceof Group)) {
+                return false;
+            }
+            group = (Group) result;
+            return true;
+        }
+
         @Override
         protected String getContentType() {
             return "application/vnd.mendeley-group.1+json";
@@ -226,11 +259,21 @@ public class GroupNetworkProvider {
             this.groupId = groupId;
         }
 
+        @Override
+        protected RequestPriority getDefaultPriority() {
+            return RequestPriority.BACKGROUND;
+        }
+
         @Override
         protected void processJsonString(String jsonString) throws JSONException {
             userRoles = JsonParser.parseUserRoleList(jsonString);
         }
 
+        @Override
+        protected void processJsonStream(InputStream stream) throws IOException, JSONException {
+            userRoles = JsonStreamParser.parseUserRoleList(stream);
+        }
+
         @Override
         protected String getContentType() {
             return "application/vnd.mendeley-membership.1+json";
@@ -263,6 +306,11 @@ public class GroupNetworkProvider {
         protected GroupList processJsonString(String jsonString) throws JSONException {
             return new GroupList(JsonParser.parseGroupList(jsonString), next);
         }
+
+        @Override
+        protected GroupList processJsonStream(InputStream stream) throws IOException, JSONException {
+            return new GroupList(JsonStreamParser.parseGroupList(stream), next);
+        }
     }
 
     public static class GetGroupProcedure extends GetNetworkProcedure<Group> {
@@ -270,6 +318,11 @@ public class GroupNetworkProvider {
             super(url, "application/vnd.mendeley-group.1+json", authenticationManager);
         }
 
+        @Override
+        protected boolean isCacheable() {
+            return true;
+        }
+
         @Override
         protected Group processJsonString(String jsonString) throws JSONException {
             return JsonParser.parseGroup(jsonString);
@@ -285,5 +338,10 @@ public class GroupNetworkProvider {
         protected GroupMembersList processJsonString(String jsonString) throws JSONException {
             return new GroupMembersList(JsonParser.parseUserRoleList(jsonString), next);
         }
+
+        @Override
+        protected GroupMembersList processJsonStream(InputStream stream) throws IOException, JSONException {
+            return new GroupMembersList(JsonStreamParser.parseUserRoleList(stream), next);
+        }
     }
 }
@@ -33,7 +33,7 @@ public class ProfileNetworkProvider {
     public void doGetMyProfile(GetProfileCallback callback) {
 		String[] paramsArray = new String[] { PROFILES_URL + "me" };
         GetProfileTask task = new GetProfileTask(callback);
-		task.executeOnExecutor(environment.getExecutor(), paramsArray);
+		task.executeOn(environment.getExecutor(), paramsArray);
 	}
 	
 	/**
@@ -42,7 +42,7 @@ public class ProfileNetworkProvider {
     public void doGetProfile(String profileId, GetProfileCallback callback) {
 		String[] paramsArray = new String[] { PROFILES_URL + profileId };
         GetProfileTask task = new GetProfileTask(callback);
-		task.executeOnExecutor(environment.getExecutor(), paramsArray);
+		task.executeOn(environment.getExecutor(), paramsArray);
 	}
 
     /* TASKS */
@@ -57,11 +57,30 @@ public class ProfileNetworkProvider {
             this.callback = callback;
         }
 
+        @Override
+        protected boolean isCacheable() {
+            return true;
+        }
+
         @Override
         protected void processJsonString(String jsonString) throws JSONException {
             profile = JsonParser.parseProfile(jsonString);
         }
 
+        @Override
+        protected Object getResult() {
+            return profile;
+        }
+
+        @Override
+        protected boolean setResult(Object result) {
+            if (!(result instanceof Profile)) {
+                return false;
+            }
+            profile = (Profile) result;
+            return true;
+        }
+
         @Override
         protected String getContentType() {
             return "application/vnd.mendeley-profiles.1+json";
@@ -90,6 +109,11 @@ public class ProfileNetworkProvider {
             super(url, "application/vnd.mendeley-profiles.1+json", authenticationManager);
         }
 
+        @Override
+        protected boolean isCacheable() {
+            return true;
+        }
+
         @Override
         protected Profile processJsonString(String jsonString) throws JSONException {
             return JsonParser.parseProfile(jsonString);
@@ -36,7 +36,7 @@ public class TrashNetworkProvider {
         try {
             String[] paramsArray = new String[] { getTrashDocumentsUrl(params, null) };
             GetDocumentsTask getDocumentsTask = new GetDocumentsTask(callback, accessTokenProvider);
-            getDocumentsTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+            getDocumentsTask.executeOn(environment.getExecutor(), paramsArray);
             return getDocumentsTask;
         }
         catch (UnsupportedEncodingException e) {
@@ -49,7 +49,7 @@ public class TrashNetworkProvider {
         if (Page.isValidPage(next)) {
             String[] paramsArray = new String[] { next.link };
             GetDocumentsTask getDocumentsTask = new GetDocumentsTask(callback, accessTokenProvider);
-            getDocumentsTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+            getDocumentsTask.executeOn(environment.getExecutor(), paramsArray);
             return getDocumentsTask;
         } else {
             callback.onDocumentsNotReceived(new NoMorePagesException());
@@ -60,7 +60,7 @@ public class TrashNetworkProvider {
     public void doPostRecoverDocument(String documentId, RestoreDocumentCallback callback) {
         String[] paramsArray = new String[] { getRecoverUrl(documentId), documentId };
         PostRecoverDocumentTask postRecoverDocumentTask = new PostRecoverDocumentTask(callback, documentId);
-        postRecoverDocumentTask.executeOnExecutor(environment.getExecutor(), paramsArray);
+        postRecoverDocumentTask.executeOn(environment.getExecutor(), paramsArray);
     }
 
     /* URLS */
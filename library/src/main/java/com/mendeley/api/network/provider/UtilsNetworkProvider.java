@@ -1,11 +1,10 @@
 package com.mendeley.api.network.provider;
 
-import android.util.Log;
-
 import com.mendeley.api.auth.AccessTokenProvider;
 import com.mendeley.api.callbacks.utils.GetImageCallback;
 import com.mendeley.api.exceptions.MendeleyException;
 import com.mendeley.api.network.Environment;
+import com.mendeley.api.network.ImageCache;
 import com.mendeley.api.network.NetworkUtils;
 import com.mendeley.api.network.task.NetworkTask;
 
@@ -15,6 +14,7 @@ import java.io.InputStream;
 import java.net.HttpURLConnection;
 
 public class UtilsNetworkProvider {
+    private static final int BUFFER_SIZE = 8192;
 
     private final Environment environment;
     private final AccessTokenProvider accessTokenProvider;
@@ -25,9 +25,15 @@ public class UtilsNetworkProvider {
     }
 
     public void doGetImage(final String url, GetImageCallback callback) {
+        final ImageCache imageCache = NetworkUtils.getImageCache();
+        final byte[] cached = imageCache != null ? imageCache.getFromMemory(url) : null;
+        if (cached != null) {
+            callback.onImageReceived(cached);
+            return;
+        }
         final GetImageTask imageTask = new GetImageTask(callback);
         String[] params = new String[] {url};
-        imageTask.executeOnExecutor(environment.getExecutor(), params);
+        imageTask.executeOn(environment.getExecutor(), params);
     }
 
     private class GetImageTask extends NetworkTask {
@@ -79,10 +85,24 @@ public class UtilsNetworkProvider {
         }
     }
 
+    /**
+     * Returns the image at the given url, through the shared {@link ImageCache} if there is one.
+     */
     public byte[] getImage(String url) throws MendeleyException {
-        ByteArrayOutputStream os = null;
+        final ImageCache imageCache = NetworkUtils.getImageCache();
+        if (imageCache == null) {
+            return downloadImage(url);
+        }
+        return imageCache.get(url, new ImageCache.Downloader() {
+            @Override
+            public byte[] download(String url) throws MendeleyException {
+                return downloadImage(url);
+            }
+        });
+    }
+
+    private static byte[] downloadImage(String url) throws MendeleyException {
         InputStream is = null;
-        byte[] fileData;
         HttpURLConnection con = null;
 
         try {
@@ -93,35 +113,22 @@ public class UtilsNetworkProvider {
             if (responseCode != 200) {
                 throw new MendeleyException(con.getResponseMessage());
             } else {
-
                 is = con.getInputStream();
-                os = new ByteArrayOutputStream();
+                final int contentLength = con.getContentLength();
+                final ByteArrayOutputStream os = new ByteArrayOutputStream(contentLength > 0 ? contentLength : BUFFER_SIZE);
 
-                byte data[] = new byte[256];
+                final byte[] data = new byte[BUFFER_SIZE];
                 int count;
                 while ((count = is.read(data)) != -1) {
                     os.write(data, 0, count);
                 }
 
-                fileData = os.toByteArray();
-
-                return fileData;
+                return os.toByteArray();
             }
         } catch (IOException e) {
             throw new MendeleyException("Error downloading image: " + url, e);
         } finally {
-            if (con != null) {
-                con.disconnect();
-            }
-            if (os != null) {
-                try {
-                    os.close();
-                    if (is != null) {
-                        is.close();
-                    }
-                } catch (IOException ignored) {
-                }
-            }
+            NetworkUtils.getHttpTransport().releaseConnection(con, is);
         }
     }
 }
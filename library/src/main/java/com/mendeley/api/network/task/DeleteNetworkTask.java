@@ -1,6 +1,5 @@
 package com.mendeley.api.network.task;
 
-import com.mendeley.api.exceptions.HttpResponseException;
 import com.mendeley.api.exceptions.JsonParsingException;
 import com.mendeley.api.exceptions.MendeleyException;
 import com.mendeley.api.network.NetworkUtils;
@@ -8,7 +7,6 @@ import com.mendeley.api.network.NetworkUtils;
 import java.io.IOException;
 
 import static com.mendeley.api.network.NetworkUtils.getConnection;
-import static com.mendeley.api.network.NetworkUtils.getErrorMessage;
 
 /**
  * A NetworkTask specialised for making HTTP DELETE requests.
@@ -20,7 +18,21 @@ public abstract class DeleteNetworkTask extends NetworkTask {
     }
 
     @Override
-    protected MendeleyException doInBackground(String... params) {
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    protected MendeleyException doInBackground(final String... params) {
+        return runWithRetries(new RetryableRequest() {
+            @Override
+            public MendeleyException execute() {
+                return executeRequest(params);
+            }
+        });
+    }
+
+    private MendeleyException executeRequest(String... params) {
         String url = params[0];
 
         try {
@@ -31,12 +43,13 @@ public abstract class DeleteNetworkTask extends NetworkTask {
 
             final int responseCode = con.getResponseCode();
             if (responseCode != getExpectedResponse()) {
-                return new HttpResponseException(url, responseCode, NetworkUtils.getErrorMessage(con));
+                return createHttpResponseException(url, responseCode);
             } else {
+                is = NetworkUtils.openUnreadBody(con);
                 return null;
             }
         }	catch (IOException e) {
-            return new JsonParsingException(e.getMessage());
+            return new JsonParsingException(e.getMessage(), e);
         } finally {
             closeConnection();
         }
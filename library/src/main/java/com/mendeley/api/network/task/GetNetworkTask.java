@@ -1,26 +1,26 @@
 package com.mendeley.api.network.task;
 
-import android.util.Log;
-
-import com.mendeley.api.exceptions.HttpResponseException;
 import com.mendeley.api.exceptions.JsonParsingException;
 import com.mendeley.api.exceptions.MendeleyException;
 import com.mendeley.api.exceptions.UserCancelledException;
-import com.mendeley.api.impl.BaseMendeleySdk;
+import com.mendeley.api.network.InFlightRequests;
+import com.mendeley.api.network.NetworkUtils;
+import com.mendeley.api.network.ResponseCache;
 
 import org.json.JSONException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
 
 import static com.mendeley.api.network.NetworkUtils.getConnection;
-import static com.mendeley.api.network.NetworkUtils.getErrorMessage;
 import static com.mendeley.api.network.NetworkUtils.getJsonString;
 
 /**
  * A NetworkTask specialised for making HTTP GET requests.
  */
 public abstract class GetNetworkTask extends NetworkTask {
-    private static final String TAG = BaseMendeleySdk.TAG;
+    private String responseBody;
 
     @Override
     protected int getExpectedResponse() {
@@ -28,47 +28,141 @@ public abstract class GetNetworkTask extends NetworkTask {
     }
 
     @Override
-    protected MendeleyException doInBackground(String... params) {
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    protected MendeleyException doInBackground(final String... params) {
+        return runWithRetries(new RetryableRequest() {
+            @Override
+            public MendeleyException execute() {
+                try {
+                    executeRequest(params[0]);
+                    return null;
+                } catch (MendeleyException me) {
+                    return me;
+                }
+            }
+        });
+    }
+
+    /**
+     * @return true if the response is stored in the shared {@link ResponseCache}, and revalidated
+     * instead of being downloaded again. Only suitable for responses without paging links.
+     */
+    protected boolean isCacheable() {
+        return false;
+    }
+
+    /**
+     * @return the model read by {@link #processJsonString}, so that it can be shared with
+     * identical requests running at the same time, or null if the task does not share it.
+     */
+    protected Object getResult() {
+        return null;
+    }
+
+    /**
+     * Uses the model read by an identical request instead of parsing the response again.
+     *
+     * @return false if the model is not of the type read by this task
+     */
+    protected boolean setResult(Object result) {
+        return false;
+    }
+
+    private void executeRequest(final String url) throws MendeleyException {
+        final InFlightRequests inFlightRequests = isCacheable() ? NetworkUtils.getInFlightRequests() : null;
+        if (inFlightRequests == null) {
+            fetch(url, null);
+            return;
+        }
+
+        final InFlightRequests.Flight flight = inFlightRequests.join("GET", url, getContentType());
+        if (!flight.isLeader()) {
+            final InFlightRequests.Response response = flight.await();
+            if (response.model == null || !setResult(response.model)) {
+                try {
+                    processJsonString(response.body);
+                } catch (JSONException e) {
+                    throw new JsonParsingException("Pasing error in GET request " + url + ": " + e.toString() + ". Response was: " + response.body, e);
+                }
+            }
+            return;
+        }
         try {
-            executeRequest(params[0], 0);
-            return null;
-        } catch (MendeleyException me) {
-            return me;
+            fetch(url, flight);
+            flight.complete(responseBody, getResult());
+        } catch (MendeleyException e) {
+            flight.fail(e);
+            throw e;
+        } catch (RuntimeException e) {
+            flight.fail(new MendeleyException("Error in GET request " + url + ": " + e.toString(), e));
+            throw e;
         }
     }
 
-    private void executeRequest(final String url, final int currentRetry) throws MendeleyException {
-        String responseBody = null;
+    /**
+     * @param flight the requests sharing this one, or null if it is not shared
+     */
+    private void fetch(final String url, InFlightRequests.Flight flight) throws MendeleyException {
+        responseBody = null;
+        final ResponseCache cache = isCacheable() ? NetworkUtils.getResponseCache() : null;
+        final String contentType = getContentType();
         try {
+            final ResponseCache.Entry cached = cache != null ? cache.get(url, contentType) : null;
+            if (cached != null && cache.isFresh(cached)) {
+                cache.recordHit();
+                fromCache(cached);
+                return;
+            }
+            if (cached != null && cache.isStaleWhileRevalidate(cached)) {
+                cache.recordHit();
+                cache.revalidateInBackground(url, contentType, getAccessTokenProvider());
+                fromCache(cached);
+                return;
+            }
+
             con = getConnection(url, "GET", getAccessTokenProvider());
-            con.addRequestProperty("Content-type", getContentType());
+            con.addRequestProperty("Content-type", contentType);
+            if (cached != null) {
+                cache.addConditionalHeaders(con, cached);
+            }
             con.connect();
 
             getResponseHeaders();
 
             final int responseCode = con.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                is = con.getInputStream();
+                cache.refresh(cached);
+                fromCache(cached);
+                return;
+            }
             if (responseCode != getExpectedResponse()) {
-                throw  new HttpResponseException(url, responseCode, getErrorMessage(con));
+                throw createHttpResponseException(url, responseCode);
             }
 
-            if (isCancelled()) {
+            // A shared request carries on while other requests still wait for it
+            if (isCancelled() && (flight == null || flight.release())) {
                 throw new UserCancelledException();
             }
 
-            is = con.getInputStream();
-            responseBody = getJsonString(is);
-            processJsonString(responseBody);
+            is = NetworkUtils.getInputStream(con);
+            if (cache != null) {
+                responseBody = getJsonString(is);
+                processJsonString(responseBody);
+                cache.put(url, contentType, con, responseBody, null);
+                cache.recordMiss();
+                return;
+            }
+            processJsonStream(is);
         } catch (MendeleyException me) {
             throw me;
         } catch (IOException ioe) {
-            // If the issue is due to IOException, retry up to MAX_HTTP_RETRIES times
-            // TODO: move this logic to the blocking version and delegate into it
-            if (currentRetry <  BaseMendeleySdk.MAX_HTTP_RETRIES) {
-                Log.w(TAG, "Problem connecting to " + url + ": " + ioe.getMessage() + ". Retrying (" + (currentRetry + 1) + "/" + BaseMendeleySdk.MAX_HTTP_RETRIES + ")");
-                executeRequest(url, currentRetry + 1);
-            } else {
-                throw new MendeleyException("IO error in GET request " + url + ": " + ioe.toString(), ioe);
-            }
+            // Retried by runWithRetries(), according to the RetryPolicy
+            throw new MendeleyException("IO error in GET request " + url + ": " + ioe.toString(), ioe);
         } catch (JSONException e) {
             throw new JsonParsingException("Pasing error in GET request " + url + ": " + e.toString() + ". Response was: " + responseBody, e);
         } catch (Exception e) {
@@ -78,6 +172,21 @@ public abstract class GetNetworkTask extends NetworkTask {
         }
     }
 
+    /**
+     * Reads the result from the response body. By default the body is read into a String,
+     * which is passed to {@link #processJsonString}; tasks returning large lists override
+     * this to parse the stream directly.
+     */
+    protected void processJsonStream(InputStream stream) throws IOException, JSONException {
+        responseBody = getJsonString(stream);
+        processJsonString(responseBody);
+    }
+
+    private void fromCache(ResponseCache.Entry entry) throws JSONException {
+        responseBody = entry.getBody();
+        processJsonString(responseBody);
+    }
+
     protected abstract void processJsonString(String jsonString) throws JSONException;
 
     protected abstract String getContentType();
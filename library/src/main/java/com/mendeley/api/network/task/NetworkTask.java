@@ -1,12 +1,20 @@
 package com.mendeley.api.network.task;
 
 import android.os.AsyncTask;
+import android.util.Log;
 
 import com.mendeley.api.auth.AccessTokenProvider;
-import com.mendeley.api.callbacks.RequestHandle;
+import com.mendeley.api.callbacks.PrioritizedRequestHandle;
+import com.mendeley.api.exceptions.HttpResponseException;
 import com.mendeley.api.exceptions.MendeleyException;
 import com.mendeley.api.exceptions.UserCancelledException;
+import com.mendeley.api.impl.BaseMendeleySdk;
+import com.mendeley.api.network.HttpTransport;
+import com.mendeley.api.network.NetworkUtils;
+import com.mendeley.api.network.RequestScheduler;
+import com.mendeley.api.network.RetryPolicy;
 import com.mendeley.api.params.Page;
+import com.mendeley.api.params.RequestPriority;
 import com.mendeley.api.util.Utils;
 
 import java.io.IOException;
@@ -17,23 +25,130 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.net.ssl.HttpsURLConnection;
 
 public abstract class NetworkTask extends AsyncTask<String, Integer, MendeleyException>
-            implements RequestHandle {
+            implements PrioritizedRequestHandle {
+    private static final String TAG = BaseMendeleySdk.TAG;
+
     protected Page next;
     protected String location;
     protected Date serverDate;
+    protected long retryAfterMillis = -1;
 
     protected InputStream is = null;
     protected OutputStream os = null;
     protected HttpsURLConnection con = null;
 
+    private RequestPriority priority = getDefaultPriority();
+    private RequestScheduler scheduler;
+
     protected abstract int getExpectedResponse();
 
     protected abstract AccessTokenProvider getAccessTokenProvider();
 
+    /**
+     * @return the scheduling lane of this kind of task, unless changed with {@link #setPriority}.
+     */
+    protected RequestPriority getDefaultPriority() {
+        return RequestPriority.INTERACTIVE;
+    }
+
+    public synchronized RequestPriority getPriority() {
+        return priority;
+    }
+
+    @Override
+    public void setPriority(RequestPriority priority) {
+        final RequestScheduler currentScheduler;
+        synchronized (this) {
+            this.priority = priority;
+            currentScheduler = scheduler;
+        }
+        if (currentScheduler != null) {
+            currentScheduler.setPriority(this, priority);
+        }
+    }
+
+    /**
+     * Executes the task on the given executor. If it is a {@link RequestScheduler}, the task is
+     * queued in the lane of its priority, and can be moved to another lane until it starts.
+     */
+    public NetworkTask executeOn(Executor executor, String... params) {
+        if (executor instanceof RequestScheduler) {
+            final RequestPriority lane;
+            synchronized (this) {
+                scheduler = (RequestScheduler) executor;
+                lane = priority;
+            }
+            executeOnExecutor(scheduler.getExecutor(lane, this), params);
+            // The priority may have been changed before the task was queued
+            final RequestPriority current = getPriority();
+            if (current != lane) {
+                scheduler.setPriority(this, current);
+            }
+        } else {
+            executeOnExecutor(executor, params);
+        }
+        return this;
+    }
+
+    /**
+     * A single attempt of the request made by a task.
+     */
+    protected interface RetryableRequest {
+        /**
+         * @return the error, or null if the request succeeded
+         */
+        MendeleyException execute();
+    }
+
+    /**
+     * @return true if the request can be repeated without side effects, so that it can be
+     * retried after a connection error or a server failure.
+     */
+    protected boolean isIdempotent() {
+        return false;
+    }
+
+    /**
+     * Executes the request, retrying it according to the shared {@link RetryPolicy}
+     * until it succeeds, fails permanently or the task is cancelled.
+     *
+     * @return the error of the last attempt, or null if the request succeeded
+     */
+    protected MendeleyException runWithRetries(RetryableRequest request) {
+        final RetryPolicy retryPolicy = NetworkUtils.getRetryPolicy();
+        int retries = 0;
+        while (true) {
+            retryAfterMillis = -1;
+            final MendeleyException e = request.execute();
+            if (e == null || isCancelled() || !retryPolicy.shouldRetry(retries, isIdempotent(), e)) {
+                return e;
+            }
+            final long delay = retryPolicy.getDelayMillis(retries, retryAfterMillis);
+            retries++;
+            Log.w(TAG, e.getMessage() + ". Retrying in " + delay + " ms (" + retries + "/" + retryPolicy.getMaxRetries() + ")");
+            try {
+                retryPolicy.awaitRetry(retries, delay, e);
+            } catch (InterruptedException ie) {
+                // Cancelling the task interrupts it
+                return e;
+            }
+        }
+    }
+
+    /**
+     * Creates the exception for an unexpected response code, keeping the Retry-After header
+     * so that the retry policy can honour it.
+     */
+    protected HttpResponseException createHttpResponseException(String url, int responseCode) {
+        retryAfterMillis = RetryPolicy.parseRetryAfter(con.getHeaderField("Retry-After"));
+        return new HttpResponseException(url, responseCode, NetworkUtils.getErrorMessage(con));
+    }
+
     /**
      * Extracts the headers from the given HttpsURLConnection object.
      */
@@ -91,12 +206,15 @@ public abstract class NetworkTask extends AsyncTask<String, Integer, MendeleyExc
         }
     }
 
+    /**
+     * Releases the connection through the shared {@link HttpTransport}, so that it can be
+     * reused by the next request to the same host.
+     */
     protected void closeConnection() {
-        if (con != null) {
-            con.disconnect();
-        }
-        Utils.closeQuietly(is);
         Utils.closeQuietly(os);
+        NetworkUtils.getHttpTransport().releaseConnection(con, is);
+        con = null;
+        is = null;
     }
 
     @Override
@@ -4,12 +4,12 @@ import com.mendeley.api.exceptions.HttpResponseException;
 import com.mendeley.api.exceptions.JsonParsingException;
 import com.mendeley.api.exceptions.MendeleyException;
 import com.mendeley.api.network.NetworkUtils;
+import com.mendeley.api.network.RetryPolicy;
 
-import org.apache.http.HttpEntity;
+import org.apache.http.Header;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.DefaultHttpClient;
 import org.json.JSONException;
 
 import java.io.IOException;
@@ -24,11 +24,20 @@ public abstract class PatchNetworkTask extends NetworkTask {
     }
 
     @Override
-    protected MendeleyException doInBackground(String... params) {
+    protected MendeleyException doInBackground(final String... params) {
+        return runWithRetries(new RetryableRequest() {
+            @Override
+            public MendeleyException execute() {
+                return executeRequest(params);
+            }
+        });
+    }
+
+    private MendeleyException executeRequest(String... params) {
         String url = params[0];
         String jsonString = params[1];
 
-        HttpClient httpclient = new DefaultHttpClient();
+        HttpClient httpclient = NetworkUtils.getHttpTransport().getHttpClient();
         NetworkUtils.HttpPatch httpPatch = getHttpPatch(url, getDate(), getContentType(), getAccessTokenProvider());
 
         try {
@@ -37,16 +46,17 @@ public abstract class PatchNetworkTask extends NetworkTask {
 
             final int responseCode = response.getStatusLine().getStatusCode();
             if (responseCode != getExpectedResponse()) {
+                final Header retryAfter = response.getFirstHeader("Retry-After");
+                retryAfterMillis = RetryPolicy.parseRetryAfter(retryAfter != null ? retryAfter.getValue() : null);
                 return new HttpResponseException(url, responseCode, NetworkUtils.getErrorMessage(response));
             } else {
-                HttpEntity responseEntity = response.getEntity();
-                is = responseEntity.getContent();
+                is = NetworkUtils.getInputStream(url, response);
                 String responseString = getJsonString(is);
                 processJsonString(responseString);
                 return null;
             }
         } catch (IOException e) {
-            return new JsonParsingException(e.getMessage());
+            return new JsonParsingException(e.getMessage(), e);
         } catch (JSONException e) {
             return new JsonParsingException(e.getMessage());
         } finally {
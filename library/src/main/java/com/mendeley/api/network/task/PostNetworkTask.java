@@ -1,6 +1,5 @@
 package com.mendeley.api.network.task;
 
-import com.mendeley.api.exceptions.HttpResponseException;
 import com.mendeley.api.exceptions.JsonParsingException;
 import com.mendeley.api.exceptions.MendeleyException;
 import com.mendeley.api.network.NetworkUtils;
@@ -13,7 +12,6 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 
 import static com.mendeley.api.network.NetworkUtils.getConnection;
-import static com.mendeley.api.network.NetworkUtils.getErrorMessage;
 import static com.mendeley.api.network.NetworkUtils.getJsonString;
 
 public abstract class PostNetworkTask extends NetworkTask {
@@ -23,7 +21,16 @@ public abstract class PostNetworkTask extends NetworkTask {
     }
 
     @Override
-    protected MendeleyException doInBackground(String... params) {
+    protected MendeleyException doInBackground(final String... params) {
+        return runWithRetries(new RetryableRequest() {
+            @Override
+            public MendeleyException execute() {
+                return executeRequest(params);
+            }
+        });
+    }
+
+    private MendeleyException executeRequest(String... params) {
         String url = params[0];
         String jsonString = params[1];
 
@@ -44,10 +51,10 @@ public abstract class PostNetworkTask extends NetworkTask {
 
             final int responseCode = con.getResponseCode();
             if (responseCode != getExpectedResponse()) {
-                return new HttpResponseException(url, responseCode, NetworkUtils.getErrorMessage(con));
+                return createHttpResponseException(url, responseCode);
             } else {
 
-                is = con.getInputStream();
+                is = NetworkUtils.getInputStream(con);
                 String responseString = getJsonString(is);
 
                 processJsonString(responseString);
@@ -58,7 +65,7 @@ public abstract class PostNetworkTask extends NetworkTask {
         } catch (JSONException e) {
             return new JsonParsingException(e.getMessage());
         } catch (IOException e) {
-            return new MendeleyException(e.getMessage());
+            return new MendeleyException(e.getMessage(), e);
         } finally {
             closeConnection();
         }
@@ -0,0 +1,20 @@
+package com.mendeley.api.params;
+
+/**
+ * Scheduling lanes for async requests. Each lane has its own concurrency limit, so requests
+ * in one lane never wait behind the requests queued in another.
+ */
+public enum RequestPriority {
+    /**
+     * Single objects and changes the user is waiting for.
+     */
+    INTERACTIVE,
+    /**
+     * List pages, typically fetched while synchronising.
+     */
+    BACKGROUND,
+    /**
+     * File downloads and uploads.
+     */
+    BULK
+}
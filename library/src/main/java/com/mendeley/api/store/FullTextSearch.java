@@ -0,0 +1,92 @@
+package com.mendeley.api.store;
+
+import com.mendeley.api.model.Person;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds the full-text queries run by {@link LocalStore} and ranks their results.
+ */
+class FullTextSearch {
+    private FullTextSearch() {}
+
+    /**
+     * Converts the text typed by the user into an FTS MATCH expression, where every word must
+     * match the start of a word, e.g. "Smith, prot" becomes "smith* prot*".
+     *
+     * @return the expression, or null if the text has no words
+     */
+    static String toMatchQuery(String text) {
+        final StringBuilder query = new StringBuilder();
+        final StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            final char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                // Lower case, so that words like OR are not taken as operators
+                query.append(word.toString().toLowerCase(Locale.US)).append('*');
+                word.setLength(0);
+            }
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+
+    /**
+     * Scores a row from the result of matchinfo(table, 'pcx'): for each word of the query and
+     * each column, the hits in the row relative to the hits in all the rows, times the weight
+     * of the column.
+     *
+     * @param matchInfo the matchinfo blob, made of native order 32-bit integers
+     * @param weights the weight of each column of the table
+     */
+    static double score(byte[] matchInfo, double[] weights) {
+        final ByteBuffer buffer = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        final int phraseCount = buffer.getInt(0);
+        final int columnCount = buffer.getInt(4);
+        double score = 0;
+        for (int phrase = 0; phrase < phraseCount; phrase++) {
+            for (int column = 0; column < columnCount; column++) {
+                final int offset = 4 * (2 + 3 * (phrase * columnCount + column));
+                final int rowHits = buffer.getInt(offset);
+                final int allHits = buffer.getInt(offset + 4);
+                if (rowHits > 0) {
+                    score += (column < weights.length ? weights[column] : 1) * rowHits / allHits;
+                }
+            }
+        }
+        return score;
+    }
+
+    static String join(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (String value : values) {
+            if (value != null) {
+                sb.append(value).append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
+    static String joinNames(List<Person> persons) {
+        if (persons == null) {
+            return null;
+        }
+        final List<String> names = new ArrayList<String>(persons.size() * 2);
+        for (Person person : persons) {
+            names.add(person.firstName);
+            names.add(person.lastName);
+        }
+        return join(names);
+    }
+}
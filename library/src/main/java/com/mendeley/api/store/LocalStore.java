@@ -0,0 +1,748 @@
+package com.mendeley.api.store;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import com.mendeley.api.exceptions.JsonParsingException;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.model.Annotation;
+import com.mendeley.api.model.Document;
+import com.mendeley.api.model.File;
+import com.mendeley.api.model.Folder;
+import com.mendeley.api.model.Group;
+import com.mendeley.api.model.Profile;
+import com.mendeley.api.network.JsonParser;
+import com.mendeley.api.sync.AnnotationMirror;
+import com.mendeley.api.sync.DocumentMirror;
+
+import org.json.JSONException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Optional SQLite store persisting the models fetched by the SDK, so that they can be shown
+ * without waiting for the network after a restart.
+ * <p>
+ * Each model is stored as its JSON representation, along with the columns it is queried by.
+ * Writes of several models run in a single transaction. The methods access the disk, so they
+ * must not be called on the UI thread.
+ * <p>
+ * Documents and annotations are also added to full-text indexes as they are stored, so that
+ * they can be searched offline with {@link #searchDocuments(String, int)} and
+ * {@link #searchAnnotations(String, int)}.
+ * <p>
+ * The store implements {@link DocumentMirror} and {@link AnnotationMirror}, so that a
+ * {@link com.mendeley.api.sync.DocumentSyncEngine} and a
+ * {@link com.mendeley.api.sync.AnnotationSyncEngine} can keep its documents and annotations
+ * up to date.
+ */
+public class LocalStore implements DocumentMirror, AnnotationMirror {
+    public static final String DEFAULT_NAME = "mendeley_store.db";
+
+    private static final int VERSION = 1;
+
+    static final String TABLE_DOCUMENTS = "documents";
+    static final String TABLE_FOLDERS = "folders";
+    static final String TABLE_FILES = "files";
+    static final String TABLE_ANNOTATIONS = "annotations";
+    static final String TABLE_GROUPS = "groups";
+    static final String TABLE_PROFILES = "profiles";
+    static final String TABLE_DOCUMENTS_FTS = "documents_fts";
+    static final String TABLE_ANNOTATIONS_FTS = "annotations_fts";
+
+    /**
+     * Weights of the columns of the documents index: title, authors, tags, keywords, abstract.
+     */
+    private static final double[] DOCUMENT_WEIGHTS = { 10, 5, 3, 3, 1 };
+    private static final double[] ANNOTATION_WEIGHTS = { 1 };
+
+    private static final String[] TABLES = { TABLE_DOCUMENTS, TABLE_FOLDERS, TABLE_FILES,
+            TABLE_ANNOTATIONS, TABLE_GROUPS, TABLE_PROFILES, TABLE_DOCUMENTS_FTS, TABLE_ANNOTATIONS_FTS };
+
+    private static final String[] JSON_COLUMN = { "json" };
+    private static final String[] KEY_AND_JSON_COLUMNS = { "_id", "json" };
+
+    /**
+     * The default maximum number of parameters of a SQLite statement.
+     */
+    private static final int MAX_QUERY_PARAMETERS = 999;
+
+    private final SQLiteOpenHelper helper;
+
+    public LocalStore(Context context) {
+        this(context, DEFAULT_NAME);
+    }
+
+    /**
+     * @param name name of the database file, or null for an in-memory database
+     */
+    public LocalStore(Context context, String name) {
+        helper = new OpenHelper(context, name);
+    }
+
+    /* DOCUMENTS */
+
+    /**
+     * Stores the documents, replacing any stored with the same ids. Each document is stored
+     * under its own group, or the user's library if it has none.
+     */
+    public void putDocuments(Collection<Document> documents) throws MendeleyException {
+        writeDocuments(documents, null, true);
+    }
+
+    public Document getDocument(String documentId) throws MendeleyException {
+        final List<String> json = query(TABLE_DOCUMENTS, "id = ?", new String[] { documentId }, null);
+        return json.isEmpty() ? null : parseDocument(json.get(0));
+    }
+
+    /**
+     * @param groupId group ID, or null for the user's library
+     * @return the stored documents, most recently modified first
+     */
+    public List<Document> getDocuments(String groupId) throws MendeleyException {
+        final List<Document> documents = new ArrayList<Document>();
+        for (String json : queryByGroup(TABLE_DOCUMENTS, groupId, "last_modified DESC")) {
+            documents.add(parseDocument(json));
+        }
+        return documents;
+    }
+
+    public void deleteDocuments(Collection<String> documentIds) {
+        delete(TABLE_DOCUMENTS, TABLE_DOCUMENTS_FTS, documentIds);
+    }
+
+    /**
+     * Searches the stored documents by title, authors, tags, keywords and abstract. Every word
+     * of the query must match the start of a word of the document; matches in the title weigh
+     * the most.
+     *
+     * @param query the text typed by the user
+     * @param limit the maximum number of documents returned
+     * @return the matching documents, best match first
+     */
+    public List<Document> searchDocuments(String query, int limit) throws MendeleyException {
+        final List<Document> documents = new ArrayList<Document>();
+        for (String json : search(TABLE_DOCUMENTS, TABLE_DOCUMENTS_FTS, DOCUMENT_WEIGHTS, query, limit)) {
+            documents.add(parseDocument(json));
+        }
+        return documents;
+    }
+
+    @Override
+    public Set<String> getDocumentIds(String groupId) {
+        return queryIdsByGroup(TABLE_DOCUMENTS, groupId);
+    }
+
+    @Override
+    public void putDocuments(String groupId, Collection<Document> documents) {
+        try {
+            writeDocuments(documents, groupId, false);
+        } catch (MendeleyException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void removeDocuments(String groupId, Collection<String> documentIds) {
+        deleteDocuments(documentIds);
+    }
+
+    /* FOLDERS */
+
+    public void putFolders(Collection<Folder> folders) throws MendeleyException {
+        final SQLiteDatabase db = helper.getWritableDatabase();
+        final SQLiteStatement statement = db.compileStatement(
+                "INSERT OR REPLACE INTO " + TABLE_FOLDERS + " (id, group_id, parent_id, name, json) VALUES (?, ?, ?, ?, ?)");
+        db.beginTransaction();
+        try {
+            for (Folder folder : folders) {
+                final String json;
+                try {
+                    json = JsonParser.jsonFromFolder(folder);
+                } catch (JSONException e) {
+                    throw new JsonParsingException("Could not serialize folder " + folder.id, e);
+                }
+                bind(statement, folder.id, folder.groupId, folder.parentId, folder.name, json);
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            statement.close();
+        }
+    }
+
+    public Folder getFolder(String folderId) throws MendeleyException {
+        final List<String> json = query(TABLE_FOLDERS, "id = ?", new String[] { folderId }, null);
+        return json.isEmpty() ? null : parseFolder(json.get(0));
+    }
+
+    /**
+     * @param groupId group ID, or null for the user's library
+     * @return the stored folders, by name
+     */
+    public List<Folder> getFolders(String groupId) throws MendeleyException {
+        final List<Folder> folders = new ArrayList<Folder>();
+        for (String json : queryByGroup(TABLE_FOLDERS, groupId, "name")) {
+            folders.add(parseFolder(json));
+        }
+        return folders;
+    }
+
+    /**
+     * @return the stored subfolders of the folder, by name
+     */
+    public List<Folder> getSubfolders(String parentId) throws MendeleyException {
+        final List<Folder> folders = new ArrayList<Folder>();
+        for (String json : query(TABLE_FOLDERS, "parent_id = ?", new String[] { parentId }, "name")) {
+            folders.add(parseFolder(json));
+        }
+        return folders;
+    }
+
+    public void deleteFolders(Collection<String> folderIds) {
+        delete(TABLE_FOLDERS, null, folderIds);
+    }
+
+    /* FILES */
+
+    public void putFiles(Collection<File> files) throws MendeleyException {
+        final SQLiteDatabase db = helper.getWritableDatabase();
+        final SQLiteStatement statement = db.compileStatement(
+                "INSERT OR REPLACE INTO " + TABLE_FILES + " (id, document_id, file_hash, json) VALUES (?, ?, ?, ?)");
+        db.beginTransaction();
+        try {
+            for (File file : files) {
+                final String json;
+                try {
+                    json = JsonParser.jsonFromFile(file);
+                } catch (JSONException e) {
+                    throw new JsonParsingException("Could not serialize file " + file.id, e);
+                }
+                bind(statement, file.id, file.documentId, file.fileHash, json);
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            statement.close();
+        }
+    }
+
+    public File getFile(String fileId) throws MendeleyException {
+        final List<String> json = query(TABLE_FILES, "id = ?", new String[] { fileId }, null);
+        return json.isEmpty() ? null : parseFile(json.get(0));
+    }
+
+    /**
+     * @return the stored files attached to the document
+     */
+    public List<File> getFiles(String documentId) throws MendeleyException {
+        return parseFiles(query(TABLE_FILES, "document_id = ?", new String[] { documentId }, null));
+    }
+
+    /**
+     * @return the stored files with the given content hash
+     */
+    public List<File> getFilesByHash(String fileHash) throws MendeleyException {
+        return parseFiles(query(TABLE_FILES, "file_hash = ?", new String[] { fileHash }, null));
+    }
+
+    public void deleteFiles(Collection<String> fileIds) {
+        delete(TABLE_FILES, null, fileIds);
+    }
+
+    /* ANNOTATIONS */
+
+    /**
+     * Stores the annotations under the user's library, replacing any stored with the same ids.
+     */
+    public void putAnnotations(Collection<Annotation> annotations) throws MendeleyException {
+        writeAnnotations(annotations, null);
+    }
+
+    public Annotation getAnnotation(String annotationId) throws MendeleyException {
+        final List<String> json = query(TABLE_ANNOTATIONS, "id = ?", new String[] { annotationId }, null);
+        return json.isEmpty() ? null : parseAnnotation(json.get(0));
+    }
+
+    /**
+     * @return the stored annotations of the document
+     */
+    public List<Annotation> getAnnotations(String documentId) throws MendeleyException {
+        return parseAnnotations(query(TABLE_ANNOTATIONS, "document_id = ?", new String[] { documentId }, null));
+    }
+
+    /**
+     * @return the stored annotations made on the file with the given content hash
+     */
+    public List<Annotation> getAnnotationsByFileHash(String fileHash) throws MendeleyException {
+        return parseAnnotations(query(TABLE_ANNOTATIONS, "file_hash = ?", new String[] { fileHash }, null));
+    }
+
+    public void deleteAnnotations(Collection<String> annotationIds) {
+        delete(TABLE_ANNOTATIONS, TABLE_ANNOTATIONS_FTS, annotationIds);
+    }
+
+    /**
+     * Searches the stored annotations by text. Every word of the query must match the start
+     * of a word of the annotation.
+     *
+     * @param query the text typed by the user
+     * @param limit the maximum number of annotations returned
+     * @return the matching annotations, best match first
+     */
+    public List<Annotation> searchAnnotations(String query, int limit) throws MendeleyException {
+        return parseAnnotations(search(TABLE_ANNOTATIONS, TABLE_ANNOTATIONS_FTS, ANNOTATION_WEIGHTS, query, limit));
+    }
+
+    @Override
+    public Set<String> getAnnotationIds(String groupId) {
+        return queryIdsByGroup(TABLE_ANNOTATIONS, groupId);
+    }
+
+    @Override
+    public void putAnnotations(String groupId, Collection<Annotation> annotations) {
+        try {
+            writeAnnotations(annotations, groupId);
+        } catch (MendeleyException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void removeAnnotations(String groupId, Collection<String> annotationIds) {
+        deleteAnnotations(annotationIds);
+    }
+
+    private void writeAnnotations(Collection<Annotation> annotations, String groupId) throws MendeleyException {
+        final SQLiteDatabase db = helper.getWritableDatabase();
+        final SQLiteStatement statement = db.compileStatement(
+                "INSERT OR REPLACE INTO " + TABLE_ANNOTATIONS + " (id, group_id, document_id, file_hash, last_modified, json) VALUES (?, ?, ?, ?, ?, ?)");
+        final SQLiteStatement unindex = compileUnindex(db, TABLE_ANNOTATIONS, TABLE_ANNOTATIONS_FTS);
+        final SQLiteStatement index = db.compileStatement(
+                "INSERT INTO " + TABLE_ANNOTATIONS_FTS + " (docid, text) VALUES (?, ?)");
+        db.beginTransaction();
+        try {
+            for (Annotation annotation : annotations) {
+                final String json;
+                try {
+                    json = JsonParser.jsonFromAnnotation(annotation);
+                } catch (JSONException e) {
+                    throw new JsonParsingException("Could not serialize annotation " + annotation.id, e);
+                }
+                bind(unindex, annotation.id);
+                unindex.execute();
+                bind(statement, annotation.id, groupId, annotation.documentId, annotation.fileHash, annotation.lastModified, json);
+                final long key = statement.executeInsert();
+                bind(index, String.valueOf(key), annotation.text);
+                index.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            statement.close();
+            unindex.close();
+            index.close();
+        }
+    }
+
+    /* GROUPS */
+
+    public void putGroups(Collection<Group> groups) throws MendeleyException {
+        final SQLiteDatabase db = helper.getWritableDatabase();
+        final SQLiteStatement statement = db.compileStatement(
+                "INSERT OR REPLACE INTO " + TABLE_GROUPS + " (id, name, json) VALUES (?, ?, ?)");
+        db.beginTransaction();
+        try {
+            for (Group group : groups) {
+                final String json;
+                try {
+                    json = JsonParser.jsonFromGroup(group);
+                } catch (JSONException e) {
+                    throw new JsonParsingException("Could not serialize group " + group.id, e);
+                }
+                bind(statement, group.id, group.name, json);
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            statement.close();
+        }
+    }
+
+    public Group getGroup(String groupId) throws MendeleyException {
+        final List<String> json = query(TABLE_GROUPS, "id = ?", new String[] { groupId }, null);
+        return json.isEmpty() ? null : parseGroup(json.get(0));
+    }
+
+    /**
+     * @return the stored groups, by name
+     */
+    public List<Group> getGroups() throws MendeleyException {
+        final List<Group> groups = new ArrayList<Group>();
+        for (String json : query(TABLE_GROUPS, null, null, "name")) {
+            groups.add(parseGroup(json));
+        }
+        return groups;
+    }
+
+    public void deleteGroups(Collection<String> groupIds) {
+        delete(TABLE_GROUPS, null, groupIds);
+    }
+
+    /* PROFILES */
+
+    public void putProfiles(Collection<Profile> profiles) throws MendeleyException {
+        final SQLiteDatabase db = helper.getWritableDatabase();
+        final SQLiteStatement statement = db.compileStatement(
+                "INSERT OR REPLACE INTO " + TABLE_PROFILES + " (id, json) VALUES (?, ?)");
+        db.beginTransaction();
+        try {
+            for (Profile profile : profiles) {
+                final String json;
+                try {
+                    json = JsonParser.jsonFromProfile(profile);
+                } catch (JSONException e) {
+                    throw new JsonParsingException("Could not serialize profile " + profile.id, e);
+                }
+                bind(statement, profile.id, json);
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            statement.close();
+        }
+    }
+
+    public Profile getProfile(String profileId) throws MendeleyException {
+        final List<String> json = query(TABLE_PROFILES, "id = ?", new String[] { profileId }, null);
+        if (json.isEmpty()) {
+            return null;
+        }
+        try {
+            return JsonParser.parseProfile(json.get(0));
+        } catch (JSONException e) {
+            throw new JsonParsingException("Could not parse stored profile", e);
+        }
+    }
+
+    public void deleteProfiles(Collection<String> profileIds) {
+        delete(TABLE_PROFILES, null, profileIds);
+    }
+
+    /**
+     * Removes all the stored models, e.g. when the user signs out.
+     */
+    public void clear() {
+        final SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String table : TABLES) {
+                db.delete(table, null, null);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public void close() {
+        helper.close();
+    }
+
+    /**
+     * @param groupId the collection the documents are stored under, unless ownGroups is set
+     * @param ownGroups true to store each document under its own group
+     */
+    private void writeDocuments(Collection<Document> documents, String groupId, boolean ownGroups)
+            throws MendeleyException {
+        final SQLiteDatabase db = helper.getWritableDatabase();
+        final SQLiteStatement statement = db.compileStatement(
+                "INSERT OR REPLACE INTO " + TABLE_DOCUMENTS + " (id, group_id, last_modified, title, json) VALUES (?, ?, ?, ?, ?)");
+        final SQLiteStatement unindex = compileUnindex(db, TABLE_DOCUMENTS, TABLE_DOCUMENTS_FTS);
+        final SQLiteStatement index = db.compileStatement(
+                "INSERT INTO " + TABLE_DOCUMENTS_FTS + " (docid, title, authors, tags, keywords, abstract) VALUES (?, ?, ?, ?, ?, ?)");
+        db.beginTransaction();
+        try {
+            for (Document document : documents) {
+                final String json;
+                try {
+                    json = JsonParser.jsonFromDocument(document);
+                } catch (JSONException e) {
+                    throw new JsonParsingException("Could not serialize document " + document.id, e);
+                }
+                // The replaced row gets a new _id, so its index entry is removed first
+                bind(unindex, document.id);
+                unindex.execute();
+                bind(statement, document.id, ownGroups ? document.groupId : groupId,
+                        document.lastModified, document.title, json);
+                final long key = statement.executeInsert();
+                bind(index, String.valueOf(key), document.title, FullTextSearch.joinNames(document.authors),
+                        FullTextSearch.join(document.tags), FullTextSearch.join(document.keywords),
+                        document.abstractString);
+                index.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            statement.close();
+            unindex.close();
+            index.close();
+        }
+    }
+
+    private static void bind(SQLiteStatement statement, String... values) {
+        statement.clearBindings();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                statement.bindNull(i + 1);
+            } else {
+                statement.bindString(i + 1, values[i]);
+            }
+        }
+    }
+
+    private List<String> queryByGroup(String table, String groupId, String orderBy) {
+        return groupId == null
+                ? query(table, "group_id IS NULL", null, orderBy)
+                : query(table, "group_id = ?", new String[] { groupId }, orderBy);
+    }
+
+    private Set<String> queryIdsByGroup(String table, String groupId) {
+        final Set<String> ids = new HashSet<String>();
+        final Cursor cursor = groupId == null
+                ? helper.getReadableDatabase().query(table, new String[] { "id" }, "group_id IS NULL", null, null, null, null)
+                : helper.getReadableDatabase().query(table, new String[] { "id" }, "group_id = ?", new String[] { groupId }, null, null, null);
+        try {
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return ids;
+    }
+
+    private List<String> query(String table, String selection, String[] selectionArgs, String orderBy) {
+        final List<String> json = new ArrayList<String>();
+        final Cursor cursor = helper.getReadableDatabase().query(table, JSON_COLUMN, selection, selectionArgs, null, null, orderBy);
+        try {
+            while (cursor.moveToNext()) {
+                json.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return json;
+    }
+
+    /**
+     * @param ftsTable the full-text index of the table, or null if it has none
+     */
+    private void delete(String table, String ftsTable, Collection<String> ids) {
+        final SQLiteDatabase db = helper.getWritableDatabase();
+        final SQLiteStatement unindex = ftsTable != null ? compileUnindex(db, table, ftsTable) : null;
+        db.beginTransaction();
+        try {
+            for (String id : ids) {
+                if (unindex != null) {
+                    bind(unindex, id);
+                    unindex.execute();
+                }
+                db.delete(table, "id = ?", new String[] { id });
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            if (unindex != null) {
+                unindex.close();
+            }
+        }
+    }
+
+    private static SQLiteStatement compileUnindex(SQLiteDatabase db, String table, String ftsTable) {
+        return db.compileStatement("DELETE FROM " + ftsTable + " WHERE docid = (SELECT _id FROM " + table + " WHERE id = ?)");
+    }
+
+    /**
+     * Ranks the rows of the index matching the query, and only then loads the best ones.
+     *
+     * @return the JSON of the best matching rows, best first
+     */
+    private List<String> search(String table, String ftsTable, double[] weights, String text, int limit) {
+        final List<String> json = new ArrayList<String>();
+        final String query = FullTextSearch.toMatchQuery(text);
+        if (query == null || limit <= 0) {
+            return json;
+        }
+        final SQLiteDatabase db = helper.getReadableDatabase();
+        final List<Match> ranked = new ArrayList<Match>();
+        final Cursor matches = db.rawQuery("SELECT docid, matchinfo(" + ftsTable + ", 'pcx') FROM " + ftsTable
+                + " WHERE " + ftsTable + " MATCH ?", new String[] { query });
+        try {
+            while (matches.moveToNext()) {
+                ranked.add(new Match(matches.getLong(0), FullTextSearch.score(matches.getBlob(1), weights)));
+            }
+        } finally {
+            matches.close();
+        }
+        Collections.sort(ranked, new Comparator<Match>() {
+            @Override
+            public int compare(Match lhs, Match rhs) {
+                return Double.compare(rhs.score, lhs.score);
+            }
+        });
+
+        final int count = Math.min(ranked.size(), limit);
+        // The best rows are loaded together, in as few queries as the SQLite parameter limit allows
+        final Map<Long, String> jsonByKey = new HashMap<Long, String>(count);
+        for (int start = 0; start < count; start += MAX_QUERY_PARAMETERS) {
+            final int end = Math.min(count, start + MAX_QUERY_PARAMETERS);
+            final StringBuilder selection = new StringBuilder("_id IN (");
+            final String[] keys = new String[end - start];
+            for (int i = start; i < end; i++) {
+                selection.append(i == start ? "?" : ", ?");
+                keys[i - start] = String.valueOf(ranked.get(i).key);
+            }
+            selection.append(')');
+            final Cursor rows = db.query(table, KEY_AND_JSON_COLUMNS, selection.toString(), keys, null, null, null);
+            try {
+                while (rows.moveToNext()) {
+                    jsonByKey.put(rows.getLong(0), rows.getString(1));
+                }
+            } finally {
+                rows.close();
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            final String row = jsonByKey.get(ranked.get(i).key);
+            if (row != null) {
+                json.add(row);
+            }
+        }
+        return json;
+    }
+
+    private static Document parseDocument(String json) throws JsonParsingException {
+        try {
+            return JsonParser.parseDocument(json);
+        } catch (JSONException e) {
+            throw new JsonParsingException("Could not parse stored document", e);
+        }
+    }
+
+    private static Folder parseFolder(String json) throws JsonParsingException {
+        try {
+            return JsonParser.parseFolder(json);
+        } catch (JSONException e) {
+            throw new JsonParsingException("Could not parse stored folder", e);
+        }
+    }
+
+    private static File parseFile(String json) throws JsonParsingException {
+        try {
+            return JsonParser.parseFile(json);
+        } catch (JSONException e) {
+            throw new JsonParsingException("Could not parse stored file", e);
+        }
+    }
+
+    private static List<File> parseFiles(List<String> json) throws JsonParsingException {
+        final List<File> files = new ArrayList<File>(json.size());
+        for (String item : json) {
+            files.add(parseFile(item));
+        }
+        return files;
+    }
+
+    private static Annotation parseAnnotation(String json) throws JsonParsingException {
+        try {
+            return JsonParser.parseAnnotation(json);
+        } catch (JSONException e) {
+            throw new JsonParsingException("Could not parse stored annotation", e);
+        }
+    }
+
+    private static List<Annotation> parseAnnotations(List<String> json) throws JsonParsingException {
+        final List<Annotation> annotations = new ArrayList<Annotation>(json.size());
+        for (String item : json) {
+            annotations.add(parseAnnotation(item));
+        }
+        return annotations;
+    }
+
+    private static Group parseGroup(String json) throws JsonParsingException {
+        try {
+            return JsonParser.parseGroup(json);
+        } catch (JSONException e) {
+            throw new JsonParsingException("Could not parse stored group", e);
+        }
+    }
+
+    private static class Match {
+        final long key;
+        final double score;
+
+        Match(long key, double score) {
+            this.key = key;
+            this.score = score;
+        }
+    }
+
+    private static class OpenHelper extends SQLiteOpenHelper {
+        OpenHelper(Context context, String name) {
+            super(context, name, null, VERSION);
+        }
+
+        @Override
+        public void onCreate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE " + TABLE_DOCUMENTS + " (_id INTEGER PRIMARY KEY, id TEXT UNIQUE NOT NULL, group_id TEXT, last_modified TEXT, title TEXT, json TEXT NOT NULL)");
+            db.execSQL("CREATE INDEX documents_group_id ON " + TABLE_DOCUMENTS + " (group_id, last_modified)");
+
+            db.execSQL("CREATE TABLE " + TABLE_FOLDERS + " (id TEXT PRIMARY KEY, group_id TEXT, parent_id TEXT, name TEXT, json TEXT NOT NULL)");
+            db.execSQL("CREATE INDEX folders_group_id ON " + TABLE_FOLDERS + " (group_id)");
+            db.execSQL("CREATE INDEX folders_parent_id ON " + TABLE_FOLDERS + " (parent_id)");
+
+            db.execSQL("CREATE TABLE " + TABLE_FILES + " (id TEXT PRIMARY KEY, document_id TEXT, file_hash TEXT, json TEXT NOT NULL)");
+            db.execSQL("CREATE INDEX files_document_id ON " + TABLE_FILES + " (document_id)");
+            db.execSQL("CREATE INDEX files_file_hash ON " + TABLE_FILES + " (file_hash)");
+
+            db.execSQL("CREATE TABLE " + TABLE_ANNOTATIONS + " (_id INTEGER PRIMARY KEY, id TEXT UNIQUE NOT NULL, group_id TEXT, document_id TEXT, file_hash TEXT, last_modified TEXT, json TEXT NOT NULL)");
+            db.execSQL("CREATE INDEX annotations_group_id ON " + TABLE_ANNOTATIONS + " (group_id)");
+            db.execSQL("CREATE INDEX annotations_document_id ON " + TABLE_ANNOTATIONS + " (document_id)");
+            db.execSQL("CREATE INDEX annotations_file_hash ON " + TABLE_ANNOTATIONS + " (file_hash)");
+
+            db.execSQL("CREATE TABLE " + TABLE_GROUPS + " (id TEXT PRIMARY KEY, name TEXT, json TEXT NOT NULL)");
+
+            db.execSQL("CREATE TABLE " + TABLE_PROFILES + " (id TEXT PRIMARY KEY, json TEXT NOT NULL)");
+
+            // The docid of the index rows is the _id of the indexed rows, an INTEGER PRIMARY KEY
+            // which, unlike an implicit rowid, is kept by VACUUM
+            db.execSQL("CREATE VIRTUAL TABLE " + TABLE_DOCUMENTS_FTS + " USING fts4(title, authors, tags, keywords, abstract)");
+            db.execSQL("CREATE VIRTUAL TABLE " + TABLE_ANNOTATIONS_FTS + " USING fts4(text)");
+        }
+
+        @Override
+        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            // Everything can be fetched again from the server
+            for (String table : TABLES) {
+                db.execSQL("DROP TABLE IF EXISTS " + table);
+            }
+            onCreate(db);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.mendeley.api.sync;
+
+import com.mendeley.api.model.Annotation;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Local copy of the annotations of the user's library and of their groups, kept up to date
+ * by {@link AnnotationSyncEngine}.
+ * <p>
+ * In every method, a null groupId stands for the user's own library.
+ */
+public interface AnnotationMirror {
+    /**
+     * @return the ids of the annotations held for the collection
+     */
+    Set<String> getAnnotationIds(String groupId);
+
+    /**
+     * Adds the annotations, replacing any held with the same ids.
+     */
+    void putAnnotations(String groupId, Collection<Annotation> annotations);
+
+    /**
+     * Removes the annotations with the given ids, ignoring those not held.
+     */
+    void removeAnnotations(String groupId, Collection<String> annotationIds);
+}
@@ -0,0 +1,109 @@
+package com.mendeley.api.sync;
+
+import com.mendeley.api.BlockingSdk;
+import com.mendeley.api.callbacks.annotations.AnnotationList;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.model.Annotation;
+import com.mendeley.api.params.AnnotationRequestParameters;
+import com.mendeley.api.params.Page;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps an {@link AnnotationMirror} up to date with the server, fetching only the annotations
+ * modified or deleted since the previous sync of each collection, as described in
+ * {@link SyncEngine}.
+ * <p>
+ * The cursors are kept apart from those of the documents, so that an annotation engine and a
+ * {@link DocumentSyncEngine} can share a {@link SyncCursorStore}.
+ */
+public class AnnotationSyncEngine extends SyncEngine<Annotation> {
+    private final BlockingSdk sdk;
+    private final AnnotationMirror mirror;
+
+    private volatile Boolean includeTrashed;
+
+    public AnnotationSyncEngine(BlockingSdk sdk, SyncCursorStore cursorStore, AnnotationMirror mirror) {
+        super(cursorStore, "annotations");
+        this.sdk = sdk;
+        this.mirror = mirror;
+    }
+
+    /**
+     * Sets whether the annotations of trashed documents are synced; if not set, the server
+     * default applies. Call {@link #reset} after changing it, so that the mirror is refetched.
+     */
+    public void setIncludeTrashed(Boolean includeTrashed) {
+        this.includeTrashed = includeTrashed;
+    }
+
+    @Override
+    protected Date fetch(String groupId, String modifiedSince, List<Annotation> annotations)
+            throws MendeleyException {
+        final AnnotationRequestParameters params = createParameters(groupId);
+        params.modifiedSince = modifiedSince;
+        return fetchAnnotations(params, annotations);
+    }
+
+    @Override
+    protected void fetchDeletedIds(String groupId, String deletedSince, List<String> ids)
+            throws MendeleyException {
+        // Only the ids of deleted annotations are returned
+        final AnnotationRequestParameters params = createParameters(groupId);
+        params.deletedSince = deletedSince;
+        final List<Annotation> deleted = new ArrayList<Annotation>();
+        fetchAnnotations(params, deleted);
+        for (Annotation annotation : deleted) {
+            ids.add(annotation.id);
+        }
+    }
+
+    @Override
+    protected String getId(Annotation annotation) {
+        return annotation.id;
+    }
+
+    @Override
+    protected Set<String> getMirroredIds(String groupId) {
+        return mirror.getAnnotationIds(groupId);
+    }
+
+    @Override
+    protected void putInMirror(String groupId, Collection<Annotation> annotations) {
+        mirror.putAnnotations(groupId, annotations);
+    }
+
+    @Override
+    protected void removeFromMirror(String groupId, Collection<String> annotationIds) {
+        mirror.removeAnnotations(groupId, annotationIds);
+    }
+
+    /**
+     * Fetches all the pages of annotations.
+     *
+     * @return the server time of the first request
+     */
+    private Date fetchAnnotations(AnnotationRequestParameters params, List<Annotation> annotations)
+            throws MendeleyException {
+        AnnotationList list = sdk.getAnnotations(params);
+        final Date serverDate = list.serverDate;
+        annotations.addAll(list.annotations);
+        while (Page.isValidPage(list.next)) {
+            list = sdk.getAnnotations(list.next);
+            annotations.addAll(list.annotations);
+        }
+        return serverDate;
+    }
+
+    private AnnotationRequestParameters createParameters(String groupId) {
+        final AnnotationRequestParameters params = new AnnotationRequestParameters();
+        params.groupId = groupId;
+        params.includeTrashed = includeTrashed;
+        params.limit = PAGE_SIZE;
+        return params;
+    }
+}
@@ -0,0 +1,59 @@
+package com.mendeley.api.sync;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The changes applied to a mirror by one sync of a collection.
+ *
+ * @param <T> the type of the synced models
+ */
+public class ChangeSet<T> {
+    /**
+     * Group ID, or null for the user's library.
+     */
+    public final String groupId;
+
+    /**
+     * Models which were not held by the mirror before the sync.
+     */
+    public final List<T> added;
+
+    /**
+     * Models which were held by the mirror, and have been modified since the previous sync.
+     */
+    public final List<T> updated;
+
+    /**
+     * Ids of the models removed from the mirror.
+     */
+    public final List<String> deletedIds;
+
+    /**
+     * True if the whole collection was fetched, because it had never been synced.
+     */
+    public final boolean fullSync;
+
+    /**
+     * Server time up to which the collection is now up to date, or null if the server did not report it.
+     */
+    public final Date serverDate;
+
+    public ChangeSet(String groupId, List<T> added, List<T> updated,
+                     List<String> deletedIds, boolean fullSync, Date serverDate) {
+        this.groupId = groupId;
+        this.added = Collections.unmodifiableList(added);
+        this.updated = Collections.unmodifiableList(updated);
+        this.deletedIds = Collections.unmodifiableList(deletedIds);
+        this.fullSync = fullSync;
+        this.serverDate = serverDate;
+    }
+
+    /**
+     * @return true if the sync did not change the mirror.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && updated.isEmpty() && deletedIds.isEmpty();
+    }
+}
@@ -0,0 +1,29 @@
+package com.mendeley.api.sync;
+
+import com.mendeley.api.model.Document;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Local copy of the documents of the user's library and of their groups, kept up to date
+ * by {@link DocumentSyncEngine}.
+ * <p>
+ * In every method, a null groupId stands for the user's own library.
+ */
+public interface DocumentMirror {
+    /**
+     * @return the ids of the documents held for the collection
+     */
+    Set<String> getDocumentIds(String groupId);
+
+    /**
+     * Adds the documents, replacing any held with the same ids.
+     */
+    void putDocuments(String groupId, Collection<Document> documents);
+
+    /**
+     * Removes the documents with the given ids, ignoring those not held.
+     */
+    void removeDocuments(String groupId, Collection<String> documentIds);
+}
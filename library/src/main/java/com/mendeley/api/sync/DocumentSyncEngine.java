@@ -0,0 +1,101 @@
+package com.mendeley.api.sync;
+
+import com.mendeley.api.BlockingSdk;
+import com.mendeley.api.callbacks.document.DocumentIdList;
+import com.mendeley.api.callbacks.document.DocumentList;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.model.Document;
+import com.mendeley.api.model.DocumentId;
+import com.mendeley.api.params.DocumentRequestParameters;
+import com.mendeley.api.params.Page;
+import com.mendeley.api.params.View;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps a {@link DocumentMirror} up to date with the server, fetching only the documents
+ * modified or deleted since the previous sync of each collection, as described in
+ * {@link SyncEngine}.
+ */
+public class DocumentSyncEngine extends SyncEngine<Document> {
+    private final BlockingSdk sdk;
+    private final DocumentMirror mirror;
+
+    private volatile View view = View.ALL;
+
+    public DocumentSyncEngine(BlockingSdk sdk, SyncCursorStore cursorStore, DocumentMirror mirror) {
+        super(cursorStore, "documents");
+        this.sdk = sdk;
+        this.mirror = mirror;
+    }
+
+    /**
+     * Sets the view of the documents fetched, {@link View#ALL} by default.
+     */
+    public void setView(View view) {
+        this.view = view;
+    }
+
+    @Override
+    protected Date fetch(String groupId, String modifiedSince, List<Document> documents)
+            throws MendeleyException {
+        final DocumentRequestParameters params = createParameters(groupId);
+        params.view = view;
+        params.modifiedSince = modifiedSince;
+        DocumentList list = sdk.getDocuments(params);
+        final Date serverDate = list.serverDate;
+        documents.addAll(list.documents);
+        while (Page.isValidPage(list.next)) {
+            list = sdk.getDocuments(list.next);
+            documents.addAll(list.documents);
+        }
+        return serverDate;
+    }
+
+    @Override
+    protected void fetchDeletedIds(String groupId, String deletedSince, List<String> ids)
+            throws MendeleyException {
+        DocumentIdList list = sdk.getDeletedDocuments(deletedSince, createParameters(groupId));
+        addIds(list, ids);
+        while (Page.isValidPage(list.next)) {
+            list = sdk.getDeletedDocuments(list.next);
+            addIds(list, ids);
+        }
+    }
+
+    @Override
+    protected String getId(Document document) {
+        return document.id;
+    }
+
+    @Override
+    protected Set<String> getMirroredIds(String groupId) {
+        return mirror.getDocumentIds(groupId);
+    }
+
+    @Override
+    protected void putInMirror(String groupId, Collection<Document> documents) {
+        mirror.putDocuments(groupId, documents);
+    }
+
+    @Override
+    protected void removeFromMirror(String groupId, Collection<String> documentIds) {
+        mirror.removeDocuments(groupId, documentIds);
+    }
+
+    private static void addIds(DocumentIdList list, List<String> ids) {
+        for (DocumentId documentId : list.documentIds) {
+            ids.add(documentId.id);
+        }
+    }
+
+    private static DocumentRequestParameters createParameters(String groupId) {
+        final DocumentRequestParameters params = new DocumentRequestParameters();
+        params.groupId = groupId;
+        params.limit = PAGE_SIZE;
+        return params;
+    }
+}
@@ -0,0 +1,337 @@
+package com.mendeley.api.sync;
+
+import com.mendeley.api.BlockingSdk;
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.impl.PageCursors;
+import com.mendeley.api.model.Folder;
+import com.mendeley.api.params.FolderRequestParameters;
+import com.mendeley.api.util.PageCursor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * The hierarchy of the folders of the user's library or of a group, indexed by parent.
+ * <p>
+ * The folders, their children and the ids of their ancestors are looked up in constant time.
+ * The tree is kept up to date in place by its {@link #postFolder}, {@link #patchFolder} and
+ * {@link #deleteFolder} methods, or by {@link #put} and {@link #remove} for folders changed
+ * otherwise, without fetching the folders again.
+ * <p>
+ * The methods calling the server block, so they must not be called on the UI thread.
+ */
+public class FolderTree {
+    /**
+     * The largest page size allowed by the server.
+     */
+    private static final int PAGE_SIZE = 500;
+    private static final int PREFETCH_DEPTH = 2;
+
+    private final BlockingSdk sdk;
+    private final String groupId;
+    private final Executor executor;
+
+    private final Map<String, Folder> folders = new HashMap<String, Folder>();
+    private final Map<String, Set<String>> childrenByParent = new HashMap<String, Set<String>>();
+    // Ids of the ancestors of each folder, from the root down to the parent
+    private final Map<String, List<String>> ancestorIds = new HashMap<String, List<String>>();
+
+    /**
+     * Creates an empty tree; call {@link #load()} to fetch the folders.
+     *
+     * @param groupId group ID, or null for the user's library
+     * @param executor prefetches the pages of folders in {@link #load()}, e.g. the executor of the SDK
+     */
+    public FolderTree(BlockingSdk sdk, String groupId, Executor executor) {
+        this.sdk = sdk;
+        this.groupId = groupId;
+        this.executor = executor;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    /**
+     * Fetches all the folders, replacing the content of the tree. The following pages are
+     * requested while the previous ones are indexed.
+     */
+    public void load() throws MendeleyException {
+        final FolderRequestParameters params = new FolderRequestParameters();
+        params.groupId = groupId;
+        params.limit = PAGE_SIZE;
+        final PageCursors cursors = new PageCursors(sdk, executor);
+        cursors.setPrefetchDepth(PREFETCH_DEPTH);
+        final PageCursor<Folder> cursor = cursors.folders(params);
+        final List<Folder> fetched = new ArrayList<Folder>();
+        try {
+            while (cursor.hasNext()) {
+                fetched.add(cursor.next());
+            }
+        } finally {
+            cursor.close();
+        }
+        setFolders(fetched);
+    }
+
+    /**
+     * Replaces the content of the tree.
+     */
+    public synchronized void setFolders(Collection<Folder> all) {
+        folders.clear();
+        childrenByParent.clear();
+        ancestorIds.clear();
+        for (Folder folder : all) {
+            folders.put(folder.id, folder);
+            getChildSet(folder.parentId).add(folder.id);
+        }
+        for (String id : folders.keySet()) {
+            computeAncestors(id, new HashSet<String>());
+        }
+    }
+
+    /* LOOKUPS */
+
+    public synchronized int size() {
+        return folders.size();
+    }
+
+    /**
+     * @return the folder, or null if it is not in the tree
+     */
+    public synchronized Folder getFolder(String folderId) {
+        return folders.get(folderId);
+    }
+
+    /**
+     * @return the parent of the folder, or null for a top level folder
+     */
+    public synchronized Folder getParent(String folderId) {
+        final Folder folder = folders.get(folderId);
+        return folder != null && folder.parentId != null ? folders.get(folder.parentId) : null;
+    }
+
+    /**
+     * @return the top level folders, including those whose parent is not in the tree
+     */
+    public synchronized List<Folder> getRoots() {
+        final List<Folder> roots = new ArrayList<Folder>();
+        for (Folder folder : folders.values()) {
+            if (folder.parentId == null || !folders.containsKey(folder.parentId)) {
+                roots.add(folder);
+            }
+        }
+        return roots;
+    }
+
+    public synchronized List<Folder> getChildren(String folderId) {
+        final Set<String> ids = childrenByParent.get(folderId);
+        return ids == null ? Collections.<Folder>emptyList() : toFolders(ids);
+    }
+
+    /**
+     * @return the ids of the ancestors of the folder, from the top level folder down to its parent
+     */
+    public synchronized List<String> getAncestorIds(String folderId) {
+        final List<String> ids = ancestorIds.get(folderId);
+        return ids == null ? Collections.<String>emptyList() : ids;
+    }
+
+    /**
+     * @return the ancestors of the folder, from the top level folder down to its parent
+     */
+    public synchronized List<Folder> getAncestors(String folderId) {
+        return toFolders(getAncestorIds(folderId));
+    }
+
+    /**
+     * @return the subfolders of the folder at every depth, parents before their children
+     */
+    public synchronized List<Folder> getDescendants(String folderId) {
+        final List<Folder> descendants = new ArrayList<Folder>();
+        final Set<String> visited = new HashSet<String>();
+        visited.add(folderId);
+        collectDescendants(folderId, visited, descendants);
+        return descendants;
+    }
+
+    /**
+     * @return true if the first folder contains the second one, at any depth
+     */
+    public synchronized boolean isAncestor(String ancestorId, String folderId) {
+        return getAncestorIds(folderId).contains(ancestorId);
+    }
+
+    /* CHANGES */
+
+    /**
+     * Creates a folder on the server and adds it to the tree.
+     */
+    public Folder postFolder(Folder folder) throws MendeleyException {
+        final Folder posted = sdk.postFolder(folder);
+        put(posted);
+        return posted;
+    }
+
+    /**
+     * Updates a folder on the server, e.g. to rename or move it, and in the tree.
+     */
+    public Folder patchFolder(String folderId, Folder folder) throws MendeleyException {
+        final Folder patched = sdk.patchFolder(folderId, folder);
+        put(patched != null ? patched : merge(folderId, folder));
+        return patched;
+    }
+
+    /**
+     * Deletes a folder on the server, and removes it and its subfolders from the tree.
+     */
+    public void deleteFolder(String folderId) throws MendeleyException {
+        sdk.deleteFolder(folderId);
+        remove(folderId);
+    }
+
+    /**
+     * Adds a folder to the tree, or updates it if it is already there. Moving a folder updates
+     * the ancestors of its subfolders.
+     */
+    public synchronized void put(Folder folder) {
+        final Folder previous = folders.put(folder.id, folder);
+        if (previous != null && !equal(previous.parentId, folder.parentId)) {
+            removeChild(previous.parentId, folder.id);
+        }
+        getChildSet(folder.parentId).add(folder.id);
+        // A new folder may also be the parent of folders already in the tree
+        if (previous == null || !equal(previous.parentId, folder.parentId)) {
+            updateAncestors(folder.id);
+        }
+    }
+
+    /**
+     * Removes a folder and its subfolders from the tree.
+     *
+     * @return the ids of the removed folders
+     */
+    public synchronized List<String> remove(String folderId) {
+        final List<String> removed = new ArrayList<String>();
+        final Folder folder = folders.get(folderId);
+        if (folder == null) {
+            return removed;
+        }
+        for (Folder descendant : getDescendants(folderId)) {
+            removed.add(descendant.id);
+        }
+        removed.add(0, folderId);
+        for (String id : removed) {
+            folders.remove(id);
+            ancestorIds.remove(id);
+            childrenByParent.remove(id);
+        }
+        removeChild(folder.parentId, folderId);
+        return removed;
+    }
+
+    private void updateAncestors(String folderId) {
+        ancestorIds.remove(folderId);
+        computeAncestors(folderId, new HashSet<String>());
+        for (Folder descendant : getDescendants(folderId)) {
+            ancestorIds.remove(descendant.id);
+        }
+        for (Folder descendant : getDescendants(folderId)) {
+            computeAncestors(descendant.id, new HashSet<String>());
+        }
+    }
+
+    /**
+     * @param visiting the folders whose ancestors are being computed, to stop at cycles
+     */
+    private List<String> computeAncestors(String folderId, Set<String> visiting) {
+        final List<String> known = ancestorIds.get(folderId);
+        if (known != null) {
+            return known;
+        }
+        final Folder folder = folders.get(folderId);
+        final List<String> ancestors = new ArrayList<String>();
+        if (folder != null && folder.parentId != null && folders.containsKey(folder.parentId)
+                && visiting.add(folderId)) {
+            ancestors.addAll(computeAncestors(folder.parentId, visiting));
+            ancestors.add(folder.parentId);
+        }
+        final List<String> result = Collections.unmodifiableList(ancestors);
+        ancestorIds.put(folderId, result);
+        return result;
+    }
+
+    /**
+     * @param visited the folders already reached, to stop at cycles in inconsistent data
+     */
+    private void collectDescendants(String folderId, Set<String> visited, List<Folder> descendants) {
+        final Set<String> children = childrenByParent.get(folderId);
+        if (children == null) {
+            return;
+        }
+        for (String childId : children) {
+            final Folder child = folders.get(childId);
+            if (child != null && visited.add(childId)) {
+                descendants.add(child);
+                collectDescendants(childId, visited, descendants);
+            }
+        }
+    }
+
+    private Set<String> getChildSet(String parentId) {
+        Set<String> children = childrenByParent.get(parentId);
+        if (children == null) {
+            children = new LinkedHashSet<String>();
+            childrenByParent.put(parentId, children);
+        }
+        return children;
+    }
+
+    private void removeChild(String parentId, String childId) {
+        final Set<String> children = childrenByParent.get(parentId);
+        if (children != null) {
+            children.remove(childId);
+            if (children.isEmpty()) {
+                childrenByParent.remove(parentId);
+            }
+        }
+    }
+
+    private synchronized Folder merge(String folderId, Folder changes) {
+        final Folder existing = folders.get(folderId);
+        if (existing == null) {
+            return new Folder.Builder(changes).setId(folderId).build();
+        }
+        final Folder.Builder builder = new Folder.Builder(existing);
+        if (changes.name != null) {
+            builder.setName(changes.name);
+        }
+        if (changes.parentId != null) {
+            builder.setParentId(changes.parentId);
+        }
+        return builder.build();
+    }
+
+    private List<Folder> toFolders(Collection<String> ids) {
+        final List<Folder> result = new ArrayList<Folder>(ids.size());
+        for (String id : ids) {
+            final Folder folder = folders.get(id);
+            if (folder != null) {
+                result.add(folder);
+            }
+        }
+        return result;
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,113 @@
+package com.mendeley.api.sync;
+
+import com.mendeley.api.model.Annotation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link AnnotationMirror} keeping the annotations in memory, indexed by document and by the
+ * hash of the file they were made on, so that the annotations of an opened file can be shown
+ * before syncing.
+ */
+public class InMemoryAnnotationMirror implements AnnotationMirror {
+    private final Map<String, Map<String, Annotation>> collections = new HashMap<String, Map<String, Annotation>>();
+    private final Map<String, Map<String, Annotation>> byDocumentId = new HashMap<String, Map<String, Annotation>>();
+    private final Map<String, Map<String, Annotation>> byFileHash = new HashMap<String, Map<String, Annotation>>();
+
+    /**
+     * @return the annotations held for the document, in every collection
+     */
+    public synchronized List<Annotation> getAnnotationsByDocumentId(String documentId) {
+        return copy(byDocumentId.get(documentId));
+    }
+
+    /**
+     * @return the annotations held for the file with the given hash, in every collection
+     */
+    public synchronized List<Annotation> getAnnotationsByFileHash(String fileHash) {
+        return copy(byFileHash.get(fileHash));
+    }
+
+    /**
+     * @return a copy of the annotations held for the collection
+     */
+    public synchronized List<Annotation> getAnnotations(String groupId) {
+        return copy(collections.get(groupId));
+    }
+
+    @Override
+    public synchronized Set<String> getAnnotationIds(String groupId) {
+        final Map<String, Annotation> collection = collections.get(groupId);
+        return collection == null ? new HashSet<String>() : new HashSet<String>(collection.keySet());
+    }
+
+    @Override
+    public synchronized void putAnnotations(String groupId, Collection<Annotation> annotations) {
+        final Map<String, Annotation> collection = getMap(collections, groupId);
+        for (Annotation annotation : annotations) {
+            final Annotation previous = collection.put(annotation.id, annotation);
+            if (previous != null) {
+                unindex(previous);
+            }
+            if (annotation.documentId != null) {
+                getMap(byDocumentId, annotation.documentId).put(annotation.id, annotation);
+            }
+            if (annotation.fileHash != null) {
+                getMap(byFileHash, annotation.fileHash).put(annotation.id, annotation);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void removeAnnotations(String groupId, Collection<String> annotationIds) {
+        final Map<String, Annotation> collection = collections.get(groupId);
+        if (collection == null) {
+            return;
+        }
+        for (String id : annotationIds) {
+            final Annotation previous = collection.remove(id);
+            if (previous != null) {
+                unindex(previous);
+            }
+        }
+    }
+
+    private void unindex(Annotation annotation) {
+        removeFromIndex(byDocumentId, annotation.documentId, annotation.id);
+        removeFromIndex(byFileHash, annotation.fileHash, annotation.id);
+    }
+
+    private static void removeFromIndex(Map<String, Map<String, Annotation>> index, String key, String id) {
+        if (key == null) {
+            return;
+        }
+        final Map<String, Annotation> annotations = index.get(key);
+        if (annotations != null) {
+            annotations.remove(id);
+            if (annotations.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static Map<String, Annotation> getMap(Map<String, Map<String, Annotation>> maps, String key) {
+        Map<String, Annotation> map = maps.get(key);
+        if (map == null) {
+            map = new LinkedHashMap<String, Annotation>();
+            maps.put(key, map);
+        }
+        return map;
+    }
+
+    private static List<Annotation> copy(Map<String, Annotation> annotations) {
+        return annotations == null ? Collections.<Annotation>emptyList() : new ArrayList<Annotation>(annotations.values());
+    }
+}
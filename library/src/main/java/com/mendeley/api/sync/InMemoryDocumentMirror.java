@@ -0,0 +1,63 @@
+package com.mendeley.api.sync;
+
+import com.mendeley.api.model.Document;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link DocumentMirror} keeping the documents in memory.
+ */
+public class InMemoryDocumentMirror implements DocumentMirror {
+    private final Map<String, Map<String, Document>> collections = new HashMap<String, Map<String, Document>>();
+
+    /**
+     * @return the document, or null if it is not held
+     */
+    public synchronized Document getDocument(String groupId, String documentId) {
+        return getCollection(groupId).get(documentId);
+    }
+
+    /**
+     * @return a copy of the documents held for the collection
+     */
+    public synchronized List<Document> getDocuments(String groupId) {
+        return new ArrayList<Document>(getCollection(groupId).values());
+    }
+
+    @Override
+    public synchronized Set<String> getDocumentIds(String groupId) {
+        return new HashSet<String>(getCollection(groupId).keySet());
+    }
+
+    @Override
+    public synchronized void putDocuments(String groupId, Collection<Document> documents) {
+        final Map<String, Document> collection = getCollection(groupId);
+        for (Document document : documents) {
+            collection.put(document.id, document);
+        }
+    }
+
+    @Override
+    public synchronized void removeDocuments(String groupId, Collection<String> documentIds) {
+        final Map<String, Document> collection = getCollection(groupId);
+        for (String id : documentIds) {
+            collection.remove(id);
+        }
+    }
+
+    private Map<String, Document> getCollection(String groupId) {
+        Map<String, Document> collection = collections.get(groupId);
+        if (collection == null) {
+            collection = new LinkedHashMap<String, Document>();
+            collections.put(groupId, collection);
+        }
+        return collection;
+    }
+}
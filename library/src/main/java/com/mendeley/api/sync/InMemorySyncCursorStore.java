@@ -0,0 +1,31 @@
+package com.mendeley.api.sync;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the sync cursors in memory, for mirrors which do not outlive the process.
+ */
+public class InMemorySyncCursorStore implements SyncCursorStore {
+    private final Map<String, String> cursors = new HashMap<String, String>();
+
+    @Override
+    public synchronized String getCursor(String collection) {
+        return cursors.get(collection);
+    }
+
+    @Override
+    public synchronized void setCursor(String collection, String cursor) {
+        cursors.put(collection, cursor);
+    }
+
+    @Override
+    public synchronized void removeCursor(String collection) {
+        cursors.remove(collection);
+    }
+
+    @Override
+    public synchronized void clear() {
+        cursors.clear();
+    }
+}
@@ -0,0 +1,48 @@
+package com.mendeley.api.sync;
+
+import android.content.SharedPreferences;
+
+import java.util.Map;
+
+/**
+ * Keeps the sync cursors in SharedPreferences, so that they survive process restarts along
+ * with a persistent mirror.
+ * <p>
+ * The preferences should be dedicated to the cursors, as {@link #clear()} removes all their keys
+ * starting with the cursor prefix.
+ */
+public class SharedPreferencesSyncCursorStore implements SyncCursorStore {
+    private static final String KEY_PREFIX = "syncCursor:";
+
+    private final SharedPreferences preferences;
+
+    public SharedPreferencesSyncCursorStore(SharedPreferences preferences) {
+        this.preferences = preferences;
+    }
+
+    @Override
+    public String getCursor(String collection) {
+        return preferences.getString(KEY_PREFIX + collection, null);
+    }
+
+    @Override
+    public void setCursor(String collection, String cursor) {
+        preferences.edit().putString(KEY_PREFIX + collection, cursor).commit();
+    }
+
+    @Override
+    public void removeCursor(String collection) {
+        preferences.edit().remove(KEY_PREFIX + collection).commit();
+    }
+
+    @Override
+    public void clear() {
+        final SharedPreferences.Editor editor = preferences.edit();
+        for (Map.Entry<String, ?> entry : preferences.getAll().entrySet()) {
+            if (entry.getKey().startsWith(KEY_PREFIX)) {
+                editor.remove(entry.getKey());
+            }
+        }
+        editor.commit();
+    }
+}
@@ -0,0 +1,21 @@
+package com.mendeley.api.sync;
+
+/**
+ * Stores the cursors of the synchronised collections, i.e. the server time up to which the
+ * local copy of each collection is known to be up to date.
+ */
+public interface SyncCursorStore {
+    /**
+     * @return the cursor of the collection, as an ISO 8601 timestamp, or null if it has never been synced.
+     */
+    String getCursor(String collection);
+
+    void setCursor(String collection, String cursor);
+
+    void removeCursor(String collection);
+
+    /**
+     * Removes all the cursors, so that every collection is fully synced next time.
+     */
+    void clear();
+}
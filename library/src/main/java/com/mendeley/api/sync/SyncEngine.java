@@ -0,0 +1,180 @@
+package com.mendeley.api.sync;
+
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.util.DateUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps a local mirror of a kind of model up to date with the server, fetching only the models
+ * modified or deleted since the previous sync of each collection.
+ * <p>
+ * The first sync of a collection fetches all its models. Afterwards, the engine requests the
+ * models with modified_since, and the deleted ids with deleted_since, set to the cursor of the
+ * collection. The cursor is the time reported by the server at the start of the previous sync,
+ * so it does not depend on the device clock, and is only advanced once the changes have been
+ * applied to the mirror.
+ * <p>
+ * Subclasses fetch the models and the deleted ids, and apply the changes to their mirror.
+ * The methods block, so they must not be called on the UI thread.
+ *
+ * @param <T> the type of the synced models
+ */
+public abstract class SyncEngine<T> {
+    /**
+     * The largest page size allowed by the server, to sync with as few requests as possible.
+     */
+    protected static final int PAGE_SIZE = 500;
+
+    private final SyncCursorStore cursorStore;
+    private final String userLibraryKey;
+    private final String groupKeyPrefix;
+
+    /**
+     * @param collectionName prefix of the keys of the cursors, which keeps them apart from
+     *                       those of the other engines sharing the cursor store
+     */
+    protected SyncEngine(SyncCursorStore cursorStore, String collectionName) {
+        this.cursorStore = cursorStore;
+        this.userLibraryKey = collectionName;
+        this.groupKeyPrefix = collectionName + "/group/";
+    }
+
+    /**
+     * Syncs the user's library.
+     */
+    public ChangeSet<T> sync() throws MendeleyException {
+        return sync(null);
+    }
+
+    /**
+     * Syncs a group, or the user's library if groupId is null.
+     */
+    public synchronized ChangeSet<T> sync(String groupId) throws MendeleyException {
+        final String collection = getCollectionKey(groupId);
+        final String cursor = cursorStore.getCursor(collection);
+        final ChangeSet<T> changes = cursor == null ? fullSync(groupId) : incrementalSync(groupId, cursor);
+        if (changes.serverDate != null) {
+            cursorStore.setCursor(collection, DateUtils.formatMendeleyApiTimestamp(changes.serverDate));
+        }
+        return changes;
+    }
+
+    /**
+     * Syncs the user's library and then each of the groups.
+     *
+     * @return the change sets, in the same order
+     */
+    public List<ChangeSet<T>> syncAll(List<String> groupIds) throws MendeleyException {
+        final List<ChangeSet<T>> changes = new ArrayList<ChangeSet<T>>(groupIds.size() + 1);
+        changes.add(sync(null));
+        for (String groupId : groupIds) {
+            changes.add(sync(groupId));
+        }
+        return changes;
+    }
+
+    /**
+     * Forgets the cursor of a collection, so that the next sync fetches all its models.
+     * Useful if the mirror has lost its content.
+     */
+    public void reset(String groupId) {
+        cursorStore.removeCursor(getCollectionKey(groupId));
+    }
+
+    /**
+     * @return the cursor of the collection, or null if it has never been synced
+     */
+    public String getCursor(String groupId) {
+        return cursorStore.getCursor(getCollectionKey(groupId));
+    }
+
+    /**
+     * Fetches all the pages of models of the collection.
+     *
+     * @param modifiedSince only fetch the models modified since this time, if not null
+     * @return the server time of the first request
+     */
+    protected abstract Date fetch(String groupId, String modifiedSince, List<T> models) throws MendeleyException;
+
+    /**
+     * Fetches all the pages of ids of the models of the collection deleted since the given time.
+     */
+    protected abstract void fetchDeletedIds(String groupId, String deletedSince, List<String> ids)
+            throws MendeleyException;
+
+    protected abstract String getId(T model);
+
+    /**
+     * @return the ids of the models held by the mirror for the collection
+     */
+    protected abstract Set<String> getMirroredIds(String groupId);
+
+    protected abstract void putInMirror(String groupId, Collection<T> models);
+
+    protected abstract void removeFromMirror(String groupId, Collection<String> ids);
+
+    private ChangeSet<T> fullSync(String groupId) throws MendeleyException {
+        final List<T> models = new ArrayList<T>();
+        final Date serverDate = fetch(groupId, null, models);
+
+        final Set<String> previousIds = getMirroredIds(groupId);
+        final Set<String> fetchedIds = new HashSet<String>();
+        for (T model : models) {
+            fetchedIds.add(getId(model));
+        }
+        final List<String> deletedIds = new ArrayList<String>();
+        for (String id : previousIds) {
+            if (!fetchedIds.contains(id)) {
+                deletedIds.add(id);
+            }
+        }
+        return apply(groupId, previousIds, models, deletedIds, true, serverDate);
+    }
+
+    private ChangeSet<T> incrementalSync(String groupId, String cursor) throws MendeleyException {
+        final List<T> models = new ArrayList<T>();
+        final Date serverDate = fetch(groupId, cursor, models);
+
+        final List<String> deletedIds = new ArrayList<String>();
+        fetchDeletedIds(groupId, cursor, deletedIds);
+
+        return apply(groupId, getMirroredIds(groupId), models, deletedIds, false, serverDate);
+    }
+
+    private ChangeSet<T> apply(String groupId, Set<String> previousIds, List<T> models,
+                               List<String> deletedIds, boolean fullSync, Date serverDate) {
+        final List<T> added = new ArrayList<T>();
+        final List<T> updated = new ArrayList<T>();
+        for (T model : models) {
+            if (previousIds.contains(getId(model))) {
+                updated.add(model);
+            } else {
+                added.add(model);
+            }
+        }
+        final List<String> removed = new ArrayList<String>();
+        for (String id : deletedIds) {
+            if (previousIds.contains(id)) {
+                removed.add(id);
+            }
+        }
+
+        if (!models.isEmpty()) {
+            putInMirror(groupId, models);
+        }
+        if (!removed.isEmpty()) {
+            removeFromMirror(groupId, removed);
+        }
+        return new ChangeSet<T>(groupId, added, updated, removed, fullSync, serverDate);
+    }
+
+    private String getCollectionKey(String groupId) {
+        return groupId == null ? userLibraryKey : groupKeyPrefix + groupId;
+    }
+}
@@ -0,0 +1,53 @@
+package com.mendeley.api.util;
+
+import java.util.ArrayDeque;
+
+/**
+ * A pool of byte arrays of the same size, so that large transfer buffers are reused instead of
+ * being allocated and collected for every download.
+ */
+public class BufferPool {
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ArrayDeque<byte[]> buffers = new ArrayDeque<byte[]>();
+
+    /**
+     * @param bufferSize the size of the buffers
+     * @param maxPooled the number of idle buffers kept for reuse
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * @return an idle buffer, or a new one if there is none
+     */
+    public byte[] acquire() {
+        synchronized (buffers) {
+            final byte[] buffer = buffers.poll();
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+        return new byte[bufferSize];
+    }
+
+    /**
+     * Returns a buffer obtained from {@link #acquire}, which must not be used any more.
+     */
+    public void release(byte[] buffer) {
+        if (buffer == null || buffer.length != bufferSize) {
+            return;
+        }
+        synchronized (buffers) {
+            if (buffers.size() < maxPooled) {
+                buffers.push(buffer);
+            }
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
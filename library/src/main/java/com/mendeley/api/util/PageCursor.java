@@ -0,0 +1,263 @@
+package com.mendeley.api.util;
+
+import com.mendeley.api.exceptions.MendeleyException;
+import com.mendeley.api.params.Page;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+
+/**
+ * Lazily iterates over the items of all the pages of a paged call.
+ * <p>
+ * While the items of one page are consumed, the following pages are fetched in the background,
+ * up to a number of pages ahead and a number of items held in memory. The first page is only
+ * requested when the cursor is first used.
+ *
+ * @param <T> the type of the items
+ */
+public class PageCursor<T> {
+    public static final int DEFAULT_PREFETCH_DEPTH = 1;
+    public static final int DEFAULT_MAX_BUFFERED_ITEMS = 2000;
+
+    /**
+     * Fetches the pages of a call.
+     *
+     * @param <L> the type of a page of results, e.g. DocumentList
+     * @param <T> the type of the items
+     */
+    public interface PageSource<L, T> {
+        L getFirstPage() throws MendeleyException;
+
+        L getPage(Page page) throws MendeleyException;
+
+        List<T> getItems(L list);
+
+        Page getNextPage(L list);
+    }
+
+    /**
+     * Thrown by the iterator returned from {@link #asIterable()} when a page cannot be fetched.
+     */
+    public static class PageFetchException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public PageFetchException(MendeleyException cause) {
+            super(cause.getMessage(), cause);
+        }
+
+        @Override
+        public MendeleyException getCause() {
+            return (MendeleyException) super.getCause();
+        }
+    }
+
+    private final PageSource<?, T> source;
+    private final Executor executor;
+    private final int prefetchDepth;
+    private final int maxBufferedItems;
+
+    private final LinkedList<List<T>> buffered = new LinkedList<List<T>>();
+    private int bufferedItems;
+    private Iterator<T> current = Collections.<T>emptyList().iterator();
+
+    private boolean started;
+    private Page nextPage;
+    private boolean fetching;
+    private boolean exhausted;
+    private boolean closed;
+    private MendeleyException error;
+
+    /**
+     * @param source fetches the pages
+     * @param executor runs the page requests
+     * @param prefetchDepth number of pages fetched ahead of the page being consumed
+     * @param maxBufferedItems number of fetched items above which no more pages are prefetched
+     */
+    public PageCursor(PageSource<?, T> source, Executor executor, int prefetchDepth, int maxBufferedItems) {
+        this.source = source;
+        this.executor = executor;
+        this.prefetchDepth = Math.max(0, prefetchDepth);
+        this.maxBufferedItems = maxBufferedItems;
+    }
+
+    /**
+     * @return true if there are more items; blocks until the next page is fetched if needed
+     * @throws MendeleyException if a page could not be fetched
+     */
+    public boolean hasNext() throws MendeleyException {
+        if (current.hasNext()) {
+            return true;
+        }
+        synchronized (this) {
+            while (true) {
+                if (closed) {
+                    return false;
+                }
+                if (!buffered.isEmpty()) {
+                    final List<T> page = buffered.removeFirst();
+                    bufferedItems -= page.size();
+                    current = page.iterator();
+                    prefetch();
+                    if (current.hasNext()) {
+                        return true;
+                    }
+                    continue;
+                }
+                if (error != null) {
+                    throw error;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                prefetch();
+                if (buffered.isEmpty() && error == null && !exhausted) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new MendeleyException("Interrupted while waiting for the next page", e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the next item; blocks until the next page is fetched if needed
+     * @throws MendeleyException if a page could not be fetched
+     */
+    public T next() throws MendeleyException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Stops prefetching and releases the fetched pages. A request in progress is not interrupted,
+     * but its result is discarded.
+     */
+    public synchronized void close() {
+        closed = true;
+        buffered.clear();
+        bufferedItems = 0;
+        current = Collections.<T>emptyList().iterator();
+        notifyAll();
+    }
+
+    /**
+     * Returns the items as an Iterable, which can be iterated only once. Its iterator throws
+     * {@link PageFetchException} if a page cannot be fetched.
+     */
+    public Iterable<T> asIterable() {
+        return new Iterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new Iterator<T>() {
+                    @Override
+                    public boolean hasNext() {
+                        try {
+                            return PageCursor.this.hasNext();
+                        } catch (MendeleyException e) {
+                            throw new PageFetchException(e);
+                        }
+                    }
+
+                    @Override
+                    public T next() {
+                        try {
+                            return PageCursor.this.next();
+                        } catch (MendeleyException e) {
+                            throw new PageFetchException(e);
+                        }
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Starts fetching the next page if the limits allow it. Called with the lock held.
+     */
+    private void prefetch() {
+        if (fetching || exhausted || closed || error != null) {
+            return;
+        }
+        if (!buffered.isEmpty() && (buffered.size() > prefetchDepth - 1 || bufferedItems >= maxBufferedItems)) {
+            return;
+        }
+        if (buffered.isEmpty() && current.hasNext() && prefetchDepth == 0) {
+            return;
+        }
+        fetching = true;
+        final boolean first = !started;
+        final Page page = nextPage;
+        started = true;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                fetch(first, page);
+            }
+        });
+    }
+
+    private void fetch(boolean first, Page page) {
+        try {
+            final PageResult<T> result = PageResult.of(source, first, page);
+            final List<T> items = result.items;
+            final Page next = result.next;
+            synchronized (this) {
+                fetching = false;
+                if (closed) {
+                    return;
+                }
+                buffered.add(items);
+                bufferedItems += items.size();
+                nextPage = next;
+                exhausted = !Page.isValidPage(next);
+                notifyAll();
+                prefetch();
+            }
+        } catch (MendeleyException e) {
+            synchronized (this) {
+                fetching = false;
+                error = e;
+                notifyAll();
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                fetching = false;
+                error = new MendeleyException(String.valueOf(e.getMessage()), e);
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Captures the wildcard type of the page source.
+     */
+    private static class PageResult<T> {
+        final List<T> items;
+        final Page next;
+
+        private PageResult(List<T> items, Page next) {
+            this.items = items;
+            this.next = next;
+        }
+
+        static <L, T> PageResult<T> of(PageSource<L, T> source, boolean first, Page page) throws MendeleyException {
+            final L list = first ? source.getFirstPage() : source.getPage(page);
+            final List<T> items = source.getItems(list);
+            return new PageResult<T>(items != null ? items : Collections.<T>emptyList(), source.getNextPage(list));
+        }
+    }
+}
@@ -6,6 +6,9 @@ import android.net.NetworkInfo;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 
 /**
@@ -23,6 +26,30 @@ public class Utils {
         }
     }
 
+    /**
+     * @return the hex MD5 digest of the string, suitable as a cache file name.
+     */
+    public static String md5Hex(String value) {
+        try {
+            return toHex(MessageDigest.getInstance("MD5").digest(value.getBytes("UTF-8")));
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(value.hashCode());
+        } catch (UnsupportedEncodingException e) {
+            return Integer.toHexString(value.hashCode());
+        }
+    }
+
+    /**
+     * @return the bytes as lower case hexadecimal digits
+     */
+    public static String toHex(byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
     private static NetworkInfo getNetworkInfo(Context context) {
         final ConnectivityManager conMgr = (ConnectivityManager)context.getSystemService(Context.CONNECTIVITY_SERVICE);
         return conMgr.getActiveNetworkInfo();